@@ -0,0 +1,50 @@
+-- Upgrades a database created before the change feed and delta sync (V1: todo_items and todo_items_seq) to the
+-- schema that spring.jpa.hibernate.ddl-auto=validate expects. Run it once, with the application stopped:
+--   docker exec -i mysql_todoapp mysql -u todoapp_user -p todoapp_db < mysql/upgrade/V2__change_feed_and_delta_sync.sql
+-- Timestamps are stored in UTC (hibernate.jdbc.time_zone=UTC), hence UTC_TIMESTAMP.
+
+-- Delta sync: write timestamps on todo_items (TodoItem). Added nullable, backfilled, then made NOT NULL; existing
+-- items count as written by the upgrade, so the first sync after it returns them once
+ALTER TABLE todo_items
+    ADD COLUMN created_at DATETIME(6) NULL,
+    ADD COLUMN updated_at DATETIME(6) NULL;
+
+UPDATE todo_items SET created_at = UTC_TIMESTAMP(6), updated_at = UTC_TIMESTAMP(6) WHERE created_at IS NULL;
+
+ALTER TABLE todo_items
+    MODIFY COLUMN created_at DATETIME(6) NOT NULL,
+    MODIFY COLUMN updated_at DATETIME(6) NOT NULL;
+
+CREATE INDEX idx_todo_items_updated_at_id ON todo_items (updated_at, id);
+
+-- Delta sync: tombstones of deleted items (TodoItemTombstone)
+CREATE TABLE todo_item_tombstones (
+    deleted_at DATETIME(6) NOT NULL,
+    id BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_todo_item_tombstones_deleted_at_id ON todo_item_tombstones (deleted_at, id);
+
+-- Change feed: the append-only change log (ChangeLogEntry) and its sequence row (ChangeLogSequence)
+CREATE TABLE todo_change_log (
+    changed_at DATETIME(6) NOT NULL,
+    item_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    version BIGINT,
+    operation ENUM ('DELETE', 'UPSERT') NOT NULL,
+    PRIMARY KEY (seq)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_todo_change_log_item_seq ON todo_change_log (item_id, seq);
+CREATE INDEX idx_todo_change_log_changed_at ON todo_change_log (changed_at);
+
+CREATE TABLE todo_change_log_seq (
+    id INTEGER NOT NULL,
+    next_seq BIGINT NOT NULL,
+    purged_through BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- The servlet stack creates this row on startup; reactive instances expect it to exist
+INSERT INTO todo_change_log_seq (id, next_seq, purged_through) VALUES (1, 1, 0);
@@ -0,0 +1,82 @@
+package dev.sro.task1.benchmark;
+
+import dev.sro.task1.TaskA1EpamApplication;
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.service.TodoItemService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The whole application on an in-memory H2 database in MySQL mode ({@code application-benchmark.properties}),
+ * seeded with {@code rows} todo items through the bulk create path. Started once per fork, so every
+ * benchmark and table size gets a fresh database, caches and search indexes. Seeding leaves the JIT with
+ * the profile of the bulk insert path, hence the long warm-up of the benchmarks using this state.
+ */
+@State(Scope.Benchmark)
+public class SeededApplicationState {
+
+    static final String[] VERBS = {"Buy", "Call", "Fix", "Plan", "Read", "Clean", "Book", "Write"};
+    static final String[] OBJECTS = {
+            "groceries", "plumber", "car insurance", "vacation", "dentist", "birthday gift", "report",
+            "garden", "kitchen sink", "train tickets", "book club", "tax return", "bike", "laptop",
+            "parcel", "newsletter", "guitar strings", "passport", "roof", "budget", "wardrobe",
+            "photo album", "podcast", "windows", "bookshelf"};
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    public ConfigurableApplicationContext context;
+    public TodoItemService todoItemService;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(TaskA1EpamApplication.class)
+                .run("--spring.profiles.active=benchmark");
+        todoItemService = context.getBean(TodoItemService.class);
+        ids = seed(todoItemService, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * @return The ID of a random seeded todo item.
+     */
+    public long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    static TodoItem newTodoItem(int n) {
+        String object = OBJECTS[n % OBJECTS.length];
+        return new TodoItem(VERBS[n % VERBS.length] + " " + object + " " + n,
+                "Remember the " + object + " before Friday, note " + n + ": ask about the price and the delivery date.");
+    }
+
+    private static long[] seed(TodoItemService todoItemService, int rows) {
+        List<Long> seeded = new ArrayList<>(rows);
+        int batchSize = 5_000;
+        for (int from = 0; from < rows; from += batchSize) {
+            List<TodoItem> batch = new ArrayList<>(batchSize);
+            for (int n = from; n < Math.min(rows, from + batchSize); n++) {
+                batch.add(newTodoItem(n));
+            }
+            BatchCreateResult result = todoItemService.createTodoItems(batch);
+            result.created().forEach(created -> seeded.add(created.id()));
+        }
+        return seeded.stream().mapToLong(Long::longValue).toArray();
+    }
+}
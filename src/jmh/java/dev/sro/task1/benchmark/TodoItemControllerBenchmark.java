@@ -0,0 +1,61 @@
+package dev.sro.task1.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The controller dispatch path: DispatcherServlet, argument resolution, the service and JSON message
+ * conversion, through MockMvc on the application of {@link SeededApplicationState} (no network I/O):
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="TodoItemControllerBenchmark -p rows=10000"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TodoItemControllerBenchmark {
+
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplicationState app) throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) app.context).build();
+        // Fail fast instead of measuring error responses
+        mockMvc.perform(get("/api/todos/{id}", app.randomId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/todos").param("size", "20")).andExpect(status().isOk());
+    }
+
+    @Benchmark
+    public MvcResult getById(SeededApplicationState app) throws Exception {
+        return mockMvc.perform(get("/api/todos/{id}", app.randomId())).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getPage() throws Exception {
+        return mockMvc.perform(get("/api/todos").param("size", "20")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult searchByTitle() throws Exception {
+        return mockMvc.perform(get("/api/todos/search/title").param("query", "kitchen sink 1")).andReturn();
+    }
+}
@@ -0,0 +1,116 @@
+package dev.sro.task1.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import dev.sro.task1.codec.TodoProtobufMapper;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.proto.TodoProtos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode cost of a page of items (GET /api/todos) in every format the API negotiates, and
+ * the extra cost of gzip on top. The payload size of each format, plain and gzipped, is printed once
+ * per trial:
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="TodoItemFormatBenchmark -prof gc"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoItemFormatBenchmark {
+
+    private static final TypeReference<CursorPage<TodoItem>> PAGE = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    @Param({"1", "20", "100"})
+    private int items;
+
+    private CursorPage<TodoItem> page;
+    private ObjectMapper mapper; // null for Protocol Buffers
+    private ByteArrayOutputStream out;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<TodoItem> todoItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            todoItems.add(new TodoItem((long) i + 1, "Todo item number " + i,
+                    "Description of todo item " + i + " with enough text to look like a real note: "
+                            + "call the plumber, pick up the parcel, renew the car insurance before Friday.", 0L));
+        }
+        page = new CursorPage<>(todoItems, "MTAw");
+        mapper = switch (format) {
+            case "json" -> new ObjectMapper();
+            case "cbor" -> new ObjectMapper(new CBORFactory());
+            case "smile" -> new ObjectMapper(new SmileFactory());
+            default -> null;
+        };
+        out = new ByteArrayOutputStream(64 * 1024);
+        encode();
+        encoded = out.toByteArray();
+        int plainSize = encoded.length;
+        int gzippedSize = encodeGzipped();
+        System.out.printf("%n%s, %d items: %d bytes, %d bytes gzipped%n", format, items, plainSize, gzippedSize);
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        out.reset();
+        write(out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int encodeGzipped() throws IOException {
+        out.reset();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+            write(gzip);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public List<TodoItem> decode() throws IOException {
+        if (mapper == null) {
+            List<TodoProtos.TodoItem> messages = TodoProtos.TodoItemPage.parseFrom(encoded).getItemsList();
+            List<TodoItem> todoItems = new ArrayList<>(messages.size());
+            messages.forEach(message -> todoItems.add(TodoProtobufMapper.fromMessage(message)));
+            return todoItems;
+        }
+        return mapper.readValue(encoded, PAGE).items();
+    }
+
+    private void write(OutputStream target) throws IOException {
+        if (mapper == null) {
+            TodoProtobufMapper.toMessage(page).writeTo(target);
+        } else {
+            mapper.writeValue(target, page);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package dev.sro.task1.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sro.task1.cache.TodoItemJsonCache;
+import dev.sro.task1.cache.TodoItemJsonModule;
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.entity.TodoItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialize-per-request against the pre-serialized JSON cache, for one item (GET /api/todos/{id})
+ * and for a page of items (GET /api/todos). Both write to a reused buffer, like a servlet response,
+ * so {@code -prof gc} shows the allocations of the serialization alone:
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="TodoItemJsonBenchmark -prof gc"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoItemJsonBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int items;
+
+    private List<TodoItem> todoItems;
+    private ObjectMapper plainMapper;
+    private ObjectMapper cachingMapper;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setUp() throws IOException {
+        todoItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            TodoItem todoItem = new TodoItem("Todo item number " + i,
+                    "Description of todo item " + i + " with enough text to look like a real note: "
+                            + "call the plumber, pick up the parcel, renew the car insurance before Friday.");
+            todoItem.setId((long) i + 1);
+            todoItem.setVersion(0L);
+            todoItems.add(todoItem);
+        }
+        plainMapper = new ObjectMapper();
+        TodoItemJsonCache cache = new TodoItemJsonCache(new TodoProperties(), new SimpleMeterRegistry());
+        cachingMapper = new ObjectMapper().registerModule(new TodoItemJsonModule(cache));
+        out = new ByteArrayOutputStream(64 * 1024);
+        cachingMapper.writeValue(out, todoItems); // Warm the cache
+    }
+
+    @Benchmark
+    public int serializePerRequest() throws IOException {
+        out.reset();
+        plainMapper.writeValue(out, items == 1 ? todoItems.get(0) : todoItems);
+        return out.size();
+    }
+
+    @Benchmark
+    public int cachedJson() throws IOException {
+        out.reset();
+        cachingMapper.writeValue(out, items == 1 ? todoItems.get(0) : todoItems);
+        return out.size();
+    }
+}
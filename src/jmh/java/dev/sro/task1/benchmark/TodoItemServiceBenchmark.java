@@ -0,0 +1,113 @@
+package dev.sro.task1.benchmark;
+
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.repository.TodoItemRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TodoItemServiceImpl} through its Spring proxy (transactions, cache, search index maintenance)
+ * on H2, at the table sizes of {@link SeededApplicationState}:
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="TodoItemServiceBenchmark -p rows=10000"</pre>
+ * {@code repositoryFindById} reads the same rows as {@code findById} without the read-through cache.
+ * Items created during an iteration are deleted after it, so the table keeps its size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TodoItemServiceBenchmark {
+
+    private TodoItemRepository todoItemRepository;
+    private final List<Long> created = new ArrayList<>();
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplicationState app) {
+        todoItemRepository = app.context.getBean(TodoItemRepository.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteCreated(SeededApplicationState app) {
+        if (!created.isEmpty()) {
+            app.todoItemService.deleteTodoItems(created);
+            created.clear();
+        }
+    }
+
+    /**
+     * A fresh item for every {@code delete} call. Level.Invocation is fine here: a delete takes tens of
+     * microseconds, far above the setup overhead.
+     */
+    @State(Scope.Thread)
+    public static class ItemToDelete {
+
+        private int counter;
+        private Long id;
+
+        @Setup(Level.Invocation)
+        public void create(SeededApplicationState app) {
+            id = app.todoItemService.createTodoItem(SeededApplicationState.newTodoItem(counter++)).getId();
+        }
+    }
+
+    @Benchmark
+    public Optional<TodoItem> findById(SeededApplicationState app) {
+        return app.todoItemService.getTodoItemById(app.randomId());
+    }
+
+    @Benchmark
+    public Optional<TodoItem> repositoryFindById(SeededApplicationState app) {
+        return todoItemRepository.findById(app.randomId());
+    }
+
+    @Benchmark
+    public TodoItem create(SeededApplicationState app) {
+        TodoItem todoItem = app.todoItemService.createTodoItem(SeededApplicationState.newTodoItem(counter++));
+        created.add(todoItem.getId());
+        return todoItem;
+    }
+
+    @Benchmark
+    public TodoItem update(SeededApplicationState app) {
+        return app.todoItemService.updateTodoItem(app.randomId(), SeededApplicationState.newTodoItem(counter++));
+    }
+
+    @Benchmark
+    public Long delete(SeededApplicationState app, ItemToDelete item) {
+        app.todoItemService.deleteTodoItem(item.id);
+        return item.id;
+    }
+
+    @Benchmark
+    public List<TodoItem> searchByTitle(SeededApplicationState app) {
+        return app.todoItemService.searchTodoItemsByTitle("kitchen sink 1");
+    }
+
+    @Benchmark
+    public List<TodoItem> searchByTitleFuzzy(SeededApplicationState app) {
+        return app.todoItemService.searchTodoItemsByTitle("kitchn sink 1", 1);
+    }
+
+    @Benchmark
+    public List<TodoItem> searchByDescription(SeededApplicationState app) {
+        return app.todoItemService.searchTodoItemsByDescription("birthday gift before Friday, note 2");
+    }
+}
@@ -0,0 +1,47 @@
+package dev.sro.task1.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * The todo items known to exist on the server, to pick targets for reads, updates and deletes.
+ * Every item has a unique numeric key in its title ({@code "Buy groceries #42#"}), so a title search
+ * or delete-by-title can target a single item.
+ */
+final class ItemPool {
+
+    record Item(long id, long key) {
+    }
+
+    private final List<Item> items = new ArrayList<>();
+
+    synchronized void add(Item item) {
+        items.add(item);
+    }
+
+    synchronized int size() {
+        return items.size();
+    }
+
+    /**
+     * @return A random item, or null if the pool is empty.
+     */
+    synchronized Item random(RandomGenerator random) {
+        return items.isEmpty() ? null : items.get(random.nextInt(items.size()));
+    }
+
+    /**
+     * Removes a random item, so that no other operation targets it while it is being deleted.
+     *
+     * @return The removed item, or null if the pool is empty.
+     */
+    synchronized Item removeRandom(RandomGenerator random) {
+        if (items.isEmpty()) {
+            return null;
+        }
+        int index = random.nextInt(items.size());
+        Item last = items.remove(items.size() - 1);
+        return index == items.size() ? last : items.set(index, last);
+    }
+}
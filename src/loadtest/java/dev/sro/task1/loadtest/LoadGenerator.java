@@ -0,0 +1,143 @@
+package dev.sro.task1.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the workload and records the latency of every endpoint in microseconds.
+ * <p>
+ * Both arrival modes give every request an intended start time and measure its response time from there,
+ * so time spent queued behind a slow response counts, instead of being silently omitted (coordinated omission):
+ * <ul>
+ *     <li>Open loop: request {@code n} is intended to start at {@code n / rate}, and is started on its own
+ *     virtual thread whether or not earlier requests completed.</li>
+ *     <li>Closed loop: each user sends its next request once the previous one completed. With a rate, users are
+ *     paced to {@code users / rate} seconds between requests and fall behind their schedule when the server is
+ *     slow; without one there is no schedule to fall behind, and the response time is the service time.</li>
+ * </ul>
+ * The service time (from actual send to response) is recorded as well, to show how much the correction matters.
+ */
+final class LoadGenerator {
+
+    private final TodoApiClient client;
+    private final LoadTestOptions options;
+    private final Map<Operation, Histogram> responseTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> serviceTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    LoadGenerator(TodoApiClient client, LoadTestOptions options) {
+        this.client = client;
+        this.options = options;
+        for (Operation operation : Operation.values()) {
+            responseTimes.put(operation, new ConcurrentHistogram(3));
+            serviceTimes.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    Map<Operation, Histogram> responseTimes() {
+        return responseTimes;
+    }
+
+    Map<Operation, Histogram> serviceTimes() {
+        return serviceTimes;
+    }
+
+    long errors(Operation operation) {
+        return errors.get(operation).sum();
+    }
+
+    /**
+     * @return The highest number of requests waiting for a response at the same time.
+     */
+    int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    /**
+     * Sends requests for the warm-up and then the recording period, and waits for the last responses.
+     */
+    void run() throws InterruptedException {
+        long start = System.nanoTime();
+        long recordFrom = start + options.warmup().toNanos();
+        long end = recordFrom + options.duration().toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (options.arrival() == LoadTestOptions.Arrival.OPEN) {
+                long interval = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate());
+                for (long n = 0; start + n * interval < end; n++) {
+                    long intendedStart = start + n * interval;
+                    parkUntil(intendedStart);
+                    executor.execute(() -> send(intendedStart, recordFrom));
+                }
+            } else {
+                long interval = options.rate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * options.users() / options.rate()) : 0;
+                List<Runnable> users = new ArrayList<>(options.users());
+                for (int user = 0; user < options.users(); user++) {
+                    long offset = interval * user / options.users(); // Spread the paced users over one interval
+                    users.add(() -> {
+                        long intendedStart = start + offset;
+                        while (intendedStart < end) {
+                            parkUntil(intendedStart);
+                            long completed = send(interval > 0 ? intendedStart : System.nanoTime(), recordFrom);
+                            intendedStart = interval > 0 ? intendedStart + interval : completed;
+                        }
+                    });
+                }
+                users.forEach(executor::execute);
+            }
+        }
+    }
+
+    /**
+     * Sends one request of a random operation and records it if it was intended to start after the warm-up.
+     *
+     * @return The time the request completed.
+     */
+    private long send(long intendedStart, long recordFrom) {
+        Operation operation = options.mix().next(ThreadLocalRandom.current());
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        long actualStart = System.nanoTime();
+        boolean failed;
+        try {
+            int status = client.execute(operation, ThreadLocalRandom.current());
+            failed = status >= 400;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed = true;
+        } catch (Exception e) {
+            failed = true;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        long completed = System.nanoTime();
+        if (intendedStart >= recordFrom) {
+            responseTimes.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(completed - intendedStart));
+            serviceTimes.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(completed - actualStart));
+            if (failed) {
+                errors.get(operation).increment();
+            }
+        }
+        return completed;
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
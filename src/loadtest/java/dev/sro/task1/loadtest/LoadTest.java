@@ -0,0 +1,162 @@
+package dev.sro.task1.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sro.task1.TaskA1EpamApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTTP load test of the todo API, see {@link LoadTestOptions} for the command line:
+ * <pre>mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--arrival=open --rate=500 --mix=search-heavy"</pre>
+ * Without {@code --target} the application is started in-process on H2 ({@code application-loadtest.properties});
+ * the peaks of its connection pool and Tomcat threads are printed with the latencies. The response time
+ * percentiles of every endpoint are also written as HdrHistogram percentile distributions ({@code .hgrm}).
+ * With {@code --threads=both} the test runs once on platform and once on virtual request threads, each on a
+ * freshly started application, and ends with a comparison of their throughput and percentiles.
+ */
+public final class LoadTest {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (options.target() != null) {
+            run(options, null, options.outputDir());
+            return;
+        }
+        Map<LoadTestOptions.Threads, Histogram> totals = new EnumMap<>(LoadTestOptions.Threads.class);
+        for (LoadTestOptions.Threads threads : options.threads()) {
+            Path outputDir = options.threads().size() > 1 ? options.outputDir().resolve(threads.key()) : options.outputDir();
+            System.out.printf("%n=== Request handling on %s threads ===%n", threads.key());
+            totals.put(threads, run(options, threads, outputDir));
+        }
+        if (totals.size() > 1) {
+            compare(totals, options, System.out);
+        }
+    }
+
+    /**
+     * Runs the load test once, against the given target or an application started in-process.
+     *
+     * @param threads The thread mode of the in-process application, or null to use {@code --target}.
+     * @return The response times of all endpoints together.
+     */
+    private static Histogram run(LoadTestOptions options, LoadTestOptions.Threads threads, Path outputDir) throws Exception {
+        ConfigurableApplicationContext context = null;
+        URI target = options.target();
+        if (threads != null) {
+            List<String> appArgs = new ArrayList<>(List.of("--spring.profiles.active=loadtest",
+                    "--spring.threads.virtual.enabled=" + (threads == LoadTestOptions.Threads.VIRTUAL)));
+            appArgs.addAll(options.appArgs());
+            context = new SpringApplicationBuilder(TaskA1EpamApplication.class).run(appArgs.toArray(String[]::new));
+            target = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/");
+        }
+        try {
+            TodoApiClient client = new TodoApiClient(target, new ObjectMapper());
+            System.out.printf("Seeding %d todo items on %s%n", options.rows(), target);
+            client.seed(options.rows());
+
+            System.out.printf("%s loop, %s, %s warm-up, %s recorded, mix: %s%n",
+                    options.arrival() == LoadTestOptions.Arrival.OPEN ? "Open" : "Closed",
+                    describeLoad(options), options.warmup(), options.duration(), options.mix());
+            LoadGenerator generator = new LoadGenerator(client, options);
+            ServerSampler sampler = context == null ? null : new ServerSampler(context.getBean(MeterRegistry.class));
+            generator.run();
+            if (sampler != null) {
+                sampler.close();
+            }
+
+            Histogram total = report(generator, options, System.out);
+            if (sampler != null) {
+                System.out.println();
+                sampler.peaks().forEach((name, peak) -> System.out.printf("%-30s peak %8.0f%n", name, peak));
+            }
+            writeDistributions(generator, outputDir);
+            return total;
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static void compare(Map<LoadTestOptions.Threads, Histogram> totals, LoadTestOptions options, PrintStream out) {
+        out.printf("%n%-34s %9s %9s %9s %9s %9s%n", "Threads (all endpoints, ms)", "req/s", "p50", "p99", "p99.9", "max");
+        totals.forEach((threads, total) -> out.printf("%-34s %9.1f %9.2f %9.2f %9.2f %9.2f%n", threads.key(),
+                total.getTotalCount() / (double) options.duration().toSeconds(),
+                total.getValueAtPercentile(50) / 1000.0, total.getValueAtPercentile(99) / 1000.0,
+                total.getValueAtPercentile(99.9) / 1000.0, total.getMaxValue() / 1000.0));
+    }
+
+    private static String describeLoad(LoadTestOptions options) {
+        if (options.arrival() == LoadTestOptions.Arrival.OPEN) {
+            return options.rate() + " requests/s";
+        }
+        return options.users() + " users" + (options.rate() > 0 ? " paced to " + options.rate() + " requests/s" : "");
+    }
+
+    /**
+     * @return The response times of all endpoints together.
+     */
+    private static Histogram report(LoadGenerator generator, LoadTestOptions options, PrintStream out) {
+        out.printf("%n%-34s %8s %7s %9s %9s %9s %9s %9s %9s %15s%n", "Endpoint (response time, ms)", "count", "errors",
+                "req/s", "p50", "p90", "p99", "p99.9", "max", "p99 uncorrected");
+        Histogram total = new Histogram(3);
+        Histogram totalService = new Histogram(3);
+        long totalErrors = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = generator.responseTimes().get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(histogram);
+            totalService.add(generator.serviceTimes().get(operation));
+            totalErrors += generator.errors(operation);
+            printRow(out, operation.endpoint(), histogram, generator.serviceTimes().get(operation),
+                    generator.errors(operation), options);
+        }
+        printRow(out, "All", total, totalService, totalErrors, options);
+        out.printf("%nMost requests in flight: %d%n", generator.maxInFlight());
+        return total;
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram responseTimes, Histogram serviceTimes,
+                                 long errors, LoadTestOptions options) {
+        out.printf("%-34s %8d %7d %9.1f", name, responseTimes.getTotalCount(), errors,
+                responseTimes.getTotalCount() / (double) options.duration().toSeconds());
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9.2f", responseTimes.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf(" %9.2f %15.2f%n", responseTimes.getMaxValue() / 1000.0, serviceTimes.getValueAtPercentile(99) / 1000.0);
+    }
+
+    private static void writeDistributions(LoadGenerator generator, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        for (Map.Entry<Operation, Histogram> entry : generator.responseTimes().entrySet()) {
+            if (entry.getValue().getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(
+                    outputDir.resolve(entry.getKey().key() + ".hgrm")))) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0); // In milliseconds
+            }
+        }
+        System.out.printf("%nPercentile distributions (ms) written to %s%n", outputDir.toAbsolutePath());
+    }
+}
@@ -0,0 +1,94 @@
+package dev.sro.task1.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line of {@link LoadTest}. Every option is {@code --name=value}; options that are not load test
+ * options (e.g. {@code --spring.datasource.hikari.maximum-pool-size=20} or {@code --server.tomcat.threads.max=50})
+ * are passed on to the application started in-process.
+ *
+ * @param target      Base URL of a running application; when null the application is started in-process on H2.
+ * @param arrival     Open loop (requests start at a fixed rate, whatever the response times) or closed loop
+ *                    (each user waits for its response before sending the next request).
+ * @param rate        Requests per second over all users; required for open loop, optional pacing for closed loop.
+ * @param users       Number of concurrent users of the closed loop.
+ * @param warmup      How long to send requests before recording.
+ * @param duration    How long to record.
+ * @param rows        Number of todo items created before the test.
+ * @param mix         Relative weights of the operations.
+ * @param outputDir   Where to write the percentile distribution of every endpoint.
+ * @param threads     Request thread modes of the in-process application to run the test with, in order.
+ * @param appArgs     Arguments of the in-process application.
+ */
+record LoadTestOptions(URI target, Arrival arrival, double rate, int users, Duration warmup, Duration duration,
+                       int rows, Mix mix, Path outputDir, List<Threads> threads, List<String> appArgs) {
+
+    enum Arrival {
+        OPEN, CLOSED
+    }
+
+    /**
+     * Whether the in-process application handles requests on Tomcat's platform thread pool or on virtual threads
+     * ({@code spring.threads.virtual.enabled}).
+     */
+    enum Threads {
+        PLATFORM, VIRTUAL;
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        URI target = null;
+        Arrival arrival = Arrival.CLOSED;
+        double rate = 0;
+        int users = 16;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(60);
+        int rows = 10_000;
+        Mix mix = Mix.parse("read-heavy");
+        Path outputDir = Path.of("target", "loadtest");
+        List<Threads> threads = List.of(Threads.PLATFORM);
+        List<String> appArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'.");
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "target" -> target = URI.create(value.endsWith("/") ? value : value + "/");
+                case "arrival" -> arrival = Arrival.valueOf(value.toUpperCase());
+                case "rate" -> rate = Double.parseDouble(value);
+                case "users" -> users = Integer.parseInt(value);
+                case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+                case "duration" -> duration = DurationStyle.detectAndParse(value);
+                case "rows" -> rows = Integer.parseInt(value);
+                case "mix" -> mix = Mix.parse(value);
+                case "output" -> outputDir = Path.of(value);
+                case "threads" -> threads = value.equals("both")
+                        ? List.of(Threads.PLATFORM, Threads.VIRTUAL)
+                        : List.of(Threads.valueOf(value.toUpperCase()));
+                default -> appArgs.add(arg);
+            }
+        }
+        if (arrival == Arrival.OPEN && rate <= 0) {
+            throw new IllegalArgumentException("Open loop arrival needs --rate (requests per second).");
+        }
+        if (users < 1) {
+            throw new IllegalArgumentException("--users must be at least 1.");
+        }
+        if (target != null && threads.size() > 1) {
+            throw new IllegalArgumentException("--threads=both needs the in-process application, not --target.");
+        }
+        return new LoadTestOptions(target, arrival, rate, users, warmup, duration, rows, mix, outputDir, threads, appArgs);
+    }
+}
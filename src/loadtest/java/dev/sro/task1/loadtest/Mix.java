@@ -0,0 +1,85 @@
+package dev.sro.task1.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+
+/**
+ * Relative weights of the operations of a workload, either a preset or a list such as
+ * {@code get=80,search-title=10,update=10}.
+ */
+final class Mix {
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final String description;
+
+    private Mix(Map<Operation, Integer> weights) {
+        operations = weights.keySet().toArray(Operation[]::new);
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("The mix must give a positive weight to at least one operation.");
+        }
+        int sum = total;
+        description = weights.entrySet().stream()
+                .map(weight -> weight.getKey().key() + "=" + Math.round(100.0 * weight.getValue() / sum) + "%")
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Parses a preset name or a comma-separated list of {@code operation=weight} pairs.
+     * <ul>
+     *     <li>{@code read-heavy}: 90% reads, 10% writes</li>
+     *     <li>{@code search-heavy}: mostly the three search endpoints</li>
+     *     <li>{@code write-heavy}: 50% reads, 50% writes</li>
+     *     <li>{@code all}: every endpoint, including bulk operations and the export</li>
+     * </ul>
+     */
+    static Mix parse(String spec) {
+        return switch (spec) {
+            case "read-heavy" -> parse("get=55,list=20,search=5,search-title=5,search-description=5,"
+                    + "create=4,update=4,delete=2");
+            case "search-heavy" -> parse("search=30,search-title=30,search-description=15,get=15,list=5,"
+                    + "create=3,update=2");
+            case "write-heavy" -> parse("get=35,list=10,search-title=5,create=20,update=20,delete=10");
+            case "all" -> parse("get=40,list=10,export=1,search=8,search-title=8,search-description=5,"
+                    + "create=10,create-batch=2,update=8,update-descriptions=2,delete=3,delete-many=2,delete-by-title=1");
+            default -> {
+                Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+                for (String pair : spec.split(",")) {
+                    String[] parts = pair.trim().split("=");
+                    if (parts.length != 2) {
+                        throw new IllegalArgumentException("Expected operation=weight but got '" + pair + "'.");
+                    }
+                    int weight = Integer.parseInt(parts[1].trim());
+                    if (weight < 0) {
+                        throw new IllegalArgumentException("Weights must not be negative: '" + pair + "'.");
+                    }
+                    weights.merge(Operation.fromKey(parts[0].trim()), weight, Integer::sum);
+                }
+                yield new Mix(weights);
+            }
+        };
+    }
+
+    Operation next(RandomGenerator random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,55 @@
+package dev.sro.task1.loadtest;
+
+/**
+ * One request type of the load test, i.e. one {@code TodoItemController} endpoint.
+ */
+enum Operation {
+
+    LIST("list", "GET /api/todos", false),
+    EXPORT("export", "GET /api/todos/export", false),
+    GET("get", "GET /api/todos/{id}", false),
+    CREATE("create", "POST /api/todos", true),
+    CREATE_BATCH("create-batch", "POST /api/todos/batch", true),
+    UPDATE("update", "PUT /api/todos/{id}", true),
+    DELETE("delete", "DELETE /api/todos/{id}", true),
+    DELETE_MANY("delete-many", "DELETE /api/todos?ids=", true),
+    DELETE_BY_TITLE("delete-by-title", "DELETE /api/todos/by-title", true),
+    UPDATE_DESCRIPTIONS("update-descriptions", "PATCH /api/todos/description", true),
+    SEARCH("search", "GET /api/todos/search", false),
+    SEARCH_TITLE("search-title", "GET /api/todos/search/title", false),
+    SEARCH_DESCRIPTION("search-description", "GET /api/todos/search/description", false);
+
+    private final String key;
+    private final String endpoint;
+    private final boolean write;
+
+    Operation(String key, String endpoint, boolean write) {
+        this.key = key;
+        this.endpoint = endpoint;
+        this.write = write;
+    }
+
+    /**
+     * @return The name of the operation in a {@code --mix} specification, e.g. {@code search-title}.
+     */
+    String key() {
+        return key;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    boolean isWrite() {
+        return write;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "'.");
+    }
+}
@@ -0,0 +1,55 @@
+package dev.sro.task1.loadtest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the connection pool and Tomcat thread gauges of the in-process application every 100 ms
+ * and keeps their peaks, the numbers to compare with {@code spring.datasource.hikari.maximum-pool-size}
+ * and {@code server.tomcat.threads.max}.
+ */
+final class ServerSampler implements AutoCloseable {
+
+    private static final String[] GAUGES = {
+            "hikaricp.connections.active", "hikaricp.connections.pending", "hikaricp.connections.max",
+            "tomcat.threads.busy", "tomcat.threads.current", "tomcat.threads.config.max",
+            "todo.database.permits.active", "todo.database.permits.pending"};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Double> peaks = new LinkedHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> Thread.ofPlatform().daemon().name("server-sampler").unstarted(runnable));
+
+    ServerSampler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        scheduler.scheduleAtFixedRate(this::sample, 0, 100, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The highest value of every gauge the application registers, by gauge name.
+     */
+    synchronized Map<String, Double> peaks() {
+        return new LinkedHashMap<>(peaks);
+    }
+
+    private synchronized void sample() {
+        for (String name : GAUGES) {
+            Gauge gauge = meterRegistry.find(name).gauge();
+            if (gauge != null && !Double.isNaN(gauge.value())) {
+                peaks.merge(name, gauge.value(), Math::max);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        sample();
+    }
+}
@@ -0,0 +1,244 @@
+package dev.sro.task1.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup benchmark of the packaged application, run the same way as {@link LoadTest}:
+ * <pre>mvn -Ploadtest test-compile exec:exec -Dloadtest.main=dev.sro.task1.loadtest.StartupBenchmark -Dloadtest.args="--runs=5"</pre>
+ * Each mode is started {@code --runs} times as a child process on a free port, and measured from the launch to the
+ * first successful {@code GET /api/todos?size=1} (time to first request); the resident set size of the process is
+ * read right after that request. Modes whose artifact has not been built are skipped:
+ * <ul>
+ *     <li>{@code jvm}: the executable jar ({@code mvn package}).</li>
+ *     <li>{@code aot}: the same jar with {@code -Dspring.aot.enabled=true}; the jar must be built with {@code -Pcds}.</li>
+ *     <li>{@code cds}: the extracted jar with the AppCDS archive of its training run ({@code mvn -Pcds package}).</li>
+ *     <li>{@code native}: the GraalVM native image ({@code mvn -Pnative native:compile}).</li>
+ * </ul>
+ * The application runs with its own configuration, so the database of the active profile must be reachable.
+ * Options that are not benchmark options are passed on to the application. The output of every run is
+ * written to {@code --output}.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private StartupBenchmark() {
+    }
+
+    enum Mode {
+        JVM, AOT, CDS, NATIVE;
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * @param millis Launch to first successful request of every run.
+     * @param rssKb  Resident set size after the first request of every run, in kB; -1 where it could not be read.
+     */
+    private record Runs(List<Long> millis, List<Long> rssKb) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = 5;
+        List<Mode> modes = List.of(Mode.values());
+        Path jar = null;
+        Path cdsDir = Path.of("target", "cds");
+        Path nativeImage = Path.of("target", "Task-A1-Epam");
+        Duration timeout = Duration.ofMinutes(2);
+        Path outputDir = Path.of("target", "startup");
+        List<String> appArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'.");
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "runs" -> runs = Integer.parseInt(value);
+                case "modes" -> modes = Arrays.stream(value.split(",")).map(mode -> Mode.valueOf(mode.trim().toUpperCase())).toList();
+                case "jar" -> jar = Path.of(value);
+                case "cds-dir" -> cdsDir = Path.of(value);
+                case "native-image" -> nativeImage = Path.of(value);
+                case "timeout" -> timeout = DurationStyle.detectAndParse(value);
+                case "output" -> outputDir = Path.of(value);
+                default -> appArgs.add(arg);
+            }
+        }
+        if (runs <= 0) {
+            throw new IllegalArgumentException("--runs must be positive.");
+        }
+        Files.createDirectories(outputDir);
+        Path executableJar = jar != null ? jar : findJar(Path.of("target"));
+        Path cdsJar = findJar(cdsDir);
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        Map<Mode, Runs> results = new EnumMap<>(Mode.class);
+        for (Mode mode : modes) {
+            List<String> command = switch (mode) {
+                case JVM -> executableJar == null ? null : List.of(java, "-jar", executableJar.toString());
+                case AOT -> executableJar == null ? null
+                        : List.of(java, "-Dspring.aot.enabled=true", "-jar", executableJar.toString());
+                case CDS -> cdsJar == null || !Files.isRegularFile(cdsDir.resolve("application.jsa")) ? null
+                        : List.of(java, "-XX:SharedArchiveFile=" + cdsDir.resolve("application.jsa"),
+                        "-Dspring.aot.enabled=true", "-jar", cdsJar.toString());
+                case NATIVE -> Files.isExecutable(nativeImage) ? List.of(nativeImage.toString()) : null;
+            };
+            if (command == null) {
+                System.out.printf("Skipping %s: not built.%n", mode.key());
+                continue;
+            }
+            System.out.printf("%n=== %s: %s ===%n", mode.key(), String.join(" ", command));
+            Runs result = new Runs(new ArrayList<>(), new ArrayList<>());
+            for (int run = 1; run <= runs; run++) {
+                List<String> runCommand = new ArrayList<>(command);
+                int port = freePort();
+                runCommand.add("--server.port=" + port);
+                runCommand.addAll(appArgs);
+                Path log = outputDir.resolve(mode.key() + "-" + run + ".log");
+                long[] measured = start(runCommand, port, client, timeout, log);
+                result.millis().add(measured[0]);
+                result.rssKb().add(measured[1]);
+                System.out.printf("Run %d: first request after %d ms, RSS %s%n", run, measured[0], formatRss(measured[1]));
+            }
+            results.put(mode, result);
+        }
+        report(results, System.out);
+        System.out.printf("%nApplication output written to %s%n", outputDir.toAbsolutePath());
+    }
+
+    /**
+     * Starts the application, waits for its first successful request, reads its resident set size and stops it.
+     * @return The time to the first request in milliseconds, and the resident set size in kB or -1.
+     * @throws IllegalStateException if the application exits or does not answer within the timeout.
+     */
+    private static long[] start(List<String> command, int port, HttpClient client, Duration timeout, Path log)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/todos?size=1"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = launched + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("The application exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched);
+                        return new long[]{millis, rssKb(process.pid())};
+                    }
+                } catch (ConnectException ex) {
+                    // Not listening yet
+                }
+                TimeUnit.NANOSECONDS.sleep(POLL_INTERVAL.toNanos());
+            }
+            throw new IllegalStateException("The application did not answer within " + timeout + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * @return The resident set size of a process in kB, from {@code /proc} on Linux and {@code ps} elsewhere;
+     * -1 if neither is available.
+     */
+    private static long rssKb(long pid) {
+        try {
+            Path status = Path.of("/proc", Long.toString(pid), "status");
+            if (Files.isReadable(status)) {
+                for (String line : Files.readAllLines(status)) {
+                    if (line.startsWith("VmRSS:")) {
+                        return Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").trim());
+                    }
+                }
+            }
+            Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", Long.toString(pid)).start();
+            try (InputStream in = ps.getInputStream()) {
+                String rss = new String(in.readAllBytes(), StandardCharsets.US_ASCII).trim();
+                return ps.waitFor() == 0 && !rss.isEmpty() ? Long.parseLong(rss) : -1;
+            }
+        } catch (IOException | NumberFormatException ex) {
+            return -1;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    /**
+     * @return The executable jar of the application in a directory (not the {@code -plain} one), or null.
+     */
+    private static Path findJar(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return null;
+        }
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(dir, "Task-A1-Epam-*.jar")) {
+            for (Path candidate : jars) {
+                if (!candidate.getFileName().toString().endsWith("-plain.jar")) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void report(Map<Mode, Runs> results, PrintStream out) {
+        out.printf("%n%-10s %6s %12s %10s %10s %14s%n", "Mode", "runs", "median (ms)", "min (ms)", "max (ms)", "median RSS");
+        results.forEach((mode, runs) -> {
+            List<Long> millis = runs.millis().stream().sorted().toList();
+            List<Long> rss = runs.rssKb().stream().filter(kb -> kb >= 0).sorted().toList();
+            out.printf("%-10s %6d %12d %10d %10d %14s%n", mode.key(), millis.size(), median(millis),
+                    millis.get(0), millis.get(millis.size() - 1), rss.isEmpty() ? "n/a" : formatRss(median(rss)));
+        });
+    }
+
+    private static long median(List<Long> sorted) {
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    private static String formatRss(long kb) {
+        return kb < 0 ? "n/a" : String.format("%.1f MB", kb / 1024.0);
+    }
+}
@@ -0,0 +1,179 @@
+package dev.sro.task1.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+
+/**
+ * Sends the request of an {@link Operation} to the todo API, keeping {@link ItemPool} in sync with
+ * the items it creates and deletes.
+ */
+final class TodoApiClient {
+
+    private static final String[] VERBS = {"Buy", "Call", "Fix", "Plan", "Read", "Clean", "Book", "Write"};
+    private static final String[] OBJECTS = {
+            "groceries", "plumber", "car insurance", "vacation", "dentist", "birthday gift", "report",
+            "garden", "kitchen sink", "train tickets", "book club", "tax return", "bike", "laptop",
+            "parcel", "newsletter", "guitar strings", "passport", "roof", "budget", "wardrobe",
+            "photo album", "podcast", "windows", "bookshelf"};
+    private static final int BATCH_SIZE = 10;
+    private static final int DELETE_MANY_SIZE = 5;
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final ItemPool itemPool = new ItemPool();
+    private final AtomicLong nextKey = new AtomicLong();
+
+    TodoApiClient(URI baseUri, ObjectMapper objectMapper) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+    }
+
+    ItemPool itemPool() {
+        return itemPool;
+    }
+
+    /**
+     * Creates {@code rows} todo items through the bulk endpoint, in requests of at most 1000 items.
+     */
+    void seed(int rows) throws IOException, InterruptedException {
+        for (int from = 0; from < rows; from += 1000) {
+            int status = createBatch(Math.min(1000, rows - from));
+            if (status != 200 && status != 201) {
+                throw new IOException("Seeding failed with HTTP " + status + ".");
+            }
+        }
+    }
+
+    /**
+     * Sends the request of the given operation and waits for the whole response body.
+     *
+     * @return The HTTP status code of the response.
+     */
+    int execute(Operation operation, RandomGenerator random) throws IOException, InterruptedException {
+        return switch (operation) {
+            case LIST -> send(get("/api/todos?size=20")).statusCode();
+            case EXPORT -> send(get("/api/todos/export")).statusCode();
+            case GET -> send(get("/api/todos/" + randomId(random))).statusCode();
+            case CREATE -> create(random);
+            case CREATE_BATCH -> createBatch(BATCH_SIZE);
+            case UPDATE -> send(json("PUT", "/api/todos/" + randomId(random),
+                    newTodoItem(random.nextLong(1_000_000)))).statusCode();
+            case DELETE -> {
+                ItemPool.Item item = itemPool.removeRandom(random);
+                yield send(request("/api/todos/" + (item == null ? -1 : item.id())).DELETE().build()).statusCode();
+            }
+            case DELETE_MANY -> {
+                List<Long> ids = new ArrayList<>(DELETE_MANY_SIZE);
+                for (int i = 0; i < DELETE_MANY_SIZE; i++) {
+                    ItemPool.Item item = itemPool.removeRandom(random);
+                    ids.add(item == null ? -1 : item.id());
+                }
+                String query = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+                yield send(request("/api/todos?ids=" + query).DELETE().build()).statusCode();
+            }
+            case DELETE_BY_TITLE -> {
+                ItemPool.Item item = itemPool.removeRandom(random);
+                String query = "#" + (item == null ? -1 : item.key()) + "#";
+                yield send(request("/api/todos/by-title?query=" + encode(query)).DELETE().build()).statusCode();
+            }
+            case UPDATE_DESCRIPTIONS -> {
+                ObjectNode body = objectMapper.createObjectNode();
+                ArrayNode ids = body.putArray("ids");
+                for (int i = 0; i < DELETE_MANY_SIZE; i++) {
+                    ids.add(randomId(random));
+                }
+                body.put("description", "Updated by the load test " + random.nextInt(1000));
+                yield send(json("PATCH", "/api/todos/description", body)).statusCode();
+            }
+            case SEARCH -> send(get("/api/todos/search?query=" + encode(randomObject(random)))).statusCode();
+            case SEARCH_TITLE -> send(get("/api/todos/search/title?query="
+                    + encode(randomObject(random) + " #" + (1 + random.nextInt(99))))).statusCode();
+            case SEARCH_DESCRIPTION -> send(get("/api/todos/search/description?query="
+                    + encode(randomObject(random) + " before Friday"))).statusCode();
+        };
+    }
+
+    private int create(RandomGenerator random) throws IOException, InterruptedException {
+        long key = nextKey.getAndIncrement();
+        HttpResponse<byte[]> response = send(json("POST", "/api/todos", newTodoItem(key)));
+        if (response.statusCode() == 201) {
+            itemPool.add(new ItemPool.Item(objectMapper.readTree(response.body()).get("id").asLong(), key));
+        }
+        return response.statusCode();
+    }
+
+    private int createBatch(int size) throws IOException, InterruptedException {
+        long firstKey = nextKey.getAndAdd(size);
+        List<ObjectNode> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(newTodoItem(firstKey + i));
+        }
+        HttpResponse<byte[]> response = send(json("POST", "/api/todos/batch", items));
+        if (response.statusCode() == 200 || response.statusCode() == 201) {
+            for (JsonNode created : objectMapper.readTree(response.body()).get("created")) {
+                itemPool.add(new ItemPool.Item(created.get("id").asLong(), firstKey + created.get("index").asInt()));
+            }
+        }
+        return response.statusCode();
+    }
+
+    private ObjectNode newTodoItem(long key) {
+        String object = OBJECTS[(int) (key % OBJECTS.length)];
+        return objectMapper.createObjectNode()
+                .put("title", VERBS[(int) (key % VERBS.length)] + " " + object + " #" + key + "#")
+                .put("description", "Remember the " + object + " before Friday: ask about the price and the delivery date.");
+    }
+
+    private long randomId(RandomGenerator random) {
+        ItemPool.Item item = itemPool.random(random);
+        return item == null ? -1 : item.id();
+    }
+
+    private static String randomObject(RandomGenerator random) {
+        return OBJECTS[random.nextInt(OBJECTS.length)];
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, Object body) throws IOException {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
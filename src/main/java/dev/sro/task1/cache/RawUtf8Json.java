@@ -0,0 +1,105 @@
+package dev.sro.task1.cache;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Already encoded JSON handed to {@link com.fasterxml.jackson.core.JsonGenerator#writeRawValue(SerializableString)}.
+ * A UTF-8 generator copies the bytes straight into its buffer; only generators writing characters
+ * (and the quoted variants, which are never used for raw values) decode them into a String.
+ */
+final class RawUtf8Json implements SerializableString {
+
+    private final byte[] json;
+    private SerializedString decoded;
+
+    RawUtf8Json(byte[] json) {
+        this.json = json;
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+        if (offset + json.length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(json, 0, buffer, offset, json.length);
+        return json.length;
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return json;
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        out.write(json);
+        return json.length;
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer) {
+        if (json.length > buffer.remaining()) {
+            return -1;
+        }
+        buffer.put(json);
+        return json.length;
+    }
+
+    @Override
+    public String getValue() {
+        return decoded().getValue();
+    }
+
+    @Override
+    public int charLength() {
+        return decoded().charLength();
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+        return decoded().asQuotedChars();
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return decoded().asQuotedUTF8();
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+        return decoded().appendQuotedUTF8(buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+        return decoded().appendQuoted(buffer, offset);
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+        return decoded().appendUnquoted(buffer, offset);
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        return decoded().writeQuotedUTF8(out);
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+        return decoded().putQuotedUTF8(buffer);
+    }
+
+    private SerializedString decoded() {
+        if (decoded == null) {
+            decoded = new SerializedString(new String(json, StandardCharsets.UTF_8));
+        }
+        return decoded;
+    }
+}
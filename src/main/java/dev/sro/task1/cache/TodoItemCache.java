@@ -0,0 +1,140 @@
+package dev.sro.task1.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.event.TodoItemChange;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of todo items by ID, including negative entries for IDs without a row.
+ * <p>
+ * Backed by Caffeine, whose W-TinyLFU eviction keeps the frequently read items when the cache is full
+ * instead of whatever was read last. Entries are invalidated once the transaction that changed them has
+ * committed; a load racing with the invalidation cannot resurrect the old value because Caffeine
+ * serializes the load and the removal of the same key. Bulk loads are not serialized that way, so their results
+ * are only cached if no change committed while they ran.
+ * Hit/miss counts and evictions are published as the {@code cache.*} meters with {@code cache=todoItems};
+ * the time spent loading missed entries from the database as the {@code todo.cache.load} timer.
+ */
+@Component
+public class TodoItemCache {
+
+    static final String NAME = "todoItems";
+
+    private final Cache<Long, Optional<TodoItem>> cache;
+    private final Timer loadTimer;
+    // Committed changes seen so far; moves before their entries are invalidated
+    private final AtomicLong changes = new AtomicLong();
+
+    public TodoItemCache(TodoProperties todoProperties, MeterRegistry meterRegistry) {
+        TodoProperties.Cache settings = todoProperties.getCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfter(new PresentOrAbsentExpiry(settings.getTimeToLive(), settings.getNegativeTimeToLive()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+        this.loadTimer = Timer.builder("todo.cache.load")
+                .description("Time spent loading todo items missing from the cache")
+                .tag("cache", NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached todo item, loading and caching it on a miss.
+     * Concurrent misses for the same ID share a single load.
+     * @param id The ID of the todo item.
+     * @param loader Loads the todo item from the database; an empty result is cached as well.
+     * @return The todo item, if it exists. The instance is shared with other callers and must not be modified.
+     */
+    public Optional<TodoItem> get(Long id, Function<Long, Optional<TodoItem>> loader) {
+        return cache.get(id, key -> loadTimer.record(() -> loader.apply(key)));
+    }
+
+    /**
+     * Loads todo items missing from the cache with a single call of the loader, and caches the results, missing
+     * IDs included, unless a change committed in the meantime: the loader may have read a value that the change's
+     * invalidation has already removed.
+     * @param ids The IDs of the todo items, typically those {@link #getIfPresent(Long)} did not find.
+     * @param loader Loads the todo items from the database, with an empty result for every ID without a row.
+     * @return The loader's results by ID. The instances are shared with other callers and must not be modified.
+     */
+    public Map<Long, Optional<TodoItem>> loadAll(List<Long> ids, Function<List<Long>, Map<Long, Optional<TodoItem>>> loader) {
+        long seen = changes.get();
+        Map<Long, Optional<TodoItem>> loaded = loadTimer.record(() -> loader.apply(ids));
+        loaded.forEach((id, result) -> cache.asMap().compute(id,
+                (key, current) -> current != null || changes.get() != seen ? current : result));
+        return loaded;
+    }
+
+    /**
+     * Returns the cached lookup result without loading anything on a miss.
+     * @param id The ID of the todo item.
+     * @return The cached result (empty for a cached missing ID), or null if the ID is not cached.
+     */
+    public Optional<TodoItem> getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Returns the version of the cached todo item, or of the loader's result on a miss.
+     * A miss is not cached, so a version lookup never fills the cache with a partial item.
+     * @param id The ID of the todo item.
+     * @param loader Loads the version from the database.
+     * @return The version, if the todo item exists.
+     */
+    public Optional<Long> getVersion(Long id, Function<Long, Optional<Long>> loader) {
+        Optional<TodoItem> cached = cache.getIfPresent(id);
+        return cached != null ? cached.map(TodoItem::getVersion) : loader.apply(id);
+    }
+
+    /**
+     * Drops the cached entries of todo items whose transaction has committed.
+     * @param change The change published by the service layer.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoItemChange(TodoItemChange change) {
+        changes.incrementAndGet();
+        switch (change) {
+            case TodoItemChange.Saved saved -> saved.items().forEach(todoItem -> cache.invalidate(todoItem.getId()));
+            case TodoItemChange.Deleted deleted -> cache.invalidateAll(deleted.ids());
+            case TodoItemChange.DescriptionUpdated updated -> cache.invalidateAll(updated.ids());
+        }
+    }
+
+    /**
+     * Keeps existing items for the regular time to live and missing IDs for the (shorter) negative one.
+     */
+    private record PresentOrAbsentExpiry(Duration timeToLive, Duration negativeTimeToLive)
+            implements Expiry<Long, Optional<TodoItem>> {
+
+        @Override
+        public long expireAfterCreate(Long id, Optional<TodoItem> value, long currentTime) {
+            return (value.isPresent() ? timeToLive : negativeTimeToLive).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, Optional<TodoItem> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, Optional<TodoItem> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package dev.sro.task1.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.event.TodoItemChange;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache of the UTF-8 JSON representation of todo items, so hot items are serialized once instead of
+ * on every response (see {@link TodoItemJsonModule}).
+ * <p>
+ * Entries are keyed by ID and remember the version they were serialized from; an entry is only used
+ * for an item at the same version, so a response can never contain JSON of another version of the item,
+ * even while an invalidation is still on its way. Committed changes drop the affected entries right away
+ * to free the memory. The total size of the cached JSON is bounded.
+ */
+@Component
+public class TodoItemJsonCache {
+
+    static final String NAME = "todoItemJson";
+
+    private final Cache<Long, Entry> cache;
+
+    public TodoItemJsonCache(TodoProperties todoProperties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(todoProperties.getCache().getJsonMaximumSize().toBytes())
+                .weigher((Long id, Entry entry) -> entry.json().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * @param todoItem A todo item with an ID and a version.
+     * @return The cached UTF-8 JSON of the todo item, or null if it is missing or was serialized from
+     * another version. Must not be modified.
+     */
+    public byte[] get(TodoItem todoItem) {
+        Entry entry = cache.getIfPresent(todoItem.getId());
+        return entry != null && entry.matches(todoItem) ? entry.json() : null;
+    }
+
+    /**
+     * Caches the JSON of the todo item, replacing the JSON of any other version of it.
+     * @param todoItem A todo item with an ID and a version.
+     * @param json The UTF-8 JSON of exactly this todo item; must not be modified afterwards.
+     */
+    public void put(TodoItem todoItem, byte[] json) {
+        cache.put(todoItem.getId(), new Entry(todoItem.getVersion(), json));
+    }
+
+    /**
+     * Drops the entries of todo items whose transaction has committed.
+     * @param change The change published by the service layer.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoItemChange(TodoItemChange change) {
+        switch (change) {
+            case TodoItemChange.Saved saved -> saved.items().forEach(todoItem -> cache.invalidate(todoItem.getId()));
+            case TodoItemChange.Deleted deleted -> cache.invalidateAll(deleted.ids());
+            case TodoItemChange.DescriptionUpdated updated -> cache.invalidateAll(updated.ids());
+        }
+    }
+
+    private record Entry(long version, byte[] json) {
+
+        boolean matches(TodoItem todoItem) {
+            return todoItem.getVersion() != null && version == todoItem.getVersion();
+        }
+    }
+}
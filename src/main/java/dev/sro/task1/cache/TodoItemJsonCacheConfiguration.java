@@ -0,0 +1,19 @@
+package dev.sro.task1.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers {@link TodoItemJsonModule} with the application's ObjectMapper; Spring Boot picks up every
+ * Jackson module bean. Set {@code todo.cache.json-enabled=false} to serialize every response again.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "todo.cache", name = "json-enabled", havingValue = "true", matchIfMissing = true)
+public class TodoItemJsonCacheConfiguration {
+
+    @Bean
+    public TodoItemJsonModule todoItemJsonModule(TodoItemJsonCache todoItemJsonCache) {
+        return new TodoItemJsonModule(todoItemJsonCache);
+    }
+}
@@ -0,0 +1,116 @@
+package dev.sro.task1.cache;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import dev.sro.task1.entity.TodoItem;
+
+import java.io.IOException;
+
+/**
+ * Jackson module that serves the JSON of todo items from {@link TodoItemJsonCache}.
+ * <p>
+ * The regular bean serializer of {@link TodoItem} is wrapped: when writing plain (not pretty-printed)
+ * UTF-8 JSON the cached bytes are copied into the output as a raw value, so a single item, a list,
+ * a page or the NDJSON export is assembled from cached fragments. Every other case (other data formats,
+ * views, polymorphic typing, items without an ID or version) goes to the regular serializer.
+ */
+public class TodoItemJsonModule extends SimpleModule {
+
+    public TodoItemJsonModule(TodoItemJsonCache todoItemJsonCache) {
+        super(TodoItemJsonModule.class.getSimpleName());
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDescription,
+                                                      JsonSerializer<?> serializer) {
+                if (beanDescription.getBeanClass() == TodoItem.class) {
+                    @SuppressWarnings("unchecked")
+                    JsonSerializer<Object> delegate = (JsonSerializer<Object>) serializer;
+                    return new CachingSerializer(delegate, todoItemJsonCache);
+                }
+                return serializer;
+            }
+        });
+    }
+
+    static final class CachingSerializer extends StdSerializer<TodoItem>
+            implements ContextualSerializer, ResolvableSerializer {
+
+        private final JsonSerializer<Object> delegate;
+        private final TodoItemJsonCache todoItemJsonCache;
+
+        CachingSerializer(JsonSerializer<Object> delegate, TodoItemJsonCache todoItemJsonCache) {
+            super(TodoItem.class);
+            this.delegate = delegate;
+            this.todoItemJsonCache = todoItemJsonCache;
+        }
+
+        @Override
+        public void serialize(TodoItem todoItem, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (todoItem.getId() == null || todoItem.getVersion() == null
+                    || !(generator instanceof UTF8JsonGenerator) || generator.getCodec() == null
+                    || generator.getPrettyPrinter() != null || provider.getActiveView() != null) {
+                delegate.serialize(todoItem, generator, provider);
+                return;
+            }
+            byte[] json = todoItemJsonCache.get(todoItem);
+            if (json == null) {
+                json = serializeToBytes(todoItem, generator, provider);
+                todoItemJsonCache.put(todoItem, json);
+            }
+            generator.writeRawValue(new RawUtf8Json(json));
+        }
+
+        @Override
+        public void serializeWithType(TodoItem todoItem, JsonGenerator generator, SerializerProvider provider,
+                                      TypeSerializer typeSerializer) throws IOException {
+            delegate.serializeWithType(todoItem, generator, provider, typeSerializer);
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+                throws JsonMappingException {
+            if (delegate instanceof ContextualSerializer contextual) {
+                @SuppressWarnings("unchecked")
+                JsonSerializer<Object> contextualDelegate = (JsonSerializer<Object>) contextual.createContextual(provider, property);
+                if (contextualDelegate != delegate) {
+                    return new CachingSerializer(contextualDelegate, todoItemJsonCache);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (delegate instanceof ResolvableSerializer resolvable) {
+                resolvable.resolve(provider);
+            }
+        }
+
+        /**
+         * Serializes with the regular serializer into a separate buffer, using the same factory (and
+         * so the same output features) as the generator of the response.
+         */
+        private byte[] serializeToBytes(TodoItem todoItem, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            try (ByteArrayBuilder bytes = new ByteArrayBuilder()) {
+                try (JsonGenerator itemGenerator = generator.getCodec().getFactory().createGenerator(bytes)) {
+                    delegate.serialize(todoItem, itemGenerator, provider);
+                }
+                return bytes.toByteArray();
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package dev.sro.task1.changefeed;
+
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.dto.ChangeEvent;
+import dev.sro.task1.event.TodoItemChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams the {@link ChangeLog} to subscribers from a position of their choice.
+ * <p>
+ * A single tailer thread reads the entries committed after the last one it has seen, and puts them in a
+ * {@link ChangeRingBuffer} of the latest {@code todo.change-feed.ring-buffer-size} events. It polls every
+ * {@code todo.change-feed.poll-interval} for changes written by other instances, and right away after a local
+ * commit. Each subscription runs on its own virtual thread: a live subscriber reads from the ring, so any
+ * number of them cost one query per poll; one that is behind the ring, slow or just reconnected reads from the
+ * log in batches until it has caught up. A slow subscriber never holds up the others or the tailer.
+ * <p>
+ * Compaction of the log runs every {@code todo.change-feed.compaction-interval}. The number of subscribers is
+ * published as the {@code todo.change-feed.subscribers} gauge, reads from the log on behalf of subscribers as
+ * the {@code todo.change-feed.catch-up.reads} counter.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "todo.change-feed", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeFeed implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private final ChangeLog changeLog;
+    private final TodoProperties.ChangeFeed settings;
+    private final ChangeRingBuffer ring;
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final Map<Subscription, Future<?>> subscriptions = new ConcurrentHashMap<>();
+    private final ExecutorService subscriptionThreads =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("todo-change-feed-", 0).factory());
+    private final Counter catchUpReads;
+    // Highest purge horizon seen; the ring may still hold entries at or below it
+    private final AtomicLong purgedThrough = new AtomicLong();
+    private volatile boolean running;
+    private volatile Thread tailer;
+    private volatile ScheduledExecutorService compactor;
+
+    public ChangeFeed(ChangeLog changeLog, TodoProperties todoProperties, MeterRegistry meterRegistry) {
+        this.changeLog = changeLog;
+        this.settings = todoProperties.getChangeFeed();
+        this.ring = new ChangeRingBuffer(settings.getRingBufferSize());
+        Gauge.builder("todo.change-feed.subscribers", subscriptions, Map::size)
+                .description("Open change feed subscriptions")
+                .register(meterRegistry);
+        this.catchUpReads = Counter.builder("todo.change-feed.catch-up.reads")
+                .description("Change log reads for subscribers behind the ring buffer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts delivering the changes committed after a position of the log to the sink, on a thread of its own.
+     * @param since The last sequence number the subscriber has seen, or null to receive new changes only.
+     * @param sink Receives the changes.
+     * @return The subscription, to be closed when the subscriber goes away.
+     * @throws IllegalArgumentException if {@code since} is negative or beyond the end of the log.
+     */
+    public Subscription subscribe(Long since, ChangeSink sink) {
+        ChangeLog.Position position = observe(changeLog.position());
+        if (since != null && (since < 0 || since > position.head())) {
+            throw new IllegalArgumentException("Change log position must be between 0 and " + position.head() + ".");
+        }
+        long start = since != null ? since : position.head();
+        Subscription subscription = new Subscription();
+        if (!running) {
+            sink.close(); // Shutting down; the subscriber reconnects to another instance
+            return subscription;
+        }
+        Future<?> delivery = subscriptionThreads.submit(() -> deliver(subscription, start, sink));
+        subscriptions.put(subscription, delivery);
+        if (delivery.isDone()) {
+            subscriptions.remove(subscription); // Ended before it was registered
+        }
+        return subscription;
+    }
+
+    /**
+     * Polls the log right away after a local commit, instead of at the next poll interval.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoItemChange(TodoItemChange ignored) {
+        wakeUp.release();
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        tailer = Thread.ofPlatform().name("todo-change-feed-tailer").daemon(true).start(this::tail);
+        compactor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("todo-change-log-compaction").daemon(true).factory());
+        long interval = settings.getCompactionInterval().toMillis();
+        compactor.scheduleWithFixedDelay(this::compact, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ends every subscription, so that their clients reconnect elsewhere, and stops tailing and compacting.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        subscriptions.values().forEach(future -> future.cancel(true));
+        subscriptions.clear();
+        Thread thread = tailer;
+        if (thread != null) {
+            thread.interrupt();
+            tailer = null;
+        }
+        ScheduledExecutorService executor = compactor;
+        if (executor != null) {
+            executor.shutdownNow();
+            compactor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts once the web server runs and stops before its graceful shutdown, which would otherwise wait for
+     * the open streams until its timeout.
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE + 1;
+    }
+
+    private void tail() {
+        long pollNanos = settings.getPollInterval().toNanos();
+        int batchSize = settings.getBatchSize();
+        while (running) {
+            try {
+                if (ring.head() < 0) {
+                    ring.position(changeLog.position().head());
+                }
+                List<ChangeEvent> events = changeLog.readAfter(ring.head(), batchSize);
+                ring.append(events);
+                if (events.size() < batchSize) {
+                    wakeUp.tryAcquire(pollNanos, TimeUnit.NANOSECONDS);
+                    wakeUp.drainPermits();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("Could not read the change log; retrying in {}.", settings.getPollInterval(), ex);
+                try {
+                    TimeUnit.NANOSECONDS.sleep(pollNanos);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Delivers from the ring while the subscriber keeps up with it and from the log otherwise, and sends a
+     * heartbeat whenever nothing was sent for {@code todo.change-feed.heartbeat-interval}. A subscriber behind
+     * the purge horizon is reset first: the ring can still hold entries that have been purged from the log.
+     */
+    private void deliver(Subscription subscription, long start, ChangeSink sink) {
+        long cursor = start;
+        Duration heartbeatInterval = settings.getHeartbeatInterval();
+        int batchSize = settings.getBatchSize();
+        long lastSent = System.nanoTime();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<ChangeEvent> events = cursor < purgedThrough.get() ? null
+                        : ring.awaitAfter(cursor, batchSize, heartbeatInterval);
+                if (events == null) {
+                    catchUpReads.increment();
+                    ChangeLog.Position position = observe(changeLog.position());
+                    if (cursor < position.purgedThrough()) {
+                        sink.reset(position.head());
+                        cursor = position.head();
+                        lastSent = System.nanoTime();
+                        continue;
+                    }
+                    events = changeLog.readAfter(cursor, batchSize);
+                    if (events.isEmpty()) {
+                        // Nothing committed after the cursor yet while the ring is not positioned
+                        TimeUnit.NANOSECONDS.sleep(settings.getPollInterval().toNanos());
+                    }
+                }
+                if (!events.isEmpty()) {
+                    sink.send(events);
+                    cursor = events.get(events.size() - 1).seq();
+                    lastSent = System.nanoTime();
+                } else if (System.nanoTime() - lastSent >= heartbeatInterval.toNanos()) {
+                    sink.heartbeat();
+                    lastSent = System.nanoTime();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            log.debug("Change feed subscriber went away.", ex);
+        } catch (RuntimeException ex) {
+            log.warn("Change feed subscription failed at position {}.", cursor, ex);
+        } finally {
+            subscriptions.remove(subscription);
+            sink.close();
+        }
+    }
+
+    private void compact() {
+        try {
+            ChangeLog.Compaction compaction = changeLog.compact(Instant.now());
+            observe(changeLog.position());
+            if (compaction.superseded() > 0 || compaction.expired() > 0) {
+                log.info("Compacted the change log: {} superseded and {} expired entries removed.",
+                        compaction.superseded(), compaction.expired());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not compact the change log.", ex);
+        }
+    }
+
+    /**
+     * Keeps the highest purge horizon read from the log, which subscribers check before reading from the ring.
+     */
+    private ChangeLog.Position observe(ChangeLog.Position position) {
+        purgedThrough.accumulateAndGet(position.purgedThrough(), Math::max);
+        return position;
+    }
+
+    /**
+     * An open subscription of the feed.
+     */
+    public final class Subscription implements AutoCloseable {
+
+        /**
+         * Stops the delivery; the sink is closed by the subscription's thread.
+         */
+        @Override
+        public void close() {
+            Future<?> future = subscriptions.remove(this);
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+}
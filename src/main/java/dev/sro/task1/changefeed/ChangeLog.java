@@ -0,0 +1,240 @@
+package dev.sro.task1.changefeed;
+
+import dev.sro.task1.concurrency.DatabaseAccessLimiter;
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.dto.ChangeEvent;
+import dev.sro.task1.entity.ChangeLogEntry;
+import dev.sro.task1.entity.ChangeLogSequence;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.event.TodoItemChange;
+import dev.sro.task1.repository.ChangeLogRepository;
+import dev.sro.task1.routing.ReadYourWrites;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Append-only log of the changes to todo items ({@code todo_change_log}), the source of the change feed.
+ * <p>
+ * Every {@link TodoItemChange} published by {@code TodoItemServiceImpl} is appended right before its transaction
+ * commits, so a change is in the log if and only if it committed. Sequence numbers are taken from the single
+ * {@link ChangeLogSequence} row, which stays locked until the commit: writers serialize for the duration of
+ * their commit only, and in exchange a reader that has seen sequence number n can never miss a later commit
+ * of a lower one. {@link ReactiveChangeLog} appends the writes of reactive instances the same way.
+ * <p>
+ * {@link #compact(Instant)} keeps the log bounded: entries superseded by a later change of the same item are
+ * removed once they are older than {@code todo.change-feed.compact-after}, which a reader catching up never
+ * notices, and everything older than {@code todo.change-feed.retention} is purged, tombstones included, which
+ * makes readers positioned before it start over.
+ */
+@Component
+@Profile("!reactive") // Fed by the servlet stack's TodoItemService
+@ConditionalOnProperty(prefix = "todo.change-feed", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeLog implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeLog.class);
+
+    // Entries deleted per statement when compacting; each chunk is its own short transaction
+    private static final int COMPACTION_CHUNK_SIZE = 1000;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final DatabaseAccessLimiter databaseAccessLimiter;
+    private final TodoProperties todoProperties;
+    private final Counter superseded;
+    private final Counter expired;
+
+    public ChangeLog(ChangeLogRepository changeLogRepository, EntityManager entityManager,
+                     PlatformTransactionManager transactionManager, DatabaseAccessLimiter databaseAccessLimiter,
+                     TodoProperties todoProperties, MeterRegistry meterRegistry) {
+        this.changeLogRepository = changeLogRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.databaseAccessLimiter = databaseAccessLimiter;
+        this.todoProperties = todoProperties;
+        this.superseded = Counter.builder("todo.change-log.compacted")
+                .tag("reason", "superseded")
+                .description("Change log entries removed by compaction")
+                .register(meterRegistry);
+        this.expired = Counter.builder("todo.change-log.compacted")
+                .tag("reason", "expired")
+                .description("Change log entries removed by compaction")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates the sequence row of an empty database before the web server takes the first write.
+     * Another instance doing the same at the same time is fine: one of the inserts wins.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (entityManager.find(ChangeLogSequence.class, ChangeLogSequence.ID) == null) {
+                    entityManager.persist(new ChangeLogSequence(ChangeLogSequence.ID, 1L, 0L));
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Change log sequence created concurrently.", ex);
+        }
+    }
+
+    /**
+     * Appends a change in the transaction that made it, as late as possible so that the sequence row is only
+     * locked while committing. Runs only if the transaction is about to commit.
+     * @param change The change, as published by the service.
+     * @throws IllegalStateException for a change that does not name its items; the transaction rolls back.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTodoItemChange(TodoItemChange change) {
+        // Pending updates of managed items get their new version, and take their row locks before the sequence's
+        entityManager.flush();
+        switch (change) {
+            case TodoItemChange.Saved saved -> append(saved.items().stream().map(TodoItem::getId).toList(),
+                    saved.items().stream().map(TodoItem::getVersion).toList(), ChangeLogEntry.Operation.UPSERT);
+            case TodoItemChange.Deleted deleted -> append(deleted.ids(), null, ChangeLogEntry.Operation.DELETE);
+            case TodoItemChange.DescriptionUpdated updated -> append(updated.ids(), null, ChangeLogEntry.Operation.UPSERT);
+        }
+    }
+
+    /**
+     * @return The last committed sequence number and the one the log has been purged through.
+     */
+    public Position position() {
+        return databaseAccessLimiter.call(() -> ReadYourWrites.onPrimary(() -> readOnlyTransactionTemplate.execute(status -> {
+            ChangeLogSequence sequence = entityManager.find(ChangeLogSequence.class, ChangeLogSequence.ID);
+            return sequence == null ? new Position(0, 0) : new Position(sequence.getNextSeq() - 1, sequence.getPurgedThrough());
+        })));
+    }
+
+    /**
+     * Reads the entries that follow a position of the log, from the primary database (a replica may be behind
+     * the position the reader got from the primary).
+     * @param seq The last sequence number seen.
+     * @param limit The maximum number of entries to return.
+     * @return Up to {@code limit} change events ordered by ascending sequence number.
+     */
+    public List<ChangeEvent> readAfter(long seq, int limit) {
+        return databaseAccessLimiter.call(() -> ReadYourWrites.onPrimary(
+                () -> changeLogRepository.findEventsAfter(seq, Limit.of(limit))));
+    }
+
+    /**
+     * Removes superseded entries older than {@code todo.change-feed.compact-after} and every entry older than
+     * {@code todo.change-feed.retention}, in chunks of short transactions so that writers are never held up.
+     * The purge horizon is recorded before anything is purged, so that no reader mistakes a purged log for
+     * an up-to-date one.
+     * @param now The current time.
+     * @return The number of entries removed for each reason.
+     */
+    public Compaction compact(Instant now) {
+        TodoProperties.ChangeFeed settings = todoProperties.getChangeFeed();
+        long expiredCount = 0;
+        Optional<Long> expiredThrough = changeLogRepository.findMaxSeqChangedBefore(now.minus(settings.getRetention()));
+        Optional<Long> first = changeLogRepository.findMinSeq();
+        if (expiredThrough.isPresent() && first.isPresent()) {
+            long through = expiredThrough.get();
+            transactionTemplate.executeWithoutResult(status -> {
+                ChangeLogSequence sequence = entityManager.find(ChangeLogSequence.class, ChangeLogSequence.ID,
+                        LockModeType.PESSIMISTIC_WRITE);
+                sequence.setPurgedThrough(Math.max(sequence.getPurgedThrough(), through));
+            });
+            for (long from = first.get(); from <= through; from += COMPACTION_CHUNK_SIZE) {
+                long chunkFrom = from;
+                long chunkThrough = Math.min(from + COMPACTION_CHUNK_SIZE - 1, through);
+                expiredCount += transactionTemplate.execute(
+                        status -> changeLogRepository.deleteBySeqBetween(chunkFrom, chunkThrough));
+            }
+        }
+
+        long supersededCount = 0;
+        Optional<Long> compactThrough = changeLogRepository.findMaxSeqChangedBefore(now.minus(settings.getCompactAfter()));
+        if (compactThrough.isPresent()) {
+            long after = 0;
+            List<Long> seqs;
+            do {
+                seqs = changeLogRepository.findSupersededSeqs(after, compactThrough.get(), Limit.of(COMPACTION_CHUNK_SIZE));
+                if (!seqs.isEmpty()) {
+                    List<Long> chunk = seqs;
+                    supersededCount += transactionTemplate.execute(status -> changeLogRepository.deleteBySeqIn(chunk));
+                    after = seqs.get(seqs.size() - 1);
+                }
+            } while (seqs.size() == COMPACTION_CHUNK_SIZE);
+        }
+
+        expired.increment(expiredCount);
+        superseded.increment(supersededCount);
+        return new Compaction(supersededCount, expiredCount);
+    }
+
+    /**
+     * Takes as many sequence numbers as there are IDs, in one locked read of the sequence row, and persists an
+     * entry per ID; Hibernate sends the entries as JDBC batches when the transaction flushes.
+     */
+    private void append(Collection<Long> ids, List<Long> versions, ChangeLogEntry.Operation operation) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        ChangeLogSequence sequence = entityManager.find(ChangeLogSequence.class, ChangeLogSequence.ID,
+                LockModeType.PESSIMISTIC_WRITE);
+        if (sequence == null) {
+            throw new IllegalStateException("The change log sequence (todo_change_log_seq) has not been created.");
+        }
+        long seq = sequence.getNextSeq();
+        sequence.setNextSeq(seq + ids.size());
+        Instant changedAt = Instant.now();
+        int flushSize = todoProperties.getBatch().getFlushSize();
+        List<ChangeLogEntry> pending = new ArrayList<>(Math.min(ids.size(), flushSize));
+        int index = 0;
+        for (Long id : ids) {
+            Long version = versions == null ? null : versions.get(index);
+            ChangeLogEntry entry = new ChangeLogEntry(seq++, id, operation, version, changedAt);
+            entityManager.persist(entry);
+            pending.add(entry);
+            index++;
+            if (pending.size() == flushSize) {
+                // Bounds the persistence context for large batches; the sequence row is already written
+                entityManager.flush();
+                pending.forEach(entityManager::detach);
+                pending.clear();
+            }
+        }
+    }
+
+    /**
+     * @param head          The sequence number of the last committed entry, 0 while the log is empty.
+     * @param purgedThrough Every entry up to this sequence number has been purged.
+     */
+    public record Position(long head, long purgedThrough) {
+    }
+
+    /**
+     * @param superseded Entries removed because a later entry of the same item supersedes them.
+     * @param expired    Entries removed because they were older than the retention.
+     */
+    public record Compaction(long superseded, long expired) {
+    }
+}
@@ -0,0 +1,122 @@
+package dev.sro.task1.changefeed;
+
+import dev.sro.task1.dto.ChangeEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The latest change events in a fixed number of slots, indexed by sequence number, from which every live
+ * subscriber reads; a subscriber whose position has been overwritten catches up from the change log instead.
+ * Readers wait on a lock condition, which parks a virtual thread without pinning its carrier.
+ */
+final class ChangeRingBuffer {
+
+    private final ChangeEvent[] slots;
+    private final Lock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    // Sequence number of the newest event; -1 until positioned
+    private long head = -1;
+    // Number of consecutive events up to the head that are held
+    private int size;
+
+    ChangeRingBuffer(int capacity) {
+        this.slots = new ChangeEvent[Math.max(1, capacity)];
+    }
+
+    /**
+     * Empties the ring and places its head at the given sequence number, e.g. the end of the change log.
+     */
+    void position(long seq) {
+        lock.lock();
+        try {
+            Arrays.fill(slots, null);
+            head = seq;
+            size = 0;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends events in sequence order, overwriting the oldest ones. An event that does not directly follow
+     * the head (the entries in between were compacted away) starts the ring over from that event.
+     */
+    void append(List<ChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (ChangeEvent event : events) {
+                if (event.seq() <= head) {
+                    continue; // Already held
+                }
+                if (event.seq() != head + 1) {
+                    size = 0;
+                }
+                slots[slot(event.seq())] = event;
+                head = event.seq();
+                size = Math.min(size + 1, slots.length);
+            }
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The sequence number of the newest event, or -1 before the ring has been positioned.
+     */
+    long head() {
+        lock.lock();
+        try {
+            return head;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until events follow the given sequence number and returns them.
+     * @param seq The last sequence number seen by the caller.
+     * @param max The maximum number of events to return.
+     * @param timeout How long to wait for a first event.
+     * @return Up to {@code max} events following {@code seq}, in order; empty if none arrived within the timeout;
+     * null if the ring cannot tell, because it no longer holds the event after {@code seq} or is not positioned.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    List<ChangeEvent> awaitAfter(long seq, int max, Duration timeout) throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = timeout.toNanos();
+            while (head >= 0 && head <= seq) {
+                if (nanos <= 0) {
+                    return List.of();
+                }
+                nanos = appended.awaitNanos(nanos);
+            }
+            if (head < 0 || seq < head - size) {
+                return null;
+            }
+            int count = (int) Math.min(head - seq, max);
+            List<ChangeEvent> events = new ArrayList<>(count);
+            for (long next = seq + 1; next <= seq + count; next++) {
+                events.add(slots[slot(next)]);
+            }
+            return events;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int slot(long seq) {
+        return (int) Math.floorMod(seq, (long) slots.length);
+    }
+}
@@ -0,0 +1,34 @@
+package dev.sro.task1.changefeed;
+
+import dev.sro.task1.dto.ChangeEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where a subscription of the {@link ChangeFeed} delivers to, e.g. a Server-Sent Events stream.
+ * Called from the subscription's own thread only; an {@link IOException} ends the subscription.
+ */
+public interface ChangeSink {
+
+    /**
+     * Delivers change events, in sequence order.
+     */
+    void send(List<ChangeEvent> events) throws IOException;
+
+    /**
+     * Tells the subscriber that changes after its position have been purged from the log: it has to reload the
+     * items, and receives the changes after {@code seq} from now on.
+     */
+    void reset(long seq) throws IOException;
+
+    /**
+     * Keeps an idle connection open, and finds out whether the subscriber is still there.
+     */
+    void heartbeat() throws IOException;
+
+    /**
+     * Ends the delivery; called once, whatever ended the subscription.
+     */
+    void close();
+}
@@ -0,0 +1,118 @@
+package dev.sro.task1.changefeed;
+
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.entity.ChangeLogEntry;
+import dev.sro.task1.entity.ChangeLogSequence;
+import dev.sro.task1.entity.TodoItem;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Appends the writes of the reactive stack to the change log ({@code todo_change_log}) with R2DBC, so that the
+ * change feed of servlet instances sharing the database sees them as well.
+ * <p>
+ * Appends the same entries as {@link ChangeLog} and takes their sequence numbers the same way, from the
+ * {@link ChangeLogSequence} row, locked until the commit. An append must therefore be the last statement of the
+ * write transaction, so that the row is only held while committing. The sequence row is created by the servlet
+ * stack (see {@link ChangeLog#afterSingletonsInstantiated()}) or by the upgrade script.
+ */
+@Component
+@Profile("reactive")
+@ConditionalOnProperty(prefix = "todo.change-feed", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveChangeLog {
+
+    private final DatabaseClient databaseClient;
+    private final TodoProperties todoProperties;
+
+    public ReactiveChangeLog(DatabaseClient databaseClient, TodoProperties todoProperties) {
+        this.databaseClient = databaseClient;
+        this.todoProperties = todoProperties;
+    }
+
+    /**
+     * Appends an upsert of each item at the version it was written at; must run in the write transaction.
+     * @param items The items as they were stored.
+     */
+    public Mono<Void> appendSaved(List<TodoItem> items) {
+        return append(items.stream().map(TodoItem::getId).toList(), items.stream().map(TodoItem::getVersion).toList(),
+                ChangeLogEntry.Operation.UPSERT);
+    }
+
+    /**
+     * Appends an entry per ID; must run in the write transaction.
+     * @param ids The IDs of the changed items.
+     * @param operation What happened to them; the version of the entries is unknown.
+     */
+    public Mono<Void> append(Collection<Long> ids, ChangeLogEntry.Operation operation) {
+        return append(List.copyOf(ids), null, operation);
+    }
+
+    /**
+     * Takes as many sequence numbers as there are IDs, in one locked read of the sequence row, and inserts the
+     * entries with one multi-row INSERT per chunk of {@code todo.batch.flush-size}.
+     */
+    private Mono<Void> append(List<Long> ids, List<Long> versions, ChangeLogEntry.Operation operation) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("SELECT next_seq FROM todo_change_log_seq WHERE id = :id FOR UPDATE")
+                .bind("id", ChangeLogSequence.ID)
+                .map(row -> row.get("next_seq", Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                        "The change log sequence (todo_change_log_seq) has not been created.")))
+                .flatMap(first -> databaseClient.sql("UPDATE todo_change_log_seq SET next_seq = :next WHERE id = :id")
+                        .bind("next", first + ids.size())
+                        .bind("id", ChangeLogSequence.ID)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(first))
+                .flatMap(first -> {
+                    LocalDateTime changedAt = LocalDateTime.ofInstant(Instant.now(), ZoneOffset.UTC);
+                    int flushSize = todoProperties.getBatch().getFlushSize();
+                    List<Integer> chunkStarts = new ArrayList<>();
+                    for (int from = 0; from < ids.size(); from += flushSize) {
+                        chunkStarts.add(from);
+                    }
+                    return Flux.fromIterable(chunkStarts)
+                            .concatMap(from -> insertEntries(first, ids, versions, operation, changedAt,
+                                    from, Math.min(from + flushSize, ids.size())))
+                            .then();
+                });
+    }
+
+    /**
+     * Inserts the entries of {@code ids[from, to)}, numbered from {@code first} on.
+     */
+    private Mono<Long> insertEntries(long first, List<Long> ids, List<Long> versions,
+                                     ChangeLogEntry.Operation operation, LocalDateTime changedAt, int from, int to) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO todo_change_log (seq, item_id, operation, version, changed_at) VALUES ");
+        for (int i = from; i < to; i++) {
+            sql.append(i == from ? "" : ", ").append("(:seq").append(i).append(", :itemId").append(i)
+                    .append(", :operation, :version").append(i).append(", :changedAt)");
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("operation", operation.name())
+                .bind("changedAt", changedAt);
+        for (int i = from; i < to; i++) {
+            spec = spec.bind("seq" + i, first + i)
+                    .bind("itemId" + i, ids.get(i))
+                    .bind("version" + i, Parameters.in(R2dbcType.BIGINT, versions == null ? null : versions.get(i)));
+        }
+        return spec.fetch().rowsUpdated();
+    }
+}
@@ -0,0 +1,57 @@
+package dev.sro.task1.codec;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary formats next to JSON: CBOR ({@code application/cbor}), Smile ({@code application/x-jackson-smile})
+ * and Protocol Buffers ({@code application/x-protobuf}), picked by the Accept header for responses and by
+ * Content-Type for request bodies. JSON stays the format of requests that accept anything.
+ * <p>
+ * The CBOR and Smile converter beans take the place of Spring MVC's default ones, after JSON, with mappers
+ * from Spring Boot's builder, so they carry the same modules and {@code spring.jackson.*} settings as the
+ * JSON one.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("!reactive")
+public class ContentNegotiationConfiguration implements WebMvcConfigurer {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Appends the Protocol Buffers converter; a converter bean would go in front of JSON.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new TodoProtobufHttpMessageConverter());
+    }
+
+    /**
+     * Publishes the Protocol Buffers schema at {@link TodoProtobufHttpMessageConverter#SCHEMA}; the build
+     * copies {@code src/main/proto} onto the classpath.
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/api/todos/schema/**")
+                .addResourceLocations("classpath:/todo/v1/");
+    }
+}
@@ -0,0 +1,80 @@
+package dev.sro.task1.codec;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes the bodies of the todo API as Protocol Buffers ({@code application/x-protobuf}),
+ * through {@link TodoProtobufMapper}. Like Spring's {@link ProtobufHttpMessageConverter}, responses name
+ * their schema and message in the {@code X-Protobuf-Schema} and {@code X-Protobuf-Message} headers.
+ */
+public class TodoProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    /**
+     * Where the schema is served, see {@link ContentNegotiationConfiguration}.
+     */
+    public static final String SCHEMA = "/api/todos/schema/todo.proto";
+
+    /**
+     * {@code application/x-protobuf} without the charset parameter of {@link ProtobufHttpMessageConverter#PROTOBUF},
+     * which does not apply to a binary body.
+     */
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public TodoProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TodoProtobufMapper.canWrite(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return TodoProtobufMapper.canRead(clazz) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return TodoProtobufMapper.canRead(type) && canRead(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return TodoProtobufMapper.read(type, inputMessage.getBody());
+        } catch (InvalidProtocolBufferException ex) {
+            throw new HttpMessageNotReadableException("Invalid Protocol Buffers message: " + ex.getMessage(), ex, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Message message;
+        try {
+            message = TodoProtobufMapper.toMessage(body);
+        } catch (IllegalArgumentException | ClassCastException ex) {
+            throw new HttpMessageNotWritableException("Could not write Protocol Buffers: " + ex.getMessage(), ex);
+        }
+        outputMessage.getHeaders().set(ProtobufHttpMessageConverter.X_PROTOBUF_SCHEMA_HEADER, SCHEMA);
+        outputMessage.getHeaders().set(ProtobufHttpMessageConverter.X_PROTOBUF_MESSAGE_HEADER,
+                message.getDescriptorForType().getFullName());
+        message.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,200 @@
+package dev.sro.task1.codec;
+
+import com.google.protobuf.Message;
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.BulkDescriptionUpdate;
+import dev.sro.task1.dto.BulkOperationResult;
+import dev.sro.task1.dto.CreateRequestStatus;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.dto.RankedTodoItem;
+import dev.sro.task1.dto.RankedTodoItemSummary;
+import dev.sro.task1.dto.SearchResultPage;
+import dev.sro.task1.dto.TodoItemSummary;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.proto.TodoProtos;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts the bodies of the todo API to and from the messages of {@code todo/v1/todo.proto}.
+ * <p>
+ * Responses map by their runtime type, so listings of whole items, summaries and sparse fieldsets
+ * (maps of the requested fields) all become {@link TodoProtos.TodoItem}s with just the present fields set.
+ */
+public final class TodoProtobufMapper {
+
+    private TodoProtobufMapper() {
+    }
+
+    /**
+     * @return Whether {@link #toMessage(Object)} has a message for instances of the class.
+     */
+    public static boolean canWrite(Class<?> clazz) {
+        return TodoItem.class.isAssignableFrom(clazz)
+                || CursorPage.class.isAssignableFrom(clazz)
+                || SearchResultPage.class.isAssignableFrom(clazz)
+                || List.class.isAssignableFrom(clazz)
+                || clazz == BatchCreateResult.class
+                || clazz == BulkOperationResult.class
+                || clazz == CreateRequestStatus.class;
+    }
+
+    /**
+     * @return Whether {@link #read(Type, InputStream)} can produce the type: a todo item, a list of them
+     * or a bulk description update.
+     */
+    public static boolean canRead(Type type) {
+        if (type instanceof ParameterizedType parameterized) {
+            return parameterized.getRawType() == List.class
+                    && parameterized.getActualTypeArguments()[0] == TodoItem.class;
+        }
+        return type == TodoItem.class || type == BulkDescriptionUpdate.class;
+    }
+
+    /**
+     * @param body A response body of one of the types accepted by {@link #canWrite(Class)}.
+     * @return The message of the body.
+     * @throws IllegalArgumentException if the body, or an element of it, has no message.
+     */
+    public static Message toMessage(Object body) {
+        return switch (body) {
+            case TodoItem todoItem -> toMessage(todoItem);
+            case CursorPage<?> page -> {
+                TodoProtos.TodoItemPage.Builder builder = TodoProtos.TodoItemPage.newBuilder();
+                page.items().forEach(item -> builder.addItems(item(item)));
+                if (page.next() != null) {
+                    builder.setNext(page.next());
+                }
+                yield builder.build();
+            }
+            case SearchResultPage<?> results -> {
+                TodoProtos.SearchResultPage.Builder builder = TodoProtos.SearchResultPage.newBuilder()
+                        .setPage(results.page())
+                        .setSize(results.size())
+                        .setTotal(results.total());
+                results.items().forEach(result -> builder.addItems(ranked(result)));
+                yield builder.build();
+            }
+            case List<?> items -> {
+                TodoProtos.TodoItemList.Builder builder = TodoProtos.TodoItemList.newBuilder();
+                items.forEach(item -> builder.addItems(item(item)));
+                yield builder.build();
+            }
+            case BatchCreateResult result -> toMessage(result);
+            case BulkOperationResult result -> TodoProtos.BulkOperationResult.newBuilder()
+                    .setAffected(result.affected())
+                    .build();
+            case CreateRequestStatus status -> {
+                TodoProtos.CreateRequestStatus.Builder builder = TodoProtos.CreateRequestStatus.newBuilder()
+                        .setTrackingId(status.trackingId())
+                        .setState(TodoProtos.CreateRequestStatus.State.valueOf(status.state().name()));
+                if (status.id() != null) {
+                    builder.setId(status.id());
+                }
+                if (status.message() != null) {
+                    builder.setMessage(status.message());
+                }
+                yield builder.build();
+            }
+            default -> throw new IllegalArgumentException("No Protocol Buffers message for " + body.getClass().getName());
+        };
+    }
+
+    public static TodoProtos.TodoItem toMessage(TodoItem todoItem) {
+        return todoItem(todoItem.getId(), todoItem.getTitle(), todoItem.getDescription(), todoItem.getVersion());
+    }
+
+    public static TodoProtos.RankedTodoItem toMessage(RankedTodoItem result) {
+        return ranked(result.item(), result.score());
+    }
+
+    public static TodoProtos.BatchCreateResult toMessage(BatchCreateResult result) {
+        TodoProtos.BatchCreateResult.Builder builder = TodoProtos.BatchCreateResult.newBuilder();
+        result.created().forEach(created -> builder.addCreated(TodoProtos.BatchCreateResult.Created.newBuilder()
+                .setIndex(created.index())
+                .setId(created.id())));
+        result.failed().forEach(failed -> builder.addFailed(TodoProtos.BatchCreateResult.Failed.newBuilder()
+                .setIndex(failed.index())
+                .setMessage(failed.message())));
+        return builder.build();
+    }
+
+    /**
+     * @param message A todo item as sent by a client.
+     * @return A new, unmanaged todo item; fields absent from the message are null.
+     */
+    public static TodoItem fromMessage(TodoProtos.TodoItem message) {
+        return new TodoItem(message.hasId() ? message.getId() : null,
+                message.hasTitle() ? message.getTitle() : null,
+                message.hasDescription() ? message.getDescription() : null,
+                message.hasVersion() ? message.getVersion() : null);
+    }
+
+    /**
+     * Parses a request body.
+     * @param type A type accepted by {@link #canRead(Type)}.
+     * @param body The encoded message.
+     * @return The todo item, list of todo items or bulk description update.
+     * @throws com.google.protobuf.InvalidProtocolBufferException if the body is not a valid message.
+     */
+    public static Object read(Type type, InputStream body) throws IOException {
+        if (type == TodoItem.class) {
+            return fromMessage(TodoProtos.TodoItem.parseFrom(body));
+        }
+        if (type == BulkDescriptionUpdate.class) {
+            TodoProtos.BulkDescriptionUpdate update = TodoProtos.BulkDescriptionUpdate.parseFrom(body);
+            return new BulkDescriptionUpdate(List.copyOf(update.getIdsList()),
+                    update.hasDescription() ? update.getDescription() : null);
+        }
+        List<TodoProtos.TodoItem> messages = TodoProtos.TodoItemList.parseFrom(body).getItemsList();
+        List<TodoItem> todoItems = new ArrayList<>(messages.size());
+        messages.forEach(message -> todoItems.add(fromMessage(message)));
+        return todoItems;
+    }
+
+    private static TodoProtos.TodoItem item(Object item) {
+        return switch (item) {
+            case TodoItem todoItem -> toMessage(todoItem);
+            case TodoItemSummary summary -> todoItem(summary.id(), summary.title(), null, summary.version());
+            case Map<?, ?> fields -> todoItem((Long) fields.get("id"), (String) fields.get("title"),
+                    (String) fields.get("description"), (Long) fields.get("version"));
+            default -> throw new IllegalArgumentException("No Protocol Buffers message for " + item.getClass().getName());
+        };
+    }
+
+    private static TodoProtos.RankedTodoItem ranked(Object result) {
+        return switch (result) {
+            case RankedTodoItem ranked -> toMessage(ranked);
+            case RankedTodoItemSummary ranked -> ranked(ranked.item(), ranked.score());
+            case Map<?, ?> ranked -> ranked(ranked.get("item"), (Double) ranked.get("score"));
+            default -> throw new IllegalArgumentException("No Protocol Buffers message for " + result.getClass().getName());
+        };
+    }
+
+    private static TodoProtos.RankedTodoItem ranked(Object item, double score) {
+        return TodoProtos.RankedTodoItem.newBuilder().setItem(item(item)).setScore(score).build();
+    }
+
+    private static TodoProtos.TodoItem todoItem(Long id, String title, String description, Long version) {
+        TodoProtos.TodoItem.Builder builder = TodoProtos.TodoItem.newBuilder();
+        if (id != null) {
+            builder.setId(id);
+        }
+        if (title != null) {
+            builder.setTitle(title);
+        }
+        if (description != null) {
+            builder.setDescription(description);
+        }
+        if (version != null) {
+            builder.setVersion(version);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,18 @@
+package dev.sro.task1.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only method of {@code TodoItemServiceImpl} whose concurrent calls with the same arguments share
+ * one execution, through {@link RequestCoalescer}. String arguments are compared ignoring case, so the method
+ * must not tell a query from its lower-cased form, and its result must not be modified by callers.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+}
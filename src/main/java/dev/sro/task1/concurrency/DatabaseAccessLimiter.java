@@ -0,0 +1,133 @@
+package dev.sro.task1.concurrency;
+
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.exception.DatabaseBusyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of callers using the database through {@code TodoItemServiceImpl} at the same time
+ * ({@code todo.database.max-concurrent-access}, normally the connection pool size).
+ * <p>
+ * With virtual threads every request gets its own thread, so thousands of them may reach the service at once.
+ * Waiting for a permit parks the virtual thread and frees its carrier, whereas waiting inside the pool or a
+ * JDBC driver that still uses {@code synchronized} can pin the carrier. Only permit holders get that far.
+ * <p>
+ * Service methods that start a transaction hold their connection from start to end, so they take a permit
+ * around the transaction; this aspect therefore runs before the transaction interceptor, and right after
+ * {@link RequestCoalescer}, so that callers waiting for an identical read hold no permit. Methods that join
+ * an existing transaction only if there is one ({@link Propagation#SUPPORTS}) answer from the cache and limit
+ * their own database access with {@link #call(Supplier)}.
+ * Permit holders and waiters are published as the {@code todo.database.permits.*} gauges, the time spent
+ * waiting as the {@code todo.database.permits.wait} timer.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DatabaseAccessLimiter {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final Timer waitTimer;
+    private final Map<Method, Boolean> limitedMethods = new ConcurrentHashMap<>();
+
+    public DatabaseAccessLimiter(TodoProperties todoProperties, MeterRegistry meterRegistry) {
+        TodoProperties.Database settings = todoProperties.getDatabase();
+        int maxConcurrentAccess = settings.getMaxConcurrentAccess();
+        this.permits = maxConcurrentAccess > 0 ? new Semaphore(maxConcurrentAccess, true) : null;
+        this.acquireTimeout = settings.getAcquireTimeout();
+        this.waitTimer = Timer.builder("todo.database.permits.wait")
+                .description("Time spent waiting for a database access permit")
+                .register(meterRegistry);
+        if (permits != null) {
+            Gauge.builder("todo.database.permits.active", permits, semaphore -> maxConcurrentAccess - semaphore.availablePermits())
+                    .description("Callers currently allowed to use the database")
+                    .register(meterRegistry);
+            Gauge.builder("todo.database.permits.pending", permits, Semaphore::getQueueLength)
+                    .description("Callers waiting for a database access permit")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Runs the given database access once a permit is free.
+     * @param access The database access, e.g. a repository call.
+     * @return The result of the access.
+     * @throws DatabaseBusyException if no permit became free within {@code todo.database.acquire-timeout}.
+     */
+    public <T> T call(Supplier<T> access) {
+        if (permits == null) {
+            return access.get();
+        }
+        acquire();
+        try {
+            return access.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Around("execution(public * dev.sro.task1.service.impl.TodoItemServiceImpl.*(..))")
+    public Object limitTransaction(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (permits == null || !isLimited(joinPoint)) {
+            return joinPoint.proceed();
+        }
+        acquire();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseBusyException("Interrupted while waiting for database access.");
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            throw new DatabaseBusyException("No database access permit became free within " + acquireTimeout + ".");
+        }
+    }
+
+    /**
+     * @return Whether the intercepted method starts a transaction, looked up once per method.
+     */
+    private boolean isLimited(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return limitedMethods.computeIfAbsent(method, declared -> {
+            Method specific = AopUtils.getMostSpecificMethod(declared, joinPoint.getTarget().getClass());
+            Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(specific, Transactional.class);
+            if (transactional == null) {
+                transactional = AnnotatedElementUtils.findMergedAnnotation(specific.getDeclaringClass(), Transactional.class);
+            }
+            return transactional == null || transactional.propagation() != Propagation.SUPPORTS;
+        });
+    }
+}
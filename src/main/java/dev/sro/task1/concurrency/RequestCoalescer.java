@@ -0,0 +1,231 @@
+package dev.sro.task1.concurrency;
+
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.event.TodoItemChange;
+import dev.sro.task1.exception.DatabaseBusyException;
+import dev.sro.task1.routing.ReadYourWrites;
+import dev.sro.task1.sharding.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical reads share one database load ("single flight"): the first caller of a key runs the
+ * load, the callers arriving while it is in flight wait for it and receive the same result or exception.
+ * During a spike of identical requests, the database and the connection pool see one query per key instead of
+ * one per request. Followers wait without a database access permit, and at most {@code todo.coalescing.max-wait},
+ * after which they load on their own.
+ * <p>
+ * Keys are the operation, its arguments (strings lower-cased), the shard and whether the caller has to read from
+ * the primary database. Applied to the methods marked {@link Coalesced} as an aspect, which runs before
+ * {@link DatabaseAccessLimiter} and the transaction interceptor, and through {@link #load} elsewhere.
+ * <p>
+ * A read never joins a load that may have started before a write it should see. Every transaction publishing a
+ * {@link TodoItemChange} moves an epoch forward right before it commits and again once it has completed, and is
+ * counted as committing in between; loads are only shared between callers that saw the same epoch with no commit
+ * in progress, so a load that is shared started after every commit its callers could know about. Callers inside
+ * a transaction always load on their own, as they may have to see their own uncommitted writes. Writes made by
+ * other instances are not seen, as with the cache.
+ * <p>
+ * Loads run and loads saved are published per operation as the {@code todo.coalescing.loads} and
+ * {@code todo.coalescing.saved} counters, followers that stopped waiting as {@code todo.coalescing.timeouts},
+ * and the loads in flight as the {@code todo.coalescing.in-flight} gauge.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestCoalescer {
+
+    private final boolean enabled;
+    private final Duration maxWait;
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+    private final AtomicInteger commitsInProgress = new AtomicInteger();
+
+    public RequestCoalescer(TodoProperties todoProperties, MeterRegistry meterRegistry) {
+        TodoProperties.Coalescing settings = todoProperties.getCoalescing();
+        this.enabled = settings.isEnabled();
+        this.maxWait = settings.getMaxWait();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("todo.coalescing.in-flight", flights, Map::size)
+                .description("Coalesced database loads in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the given load, or waits for the identical one in flight and returns its outcome.
+     * @param operation The name of the operation, e.g. the service method; the tag of its metrics.
+     * @param arguments The arguments that, with the operation, identify the load.
+     * @param load The database load; its result is shared and must not be modified.
+     * @return The result of the load.
+     * @throws DatabaseBusyException if interrupted while waiting.
+     */
+    public <T> T load(String operation, List<?> arguments, Supplier<T> load) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return load.get();
+        }
+        long seen = epoch.get();
+        if (commitsInProgress.get() > 0 || epoch.get() != seen) {
+            return load.get(); // A write is committing; a load in flight may predate it
+        }
+        Meters operationMeters = meters(operation);
+        Key key = new Key(operation, normalize(arguments), ShardContext.current(), ReadYourWrites.isPinnedToPrimary());
+        Flight flight = new Flight(seen);
+        Flight current = flights.compute(key,
+                (ignored, inFlight) -> inFlight != null && inFlight.epoch() == seen ? inFlight : flight);
+        if (current != flight) {
+            return await(current, operationMeters, load);
+        }
+        operationMeters.loads().increment();
+        try {
+            T result = load.get();
+            flight.result().complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            flight.result().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    @Around("execution(public * dev.sro.task1.service.impl.TodoItemServiceImpl.*(..)) && @annotation(dev.sro.task1.concurrency.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) {
+        String operation = ((MethodSignature) joinPoint.getSignature()).getMethod().getName();
+        // The argument count tells overloads apart
+        return load(operation, Arrays.asList(joinPoint.getArgs()), () -> {
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new UndeclaredThrowableException(ex);
+            }
+        });
+    }
+
+    /**
+     * Stops sharing loads from before a write of todo items: loads started so far are not joined any more once
+     * the write's transaction is about to commit, and no load is shared until it has completed.
+     * @param ignored The change, published inside the writing transaction.
+     */
+    @EventListener
+    public void onTodoItemChange(TodoItemChange ignored) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            epoch.incrementAndGet(); // Already committed
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private boolean committing;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitsInProgress.incrementAndGet();
+                committing = true;
+                epoch.incrementAndGet();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                epoch.incrementAndGet();
+                if (committing) {
+                    commitsInProgress.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private <T> T await(Flight flight, Meters operationMeters, Supplier<T> load) {
+        try {
+            @SuppressWarnings("unchecked")
+            T result = (T) flight.result().get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            operationMeters.saved().increment();
+            return result;
+        } catch (ExecutionException ex) {
+            operationMeters.saved().increment();
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new UndeclaredThrowableException(ex.getCause());
+        } catch (TimeoutException ex) {
+            operationMeters.timeouts().increment();
+            operationMeters.loads().increment();
+            return load.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseBusyException("Interrupted while waiting for an identical read.");
+        }
+    }
+
+    private Meters meters(String operation) {
+        return meters.computeIfAbsent(operation, name -> new Meters(
+                Counter.builder("todo.coalescing.loads")
+                        .tag("operation", name)
+                        .description("Database loads run by coalesced reads")
+                        .register(meterRegistry),
+                Counter.builder("todo.coalescing.saved")
+                        .tag("operation", name)
+                        .description("Database loads saved by sharing an identical load in flight")
+                        .register(meterRegistry),
+                Counter.builder("todo.coalescing.timeouts")
+                        .tag("operation", name)
+                        .description("Callers that stopped waiting for an identical load and ran their own")
+                        .register(meterRegistry)));
+    }
+
+    private static List<Object> normalize(List<?> arguments) {
+        List<Object> normalized = new ArrayList<>(arguments.size());
+        for (Object argument : arguments) {
+            normalized.add(argument instanceof String text ? text.toLowerCase(Locale.ROOT) : argument);
+        }
+        return normalized;
+    }
+
+    private record Key(String operation, List<Object> arguments, int shard, boolean primary) {
+    }
+
+    /**
+     * A load in flight and the epoch its caller saw.
+     */
+    private record Flight(long epoch, CompletableFuture<Object> result) {
+
+        Flight(long epoch) {
+            this(epoch, new CompletableFuture<>());
+        }
+    }
+
+    private record Meters(Counter loads, Counter saved, Counter timeouts) {
+    }
+}
@@ -0,0 +1,38 @@
+package dev.sro.task1.config;
+
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.BulkDescriptionUpdate;
+import dev.sro.task1.dto.BulkOperationResult;
+import dev.sro.task1.dto.ChangeEvent;
+import dev.sro.task1.dto.CreateRequestStatus;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.dto.DeletedTodoItem;
+import dev.sro.task1.dto.DeltaSyncPage;
+import dev.sro.task1.dto.MultiGetResult;
+import dev.sro.task1.dto.RankedTodoItem;
+import dev.sro.task1.dto.RankedTodoItemSummary;
+import dev.sro.task1.dto.SearchResultPage;
+import dev.sro.task1.dto.TodoItemSummary;
+import dev.sro.task1.entity.TodoItem;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reachability metadata that Spring AOT cannot infer from the beans, for the native image ({@code -Pnative});
+ * on the JVM it is only written out by the AOT processing and never used.
+ * <p>
+ * The controllers declare most of their bodies as {@code ResponseEntity<CursorPage<?>>} or {@code List<?>},
+ * so the types Jackson actually (de)serializes are registered here for binding. Everything else that is
+ * reached by reflection is registered by {@link TodoRuntimeHints}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(TodoRuntimeHints.class)
+@RegisterReflectionForBinding({
+        TodoItem.class, TodoItemSummary.class, CursorPage.class, SearchResultPage.class, RankedTodoItem.class,
+        RankedTodoItemSummary.class, MultiGetResult.class, DeltaSyncPage.class, DeletedTodoItem.class,
+        BatchCreateResult.class, BulkOperationResult.class, BulkDescriptionUpdate.class, CreateRequestStatus.class,
+        ChangeEvent.class
+})
+public class NativeHintsConfiguration {
+}
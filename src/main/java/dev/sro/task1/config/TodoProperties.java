@@ -0,0 +1,844 @@
+package dev.sro.task1.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application specific settings bound from the {@code todo.*} properties.
+ * Every value has a default so the application starts without any of them being set.
+ */
+@ConfigurationProperties(prefix = "todo")
+public class TodoProperties {
+
+    private final Pagination pagination = new Pagination();
+    private final Batch batch = new Batch();
+    private final Search search = new Search();
+    private final Cache cache = new Cache();
+    private final Database database = new Database();
+    private final Coalescing coalescing = new Coalescing();
+    private final WriteBehind writeBehind = new WriteBehind();
+    private final Datasource datasource = new Datasource();
+    private final Sharding sharding = new Sharding();
+    private final Grpc grpc = new Grpc();
+    private final ChangeFeed changeFeed = new ChangeFeed();
+    private final Sync sync = new Sync();
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Database getDatabase() {
+        return database;
+    }
+
+    public Coalescing getCoalescing() {
+        return coalescing;
+    }
+
+    public WriteBehind getWriteBehind() {
+        return writeBehind;
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public Sharding getSharding() {
+        return sharding;
+    }
+
+    public Grpc getGrpc() {
+        return grpc;
+    }
+
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    public Sync getSync() {
+        return sync;
+    }
+
+    /**
+     * Settings for the cursor paginated listing endpoints.
+     */
+    public static class Pagination {
+
+        /**
+         * Page size used when the caller does not ask for one.
+         */
+        private int defaultPageSize = 20;
+
+        /**
+         * Hard upper bound for the page size; larger requests are clamped to this value.
+         */
+        private int maxPageSize = 100;
+
+        public int getDefaultPageSize() {
+            return defaultPageSize;
+        }
+
+        public void setDefaultPageSize(int defaultPageSize) {
+            this.defaultPageSize = defaultPageSize;
+        }
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+    }
+
+    /**
+     * Settings for the bulk create endpoint.
+     */
+    public static class Batch {
+
+        /**
+         * Maximum number of items accepted in one bulk create request.
+         */
+        private int maxItems = 10_000;
+
+        /**
+         * Number of inserts sent per flush; keep it equal to {@code hibernate.jdbc.batch_size}.
+         */
+        private int flushSize = 50;
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+
+        public int getFlushSize() {
+            return flushSize;
+        }
+
+        public void setFlushSize(int flushSize) {
+            this.flushSize = flushSize;
+        }
+    }
+
+    /**
+     * Settings for the title search endpoint.
+     */
+    public static class Search {
+
+        /**
+         * Answer title searches from the in-process trigram index; when false (or while the index is
+         * still being built) they fall back to the repository LIKE query.
+         */
+        private boolean trigramEnabled = true;
+
+        /**
+         * Largest edit distance accepted for fuzzy title searches.
+         */
+        private int maxFuzziness = 2;
+
+        public boolean isTrigramEnabled() {
+            return trigramEnabled;
+        }
+
+        public void setTrigramEnabled(boolean trigramEnabled) {
+            this.trigramEnabled = trigramEnabled;
+        }
+
+        public int getMaxFuzziness() {
+            return maxFuzziness;
+        }
+
+        public void setMaxFuzziness(int maxFuzziness) {
+            this.maxFuzziness = maxFuzziness;
+        }
+    }
+
+    /**
+     * Settings for the todo item cache in front of the lookup by ID and for the serialized JSON cache.
+     */
+    public static class Cache {
+
+        /**
+         * Maximum number of cached entries, missing IDs included.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * How long an existing todo item stays cached; bounds staleness if an invalidation is ever missed.
+         */
+        private Duration timeToLive = Duration.ofMinutes(10);
+
+        /**
+         * How long the absence of a todo item stays cached.
+         */
+        private Duration negativeTimeToLive = Duration.ofSeconds(30);
+
+        /**
+         * Keep the serialized JSON of recently written todo items and reuse it in every JSON response.
+         */
+        private boolean jsonEnabled = true;
+
+        /**
+         * Upper bound for the total size of the cached JSON.
+         */
+        private DataSize jsonMaximumSize = DataSize.ofMegabytes(16);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getNegativeTimeToLive() {
+            return negativeTimeToLive;
+        }
+
+        public void setNegativeTimeToLive(Duration negativeTimeToLive) {
+            this.negativeTimeToLive = negativeTimeToLive;
+        }
+
+        public boolean isJsonEnabled() {
+            return jsonEnabled;
+        }
+
+        public void setJsonEnabled(boolean jsonEnabled) {
+            this.jsonEnabled = jsonEnabled;
+        }
+
+        public DataSize getJsonMaximumSize() {
+            return jsonMaximumSize;
+        }
+
+        public void setJsonMaximumSize(DataSize jsonMaximumSize) {
+            this.jsonMaximumSize = jsonMaximumSize;
+        }
+    }
+
+    /**
+     * Settings for the limit on concurrent database access through the service layer.
+     */
+    public static class Database {
+
+        /**
+         * Maximum number of callers using the database at the same time; keep it at most the connection
+         * pool size. 0 disables the limit.
+         */
+        private int maxConcurrentAccess = 10;
+
+        /**
+         * How long a caller waits for its turn before the request fails with HTTP 503.
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+
+        public int getMaxConcurrentAccess() {
+            return maxConcurrentAccess;
+        }
+
+        public void setMaxConcurrentAccess(int maxConcurrentAccess) {
+            this.maxConcurrentAccess = maxConcurrentAccess;
+        }
+
+        public Duration getAcquireTimeout() {
+            return acquireTimeout;
+        }
+
+        public void setAcquireTimeout(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+        }
+    }
+
+    /**
+     * Settings for sharing one database load among concurrent identical reads.
+     */
+    public static class Coalescing {
+
+        /**
+         * Let concurrent callers of the same lookup by ID or search share one database load.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long a caller waits for the identical load in flight before loading on its own.
+         */
+        private Duration maxWait = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+
+    /**
+     * Settings for the asynchronous create mode ({@code POST /api/todos} with {@code Prefer: respond-async}).
+     */
+    public static class WriteBehind {
+
+        /**
+         * Accept asynchronous creates; when false the Prefer header is ignored and every create is synchronous.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of items waiting to be stored; further creates are refused with HTTP 429.
+         */
+        private int capacity = 10_000;
+
+        /**
+         * Maximum number of items stored in one transaction; at most {@code todo.batch.max-items}.
+         */
+        private int maxBatchSize = 500;
+
+        /**
+         * How long the flusher waits for a batch to fill up after its first item arrived.
+         */
+        private Duration maxDelay = Duration.ofMillis(50);
+
+        /**
+         * How long the outcome of a create stays available under its tracking id.
+         */
+        private Duration statusRetention = Duration.ofMinutes(10);
+
+        /**
+         * Maximum number of tracking ids kept; the oldest outcomes are dropped first.
+         */
+        private long maximumStatuses = 100_000;
+
+        /**
+         * How long shutdown waits for the queued items to be stored.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public Duration getStatusRetention() {
+            return statusRetention;
+        }
+
+        public void setStatusRetention(Duration statusRetention) {
+            this.statusRetention = statusRetention;
+        }
+
+        public long getMaximumStatuses() {
+            return maximumStatuses;
+        }
+
+        public void setMaximumStatuses(long maximumStatuses) {
+            this.maximumStatuses = maximumStatuses;
+        }
+
+        public Duration getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+    }
+
+    /**
+     * Settings for read/write splitting; only in effect once at least one replica is configured.
+     */
+    public static class Datasource {
+
+        /**
+         * Read replicas of the primary database ({@code spring.datasource.*}), used round-robin by read-only transactions.
+         */
+        private List<Replica> replicas = new ArrayList<>();
+
+        /**
+         * How long a replica that failed to hand out a connection is skipped before it is tried again.
+         */
+        private Duration replicaRetryInterval = Duration.ofSeconds(30);
+
+        /**
+         * How long reads stay on the primary after a write by the same client (or thread); at least the replication lag.
+         */
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(List<Replica> replicas) {
+            this.replicas = replicas;
+        }
+
+        public Duration getReplicaRetryInterval() {
+            return replicaRetryInterval;
+        }
+
+        public void setReplicaRetryInterval(Duration replicaRetryInterval) {
+            this.replicaRetryInterval = replicaRetryInterval;
+        }
+
+        public Duration getReadYourWritesWindow() {
+            return readYourWritesWindow;
+        }
+
+        public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+            this.readYourWritesWindow = readYourWritesWindow;
+        }
+    }
+
+    /**
+     * Connection settings of one read replica.
+     */
+    public static class Replica {
+
+        /**
+         * JDBC URL of the replica.
+         */
+        private String url;
+
+        /**
+         * Login username; defaults to {@code spring.datasource.username}.
+         */
+        private String username;
+
+        /**
+         * Login password; defaults to {@code spring.datasource.password}.
+         */
+        private String password;
+
+        /**
+         * Maximum number of connections to the replica.
+         */
+        private int maximumPoolSize = 10;
+
+        /**
+         * How long a read waits for a replica connection before it falls back to the primary.
+         */
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+    }
+
+    /**
+     * Settings for sharding todo items; only in effect once at least one additional shard is configured.
+     */
+    public static class Sharding {
+
+        /**
+         * The databases of shards 1 and up; shard 0 is the primary database ({@code spring.datasource.*}).
+         * Shards may be added at the end, never removed or reordered, since the shard is part of every ID.
+         */
+        private List<Shard> shards = new ArrayList<>();
+
+        public List<Shard> getShards() {
+            return shards;
+        }
+
+        public void setShards(List<Shard> shards) {
+            this.shards = shards;
+        }
+    }
+
+    /**
+     * Connection settings of one shard.
+     */
+    public static class Shard {
+
+        /**
+         * JDBC URL of the shard's database, which must already hold the todo_items table and sequence.
+         */
+        private String url;
+
+        /**
+         * Login username; defaults to {@code spring.datasource.username}.
+         */
+        private String username;
+
+        /**
+         * Login password; defaults to {@code spring.datasource.password}.
+         */
+        private String password;
+
+        /**
+         * Maximum number of connections to the shard.
+         */
+        private int maximumPoolSize = 10;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+
+    /**
+     * Settings for the gRPC server, which runs next to the servlet container.
+     */
+    public static class Grpc {
+
+        /**
+         * Whether the gRPC server is started.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Port of the gRPC server; 0 picks a free one.
+         */
+        private int port = 9090;
+
+        /**
+         * Largest message a client may send, e.g. one item of a bulk create.
+         */
+        private DataSize maxInboundMessageSize = DataSize.ofMegabytes(4);
+
+        /**
+         * How long shutdown waits for running calls to complete before cancelling them.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+        /**
+         * How long a streaming call waits for a client that stopped reading before failing with DEADLINE_EXCEEDED.
+         * The listing holds a database connection and an access permit while it waits.
+         */
+        private Duration stallTimeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public DataSize getMaxInboundMessageSize() {
+            return maxInboundMessageSize;
+        }
+
+        public void setMaxInboundMessageSize(DataSize maxInboundMessageSize) {
+            this.maxInboundMessageSize = maxInboundMessageSize;
+        }
+
+        public Duration getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+
+        public Duration getStallTimeout() {
+            return stallTimeout;
+        }
+
+        public void setStallTimeout(Duration stallTimeout) {
+            this.stallTimeout = stallTimeout;
+        }
+    }
+
+    /**
+     * Settings for the change log and the change feed streamed from it.
+     */
+    public static class ChangeFeed {
+
+        /**
+         * Whether writes are appended to the change log and the feed is served; not combinable with sharding.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of latest changes held in memory for the live subscribers; older ones are read from the log.
+         */
+        private int ringBufferSize = 10_000;
+
+        /**
+         * Maximum number of changes read from the log, or sent to a subscriber, at once.
+         */
+        private int batchSize = 500;
+
+        /**
+         * How often the log is read for changes written by other instances; local writes are picked up at once.
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /**
+         * Idle time after which a heartbeat comment is sent to a subscriber.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        /**
+         * How long an event stream stays open before the client has to reconnect.
+         */
+        private Duration streamTimeout = Duration.ofMinutes(30);
+
+        /**
+         * How often the log is compacted.
+         */
+        private Duration compactionInterval = Duration.ofMinutes(10);
+
+        /**
+         * Age after which entries superseded by a later change of the same item are removed.
+         */
+        private Duration compactAfter = Duration.ofHours(1);
+
+        /**
+         * Age after which every entry is removed, tombstones included; subscribers behind it are reset.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getRingBufferSize() {
+            return ringBufferSize;
+        }
+
+        public void setRingBufferSize(int ringBufferSize) {
+            this.ringBufferSize = ringBufferSize;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public Duration getStreamTimeout() {
+            return streamTimeout;
+        }
+
+        public void setStreamTimeout(Duration streamTimeout) {
+            this.streamTimeout = streamTimeout;
+        }
+
+        public Duration getCompactionInterval() {
+            return compactionInterval;
+        }
+
+        public void setCompactionInterval(Duration compactionInterval) {
+            this.compactionInterval = compactionInterval;
+        }
+
+        public Duration getCompactAfter() {
+            return compactAfter;
+        }
+
+        public void setCompactAfter(Duration compactAfter) {
+            this.compactAfter = compactAfter;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+
+    /**
+     * Settings for the delta sync endpoint, GET /api/todos/changes.
+     */
+    public static class Sync {
+
+        /**
+         * Age a change must have before a delta sync returns it, so that a later commit never lands behind a
+         * position already handed out. Must exceed the longest write transaction plus the clock skew between
+         * instances.
+         */
+        private Duration settleTime = Duration.ofSeconds(10);
+
+        /**
+         * How long the tombstones of deleted items are kept; clients whose position is older sync from scratch.
+         */
+        private Duration tombstoneRetention = Duration.ofDays(30);
+
+        /**
+         * How often tombstones older than the retention are purged.
+         */
+        private Duration purgeInterval = Duration.ofHours(1);
+
+        public Duration getSettleTime() {
+            return settleTime;
+        }
+
+        public void setSettleTime(Duration settleTime) {
+            this.settleTime = settleTime;
+        }
+
+        public Duration getTombstoneRetention() {
+            return tombstoneRetention;
+        }
+
+        public void setTombstoneRetention(Duration tombstoneRetention) {
+            this.tombstoneRetention = tombstoneRetention;
+        }
+
+        public Duration getPurgeInterval() {
+            return purgeInterval;
+        }
+
+        public void setPurgeInterval(Duration purgeInterval) {
+            this.purgeInterval = purgeInterval;
+        }
+    }
+}
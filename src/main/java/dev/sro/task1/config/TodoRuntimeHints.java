@@ -0,0 +1,45 @@
+package dev.sro.task1.config;
+
+import dev.sro.task1.dto.ChangeEvent;
+import dev.sro.task1.dto.DeletedTodoItem;
+import dev.sro.task1.dto.TodoItemSummary;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.proto.TodoProtos;
+import dev.sro.task1.proto.TodoServiceProtos;
+import dev.sro.task1.sharding.ShardedSequenceGenerator;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection and resources used at runtime without a trace in the bean definitions:
+ * <ul>
+ *     <li>Hibernate calls the constructors of the {@code SELECT new ...} results of the repositories, and of the
+ *     ID generator of {@link TodoItem}.</li>
+ *     <li>Protocol Buffers looks up the accessors of generated messages and builders by name, e.g. for
+ *     {@code toString()}.</li>
+ *     <li>The {@code .proto} schemas are served from the classpath.</li>
+ * </ul>
+ */
+public class TodoRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> result : new Class<?>[] {TodoItem.class, TodoItemSummary.class, DeletedTodoItem.class, ChangeEvent.class}) {
+            hints.reflection().registerType(result, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        hints.reflection().registerType(ShardedSequenceGenerator.class,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        for (Class<?> outer : new Class<?>[] {TodoProtos.class, TodoServiceProtos.class}) {
+            for (Class<?> message : outer.getDeclaredClasses()) {
+                hints.reflection().registerType(message, MemberCategory.INVOKE_PUBLIC_METHODS);
+                for (Class<?> nested : message.getDeclaredClasses()) {
+                    hints.reflection().registerType(nested, MemberCategory.INVOKE_PUBLIC_METHODS); // Builders
+                }
+            }
+        }
+
+        hints.resources().registerPattern("todo/v1/*.proto");
+    }
+}
@@ -0,0 +1,109 @@
+package dev.sro.task1.controller;
+
+import dev.sro.task1.changefeed.ChangeFeed;
+import dev.sro.task1.changefeed.ChangeSink;
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.dto.ChangeEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/todos/changes")
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "todo.change-feed", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeFeedController {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final ChangeFeed changeFeed;
+    private final TodoProperties todoProperties;
+
+    public ChangeFeedController(ChangeFeed changeFeed, TodoProperties todoProperties) {
+        this.changeFeed = changeFeed;
+        this.todoProperties = todoProperties;
+    }
+
+    /**
+     * Streams the changes of todo items as Server-Sent Events.
+     * GET /api/todos/changes/stream?since=1234
+     * Each event is named after its operation ({@code upsert} or {@code delete}), carries its sequence number as
+     * its ID and a {@link ChangeEvent} as JSON data. A {@code reset} event means that changes after the requested
+     * position have been purged: the client reloads the items and then applies the events that follow.
+     * Browsers reconnect by themselves and resume after the last event received, through {@code Last-Event-ID}.
+     * @param since The last sequence number the client has seen; omit it to receive new changes only.
+     * @param lastEventId Sent by an EventSource reconnecting; takes precedence over {@code since}.
+     * @return The event stream, open for up to {@code todo.change-feed.stream-timeout}.
+     * @throws IllegalArgumentException if the position is malformed or beyond the end of the log.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(value = "since", required = false) Long since,
+                                    @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+        Long position = since;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                position = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Last-Event-ID is not a change log position: " + lastEventId);
+            }
+        }
+        SseEmitter emitter = new SseEmitter(todoProperties.getChangeFeed().getStreamTimeout().toMillis());
+        ChangeFeed.Subscription subscription = changeFeed.subscribe(position, new SseChangeSink(emitter));
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        return emitter;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST); // Returns HTTP 400 Bad Request
+    }
+
+    /**
+     * Writes the events of one batch together, so they are flushed to the client once.
+     */
+    private record SseChangeSink(SseEmitter emitter) implements ChangeSink {
+
+        @Override
+        public void send(List<ChangeEvent> events) throws IOException {
+            Set<ResponseBodyEmitter.DataWithMediaType> batch = new LinkedHashSet<>();
+            for (ChangeEvent event : events) {
+                batch.addAll(SseEmitter.event()
+                        .id(Long.toString(event.seq()))
+                        .name(event.operation().name().toLowerCase(Locale.ROOT))
+                        .data(event, MediaType.APPLICATION_JSON)
+                        .build());
+            }
+            emitter.send(batch);
+        }
+
+        @Override
+        public void reset(long seq) throws IOException {
+            emitter.send(SseEmitter.event().id(Long.toString(seq)).name("reset").data(Map.of("seq", seq),
+                    MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
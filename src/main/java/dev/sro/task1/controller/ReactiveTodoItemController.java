@@ -0,0 +1,219 @@
+package dev.sro.task1.controller;
+
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.BulkDescriptionUpdate;
+import dev.sro.task1.dto.BulkOperationResult;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.dto.RankedTodoItem;
+import dev.sro.task1.dto.SearchResultPage;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.exception.ResourceNotFoundException;
+import dev.sro.task1.service.ReactiveTodoItemService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The routes of {@link TodoItemController} on WebFlux, active with the {@code reactive} profile.
+ * Requests are handled on the event loop and never block it, so idle keep-alive connections cost no thread.
+ * Lists are written as they are read from the database: the subscriber's demand travels back to the
+ * R2DBC driver, so a slow client slows down the read instead of filling memory.
+ */
+@RestController
+@RequestMapping("/api/todos")
+@Profile("reactive")
+public class ReactiveTodoItemController {
+
+    private final ReactiveTodoItemService todoItemService;
+
+    public ReactiveTodoItemController(ReactiveTodoItemService todoItemService) {
+        this.todoItemService = todoItemService;
+    }
+
+    /**
+     * Retrieves one page of todo items ordered by ID.
+     * GET /api/todos?cursor=...&size=20
+     */
+    @GetMapping
+    public Mono<CursorPage<TodoItem>> getAllTodoItems(@RequestParam(value = "cursor", required = false) String cursor,
+                                                      @RequestParam(value = "size", required = false) Integer size) {
+        return todoItemService.getTodoItemPage(cursor, size);
+    }
+
+    /**
+     * Exports every todo item as newline-delimited JSON (one object per line).
+     * GET /api/todos/export
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TodoItem> exportTodoItems() {
+        return todoItemService.exportTodoItems();
+    }
+
+    /**
+     * Retrieves a specific todo item by its ID, with its version as a strong ETag.
+     * GET /api/todos/{id}
+     * With a matching If-None-Match header the answer is HTTP 304 Not Modified, decided from the version alone.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<TodoItem>> getTodoItemById(@PathVariable Long id, ServerWebExchange exchange) {
+        Mono<Boolean> notModified = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH) == null
+                ? Mono.just(false)
+                : todoItemService.getTodoItemVersion(id)
+                        .map(version -> exchange.checkNotModified(eTag(version)))
+                        .defaultIfEmpty(false);
+        return notModified.flatMap(isNotModified -> isNotModified
+                ? Mono.<ResponseEntity<TodoItem>>empty() // HTTP 304 Not Modified has been set up by checkNotModified
+                : todoItemService.getTodoItemById(id)
+                        .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("TodoItem not found with id: " + id)))
+                        .map(todoItem -> withETag(ResponseEntity.ok(), todoItem)));
+    }
+
+    /**
+     * Creates a new todo item.
+     * POST /api/todos
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<TodoItem> createTodoItem(@RequestBody TodoItem todoItem) {
+        return todoItemService.createTodoItem(todoItem);
+    }
+
+    /**
+     * Creates many todo items at once using multi-row inserts.
+     * POST /api/todos/batch
+     * Answers HTTP 201 Created, or HTTP 400 Bad Request if no item could be created.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchCreateResult>> createTodoItems(@RequestBody List<TodoItem> todoItems) {
+        return todoItemService.createTodoItems(todoItems)
+                .map(result -> new ResponseEntity<>(result,
+                        result.created().isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED));
+    }
+
+    /**
+     * Updates an existing todo item, conditionally on the versions of an If-Match header (other than {@code *}).
+     * PUT /api/todos/{id}
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<TodoItem>> updateTodoItem(@PathVariable Long id,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                         @RequestBody TodoItem todoItemDetails) {
+        Mono<TodoItem> updated = (ifMatch == null || ifMatch.trim().equals("*"))
+                ? todoItemService.updateTodoItem(id, todoItemDetails)
+                : todoItemService.updateTodoItem(id, todoItemDetails, parseVersions(ifMatch));
+        return updated.map(todoItem -> withETag(ResponseEntity.ok(), todoItem));
+    }
+
+    /**
+     * Deletes a todo item by its ID.
+     * DELETE /api/todos/{id}
+     */
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteTodoItem(@PathVariable Long id) {
+        return todoItemService.deleteTodoItem(id);
+    }
+
+    /**
+     * Deletes the todo items with the given IDs.
+     * DELETE /api/todos?ids=1,2,3
+     */
+    @DeleteMapping
+    public Mono<BulkOperationResult> deleteTodoItems(@RequestParam("ids") List<Long> ids) {
+        return todoItemService.deleteTodoItems(ids).map(BulkOperationResult::new);
+    }
+
+    /**
+     * Deletes every todo item whose title contains the given text (case-insensitive).
+     * DELETE /api/todos/by-title?query=someTitle
+     */
+    @DeleteMapping("/by-title")
+    public Mono<BulkOperationResult> deleteTodoItemsByTitle(@RequestParam("query") String query) {
+        return todoItemService.deleteTodoItemsByTitle(query).map(BulkOperationResult::new);
+    }
+
+    /**
+     * Sets the same description on many todo items.
+     * PATCH /api/todos/description
+     */
+    @PatchMapping("/description")
+    public Mono<BulkOperationResult> updateTodoItemDescriptions(@RequestBody BulkDescriptionUpdate update) {
+        return todoItemService.updateTodoItemDescriptions(update.ids(), update.description()).map(BulkOperationResult::new);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST); // Returns HTTP 400 Bad Request
+    }
+
+    /**
+     * Ranked full-text search over titles and descriptions.
+     * GET /api/todos/search?query=some words&page=0&size=20
+     */
+    @GetMapping("/search")
+    public Mono<SearchResultPage<RankedTodoItem>> searchTodoItems(@RequestParam("query") String query,
+                                                  @RequestParam(value = "page", required = false) Integer page,
+                                                  @RequestParam(value = "size", required = false) Integer size) {
+        return todoItemService.searchTodoItems(query, page, size);
+    }
+
+    /**
+     * Searches for todo items by title, streamed as a JSON array.
+     * GET /api/todos/search/title?query=someTitle&fuzziness=1
+     */
+    @GetMapping("/search/title")
+    public Flux<TodoItem> searchTodoItemsByTitle(@RequestParam("query") String query,
+                                                 @RequestParam(value = "fuzziness", required = false) Integer fuzziness) {
+        return fuzziness == null
+                ? todoItemService.searchTodoItemsByTitle(query)
+                : todoItemService.searchTodoItemsByTitle(query, fuzziness);
+    }
+
+    /**
+     * Searches for todo items by description, streamed as a JSON array.
+     * GET /api/todos/search/description?query=someDescription
+     */
+    @GetMapping("/search/description")
+    public Flux<TodoItem> searchTodoItemsByDescription(@RequestParam("query") String query) {
+        return todoItemService.searchTodoItemsByDescription(query);
+    }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static ResponseEntity<TodoItem> withETag(ResponseEntity.BodyBuilder response, TodoItem todoItem) {
+        if (todoItem.getVersion() != null) {
+            response.eTag(eTag(todoItem.getVersion()));
+        }
+        return response.body(todoItem);
+    }
+
+    /**
+     * Reads the versions out of an If-Match header, skipping weak and malformed entity tags
+     * (see {@link TodoItemController}).
+     */
+    private static List<Long> parseVersions(String ifMatch) {
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.length() > 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(trimmed.substring(1, trimmed.length() - 1)));
+                } catch (NumberFormatException ignored) {
+                    // Not an ETag issued by this API
+                }
+            }
+        }
+        return versions;
+    }
+}
@@ -1,79 +1,273 @@
 package dev.sro.task1.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.BulkDescriptionUpdate;
+import dev.sro.task1.dto.BulkOperationResult;
+import dev.sro.task1.dto.CreateRequestStatus;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.dto.DeltaSyncPage;
+import dev.sro.task1.dto.MultiGetResult;
+import dev.sro.task1.dto.RankedTodoItem;
+import dev.sro.task1.dto.RankedTodoItemSummary;
+import dev.sro.task1.dto.SearchResultPage;
+import dev.sro.task1.dto.SparseFieldset;
+import dev.sro.task1.dto.TodoItemSummary;
 import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.exception.CreateQueueFullException;
+import dev.sro.task1.exception.PreconditionFailedException;
 import dev.sro.task1.exception.ResourceNotFoundException;
+import dev.sro.task1.exception.SyncExpiredException;
 import dev.sro.task1.service.TodoItemService;
+import dev.sro.task1.service.impl.WriteBehindCreateQueue;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 @RestController 
 @RequestMapping("/api/todos") 
+@Profile("!reactive") // Replaced by ReactiveTodoItemController
 public class TodoItemController {
 
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final TodoItemService todoItemService;
+    private final WriteBehindCreateQueue writeBehindCreateQueue;
+    private final ObjectMapper objectMapper;
 
-    public TodoItemController(TodoItemService todoItemService) {
+    public TodoItemController(TodoItemService todoItemService, WriteBehindCreateQueue writeBehindCreateQueue,
+                              ObjectMapper objectMapper) {
         this.todoItemService = todoItemService;
+        this.writeBehindCreateQueue = writeBehindCreateQueue;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Retrieves a list of all todo items.
-     * GET /api/todos
-     * @return A ResponseEntity containing a list of TodoItem objects and HTTP 200 OK status.
+     * Retrieves one page of todo items ordered by ID.
+     * GET /api/todos?cursor=...&size=20&fields=id,title
+     * @param cursor The opaque cursor returned as {@code next} by the previous page; omit it for the first page.
+     * @param size The page size; defaults and upper bound come from {@code todo.pagination.*}.
+     * @param fields Optional sparse fieldset; the description is only read from the database when it is listed.
+     * @return A ResponseEntity containing the page of TodoItem objects and HTTP 200 OK status.
+     * @throws IllegalArgumentException if the cursor is malformed, the size is not positive or a field is unknown.
      */
     @GetMapping
-    public ResponseEntity<List<TodoItem>> getAllTodoItems() {
-        List<TodoItem> todoItems = todoItemService.getAllTodoItems();
-        return ResponseEntity.ok(todoItems); // Returns HTTP 200 OK
+    public ResponseEntity<CursorPage<?>> getAllTodoItems(@RequestParam(value = "cursor", required = false) String cursor,
+                                                         @RequestParam(value = "size", required = false) Integer size,
+                                                         @RequestParam(value = "fields", required = false) String fields) {
+        if (fields == null) {
+            return ResponseEntity.ok(todoItemService.getTodoItemPage(cursor, size)); // Returns HTTP 200 OK
+        }
+        SparseFieldset fieldset = SparseFieldset.parse(fields);
+        if (fieldset.includesDescription()) {
+            CursorPage<TodoItem> page = todoItemService.getTodoItemPage(cursor, size);
+            return ResponseEntity.ok(new CursorPage<>(page.items().stream().map(fieldset::apply).toList(), page.next()));
+        }
+        CursorPage<TodoItemSummary> page = todoItemService.getTodoItemSummaryPage(cursor, size);
+        return ResponseEntity.ok(new CursorPage<>(page.items().stream().map(fieldset::apply).toList(), page.next()));
+    }
+
+    /**
+     * Retrieves the todo items changed and deleted since the client's last sync, so that it downloads the
+     * changes rather than the whole table.
+     * GET /api/todos/changes?since=...&size=100
+     * Clients upsert the items, drop the deleted ones and pass {@code next} back as {@code since}: right away
+     * while {@code hasMore} is true, and at their next sync otherwise.
+     * @param since The {@code next} position of the previous response; omit it for a first sync.
+     * @param size The page size; defaults and upper bound come from {@code todo.pagination.*}.
+     * @return A ResponseEntity containing the page of changes and HTTP 200 OK status.
+     * @throws IllegalArgumentException if the position is malformed or the size is not positive.
+     * @throws SyncExpiredException if the position is older than the tombstone retention (HTTP 410 Gone).
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<DeltaSyncPage> getChanges(@RequestParam(value = "since", required = false) String since,
+                                                    @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(todoItemService.getChangesSince(since, size)); // Returns HTTP 200 OK
+    }
+
+    /**
+     * Exports every todo item as newline-delimited JSON (one object per line).
+     * GET /api/todos/export
+     * Items are written as they are read from the database, so neither the list nor the
+     * response body is ever held in memory as a whole.
+     * @return A ResponseEntity streaming the items with HTTP 200 OK status.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTodoItems() {
+        StreamingResponseBody body = outputStream -> {
+            // Jackson buffers a few KB and flushes to the socket as the buffer fills up
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null)) {
+                todoItemService.exportTodoItems(todoItem -> {
+                    try {
+                        generator.writeObject(todoItem);
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
      * Retrieves a specific todo item by its ID.
      * GET /api/todos/{id}
+     * The response carries the item's version as a strong ETag. With a matching If-None-Match header
+     * the answer is HTTP 304 Not Modified, decided from the version alone without loading the item.
      * @param id The ID of the todo item to retrieve.
-     * @return A ResponseEntity containing the TodoItem and HTTP 200 OK status if found.
+     * @param request The current request, to evaluate conditional headers.
+     * @return A ResponseEntity containing the TodoItem and HTTP 200 OK status if found, or null once a 304 has been sent.
      * @throws ResourceNotFoundException if the todo item with the given ID is not found.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<TodoItem> getTodoItemById(@PathVariable Long id) {
+    public ResponseEntity<TodoItem> getTodoItemById(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = todoItemService.getTodoItemVersion(id);
+            if (version.isPresent() && request.checkNotModified(eTag(version.get()))) {
+                return null; // HTTP 304 Not Modified has been set up by checkNotModified
+            }
+        }
         // The service layer's getTodoItemById returns an Optional.
         // If not found, orElseThrow will throw ResourceNotFoundException,
         // which Spring will automatically map to 404 Not Found due to @ResponseStatus on the exception.
         TodoItem todoItem = todoItemService.getTodoItemById(id)
                                           .orElseThrow(() -> new ResourceNotFoundException("TodoItem not found with id: " + id));
-        return ResponseEntity.ok(todoItem); // Returns HTTP 200 OK
+        return withETag(ResponseEntity.ok(), todoItem); // Returns HTTP 200 OK
+    }
+
+    /**
+     * Retrieves many todo items by ID in one request, instead of one request per ID.
+     * GET /api/todos?ids=3,1,2&fields=id,title
+     * @param ids The IDs of the todo items; duplicates are returned once.
+     * @param fields Optional sparse fieldset of the items.
+     * @return A ResponseEntity containing the items in request order and the IDs without a todo item,
+     *         with HTTP 200 OK status.
+     * @throws IllegalArgumentException if no ID is given, too many or a field is unknown.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetResult<?>> getTodoItemsByIds(@RequestParam("ids") List<Long> ids,
+                                                               @RequestParam(value = "fields", required = false) String fields) {
+        return ResponseEntity.ok(multiGet(ids, fields)); // Returns HTTP 200 OK
+    }
+
+    /**
+     * Retrieves many todo items by ID like {@link #getTodoItemsByIds(List, String)}, for lists of IDs too long
+     * for a URL.
+     * POST /api/todos/lookup?fields=id,title with a JSON array of IDs as the body
+     * @param ids The IDs of the todo items; duplicates are returned once.
+     * @param fields Optional sparse fieldset of the items.
+     * @return A ResponseEntity containing the items in request order and the IDs without a todo item,
+     *         with HTTP 200 OK status.
+     * @throws IllegalArgumentException if no ID is given, too many or a field is unknown.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<MultiGetResult<?>> lookupTodoItems(@RequestBody List<Long> ids,
+                                                             @RequestParam(value = "fields", required = false) String fields) {
+        return ResponseEntity.ok(multiGet(ids, fields)); // Returns HTTP 200 OK
     }
 
     /**
      * Creates a new todo item.
      * POST /api/todos
+     * With {@code Prefer: respond-async} and {@code todo.write-behind.enabled}, the item is validated and queued
+     * to be stored with others in one batch: the answer is HTTP 202 Accepted with a tracking id, whose outcome
+     * is at the returned Location. Otherwise the preference is ignored and the item is stored right away.
+     * @param prefer The optional Prefer header.
      * @param todoItem The TodoItem object received in the request body.
-     * @return A ResponseEntity containing the created TodoItem and HTTP 201 Created status.
+     * @return A ResponseEntity containing the created TodoItem and HTTP 201 Created status,
+     *         or the queued CreateRequestStatus and HTTP 202 Accepted status.
      * @throws IllegalArgumentException if the todo item data (e.g., title) is invalid.
+     * @throws CreateQueueFullException if the item should be queued but the queue is full.
      */
     @PostMapping
-    public ResponseEntity<TodoItem> createTodoItem(@RequestBody TodoItem todoItem) {
+    public ResponseEntity<?> createTodoItem(@RequestHeader(value = PREFER, required = false) String prefer,
+                                            @RequestBody TodoItem todoItem) {
+        if (prefersAsync(prefer) && writeBehindCreateQueue.isEnabled()) {
+            CreateRequestStatus status = writeBehindCreateQueue.enqueue(todoItem);
+            // Returns HTTP 202 Accepted and where to follow the request
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/todos/create-requests/" + status.trackingId()))
+                    .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                    .body(status);
+        }
         TodoItem createdTodoItem = todoItemService.createTodoItem(todoItem);
         // Returns HTTP 201 Created and the newly created resource
         return new ResponseEntity<>(createdTodoItem, HttpStatus.CREATED);
     }
 
+    /**
+     * Retrieves the outcome of an asynchronous create.
+     * GET /api/todos/create-requests/{trackingId}
+     * @param trackingId The tracking id returned with HTTP 202 Accepted.
+     * @return A ResponseEntity containing the CreateRequestStatus (with the ID once created) and HTTP 200 OK status.
+     * @throws ResourceNotFoundException if the tracking id is unknown or its outcome has expired.
+     */
+    @GetMapping("/create-requests/{trackingId}")
+    public ResponseEntity<CreateRequestStatus> getCreateRequestStatus(@PathVariable String trackingId) {
+        CreateRequestStatus status = writeBehindCreateQueue.getStatus(trackingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Create request not found with tracking id: " + trackingId));
+        return ResponseEntity.ok(status);
+    }
+
+    /**
+     * Creates many todo items at once using batched inserts.
+     * POST /api/todos/batch
+     * Invalid items are reported by their position in the request and do not abort the batch.
+     * @param todoItems The TodoItem objects received in the request body.
+     * @return A ResponseEntity containing the per-item outcome and HTTP 201 Created status,
+     *         or HTTP 400 Bad Request if no item could be created.
+     * @throws IllegalArgumentException if the batch is empty or too large.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateResult> createTodoItems(@RequestBody List<TodoItem> todoItems) {
+        BatchCreateResult result = todoItemService.createTodoItems(todoItems);
+        HttpStatus status = result.created().isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED;
+        return new ResponseEntity<>(result, status);
+    }
+
     /**
      * Updates an existing todo item.
      * PUT /api/todos/{id}
+     * With an If-Match header (other than {@code *}) the update only happens if the item is still at
+     * one of the given versions, as a single conditional UPDATE.
      * @param id The ID of the todo item to update.
+     * @param ifMatch The optional If-Match header with the ETags the client last saw.
      * @param todoItemDetails The TodoItem object containing the updated details.
-     * @return A ResponseEntity containing the updated TodoItem and HTTP 200 OK status.
+     * @return A ResponseEntity containing the updated TodoItem, its new ETag and HTTP 200 OK status.
      * @throws ResourceNotFoundException if the todo item with the given ID is not found.
+     * @throws PreconditionFailedException if the todo item is not at a version given in If-Match.
      * @throws IllegalArgumentException if the updated todo item data (e.g., title) is invalid.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<TodoItem> updateTodoItem(@PathVariable Long id, @RequestBody TodoItem todoItemDetails) {
-        TodoItem updatedTodoItem = todoItemService.updateTodoItem(id, todoItemDetails);
-        return ResponseEntity.ok(updatedTodoItem); // Returns HTTP 200 OK
+    public ResponseEntity<TodoItem> updateTodoItem(@PathVariable Long id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestBody TodoItem todoItemDetails) {
+        TodoItem updatedTodoItem = (ifMatch == null || ifMatch.trim().equals("*"))
+                ? todoItemService.updateTodoItem(id, todoItemDetails)
+                : todoItemService.updateTodoItem(id, todoItemDetails, parseVersions(ifMatch));
+        return withETag(ResponseEntity.ok(), updatedTodoItem); // Returns HTTP 200 OK
     }
 
     /**
@@ -89,6 +283,93 @@ public class TodoItemController {
         return ResponseEntity.noContent().build(); // Returns HTTP 204 No Content
     }
 
+    // --- Bulk Endpoints: each runs as set-based statements, no entity is loaded ---
+
+    /**
+     * Deletes the todo items with the given IDs.
+     * DELETE /api/todos?ids=1,2,3
+     * @param ids The IDs of the todo items to delete; unknown IDs are ignored.
+     * @return A ResponseEntity containing the number of deleted items and HTTP 200 OK status.
+     * @throws IllegalArgumentException if no ID is given or too many.
+     */
+    @DeleteMapping
+    public ResponseEntity<BulkOperationResult> deleteTodoItems(@RequestParam("ids") List<Long> ids) {
+        int deleted = todoItemService.deleteTodoItems(ids);
+        return ResponseEntity.ok(new BulkOperationResult(deleted));
+    }
+
+    /**
+     * Deletes every todo item whose title contains the given text (case-insensitive).
+     * DELETE /api/todos/by-title?query=someTitle
+     * @param query The partial title to match.
+     * @return A ResponseEntity containing the number of deleted items and HTTP 200 OK status.
+     * @throws IllegalArgumentException if the query is blank.
+     */
+    @DeleteMapping("/by-title")
+    public ResponseEntity<BulkOperationResult> deleteTodoItemsByTitle(@RequestParam("query") String query) {
+        int deleted = todoItemService.deleteTodoItemsByTitle(query);
+        return ResponseEntity.ok(new BulkOperationResult(deleted));
+    }
+
+    /**
+     * Sets the same description on many todo items.
+     * PATCH /api/todos/description
+     * @param update The IDs to update and the new description.
+     * @return A ResponseEntity containing the number of updated items and HTTP 200 OK status.
+     * @throws IllegalArgumentException if no ID is given or too many.
+     */
+    @PatchMapping("/description")
+    public ResponseEntity<BulkOperationResult> updateTodoItemDescriptions(@RequestBody BulkDescriptionUpdate update) {
+        int updated = todoItemService.updateTodoItemDescriptions(update.ids(), update.description());
+        return ResponseEntity.ok(new BulkOperationResult(updated));
+    }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static ResponseEntity<TodoItem> withETag(ResponseEntity.BodyBuilder response, TodoItem todoItem) {
+        if (todoItem.getVersion() != null) {
+            response.eTag(eTag(todoItem.getVersion()));
+        }
+        return response.body(todoItem);
+    }
+
+    /**
+     * @return Whether a Prefer header (RFC 7240) asks for an asynchronous response; parameters are ignored.
+     */
+    private static boolean prefersAsync(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            String token = preference.split(";", 2)[0].trim();
+            if (token.equalsIgnoreCase(RESPOND_ASYNC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the versions out of an If-Match header. Weak and malformed entity tags are skipped since
+     * they can never match strongly; if none is left the update fails its precondition.
+     */
+    private static List<Long> parseVersions(String ifMatch) {
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.length() > 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(trimmed.substring(1, trimmed.length() - 1)));
+                } catch (NumberFormatException ignored) {
+                    // Not an ETag issued by this API
+                }
+            }
+        }
+        return versions;
+    }
+
     // --- Optional: Custom Exception Handling for IllegalArgumentException ---
     // While ResourceNotFoundException is handled via @ResponseStatus,
     // IllegalArgumentException (e.g., for empty title) might need explicit handling
@@ -98,29 +379,103 @@ public class TodoItemController {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST); // Returns HTTP 400 Bad Request
     }
 
+    @ExceptionHandler(CreateQueueFullException.class)
+    public ResponseEntity<String> handleCreateQueueFullException(CreateQueueFullException ex) {
+        // Returns HTTP 429 Too Many Requests; the flusher normally frees room within a second
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(ex.getMessage());
+    }
+
     // --- Search Endpoints using custom service methods ---
 
+    /**
+     * Ranked full-text search over titles and descriptions.
+     * GET /api/todos/search?query=some words&page=0&size=20&fields=id,title
+     * @param query Free text to search for.
+     * @param page The zero-based page number.
+     * @param size The page size.
+     * @param fields Optional sparse fieldset of the items; the description is only read when it is listed.
+     * @return A page of todo items ordered by relevance, with their scores and the total match count.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<SearchResultPage<?>> searchTodoItems(@RequestParam("query") String query,
+                                                               @RequestParam(value = "page", required = false) Integer page,
+                                                               @RequestParam(value = "size", required = false) Integer size,
+                                                               @RequestParam(value = "fields", required = false) String fields) {
+        if (fields == null) {
+            return ResponseEntity.ok(todoItemService.searchTodoItems(query, page, size));
+        }
+        SparseFieldset fieldset = SparseFieldset.parse(fields);
+        if (fieldset.includesDescription()) {
+            SearchResultPage<RankedTodoItem> results = todoItemService.searchTodoItems(query, page, size);
+            return ResponseEntity.ok(ranked(results, result -> fieldset.apply(result.item()), RankedTodoItem::score));
+        }
+        SearchResultPage<RankedTodoItemSummary> results = todoItemService.searchTodoItemSummaries(query, page, size);
+        return ResponseEntity.ok(ranked(results, result -> fieldset.apply(result.item()), RankedTodoItemSummary::score));
+    }
+
     /**
      * Searches for todo items by title.
-     * GET /api/todos/search/title?query=someTitle
+     * GET /api/todos/search/title?query=someTitle&fuzziness=1&fields=id,title
      * @param query The title query string.
+     * @param fuzziness Optional number of typos to tolerate; exact substring matching when omitted.
+     * @param fields Optional sparse fieldset; the description is only read when it is listed.
      * @return A list of TodoItem objects matching the search criteria.
      */
     @GetMapping("/search/title")
-    public ResponseEntity<List<TodoItem>> searchTodoItemsByTitle(@RequestParam("query") String query) {
-        List<TodoItem> todoItems = todoItemService.searchTodoItemsByTitle(query);
-        return ResponseEntity.ok(todoItems);
+    public ResponseEntity<List<?>> searchTodoItemsByTitle(@RequestParam("query") String query,
+                                                          @RequestParam(value = "fuzziness", required = false) Integer fuzziness,
+                                                          @RequestParam(value = "fields", required = false) String fields) {
+        SparseFieldset fieldset = fields == null ? null : SparseFieldset.parse(fields);
+        if (fieldset != null && !fieldset.includesDescription()) {
+            List<TodoItemSummary> summaries = todoItemService.searchTodoItemSummariesByTitle(query, fuzziness == null ? 0 : fuzziness);
+            return ResponseEntity.ok(summaries.stream().map(fieldset::apply).toList());
+        }
+        List<TodoItem> todoItems = fuzziness == null
+                ? todoItemService.searchTodoItemsByTitle(query)
+                : todoItemService.searchTodoItemsByTitle(query, fuzziness);
+        return ResponseEntity.ok(fieldset == null ? todoItems : todoItems.stream().map(fieldset::apply).toList());
     }
 
     /**
      * Searches for todo items by description.
-     * GET /api/todos/search/description?query=someDescription
+     * GET /api/todos/search/description?query=someDescription&fields=id,title
      * @param query The description query string.
+     * @param fields Optional sparse fieldset; without the description, matching descriptions are not sent back
+     *               by the database.
      * @return A list of TodoItem objects matching the search criteria.
      */
     @GetMapping("/search/description")
-    public ResponseEntity<List<TodoItem>> searchTodoItemsByDescription(@RequestParam("query") String query) {
+    public ResponseEntity<List<?>> searchTodoItemsByDescription(@RequestParam("query") String query,
+                                                                @RequestParam(value = "fields", required = false) String fields) {
+        SparseFieldset fieldset = fields == null ? null : SparseFieldset.parse(fields);
+        if (fieldset != null && !fieldset.includesDescription()) {
+            List<TodoItemSummary> summaries = todoItemService.searchTodoItemSummariesByDescription(query);
+            return ResponseEntity.ok(summaries.stream().map(fieldset::apply).toList());
+        }
         List<TodoItem> todoItems = todoItemService.searchTodoItemsByDescription(query);
-        return ResponseEntity.ok(todoItems);
+        return ResponseEntity.ok(fieldset == null ? todoItems : todoItems.stream().map(fieldset::apply).toList());
+    }
+
+    private MultiGetResult<?> multiGet(List<Long> ids, String fields) {
+        SparseFieldset fieldset = fields == null ? null : SparseFieldset.parse(fields);
+        MultiGetResult<TodoItem> result = todoItemService.getTodoItemsByIds(ids);
+        return fieldset == null ? result
+                : new MultiGetResult<>(result.items().stream().map(fieldset::apply).toList(), result.missing());
+    }
+
+    /**
+     * Rewrites ranked results as {@code {"item": {...}, "score": ...}} maps, keeping the page around them.
+     */
+    private static <T> SearchResultPage<Map<String, Object>> ranked(SearchResultPage<T> results,
+                                                                    Function<T, Map<String, Object>> item,
+                                                                    ToDoubleFunction<T> score) {
+        List<Map<String, Object>> items = new ArrayList<>(results.items().size());
+        for (T result : results.items()) {
+            Map<String, Object> ranked = new LinkedHashMap<>();
+            ranked.put("item", item.apply(result));
+            ranked.put("score", score.applyAsDouble(result));
+            items.add(ranked);
+        }
+        return new SearchResultPage<>(items, results.page(), results.size(), results.total());
     }
 }
\ No newline at end of file
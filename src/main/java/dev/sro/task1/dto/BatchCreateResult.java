@@ -0,0 +1,27 @@
+package dev.sro.task1.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk create request. Every submitted item ends up in exactly one of the two lists,
+ * identified by its position in the request.
+ *
+ * @param created The items that were stored, with their generated IDs.
+ * @param failed  The items that were rejected, with the reason.
+ */
+public record BatchCreateResult(List<Created> created, List<Failed> failed) {
+
+    /**
+     * @param index Position of the item in the request.
+     * @param id    The generated ID of the stored item.
+     */
+    public record Created(int index, Long id) {
+    }
+
+    /**
+     * @param index   Position of the item in the request.
+     * @param message Why the item was rejected.
+     */
+    public record Failed(int index, String message) {
+    }
+}
@@ -0,0 +1,12 @@
+package dev.sro.task1.dto;
+
+import java.util.List;
+
+/**
+ * Request body for setting the same description on many todo items.
+ *
+ * @param ids         The IDs of the todo items to update.
+ * @param description The new description; null clears it.
+ */
+public record BulkDescriptionUpdate(List<Long> ids, String description) {
+}
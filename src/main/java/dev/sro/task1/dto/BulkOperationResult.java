@@ -0,0 +1,9 @@
+package dev.sro.task1.dto;
+
+/**
+ * Outcome of a set-based bulk operation.
+ *
+ * @param affected The number of rows changed by the statement(s).
+ */
+public record BulkOperationResult(int affected) {
+}
@@ -0,0 +1,17 @@
+package dev.sro.task1.dto;
+
+import dev.sro.task1.entity.ChangeLogEntry;
+
+import java.time.Instant;
+
+/**
+ * A change of a todo item as sent by the change feed, read from the change log into a new, unmanaged record.
+ *
+ * @param seq       The position in the change log; resume after it with {@code since} or {@code Last-Event-ID}.
+ * @param id        The ID of the changed todo item.
+ * @param operation Whether the item was created or updated, or deleted.
+ * @param version   The version the item was written at, or null if unknown (deletes, bulk description updates).
+ * @param changedAt When the change was appended, shortly before it committed.
+ */
+public record ChangeEvent(long seq, Long id, ChangeLogEntry.Operation operation, Long version, Instant changedAt) {
+}
@@ -0,0 +1,34 @@
+package dev.sro.task1.dto;
+
+/**
+ * Progress of a todo item accepted for asynchronous creation ({@code POST /api/todos} with
+ * {@code Prefer: respond-async}).
+ *
+ * @param trackingId Identifies the create request; returned with HTTP 202 Accepted.
+ * @param state      Where the request stands.
+ * @param id         The generated ID once the item is {@link State#CREATED}, otherwise null.
+ * @param message    Why the item could not be stored once it has {@link State#FAILED}, otherwise null.
+ */
+public record CreateRequestStatus(String trackingId, State state, Long id, String message) {
+
+    public enum State {
+        /** Waiting in the queue for the next batch. */
+        QUEUED,
+        /** Stored; {@code id} is set. */
+        CREATED,
+        /** Rejected or lost with its batch; {@code message} says why. */
+        FAILED
+    }
+
+    public static CreateRequestStatus queued(String trackingId) {
+        return new CreateRequestStatus(trackingId, State.QUEUED, null, null);
+    }
+
+    public static CreateRequestStatus created(String trackingId, Long id) {
+        return new CreateRequestStatus(trackingId, State.CREATED, id, null);
+    }
+
+    public static CreateRequestStatus failed(String trackingId, String message) {
+        return new CreateRequestStatus(trackingId, State.FAILED, null, message);
+    }
+}
@@ -0,0 +1,13 @@
+package dev.sro.task1.dto;
+
+import java.util.List;
+
+/**
+ * A single page of a keyset (cursor) paginated listing.
+ *
+ * @param items The items on this page, in listing order.
+ * @param next  Opaque cursor to pass back to fetch the following page, or null if this is the last page.
+ * @param <T>   The type of the listed items.
+ */
+public record CursorPage<T>(List<T> items, String next) {
+}
@@ -0,0 +1,12 @@
+package dev.sro.task1.dto;
+
+import java.time.Instant;
+
+/**
+ * A todo item that was deleted, as reported by a delta sync.
+ *
+ * @param id        The ID of the deleted todo item.
+ * @param deletedAt When it was deleted.
+ */
+public record DeletedTodoItem(Long id, Instant deletedAt) {
+}
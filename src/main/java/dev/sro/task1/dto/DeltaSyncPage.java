@@ -0,0 +1,17 @@
+package dev.sro.task1.dto;
+
+import dev.sro.task1.entity.TodoItem;
+
+import java.util.List;
+
+/**
+ * One page of the changes since a delta sync position. Clients upsert the items, then drop the deleted ones,
+ * then pass {@code next} back: right away while {@code hasMore} is true, at their next sync otherwise.
+ *
+ * @param items   The todo items created or updated since the position, in order of their last change.
+ * @param deleted The todo items deleted since the position, in order of deletion.
+ * @param next    Opaque position to sync from next; never null.
+ * @param hasMore Whether more changes follow right away.
+ */
+public record DeltaSyncPage(List<TodoItem> items, List<DeletedTodoItem> deleted, String next, boolean hasMore) {
+}
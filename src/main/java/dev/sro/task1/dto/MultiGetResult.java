@@ -0,0 +1,13 @@
+package dev.sro.task1.dto;
+
+import java.util.List;
+
+/**
+ * The todo items found for a list of IDs.
+ *
+ * @param items   The items that exist, in the order of their first occurrence in the request.
+ * @param missing The requested IDs without a todo item, in request order.
+ * @param <T>     The type of the returned items.
+ */
+public record MultiGetResult<T>(List<T> items, List<Long> missing) {
+}
@@ -0,0 +1,12 @@
+package dev.sro.task1.dto;
+
+import dev.sro.task1.entity.TodoItem;
+
+/**
+ * A todo item returned by the ranked full-text search.
+ *
+ * @param item  The matching todo item.
+ * @param score The BM25 relevance score; only meaningful relative to other results of the same query.
+ */
+public record RankedTodoItem(TodoItem item, double score) {
+}
@@ -0,0 +1,10 @@
+package dev.sro.task1.dto;
+
+/**
+ * A todo item returned by the ranked full-text search, without its description.
+ *
+ * @param item  The matching todo item.
+ * @param score The BM25 relevance score; only meaningful relative to other results of the same query.
+ */
+public record RankedTodoItemSummary(TodoItemSummary item, double score) {
+}
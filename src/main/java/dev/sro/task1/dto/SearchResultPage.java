@@ -0,0 +1,15 @@
+package dev.sro.task1.dto;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results.
+ *
+ * @param items The results on this page, best first.
+ * @param page  The zero-based page number.
+ * @param size  The page size used.
+ * @param total The total number of matching todo items.
+ * @param <T>   The type of the ranked results.
+ */
+public record SearchResultPage<T>(List<T> items, int page, int size, long total) {
+}
@@ -0,0 +1,81 @@
+package dev.sro.task1.dto;
+
+import dev.sro.task1.entity.TodoItem;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The todo item fields a client asked for with {@code ?fields=id,title}. Items are written as maps holding
+ * those fields only, always in the order of {@link Field}.
+ */
+public final class SparseFieldset {
+
+    /**
+     * The fields of a todo item, in the order they are written.
+     */
+    public enum Field {
+        ID, TITLE, DESCRIPTION, VERSION
+    }
+
+    private final Set<Field> fields;
+
+    private SparseFieldset(Set<Field> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @param fields Comma-separated field names, e.g. {@code id,title}; case and blanks around names are ignored.
+     * @return The fieldset.
+     * @throws IllegalArgumentException if no field or an unknown one is named.
+     */
+    public static SparseFieldset parse(String fields) {
+        Set<Field> parsed = EnumSet.noneOf(Field.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                parsed.add(Field.valueOf(trimmed.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unknown field '" + trimmed + "'; fields are id, title, description and version.");
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required.");
+        }
+        return new SparseFieldset(parsed);
+    }
+
+    /**
+     * @return Whether the description is asked for, i.e. whether whole items have to be read.
+     */
+    public boolean includesDescription() {
+        return fields.contains(Field.DESCRIPTION);
+    }
+
+    public Map<String, Object> apply(TodoItem todoItem) {
+        return write(todoItem.getId(), todoItem.getTitle(), todoItem.getDescription(), todoItem.getVersion());
+    }
+
+    public Map<String, Object> apply(TodoItemSummary summary) {
+        return write(summary.id(), summary.title(), null, summary.version());
+    }
+
+    private Map<String, Object> write(Long id, String title, String description, Long version) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Field field : fields) {
+            switch (field) {
+                case ID -> values.put("id", id);
+                case TITLE -> values.put("title", title);
+                case DESCRIPTION -> values.put("description", description);
+                case VERSION -> values.put("version", version);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,11 @@
+package dev.sro.task1.dto;
+
+/**
+ * Projection of a todo item without its description, read by selecting the other columns only.
+ *
+ * @param id      The ID of the todo item.
+ * @param title   The title.
+ * @param version The version, as in the item's ETag.
+ */
+public record TodoItemSummary(Long id, String title, Long version) {
+}
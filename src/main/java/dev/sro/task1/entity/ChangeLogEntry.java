@@ -0,0 +1,75 @@
+package dev.sro.task1.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One change of a todo item in the change log, appended in the transaction of the write.
+ * Sequence numbers are taken from {@link ChangeLogSequence} while its row is locked, so they follow
+ * commit order and have no gaps until the log is compacted.
+ */
+@Entity
+@Table(name = "todo_change_log", indexes = {
+        // Finds the later entries of an item when compacting
+        @Index(name = "idx_todo_change_log_item_seq", columnList = "item_id, seq"),
+        // Finds where the retention and compaction windows start
+        @Index(name = "idx_todo_change_log_changed_at", columnList = "changed_at")
+})
+public class ChangeLogEntry {
+
+    // Assigned by ChangeLog, never generated
+    @Id
+    private Long seq;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 6)
+    private Operation operation;
+
+    // The version the item was written at, or null when the write did not read it back (bulk updates, deletes)
+    private Long version;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    public ChangeLogEntry() {
+    }
+
+    public ChangeLogEntry(Long seq, Long itemId, Operation operation, Long version, Instant changedAt) {
+        this.seq = seq;
+        this.itemId = itemId;
+        this.operation = operation;
+        this.version = version;
+        this.changedAt = changedAt;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public enum Operation {
+        /** The item was created or updated. */
+        UPSERT,
+        /** The item was deleted; a tombstone. */
+        DELETE
+    }
+}
@@ -0,0 +1,54 @@
+package dev.sro.task1.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * The single row that hands out the sequence numbers of the change log. Appending locks it until the
+ * transaction commits, so that sequence numbers become visible in the order they were taken.
+ */
+@Entity
+@Table(name = "todo_change_log_seq")
+public class ChangeLogSequence {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    // The sequence number of the next entry
+    @Column(name = "next_seq", nullable = false)
+    private Long nextSeq;
+
+    // Every entry up to this sequence number has been removed, tombstones included (see ChangeLog#compact)
+    @Column(name = "purged_through", nullable = false)
+    private Long purgedThrough;
+
+    public ChangeLogSequence() {
+    }
+
+    public ChangeLogSequence(Integer id, Long nextSeq, Long purgedThrough) {
+        this.id = id;
+        this.nextSeq = nextSeq;
+        this.purgedThrough = purgedThrough;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Long getNextSeq() {
+        return nextSeq;
+    }
+
+    public void setNextSeq(Long nextSeq) {
+        this.nextSeq = nextSeq;
+    }
+
+    public Long getPurgedThrough() {
+        return purgedThrough;
+    }
+
+    public void setPurgedThrough(Long purgedThrough) {
+        this.purgedThrough = purgedThrough;
+    }
+}
@@ -1,23 +1,51 @@
 package dev.sro.task1.entity; 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import dev.sro.task1.sharding.ShardedSequence;
 import jakarta.persistence.*; 
 
 import java.io.Serializable; 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "todo_items") 
+@Table(name = "todo_items", indexes = {
+        // Delta sync seeks on (updated_at, id); see TodoItemRepository#findChangedAfter
+        @Index(name = "idx_todo_items_updated_at_id", columnList = "updated_at, id")
+})
 public class TodoItem implements Serializable {
 
+    // Pooled sequence instead of IDENTITY: Hibernate can only batch inserts when it knows ids up front.
+    // One round trip reserves 50 ids; on MySQL the sequence is emulated with the todo_items_seq table.
+    // With sharding every shard has its own sequence and the shard is encoded in the id (see ShardIds).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) 
+    @ShardedSequence(name = "todo_items_seq", allocationSize = 50)
     private Long id; 
 
     @Column(nullable = false, length = 255) 
     private String title;
 
+    // Unbounded, and not needed by most reads: only loaded when first accessed (requires the bytecode
+    // enhancement of the build). Queries that return items to clients select it into new, unmanaged instances.
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT") 
     private String description;
 
+    // Optimistic locking; incremented on every update and exposed as the item's strong ETag
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Maintained by the entity callbacks below, and by the bulk UPDATE statements of the repository.
+    // Not part of the JSON: a delta sync hands out its position as an opaque cursor instead.
+    @JsonIgnore
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @JsonIgnore
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     public TodoItem() {
     }
     
@@ -26,6 +54,43 @@ public class TodoItem implements Serializable {
         this.description = description;
     }
 
+    /**
+     * Creates an unmanaged copy of a row, e.g. from a JPQL constructor expression.
+     */
+    public TodoItem(Long id, String title, String description, Long version) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.version = version;
+    }
+
+    /**
+     * Creates an unmanaged copy of a row with the time of its last change, e.g. for a delta sync.
+     */
+    public TodoItem(Long id, String title, String description, Long version, Instant updatedAt) {
+        this(id, title, description, version);
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * @return The current time at the precision of the timestamp columns (DATETIME(6)), so that a value
+     * read back from the database equals the one written.
+     */
+    public static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @PrePersist
+    void onPersist() {
+        createdAt = now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = now();
+    }
+
     public Long getId() {
         return id;
     }
@@ -50,12 +115,33 @@ public class TodoItem implements Serializable {
         this.description = description;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public String toString() {
         return "TodoItem{" +
                "id=" + id +
                ", title='" + title + '\'' +
                ", description='" + description + '\'' +
+               ", version=" + version +
                '}';
     }
 }
\ No newline at end of file
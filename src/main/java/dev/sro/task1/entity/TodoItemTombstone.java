@@ -0,0 +1,40 @@
+package dev.sro.task1.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Records that a todo item was deleted, so that a delta sync can tell its clients to drop it.
+ * Written in the transaction of the delete and purged after {@code todo.sync.tombstone-retention}.
+ */
+@Entity
+@Table(name = "todo_item_tombstones", indexes = {
+        // Delta sync seeks on (deleted_at, id), the purge on deleted_at
+        @Index(name = "idx_todo_item_tombstones_deleted_at_id", columnList = "deleted_at, id")
+})
+public class TodoItemTombstone {
+
+    // The ID of the deleted todo item; IDs are never reused
+    @Id
+    private Long id;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    public TodoItemTombstone() {
+    }
+
+    public TodoItemTombstone(Long id, Instant deletedAt) {
+        this.id = id;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
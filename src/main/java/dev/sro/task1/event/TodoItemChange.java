@@ -0,0 +1,36 @@
+package dev.sro.task1.event;
+
+import dev.sro.task1.entity.TodoItem;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Application event published by the service layer whenever todo items are written.
+ * Listeners that maintain derived, in-process state (indexes, caches) should react only after the
+ * surrounding transaction commits, e.g. with {@code @TransactionalEventListener(fallbackExecution = true)}.
+ */
+public sealed interface TodoItemChange {
+
+    /**
+     * Todo items were created or updated.
+     * @param items The items as they were stored.
+     */
+    record Saved(List<TodoItem> items) implements TodoItemChange {
+    }
+
+    /**
+     * Todo items were deleted by ID. IDs that did not exist may be included.
+     * @param ids The IDs of the deleted items.
+     */
+    record Deleted(Collection<Long> ids) implements TodoItemChange {
+    }
+
+    /**
+     * The description of the given todo items was replaced. IDs that did not exist may be included.
+     * @param ids The IDs of the updated items.
+     * @param description The new description.
+     */
+    record DescriptionUpdated(Collection<Long> ids, String description) implements TodoItemChange {
+    }
+}
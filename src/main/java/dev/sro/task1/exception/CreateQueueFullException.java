@@ -0,0 +1,17 @@
+package dev.sro.task1.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that an asynchronous create was refused because the write-behind
+ * queue is full (or no longer accepting items), so the client should slow down and retry.
+ * This exception will result in an HTTP 429 Too Many Requests status.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class CreateQueueFullException extends RuntimeException {
+
+    public CreateQueueFullException(String message) {
+        super(message);
+    }
+}
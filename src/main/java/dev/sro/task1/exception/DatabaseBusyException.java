@@ -0,0 +1,17 @@
+package dev.sro.task1.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that no database access permit became free in time, i.e. the
+ * application is overloaded and the request should be retried later.
+ * This exception will result in an HTTP 503 Service Unavailable status.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DatabaseBusyException extends RuntimeException {
+
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
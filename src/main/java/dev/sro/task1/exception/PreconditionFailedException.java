@@ -0,0 +1,17 @@
+package dev.sro.task1.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that a conditional request (e.g. an {@code If-Match} header)
+ * does not match the current state of the resource.
+ * This exception will result in an HTTP 412 Precondition Failed status.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
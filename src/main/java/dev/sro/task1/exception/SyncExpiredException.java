@@ -0,0 +1,17 @@
+package dev.sro.task1.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that a delta sync position is older than the retention of the tombstones,
+ * so deletions since then may have been forgotten: the client has to sync again from scratch.
+ * This exception will result in an HTTP 410 Gone status.
+ */
+@ResponseStatus(HttpStatus.GONE)
+public class SyncExpiredException extends RuntimeException {
+
+    public SyncExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,108 @@
+package dev.sro.task1.grpc;
+
+import dev.sro.task1.config.TodoProperties;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link TodoGrpcService} on its own port ({@code todo.grpc.port}) next to the servlet container,
+ * starting and stopping with it.
+ * <p>
+ * Calls block in the service layer, so they run on an executor rather than on Netty's event loop: virtual
+ * threads when {@code spring.threads.virtual.enabled} is set, like the servlet requests, otherwise gRPC's
+ * cached thread pool. Either way the database access limit bounds how many reach the database at once.
+ */
+@Component
+@Profile("!reactive") // Serves the servlet stack's TodoItemService
+@ConditionalOnProperty(prefix = "todo.grpc", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TodoGrpcServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoGrpcServer.class);
+
+    private final TodoProperties.Grpc settings;
+    private final Server server;
+    private final ExecutorService virtualThreads;
+    private volatile boolean running;
+
+    public TodoGrpcServer(TodoGrpcService todoGrpcService, TodoProperties todoProperties, Environment environment) {
+        this.settings = todoProperties.getGrpc();
+        NettyServerBuilder builder = NettyServerBuilder.forPort(settings.getPort())
+                .addService(todoGrpcService)
+                .maxInboundMessageSize(Math.toIntExact(settings.getMaxInboundMessageSize().toBytes()));
+        if (Threading.VIRTUAL.isActive(environment)) {
+            virtualThreads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("grpc-", 0).factory());
+            builder.executor(virtualThreads);
+        } else {
+            virtualThreads = null;
+        }
+        this.server = builder.build();
+    }
+
+    @Override
+    public void start() {
+        try {
+            server.start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not start the gRPC server on port " + settings.getPort(), ex);
+        }
+        running = true;
+        log.info("gRPC server started on port {}", server.getPort());
+    }
+
+    /**
+     * Stops taking calls and waits up to {@code todo.grpc.shutdown-timeout} for the running ones to complete.
+     */
+    @Override
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(settings.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("gRPC calls still running after {}, cancelling them.", settings.getShutdownTimeout());
+                server.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            if (virtualThreads != null) {
+                virtualThreads.shutdown();
+            }
+            running = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts and stops together with the web server.
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024; // WebServerStartStopLifecycle's phase
+    }
+
+    /**
+     * @return The port the server listens on, once started.
+     */
+    public int getPort() {
+        return server.getPort();
+    }
+}
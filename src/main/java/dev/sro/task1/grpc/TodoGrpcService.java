@@ -0,0 +1,288 @@
+package dev.sro.task1.grpc;
+
+import com.google.protobuf.Empty;
+import dev.sro.task1.codec.TodoProtobufMapper;
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.exception.DatabaseBusyException;
+import dev.sro.task1.exception.PreconditionFailedException;
+import dev.sro.task1.exception.ResourceNotFoundException;
+import dev.sro.task1.proto.TodoProtos;
+import dev.sro.task1.proto.TodoServiceGrpc;
+import dev.sro.task1.proto.TodoServiceProtos;
+import dev.sro.task1.service.TodoItemService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * gRPC front of {@link TodoItemService}, the counterpart of the REST controller for internal callers
+ * ({@code todo/v1/todo_service.proto}).
+ * <p>
+ * Listings and searches are server-streaming and respect the client's flow control: the full listing is
+ * read from the database as the client takes the items, on a virtual thread of its own so that the call's
+ * thread stays free to deliver the client's flow-control updates. Service exceptions become the matching
+ * status, e.g. NOT_FOUND for a missing item and INVALID_ARGUMENT for invalid input.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "todo.grpc", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TodoGrpcService extends TodoServiceGrpc.TodoServiceImplBase implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoGrpcService.class);
+
+    private final TodoItemService todoItemService;
+    private final TodoProperties todoProperties;
+    private final ExecutorService streamProducers =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("grpc-stream-", 0).factory());
+
+    public TodoGrpcService(TodoItemService todoItemService, TodoProperties todoProperties) {
+        this.todoItemService = todoItemService;
+        this.todoProperties = todoProperties;
+    }
+
+    @Override
+    public void getTodoItem(TodoServiceProtos.GetTodoItemRequest request,
+                            StreamObserver<TodoProtos.TodoItem> responseObserver) {
+        unary(responseObserver, () -> todoItemService.getTodoItemById(request.getId())
+                .map(TodoProtobufMapper::toMessage)
+                .orElseThrow(() -> new ResourceNotFoundException("TodoItem not found with id: " + request.getId())));
+    }
+
+    @Override
+    public void createTodoItem(TodoProtos.TodoItem request, StreamObserver<TodoProtos.TodoItem> responseObserver) {
+        unary(responseObserver, () -> TodoProtobufMapper.toMessage(
+                todoItemService.createTodoItem(TodoProtobufMapper.fromMessage(request))));
+    }
+
+    @Override
+    public void updateTodoItem(TodoServiceProtos.UpdateTodoItemRequest request,
+                               StreamObserver<TodoProtos.TodoItem> responseObserver) {
+        unary(responseObserver, () -> {
+            TodoItem details = TodoProtobufMapper.fromMessage(request.getItem());
+            TodoItem updated = request.getExpectedVersionsCount() == 0
+                    ? todoItemService.updateTodoItem(request.getId(), details)
+                    : todoItemService.updateTodoItem(request.getId(), details, request.getExpectedVersionsList());
+            return TodoProtobufMapper.toMessage(updated);
+        });
+    }
+
+    @Override
+    public void deleteTodoItem(TodoServiceProtos.DeleteTodoItemRequest request, StreamObserver<Empty> responseObserver) {
+        unary(responseObserver, () -> {
+            todoItemService.deleteTodoItem(request.getId());
+            return Empty.getDefaultInstance();
+        });
+    }
+
+    @Override
+    public void listTodoItems(TodoServiceProtos.ListTodoItemsRequest request,
+                              StreamObserver<TodoProtos.TodoItem> responseObserver) {
+        stream(responseObserver, sender ->
+                todoItemService.exportTodoItems(todoItem -> sender.send(TodoProtobufMapper.toMessage(todoItem))));
+    }
+
+    @Override
+    public void searchTodoItems(TodoServiceProtos.SearchTodoItemsRequest request,
+                                StreamObserver<TodoProtos.RankedTodoItem> responseObserver) {
+        stream(responseObserver, sender -> todoItemService.searchTodoItems(request.getQuery(),
+                        request.hasPage() ? request.getPage() : null,
+                        request.hasSize() ? request.getSize() : null)
+                .items().forEach(result -> sender.send(TodoProtobufMapper.toMessage(result))));
+    }
+
+    @Override
+    public void searchTodoItemsByTitle(TodoServiceProtos.SearchTodoItemsByTitleRequest request,
+                                       StreamObserver<TodoProtos.TodoItem> responseObserver) {
+        stream(responseObserver, sender -> todoItemService.searchTodoItemsByTitle(request.getQuery(), request.getFuzziness())
+                .forEach(todoItem -> sender.send(TodoProtobufMapper.toMessage(todoItem))));
+    }
+
+    @Override
+    public void searchTodoItemsByDescription(TodoServiceProtos.SearchTodoItemsByDescriptionRequest request,
+                                             StreamObserver<TodoProtos.TodoItem> responseObserver) {
+        stream(responseObserver, sender -> todoItemService.searchTodoItemsByDescription(request.getQuery())
+                .forEach(todoItem -> sender.send(TodoProtobufMapper.toMessage(todoItem))));
+    }
+
+    /**
+     * Collects the streamed items and creates them with {@link TodoItemService#createTodoItems(List)} once the
+     * client half-closes. The call fails as soon as the stream goes beyond {@code todo.batch.max-items}, so a
+     * client cannot make the server buffer an unbounded number of items.
+     */
+    @Override
+    public StreamObserver<TodoProtos.TodoItem> createTodoItems(StreamObserver<TodoProtos.BatchCreateResult> responseObserver) {
+        int maxItems = todoProperties.getBatch().getMaxItems();
+        return new StreamObserver<>() {
+
+            private final List<TodoItem> todoItems = new ArrayList<>();
+            private boolean closed;
+
+            @Override
+            public void onNext(TodoProtos.TodoItem message) {
+                if (closed) {
+                    return;
+                }
+                if (todoItems.size() == maxItems) {
+                    closed = true;
+                    todoItems.clear();
+                    responseObserver.onError(Status.INVALID_ARGUMENT
+                            .withDescription("Batch cannot contain more than " + maxItems + " todo items.")
+                            .asRuntimeException());
+                    return;
+                }
+                todoItems.add(TodoProtobufMapper.fromMessage(message));
+            }
+
+            @Override
+            public void onError(Throwable cause) {
+                // The client cancelled; nothing has been stored
+                closed = true;
+                todoItems.clear();
+            }
+
+            @Override
+            public void onCompleted() {
+                if (!closed) {
+                    closed = true;
+                    unary(responseObserver, () -> TodoProtobufMapper.toMessage(todoItemService.createTodoItems(todoItems)));
+                }
+            }
+        };
+    }
+
+    private static <T> void unary(StreamObserver<T> responseObserver, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(toStatus(ex));
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void destroy() {
+        streamProducers.shutdownNow(); // The server has stopped; any producer left belongs to a cancelled call
+    }
+
+    /**
+     * Produces the messages of a server-streaming call on another thread and returns right away: the call's
+     * onReady notifications are delivered on the thread that runs the handler, so a handler waiting for the
+     * client would wait forever.
+     */
+    private <T> void stream(StreamObserver<T> responseObserver, Consumer<FlowControlledSender<T>> call) {
+        FlowControlledSender<T> sender = new FlowControlledSender<>(responseObserver,
+                todoProperties.getGrpc().getStallTimeout());
+        streamProducers.execute(() -> {
+            try {
+                call.accept(sender);
+            } catch (RuntimeException ex) {
+                responseObserver.onError(toStatus(ex));
+                return;
+            }
+            responseObserver.onCompleted();
+        });
+    }
+
+    static StatusRuntimeException toStatus(RuntimeException ex) {
+        if (ex instanceof StatusRuntimeException statusException) {
+            return statusException;
+        }
+        Status status = switch (ex) {
+            case IllegalArgumentException ignored -> Status.INVALID_ARGUMENT;
+            case ResourceNotFoundException ignored -> Status.NOT_FOUND;
+            case PreconditionFailedException ignored -> Status.FAILED_PRECONDITION;
+            case OptimisticLockingFailureException ignored -> Status.ABORTED;
+            case DatabaseBusyException ignored -> Status.UNAVAILABLE;
+            default -> {
+                log.error("gRPC call failed", ex);
+                yield Status.INTERNAL;
+            }
+        };
+        return status.withDescription(ex.getMessage()).asRuntimeException();
+    }
+
+    /**
+     * Sends the messages of a server-streaming call, blocking the producing thread while the client's
+     * flow-control window is full so that a slow client holds back the producer instead of filling the
+     * server's memory. Waits on a lock condition, which parks a virtual thread without pinning its carrier.
+     * Must be created on the call's thread, which registers the handlers; only the producer sends.
+     * <p>
+     * The producer may hold a database connection while it waits, so a client that takes nothing for the
+     * stall timeout fails the call instead of keeping the connection.
+     */
+    static final class FlowControlledSender<T> {
+
+        private final ServerCallStreamObserver<T> observer;
+        private final Lock lock = new ReentrantLock();
+        private final Condition readyOrCancelled = lock.newCondition();
+        private final Duration stallTimeout;
+
+        FlowControlledSender(StreamObserver<T> responseObserver, Duration stallTimeout) {
+            this.observer = (ServerCallStreamObserver<T>) responseObserver;
+            this.stallTimeout = stallTimeout;
+            observer.setOnReadyHandler(this::signal);
+            observer.setOnCancelHandler(this::signal);
+        }
+
+        /**
+         * @throws StatusRuntimeException with CANCELLED once the client has cancelled the call, or
+         *                                DEADLINE_EXCEEDED if it took nothing for the stall timeout.
+         */
+        void send(T message) {
+            lock.lock();
+            try {
+                long nanos = stallTimeout.toNanos();
+                while (!observer.isReady() || observer.isCancelled()) {
+                    if (observer.isCancelled()) {
+                        throw Status.CANCELLED.withDescription("The client cancelled the call.").asRuntimeException();
+                    }
+                    if (nanos <= 0) {
+                        throw Status.DEADLINE_EXCEEDED
+                                .withDescription("The client read nothing for " + stallTimeout + ".")
+                                .asRuntimeException();
+                    }
+                    nanos = readyOrCancelled.awaitNanos(nanos);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw Status.CANCELLED.withDescription("Interrupted while waiting for the client.").withCause(ex)
+                        .asRuntimeException();
+            } finally {
+                lock.unlock();
+            }
+            observer.onNext(message);
+        }
+
+        private void signal() {
+            lock.lock();
+            try {
+                readyOrCancelled.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
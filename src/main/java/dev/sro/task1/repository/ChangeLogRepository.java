@@ -0,0 +1,77 @@
+package dev.sro.task1.repository;
+
+import dev.sro.task1.dto.ChangeEvent;
+import dev.sro.task1.entity.ChangeLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    /**
+     * Reads the entries following a position of the log, in sequence order, into new, unmanaged records.
+     * Served by a primary key range scan, like keyset pagination.
+     *
+     * @param seq The last sequence number seen; only later entries are returned.
+     * @param limit The maximum number of entries to return.
+     * @return Up to {@code limit} change events ordered by ascending sequence number.
+     */
+    @Query("SELECT new dev.sro.task1.dto.ChangeEvent(e.seq, e.itemId, e.operation, e.version, e.changedAt) "
+            + "FROM ChangeLogEntry e WHERE e.seq > :seq ORDER BY e.seq")
+    List<ChangeEvent> findEventsAfter(@Param("seq") long seq, Limit limit);
+
+    /**
+     * @return The sequence number of the oldest entry, or empty if the log is empty.
+     */
+    @Query("SELECT MIN(e.seq) FROM ChangeLogEntry e")
+    Optional<Long> findMinSeq();
+
+    /**
+     * @param instant The end of the window, exclusive.
+     * @return The sequence number of the newest entry appended before the instant, or empty if there is none.
+     */
+    @Query("SELECT MAX(e.seq) FROM ChangeLogEntry e WHERE e.changedAt < :instant")
+    Optional<Long> findMaxSeqChangedBefore(@Param("instant") Instant instant);
+
+    /**
+     * Finds entries that a later entry of the same todo item supersedes, in sequence order.
+     *
+     * @param after Only entries after this sequence number are considered.
+     * @param through Only entries up to this sequence number are considered.
+     * @param limit The maximum number of sequence numbers to return.
+     * @return The sequence numbers of the superseded entries.
+     */
+    @Query("SELECT e.seq FROM ChangeLogEntry e WHERE e.seq > :after AND e.seq <= :through AND EXISTS "
+            + "(SELECT 1 FROM ChangeLogEntry n WHERE n.itemId = e.itemId AND n.seq > e.seq) ORDER BY e.seq")
+    List<Long> findSupersededSeqs(@Param("after") long after, @Param("through") long through, Limit limit);
+
+    /**
+     * Deletes the entries with the given sequence numbers in a single statement.
+     *
+     * @param seqs The sequence numbers.
+     * @return The number of deleted entries.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ChangeLogEntry e WHERE e.seq IN :seqs")
+    int deleteBySeqIn(@Param("seqs") Collection<Long> seqs);
+
+    /**
+     * Deletes every entry in a range of sequence numbers in a single statement.
+     *
+     * @param from The first sequence number, inclusive.
+     * @param through The last sequence number, inclusive.
+     * @return The number of deleted entries.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ChangeLogEntry e WHERE e.seq >= :from AND e.seq <= :through")
+    int deleteBySeqBetween(@Param("from") long from, @Param("through") long through);
+}
@@ -0,0 +1,337 @@
+package dev.sro.task1.repository;
+
+import dev.sro.task1.entity.TodoItem;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * R2DBC counterpart of {@link TodoItemRepository} for the {@code reactive} profile, on the same
+ * {@code todo_items} table. The JPA entity cannot be mapped by Spring Data R2DBC, so every statement
+ * is written out and rows are mapped to {@link TodoItem} by hand.
+ * <p>
+ * IDs come from the {@code todo_items_seq} table that Hibernate uses to emulate the sequence of
+ * {@link TodoItem} on MySQL, in blocks of the same size and with the same meaning (the value read is
+ * the highest ID of the block). Servlet and reactive instances can therefore write to the same database:
+ * writes also maintain {@code created_at} and {@code updated_at} (as UTC, like Hibernate with
+ * {@code hibernate.jdbc.time_zone=UTC}), and deletes leave tombstones for the delta sync.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveTodoItemRepository {
+
+    // allocationSize of the todo_items_seq generator in TodoItem
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final int ID_BLOCK_ATTEMPTS = 10;
+    private static final int FETCH_SIZE = 500;
+    private static final String COLUMNS = "id, title, description, version";
+    // Rows deleted per statement by a delete by title; deletes by ID come in chunks of the service
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator newTransaction;
+    private final AtomicReference<IdBlock> idBlock = new AtomicReference<>();
+
+    public ReactiveTodoItemRepository(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        // Reserved IDs are handed out in memory, so their reservation must commit even if the caller rolls back
+        this.newTransaction = TransactionalOperator.create(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    /**
+     * Keyset pagination query: seeks past the last id seen and returns the next rows in id order.
+     *
+     * @param id The last id seen by the caller; only rows with a greater id are returned.
+     * @param limit The maximum number of rows to return.
+     * @return Up to {@code limit} TodoItem objects ordered by ascending id.
+     */
+    public Flux<TodoItem> findByIdGreaterThanOrderByIdAsc(long id, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM todo_items WHERE id > :id ORDER BY id LIMIT :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveTodoItemRepository::toTodoItem)
+                .all();
+    }
+
+    /**
+     * Streams every todo item in id order. Rows are fetched from the driver as the subscriber requests them.
+     *
+     * @return The todo items, ordered by ascending id.
+     */
+    public Flux<TodoItem> findAllOrderByIdAsc() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM todo_items ORDER BY id")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveTodoItemRepository::toTodoItem)
+                .all();
+    }
+
+    public Mono<TodoItem> findById(long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM todo_items WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveTodoItemRepository::toTodoItem)
+                .one();
+    }
+
+    /**
+     * @param ids The IDs to look up; must not be empty.
+     * @return The existing todo items among them, in no particular order.
+     */
+    public Flux<TodoItem> findAllById(Collection<Long> ids) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM todo_items WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveTodoItemRepository::toTodoItem)
+                .all();
+    }
+
+    /**
+     * Reads only the version of a todo item, e.g. to answer a conditional GET without loading the item.
+     *
+     * @param id The ID of the todo item.
+     * @return The current version, or empty if the todo item does not exist.
+     */
+    public Mono<Long> findVersionById(long id) {
+        return databaseClient.sql("SELECT version FROM todo_items WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    /**
+     * @param pattern A lower-cased LIKE pattern escaped with {@code !}, see {@link TodoItemRepository#findIdsByTitleLike(String)}.
+     * @return The todo items whose lower-cased title matches the pattern.
+     */
+    public Flux<TodoItem> findByTitleLike(String pattern) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM todo_items WHERE LOWER(title) LIKE :pattern ESCAPE '!'")
+                .bind("pattern", pattern)
+                .map(ReactiveTodoItemRepository::toTodoItem)
+                .all();
+    }
+
+    /**
+     * @param pattern A lower-cased LIKE pattern escaped with {@code !}, see {@link TodoItemRepository#findIdsByTitleLike(String)}.
+     * @return The todo items whose lower-cased description matches the pattern.
+     */
+    public Flux<TodoItem> findByDescriptionLike(String pattern) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM todo_items WHERE LOWER(description) LIKE :pattern ESCAPE '!'")
+                .bind("pattern", pattern)
+                .map(ReactiveTodoItemRepository::toTodoItem)
+                .all();
+    }
+
+    /**
+     * Inserts the given todo items with newly reserved IDs at version 0, as one multi-row INSERT.
+     *
+     * @param todoItems The todo items to insert; their ID and version are set.
+     * @return The inserted todo items.
+     */
+    public Flux<TodoItem> insertAll(List<TodoItem> todoItems) {
+        if (todoItems.isEmpty()) {
+            return Flux.empty();
+        }
+        return Flux.fromIterable(todoItems)
+                .concatMap(todoItem -> nextId().doOnNext(id -> {
+                    todoItem.setId(id);
+                    todoItem.setVersion(0L);
+                }))
+                .then(Mono.defer(() -> {
+                    StringBuilder sql = new StringBuilder(
+                            "INSERT INTO todo_items (id, title, description, version, created_at, updated_at) VALUES ");
+                    for (int i = 0; i < todoItems.size(); i++) {
+                        sql.append(i == 0 ? "" : ", ").append("(:id").append(i).append(", :title").append(i)
+                                .append(", :description").append(i).append(", 0, :now, :now)");
+                    }
+                    DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("now", now());
+                    for (int i = 0; i < todoItems.size(); i++) {
+                        TodoItem todoItem = todoItems.get(i);
+                        spec = spec.bind("id" + i, todoItem.getId())
+                                .bind("title" + i, todoItem.getTitle())
+                                .bind("description" + i, Parameters.in(R2dbcType.VARCHAR, todoItem.getDescription()));
+                    }
+                    return spec.fetch().rowsUpdated();
+                }))
+                .thenMany(Flux.fromIterable(todoItems));
+    }
+
+    /**
+     * Replaces the title and description of a todo item and increments its version.
+     *
+     * @return 1 if the todo item was updated, 0 if it does not exist.
+     */
+    public Mono<Long> update(long id, String title, String description) {
+        return databaseClient.sql("UPDATE todo_items SET title = :title, description = :description, version = version + 1, "
+                        + "updated_at = :now WHERE id = :id")
+                .bind("id", id)
+                .bind("now", now())
+                .bind("title", title)
+                .bind("description", Parameters.in(R2dbcType.VARCHAR, description))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Replaces the title and description of a todo item, provided its current version is one of the expected
+     * ones, and increments the version.
+     *
+     * @return 1 if the todo item was updated, 0 if it does not exist or is at another version.
+     */
+    public Mono<Long> updateIfVersionIn(long id, String title, String description, Collection<Long> versions) {
+        return databaseClient.sql("UPDATE todo_items SET title = :title, description = :description, version = version + 1, "
+                        + "updated_at = :now WHERE id = :id AND version IN (:versions)")
+                .bind("id", id)
+                .bind("now", now())
+                .bind("title", title)
+                .bind("description", Parameters.in(R2dbcType.VARCHAR, description))
+                .bind("versions", versions)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Locks the rows that exist, leaves a tombstone for each and deletes them, like
+     * {@link TodoItemRepository#lockIdsByIdIn(Collection)} followed by the DELETE; must run in a transaction.
+     *
+     * @param ids The IDs, as many as fit in one IN list.
+     * @return The IDs among the given ones that existed and were deleted, in ascending order.
+     */
+    public Mono<List<Long>> deleteAllByIdIn(Collection<Long> ids) {
+        return databaseClient.sql("SELECT id FROM todo_items WHERE id IN (:ids) ORDER BY id FOR UPDATE")
+                .bind("ids", ids)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .collectList()
+                .flatMap(existing -> existing.isEmpty() ? Mono.just(existing) : insertTombstones(existing)
+                        .then(databaseClient.sql("DELETE FROM todo_items WHERE id IN (:ids)")
+                                .bind("ids", existing)
+                                .fetch()
+                                .rowsUpdated())
+                        .thenReturn(existing));
+    }
+
+    /**
+     * Reads the IDs of the matching rows and deletes them like {@link #deleteAllByIdIn(Collection)}, chunk by
+     * chunk; must run in a transaction.
+     *
+     * @param pattern A lower-cased LIKE pattern escaped with {@code !}, see {@link TodoItemRepository#findIdsByTitleLike(String)}.
+     * @return The IDs of the deleted rows.
+     */
+    public Mono<List<Long>> deleteByTitleLike(String pattern) {
+        return databaseClient.sql("SELECT id FROM todo_items WHERE LOWER(title) LIKE :pattern ESCAPE '!' ORDER BY id")
+                .bind("pattern", pattern)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .collectList() // The connection is free again before the deletes
+                .flatMapMany(ids -> Flux.range(0, (ids.size() + DELETE_CHUNK_SIZE - 1) / DELETE_CHUNK_SIZE)
+                        .map(chunk -> ids.subList(chunk * DELETE_CHUNK_SIZE,
+                                Math.min((chunk + 1) * DELETE_CHUNK_SIZE, ids.size()))))
+                .concatMap(this::deleteAllByIdIn)
+                .reduceWith(ArrayList<Long>::new, (deleted, chunk) -> {
+                    deleted.addAll(chunk);
+                    return deleted;
+                });
+    }
+
+    /**
+     * Sets the description of the todo items with the given IDs and increments their version.
+     *
+     * @return The number of updated rows.
+     */
+    public Mono<Long> updateDescriptionByIdIn(Collection<Long> ids, String description) {
+        return databaseClient.sql("UPDATE todo_items SET description = :description, version = version + 1, updated_at = :now "
+                        + "WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .bind("now", now())
+                .bind("description", Parameters.in(R2dbcType.VARCHAR, description))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Hands out the next ID of the current block, reserving a new block once it is used up.
+     * Concurrent callers may each reserve a block; the unused IDs are simply skipped.
+     */
+    private Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            IdBlock block = idBlock.get();
+            if (block != null) {
+                long id = block.next().getAndIncrement();
+                if (id <= block.hi()) {
+                    return Mono.just(id);
+                }
+            }
+            return reserveIdBlock().flatMap(reserved -> {
+                idBlock.compareAndSet(block, reserved);
+                return nextId();
+            });
+        });
+    }
+
+    /**
+     * Reserves the next block of IDs the way Hibernate's pooled optimizer does: reads the value, advances it by
+     * the block size only if nobody else did in between, and uses the value as the highest ID of the block.
+     */
+    private Mono<IdBlock> reserveIdBlock() {
+        return databaseClient.sql("SELECT next_val FROM todo_items_seq FOR UPDATE")
+                .map(row -> row.get("next_val", Long.class))
+                .one()
+                .flatMap(hi -> databaseClient.sql("UPDATE todo_items_seq SET next_val = :next WHERE next_val = :current")
+                        .bind("next", hi + ID_BLOCK_SIZE)
+                        .bind("current", hi)
+                        .fetch()
+                        .rowsUpdated()
+                        .filter(updated -> updated > 0)
+                        .map(updated -> new IdBlock(new AtomicLong(Math.max(1, hi - ID_BLOCK_SIZE + 1)), hi)))
+                .as(newTransaction::transactional)
+                .repeatWhenEmpty(attempts -> attempts.take(ID_BLOCK_ATTEMPTS))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Could not reserve IDs from todo_items_seq.")));
+    }
+
+    private Mono<Long> insertTombstones(List<Long> ids) {
+        StringBuilder sql = new StringBuilder("INSERT INTO todo_item_tombstones (id, deleted_at) VALUES ");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(:id").append(i).append(", :now)");
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("now", now());
+        for (int i = 0; i < ids.size(); i++) {
+            spec = spec.bind("id" + i, ids.get(i));
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * @return The current time as written to the timestamp columns: UTC, at their precision.
+     */
+    private static LocalDateTime now() {
+        return LocalDateTime.ofInstant(TodoItem.now(), ZoneOffset.UTC);
+    }
+
+    private static TodoItem toTodoItem(Readable row) {
+        TodoItem todoItem = new TodoItem(row.get("title", String.class), row.get("description", String.class));
+        todoItem.setId(row.get("id", Long.class));
+        todoItem.setVersion(row.get("version", Long.class));
+        return todoItem;
+    }
+
+    /**
+     * A reserved range of IDs; {@code next} may run past {@code hi} once the block is used up.
+     */
+    private record IdBlock(AtomicLong next, long hi) {
+    }
+}
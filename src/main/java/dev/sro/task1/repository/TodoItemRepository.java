@@ -1,30 +1,105 @@
 package dev.sro.task1.repository; 
 
+import dev.sro.task1.dto.TodoItemSummary;
 import dev.sro.task1.entity.TodoItem;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository 
 public interface TodoItemRepository extends JpaRepository<TodoItem, Long> {
 
     /**
-     * Custom query method to find todo items by title, ignoring case.
-     * Spring Data JPA automatically derives the query from the method name.
+     * Reads every todo item in id order into new, unmanaged TodoItem objects. Selecting the columns
+     * explicitly loads the lazy description with the row, and nothing is added to the persistence context.
      *
-     * @param title The title to search for.
-     * @return A list of TodoItem objects matching the given title.
+     * @return All todo items ordered by ascending id.
      */
-    List<TodoItem> findByTitleContainingIgnoreCase(String title);
+    @Query("SELECT new dev.sro.task1.entity.TodoItem(t.id, t.title, t.description, t.version) FROM TodoItem t ORDER BY t.id")
+    List<TodoItem> findAllByOrderByIdAsc();
 
     /**
-     * Custom query method to find todo items by description, ignoring case.
+     * Reads one todo item, description included, into a new, unmanaged TodoItem, e.g. to be cached.
      *
-     * @param description The description to search for.
-     * @return A list of TodoItem objects matching the given description.
+     * @param id The ID of the todo item.
+     * @return The todo item, or empty if it does not exist.
      */
-    List<TodoItem> findByDescriptionContainingIgnoreCase(String description);
+    @Query("SELECT new dev.sro.task1.entity.TodoItem(t.id, t.title, t.description, t.version) FROM TodoItem t WHERE t.id = :id")
+    Optional<TodoItem> findWithDescriptionById(@Param("id") Long id);
+
+    /**
+     * Reads the todo items with the given IDs, descriptions included, into new, unmanaged TodoItem objects.
+     *
+     * @param ids The IDs of the todo items.
+     * @return The todo items that exist, in no particular order.
+     */
+    @Query("SELECT new dev.sro.task1.entity.TodoItem(t.id, t.title, t.description, t.version) FROM TodoItem t WHERE t.id IN :ids")
+    List<TodoItem> findAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Summaries of the todo items with the given IDs; the description column is not read.
+     *
+     * @param ids The IDs of the todo items.
+     * @return The summaries of the todo items that exist, in no particular order.
+     */
+    @Query("SELECT new dev.sro.task1.dto.TodoItemSummary(t.id, t.title, t.version) FROM TodoItem t WHERE t.id IN :ids")
+    List<TodoItemSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds the todo items whose lower-cased title matches the given LIKE pattern, in id order.
+     * The pattern must already be lower-cased and use {@code !} to escape {@code %}, {@code _} and {@code !}.
+     *
+     * @param pattern The LIKE pattern, e.g. {@code %groceries%}.
+     * @return The matching todo items, as new, unmanaged TodoItem objects.
+     */
+    @Query("SELECT new dev.sro.task1.entity.TodoItem(t.id, t.title, t.description, t.version) FROM TodoItem t "
+            + "WHERE LOWER(t.title) LIKE :pattern ESCAPE '!' ORDER BY t.id")
+    List<TodoItem> findByTitleLike(@Param("pattern") String pattern);
+
+    /**
+     * Summaries of the todo items whose lower-cased title matches the given LIKE pattern, in id order.
+     *
+     * @param pattern The LIKE pattern, as for {@link #findByTitleLike(String)}.
+     * @return The summaries of the matching todo items.
+     */
+    @Query("SELECT new dev.sro.task1.dto.TodoItemSummary(t.id, t.title, t.version) FROM TodoItem t "
+            + "WHERE LOWER(t.title) LIKE :pattern ESCAPE '!' ORDER BY t.id")
+    List<TodoItemSummary> findSummariesByTitleLike(@Param("pattern") String pattern);
+
+    /**
+     * Finds the todo items whose lower-cased description matches the given LIKE pattern, in id order.
+     *
+     * @param pattern The LIKE pattern, as for {@link #findByTitleLike(String)}.
+     * @return The matching todo items, as new, unmanaged TodoItem objects.
+     */
+    @Query("SELECT new dev.sro.task1.entity.TodoItem(t.id, t.title, t.description, t.version) FROM TodoItem t "
+            + "WHERE LOWER(t.description) LIKE :pattern ESCAPE '!' ORDER BY t.id")
+    List<TodoItem> findByDescriptionLike(@Param("pattern") String pattern);
+
+    /**
+     * Summaries of the todo items whose lower-cased description matches the given LIKE pattern, in id order.
+     * The description is only compared in the database, never sent back.
+     *
+     * @param pattern The LIKE pattern, as for {@link #findByTitleLike(String)}.
+     * @return The summaries of the matching todo items.
+     */
+    @Query("SELECT new dev.sro.task1.dto.TodoItemSummary(t.id, t.title, t.version) FROM TodoItem t "
+            + "WHERE LOWER(t.description) LIKE :pattern ESCAPE '!' ORDER BY t.id")
+    List<TodoItemSummary> findSummariesByDescriptionLike(@Param("pattern") String pattern);
 
     /**
      * Custom query method to find todo items where the title contains a given string
@@ -34,4 +109,136 @@ public interface TodoItemRepository extends JpaRepository<TodoItem, Long> {
      * @return A list of TodoItem objects.
      */
     List<TodoItem> findByTitleContainingOrderByTitleAsc(String title);
-}
\ No newline at end of file
+
+    /**
+     * Keyset pagination query: seeks past the last id seen and returns the next rows in id order.
+     * Served by a primary key range scan, so every page costs the same regardless of its depth.
+     *
+     * @param id The last id seen by the caller; only rows with a greater id are returned.
+     * @param limit The maximum number of rows to return.
+     * @return Up to {@code limit} new, unmanaged TodoItem objects ordered by ascending id.
+     */
+    @Query("SELECT new dev.sro.task1.entity.TodoItem(t.id, t.title, t.description, t.version) FROM TodoItem t "
+            + "WHERE t.id > :id ORDER BY t.id")
+    List<TodoItem> findByIdGreaterThanOrderByIdAsc(@Param("id") Long id, Limit limit);
+
+    /**
+     * Keyset pagination over summaries; like {@link #findByIdGreaterThanOrderByIdAsc(Long, Limit)} without
+     * reading the description column.
+     *
+     * @param id The last id seen by the caller; only rows with a greater id are returned.
+     * @param limit The maximum number of rows to return.
+     * @return Up to {@code limit} summaries ordered by ascending id.
+     */
+    @Query("SELECT new dev.sro.task1.dto.TodoItemSummary(t.id, t.title, t.version) FROM TodoItem t "
+            + "WHERE t.id > :id ORDER BY t.id")
+    List<TodoItemSummary> findSummariesByIdGreaterThanOrderByIdAsc(@Param("id") Long id, Limit limit);
+
+    /**
+     * Streams every todo item in id order without materializing the result list.
+     * The JDBC fetch size makes the driver pull rows in chunks (MySQL needs {@code useCursorFetch=true}).
+     * Rows are read into new, unmanaged TodoItem objects, so the persistence context stays empty.
+     * Must be consumed inside a transaction and closed afterwards.
+     *
+     * @return A lazily populated Stream of TodoItem objects.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new dev.sro.task1.entity.TodoItem(t.id, t.title, t.description, t.version) FROM TodoItem t ORDER BY t.id")
+    Stream<TodoItem> streamAllByOrderByIdAsc();
+
+    /**
+     * Deletes the todo items with the given IDs in a single DELETE statement,
+     * without loading them first.
+     *
+     * @param ids The IDs of the todo items to delete.
+     * @return The number of deleted rows.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TodoItem t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Reads only the IDs of the todo items whose lower-cased title matches the given LIKE pattern, in id order.
+     * The pattern must already be lower-cased and use {@code !} to escape {@code %}, {@code _} and {@code !}.
+     *
+     * @param pattern The LIKE pattern, e.g. {@code %groceries%}.
+     * @return The IDs of the matching todo items.
+     */
+    @Query("SELECT t.id FROM TodoItem t WHERE LOWER(t.title) LIKE :pattern ESCAPE '!' ORDER BY t.id")
+    List<Long> findIdsByTitleLike(@Param("pattern") String pattern);
+
+    /**
+     * Locks the rows of the given todo items that exist ({@code SELECT ... FOR UPDATE}) and returns their IDs,
+     * so that the caller knows which rows its following DELETE removes and no concurrent delete removes them too.
+     * Rows are locked in id order, which keeps concurrent callers from deadlocking each other.
+     *
+     * @param ids The IDs of the todo items.
+     * @return The IDs of the todo items that exist, in id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id FROM TodoItem t WHERE t.id IN :ids ORDER BY t.id")
+    List<Long> lockIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delta sync query: seeks past a position in {@code (updatedAt, id)} order and returns the next rows changed
+     * before an upper bound, description included, into new, unmanaged TodoItem objects that carry their
+     * {@code updatedAt}. Served by a range scan of the {@code (updated_at, id)} index; the redundant
+     * {@code updatedAt >= :updatedAt} gives the optimizer the start of the range.
+     *
+     * @param updatedAt The time of the last change seen by the caller.
+     * @param id The id of the last row seen at that time; only later rows are returned.
+     * @param until The end of the window, exclusive.
+     * @param limit The maximum number of rows to return.
+     * @return Up to {@code limit} TodoItem objects ordered by ascending updatedAt, then id.
+     */
+    @Query("SELECT new dev.sro.task1.entity.TodoItem(t.id, t.title, t.description, t.version, t.updatedAt) FROM TodoItem t "
+            + "WHERE t.updatedAt >= :updatedAt AND (t.updatedAt > :updatedAt OR t.id > :id) AND t.updatedAt < :until "
+            + "ORDER BY t.updatedAt, t.id")
+    List<TodoItem> findChangedAfter(@Param("updatedAt") Instant updatedAt, @Param("id") long id,
+                                    @Param("until") Instant until, Limit limit);
+
+    /**
+     * Sets the description of the todo items with the given IDs in a single UPDATE statement.
+     * Increments the version and sets the time of the last change of every updated row, like an update through
+     * the entity would.
+     *
+     * @param ids The IDs of the todo items to update.
+     * @param description The new description.
+     * @param updatedAt The time of the change, see {@link TodoItem#now()}.
+     * @return The number of updated rows.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TodoItem t SET t.description = :description, t.version = t.version + 1, t.updatedAt = :updatedAt "
+            + "WHERE t.id IN :ids")
+    int updateDescriptionByIdIn(@Param("ids") Collection<Long> ids, @Param("description") String description,
+                                @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Reads only the version of a todo item, e.g. to answer a conditional GET without loading the item.
+     *
+     * @param id The ID of the todo item.
+     * @return The current version, or empty if the todo item does not exist.
+     */
+    @Query("SELECT t.version FROM TodoItem t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Replaces the title and description of a todo item in a single UPDATE statement, provided its
+     * current version is one of the expected ones, and increments the version.
+     *
+     * @param id The ID of the todo item.
+     * @param title The new title.
+     * @param description The new description.
+     * @param versions The versions the caller expects the todo item to be at.
+     * @param updatedAt The time of the change, see {@link TodoItem#now()}.
+     * @return 1 if the todo item was updated, 0 if it does not exist or is at another version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TodoItem t SET t.title = :title, t.description = :description, t.version = t.version + 1, "
+            + "t.updatedAt = :updatedAt WHERE t.id = :id AND t.version IN :versions")
+    int updateIfVersionIn(@Param("id") Long id, @Param("title") String title, @Param("description") String description,
+                          @Param("versions") Collection<Long> versions, @Param("updatedAt") Instant updatedAt);
+}
@@ -0,0 +1,52 @@
+package dev.sro.task1.repository;
+
+import dev.sro.task1.dto.DeletedTodoItem;
+import dev.sro.task1.entity.TodoItemTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TodoItemTombstoneRepository extends JpaRepository<TodoItemTombstone, Long> {
+
+    /**
+     * Delta sync query over deletions, like {@link TodoItemRepository#findChangedAfter(Instant, long, Instant, Limit)}
+     * in {@code (deletedAt, id)} order.
+     *
+     * @param deletedAt The time of the last change seen by the caller.
+     * @param id The id of the last row seen at that time; only later rows are returned.
+     * @param until The end of the window, exclusive.
+     * @param limit The maximum number of rows to return.
+     * @return Up to {@code limit} deleted todo items ordered by ascending deletedAt, then id.
+     */
+    @Query("SELECT new dev.sro.task1.dto.DeletedTodoItem(t.id, t.deletedAt) FROM TodoItemTombstone t "
+            + "WHERE t.deletedAt >= :deletedAt AND (t.deletedAt > :deletedAt OR t.id > :id) AND t.deletedAt < :until "
+            + "ORDER BY t.deletedAt, t.id")
+    List<DeletedTodoItem> findDeletedAfter(@Param("deletedAt") Instant deletedAt, @Param("id") long id,
+                                           @Param("until") Instant until, Limit limit);
+
+    /**
+     * @param instant The end of the window, exclusive.
+     * @param limit The maximum number of IDs to return.
+     * @return The IDs of the oldest tombstones written before the instant.
+     */
+    @Query("SELECT t.id FROM TodoItemTombstone t WHERE t.deletedAt < :instant ORDER BY t.deletedAt")
+    List<Long> findIdsDeletedBefore(@Param("instant") Instant instant, Limit limit);
+
+    /**
+     * Deletes the tombstones with the given IDs in a single statement.
+     *
+     * @param ids The IDs of the deleted todo items.
+     * @return The number of deleted tombstones.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TodoItemTombstone t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,157 @@
+package dev.sro.task1.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Sends read-only transactions to the replicas, round-robin, and everything else to the primary.
+ * <p>
+ * The read-only flag is only known once the transaction has begun, after the transaction manager asked
+ * for its connection; this data source therefore has to sit behind a {@link LazyConnectionDataSourceProxy},
+ * which asks for the real connection at the first statement.
+ * <p>
+ * A replica that fails to hand out a connection is skipped for {@code replicaRetryInterval} and the read
+ * tries the next one, then the primary. Reads also stay on the primary while {@link ReadYourWrites} says so,
+ * e.g. shortly after a write of the same client.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final long retryIntervalNanos;
+    private final Duration readYourWritesWindow;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<? extends DataSource> replicas,
+                                      Duration replicaRetryInterval, Duration readYourWritesWindow) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(i -> new Replica("replica-" + i, replicas.get(i)))
+                .toList();
+        this.replicas.forEach(replica -> targets.put(replica.key(), replica.dataSource()));
+        this.retryIntervalNanos = replicaRetryInterval.toNanos();
+        this.readYourWritesWindow = readYourWritesWindow;
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(username, password);
+    }
+
+    /**
+     * Closes the replicas' pools. The primary is left open; it is shared with whoever created it.
+     */
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    log.warn("Could not close read replica {}.", replica.key(), ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {@link #PRIMARY}, or the key of the replica next in turn for a read-only transaction.
+     *         The replica may be one currently skipped; {@link #getConnection()} never uses those.
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!isReadOnly()) {
+            return PRIMARY;
+        }
+        Replica replica = nextAvailableReplica(System.nanoTime());
+        return replica != null ? replica.key() : PRIMARY;
+    }
+
+    private Connection connect(String username, String password) throws SQLException {
+        if (isReadOnly()) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                long now = System.nanoTime();
+                Replica replica = nextAvailableReplica(now);
+                if (replica == null) {
+                    break;
+                }
+                try {
+                    return open(replica.dataSource(), username, password);
+                } catch (SQLException ex) {
+                    replica.unavailableSince().set(now);
+                    log.warn("Read replica {} is unavailable, skipping it for {} ms: {}", replica.key(),
+                            Duration.ofNanos(retryIntervalNanos).toMillis(), ex.getMessage());
+                }
+            }
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Reads sent to the primary by onPrimary or a pinned client are not writes; recording them would
+            // pin every later read of the client, and keep it pinned
+            ReadYourWrites.recordWrite(readYourWritesWindow);
+        }
+        return open(getResolvedDefaultDataSource(), username, password);
+    }
+
+    private boolean isReadOnly() {
+        return !replicas.isEmpty()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWrites.isPinnedToPrimary();
+    }
+
+    /**
+     * @return The next replica in turn that is not being skipped, or null if all of them are.
+     */
+    private Replica nextAvailableReplica(long now) {
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            long since = replica.unavailableSince().get();
+            if (since == 0 || now - since >= retryIntervalNanos) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static Connection open(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null && password == null
+                ? dataSource.getConnection()
+                : dataSource.getConnection(username, password);
+    }
+
+    /**
+     * @param unavailableSince {@link System#nanoTime()} of the last failure, or 0 while the replica is fine.
+     */
+    private record Replica(String key, DataSource dataSource, AtomicLong unavailableSince) {
+
+        Replica(String key, DataSource dataSource) {
+            this(key, dataSource, new AtomicLong());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package dev.sro.task1.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import dev.sro.task1.config.TodoProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting, active once {@code todo.datasource.replicas[0].url} is set. Replaces the auto-configured
+ * data source with the primary pool ({@code spring.datasource.*}) and one pool per replica behind a
+ * {@link ReadWriteRoutingDataSource}, itself behind a {@link LazyConnectionDataSourceProxy} so that the
+ * read-only flag of the transaction is known when the connection is chosen.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("!reactive")
+@ConditionalOnProperty("todo.datasource.replicas[0].url")
+public class ReadWriteSplittingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                        DataSourceProperties dataSourceProperties,
+                                                        TodoProperties todoProperties, MeterRegistry meterRegistry) {
+        TodoProperties.Datasource settings = todoProperties.getDatasource();
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (TodoProperties.Replica replica : settings.getReplicas()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + replicas.size());
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+            pool.setReadOnly(true);
+            // Start even while a replica is down; reads fall back to the primary until it is back
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricRegistry(meterRegistry);
+            replicas.add(pool);
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas,
+                settings.getReplicaRetryInterval(), settings.getReadYourWritesWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(TodoProperties todoProperties) {
+        return new ReadYourWritesFilter(todoProperties.getDatasource().getReadYourWritesWindow());
+    }
+}
@@ -0,0 +1,92 @@
+package dev.sro.task1.routing;
+
+import java.time.Duration;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound state that keeps reads on the primary database where a replica could be behind:
+ * for a while after a write by the same client or thread, and inside {@link #onPrimary(Supplier)}.
+ * <p>
+ * {@link ReadWriteRoutingDataSource} records each write here; {@link ReadYourWritesFilter} carries the
+ * resulting deadline from one request of a client to the next in a cookie.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<State> CURRENT = ThreadLocal.withInitial(State::new);
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Runs the given database access on the primary, whatever its transaction's read-only flag,
+     * e.g. to load a value that will be cached.
+     * @param access The database access.
+     * @return The result of the access.
+     */
+    public static <T> T onPrimary(Supplier<T> access) {
+        State state = CURRENT.get();
+        boolean outer = state.forced;
+        state.forced = true;
+        try {
+            return access.get();
+        } finally {
+            state.forced = outer;
+        }
+    }
+
+    /**
+     * @return Whether reads on the current thread must not go to a replica right now.
+     */
+    public static boolean isPinnedToPrimary() {
+        State state = CURRENT.get();
+        return state.forced || state.pinnedUntilMillis > System.currentTimeMillis();
+    }
+
+    /**
+     * Keeps the current thread's reads on the primary until the given time, unless a later deadline is already set.
+     * @param epochMillis The deadline, in milliseconds since the epoch.
+     */
+    static void pinToPrimaryUntil(long epochMillis) {
+        State state = CURRENT.get();
+        state.pinnedUntilMillis = Math.max(state.pinnedUntilMillis, epochMillis);
+    }
+
+    /**
+     * Keeps the current thread's reads on the primary for the given window and tells the bound listener, if any.
+     */
+    static void recordWrite(Duration window) {
+        long until = System.currentTimeMillis() + window.toMillis();
+        pinToPrimaryUntil(until);
+        LongConsumer listener = CURRENT.get().writeListener;
+        if (listener != null) {
+            listener.accept(until);
+        }
+    }
+
+    /**
+     * Starts tracking one request on the current thread.
+     * @param pinnedUntilMillis The deadline the client brought along, or 0.
+     * @param writeListener Receives the new deadline after each write during the request.
+     */
+    static void bind(long pinnedUntilMillis, LongConsumer writeListener) {
+        State state = new State();
+        state.pinnedUntilMillis = pinnedUntilMillis;
+        state.writeListener = writeListener;
+        CURRENT.set(state);
+    }
+
+    /**
+     * Forgets the state of the request bound with {@link #bind(long, LongConsumer)}, so that a pooled thread
+     * does not carry it over to another client.
+     */
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    private static final class State {
+        private long pinnedUntilMillis;
+        private boolean forced;
+        private LongConsumer writeListener;
+    }
+}
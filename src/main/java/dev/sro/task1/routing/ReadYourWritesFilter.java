@@ -0,0 +1,68 @@
+package dev.sro.task1.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Gives each client read-your-writes across requests: after a request that wrote, the response sets a
+ * cookie with the time until which the client's reads have to stay on the primary, and the following
+ * requests bring it back. The cookie is set while the write's connection is taken, before the response
+ * is committed.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "todo-primary-until";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean[] cookieSet = {false};
+        ReadYourWrites.bind(pinnedUntil(request), until -> {
+            if (!cookieSet[0] && !response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(until));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+                response.addCookie(cookie);
+                cookieSet[0] = true;
+            }
+        });
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.unbind();
+        }
+    }
+
+    /**
+     * @return The deadline from the request's cookie, at most one window from now, or 0 if it has none or a malformed one.
+     */
+    private long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    try {
+                        return Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis() + window.toMillis());
+                    } catch (NumberFormatException ignored) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+}
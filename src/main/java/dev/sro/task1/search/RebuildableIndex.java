@@ -0,0 +1,160 @@
+package dev.sro.task1.search;
+
+import dev.sro.task1.entity.TodoItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Concurrency and rebuild mechanics shared by the in-process search indexes.
+ * <p>
+ * The index data ({@code S}) is only touched under a read/write lock. A rebuild fills a fresh
+ * instance without holding the lock, so the current data keeps serving queries meanwhile; every
+ * change applied during the rebuild is recorded and replayed on the fresh data before it is swapped in.
+ *
+ * @param <S> The type holding the index data.
+ */
+public abstract class RebuildableIndex<S> {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private S state;
+    private List<Consumer<S>> changesDuringRebuild;
+    private volatile boolean ready;
+
+    protected RebuildableIndex() {
+        this.state = newState();
+    }
+
+    /**
+     * @return true once the first rebuild has completed.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Replaces the whole index with the items produced by the given source.
+     * @param source Called once with a consumer that must receive every todo item.
+     * @return The number of indexed todo items.
+     */
+    public int rebuild(Consumer<Consumer<TodoItem>> source) {
+        Rebuild rebuild = beginRebuild();
+        try {
+            source.accept(rebuild::add);
+        } catch (RuntimeException ex) {
+            rebuild.abort();
+            throw ex;
+        }
+        return rebuild.commit();
+    }
+
+    /**
+     * Starts a rebuild that is fed item by item, e.g. to fill several indexes from one database pass.
+     * @return The handle to feed and then commit (or abort) the rebuild.
+     * @throws IllegalStateException if another rebuild is in progress.
+     */
+    public Rebuild beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                throw new IllegalStateException("A rebuild of " + getClass().getSimpleName() + " is already in progress.");
+            }
+            changesDuringRebuild = new ArrayList<>();
+            return new Rebuild(newState());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return A new, empty instance of the index data.
+     */
+    protected abstract S newState();
+
+    /**
+     * Adds one todo item to index data that is not yet visible to other threads.
+     */
+    protected abstract void add(S state, TodoItem todoItem);
+
+    /**
+     * @return The number of todo items in the index data.
+     */
+    protected abstract int size(S state);
+
+    /**
+     * Applies a change to the current data under the write lock, recording it for a running rebuild.
+     * The change must only capture immutable values since it may be applied twice.
+     */
+    protected void apply(Consumer<S> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a query against the current data under the read lock.
+     */
+    protected <R> R read(Function<S, R> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(state);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A rebuild in progress; not thread-safe, feed it from a single thread.
+     */
+    public final class Rebuild {
+
+        private final S rebuilt;
+
+        private Rebuild(S rebuilt) {
+            this.rebuilt = rebuilt;
+        }
+
+        public void add(TodoItem todoItem) {
+            RebuildableIndex.this.add(rebuilt, todoItem);
+        }
+
+        /**
+         * Replays the changes made meanwhile and swaps the rebuilt data in.
+         * @return The number of indexed todo items.
+         */
+        public int commit() {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                changesDuringRebuild = null;
+                state = rebuilt;
+                ready = true;
+                return size(rebuilt);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Drops the rebuilt data and keeps the current one.
+         */
+        public void abort() {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package dev.sro.task1.search;
+
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.event.TodoItemChange;
+import dev.sro.task1.service.ReactiveTodoItemService;
+import dev.sro.task1.service.TodoItemService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Consumer;
+
+/**
+ * Keeps the in-process search indexes in line with the database: builds them from a streaming
+ * read of every todo item at startup, then applies each change once its transaction has committed.
+ * Reads through whichever service the active stack provides: {@link TodoItemService} or, with the
+ * {@code reactive} profile, {@link ReactiveTodoItemService}.
+ */
+@Component
+public class SearchIndexMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexMaintainer.class);
+
+    private final TodoSearchIndex todoSearchIndex;
+    private final TitleTrigramIndex titleTrigramIndex;
+    private final ObjectProvider<TodoItemService> todoItemService;
+    private final ObjectProvider<ReactiveTodoItemService> reactiveTodoItemService;
+
+    public SearchIndexMaintainer(TodoSearchIndex todoSearchIndex, TitleTrigramIndex titleTrigramIndex,
+                                 ObjectProvider<TodoItemService> todoItemService,
+                                 ObjectProvider<ReactiveTodoItemService> reactiveTodoItemService) {
+        this.todoSearchIndex = todoSearchIndex;
+        this.titleTrigramIndex = titleTrigramIndex;
+        this.todoItemService = todoItemService;
+        this.reactiveTodoItemService = reactiveTodoItemService;
+    }
+
+    /**
+     * Builds the indexes, from a single read of the table, before the application reports itself
+     * ready to accept traffic.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        RebuildableIndex<?>.Rebuild fullText = todoSearchIndex.beginRebuild();
+        RebuildableIndex<?>.Rebuild trigrams = titleTrigramIndex.beginRebuild();
+        try {
+            exportTodoItems(todoItem -> {
+                fullText.add(todoItem);
+                trigrams.add(todoItem);
+            });
+        } catch (RuntimeException ex) {
+            fullText.abort();
+            trigrams.abort();
+            throw ex;
+        }
+        int indexed = fullText.commit();
+        trigrams.commit();
+        log.info("Search indexes built with {} todo items in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void exportTodoItems(Consumer<TodoItem> consumer) {
+        TodoItemService blockingService = todoItemService.getIfAvailable();
+        if (blockingService != null) {
+            blockingService.exportTodoItems(consumer);
+        } else {
+            // Runs on the main thread at startup, where blocking is fine
+            reactiveTodoItemService.getObject().exportTodoItems().doOnNext(consumer).blockLast();
+        }
+    }
+
+    /**
+     * Applies a committed change to the indexes. Rolled back changes never reach them.
+     * @param change The change published by the service layer.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoItemChange(TodoItemChange change) {
+        switch (change) {
+            case TodoItemChange.Saved saved -> {
+                todoSearchIndex.index(saved.items());
+                titleTrigramIndex.index(saved.items());
+            }
+            case TodoItemChange.Deleted deleted -> {
+                todoSearchIndex.remove(deleted.ids());
+                titleTrigramIndex.remove(deleted.ids());
+            }
+            case TodoItemChange.DescriptionUpdated updated -> todoSearchIndex.updateDescription(updated.ids(), updated.description());
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package dev.sro.task1.search;
+
+import dev.sro.task1.entity.TodoItem;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process trigram index over todo item titles, answering the same arbitrary-substring queries as
+ * {@code LIKE '%text%'} without scanning every title.
+ * <p>
+ * Every title gets a dense int ordinal and each trigram (three consecutive characters of the
+ * normalized title) maps to a sorted {@code int[]} posting list of ordinals. A substring query
+ * intersects the posting lists of its trigrams, smallest first, and verifies the few remaining
+ * candidates against the stored title, since sharing all trigrams does not imply containment.
+ * Fuzzy queries use the classic bound that each edit destroys at most three trigrams to filter
+ * candidates by trigram count before computing the edit distance.
+ */
+@Component
+public class TitleTrigramIndex extends RebuildableIndex<TitleTrigramIndex.State> {
+
+    static final int GRAM = 3;
+
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingInt(Match::distance)
+            .thenComparingLong(Match::id);
+
+    /**
+     * Adds the todo items to the index, replacing any previous version of them.
+     * @param todoItems The created or updated items.
+     */
+    public void index(Collection<TodoItem> todoItems) {
+        List<Title> titles = todoItems.stream().map(Title::of).toList();
+        apply(state -> titles.forEach(state::put));
+    }
+
+    /**
+     * Removes the todo items with the given IDs; unknown IDs are ignored.
+     * @param ids The IDs of the deleted items.
+     */
+    public void remove(Collection<Long> ids) {
+        List<Long> copy = List.copyOf(ids);
+        apply(state -> copy.forEach(state::remove));
+    }
+
+    /**
+     * Finds the todo items whose title contains the given text, ignoring case and accents.
+     * @param text The text to look for.
+     * @return The IDs of the matching items, in ascending order.
+     */
+    public List<Long> findContaining(String text) {
+        String needle = Tokenizer.normalize(text);
+        return read(state -> state.containing(needle)).stream().sorted().toList();
+    }
+
+    /**
+     * Finds the todo items whose title contains the given text with at most {@code maxEdits}
+     * insertions, deletions or substitutions, ignoring case and accents.
+     * @param text The text to look for.
+     * @param maxEdits The maximum edit distance; 0 behaves like {@link #findContaining(String)}.
+     * @return The matches, closest first and then by ascending ID.
+     */
+    public List<Match> findSimilar(String text, int maxEdits) {
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("Maximum edit distance cannot be negative.");
+        }
+        String needle = Tokenizer.normalize(text);
+        List<Match> matches = read(state -> state.similar(needle, maxEdits));
+        matches.sort(BEST_FIRST);
+        return matches;
+    }
+
+    @Override
+    protected State newState() {
+        return new State();
+    }
+
+    @Override
+    protected void add(State state, TodoItem todoItem) {
+        state.put(Title.of(todoItem));
+    }
+
+    @Override
+    protected int size(State state) {
+        return state.ordinals.size();
+    }
+
+    /**
+     * @param id The ID of the matching todo item.
+     * @param distance The edit distance between the query and the closest part of the title.
+     */
+    public record Match(long id, int distance) {
+    }
+
+    /**
+     * Smallest number of edits turning {@code pattern} into some substring of {@code text}
+     * (Sellers' variant of the Levenshtein dynamic program: a match may start anywhere in the text).
+     */
+    static int substringDistance(String pattern, String text) {
+        int m = pattern.length();
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int i = 0; i <= m; i++) {
+            previous[i] = i;
+        }
+        int best = previous[m];
+        for (int j = 0; j < text.length() && best > 0; j++) {
+            char c = text.charAt(j);
+            current[0] = 0;
+            for (int i = 1; i <= m; i++) {
+                int substitution = previous[i - 1] + (pattern.charAt(i - 1) == c ? 0 : 1);
+                current[i] = Math.min(substitution, Math.min(previous[i], current[i - 1]) + 1);
+            }
+            best = Math.min(best, current[m]);
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return best;
+    }
+
+    /**
+     * Distinct trigrams of a normalized text, each packed into a long (three UTF-16 chars).
+     */
+    static long[] trigrams(String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    record Title(long id, String normalized) {
+
+        static Title of(TodoItem todoItem) {
+            return new Title(todoItem.getId(), Tokenizer.normalize(todoItem.getTitle()));
+        }
+    }
+
+    /**
+     * The mutable index data; only accessed under the enclosing index's lock (or before publication).
+     * Ordinals are handed out in increasing order and never reused, which keeps every posting list sorted
+     * by appending alone. Once removed titles hold more ordinals than live ones, the live ordinals are
+     * renumbered densely, in the same order, so that memory and fuzzy scans follow the number of items
+     * rather than the number of writes; each compaction is paid for by as many removals.
+     */
+    static final class State {
+
+        // Removed ordinals below which the state is never compacted, so that small indexes do not churn
+        private static final int MIN_DEAD_TO_COMPACT = 64;
+
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final Map<Long, IntPostingList> postings = new HashMap<>();
+        private long[] ids = new long[64];
+        private String[] titles = new String[64];
+        private int nextOrdinal;
+
+        void put(Title title) {
+            remove(title.id());
+            if (nextOrdinal == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+                titles = Arrays.copyOf(titles, titles.length * 2);
+            }
+            int ordinal = nextOrdinal++;
+            ids[ordinal] = title.id();
+            titles[ordinal] = title.normalized();
+            ordinals.put(title.id(), ordinal);
+            for (long gram : trigrams(title.normalized())) {
+                postings.computeIfAbsent(gram, key -> new IntPostingList()).add(ordinal);
+            }
+        }
+
+        void remove(long id) {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal == null) {
+                return;
+            }
+            for (long gram : trigrams(titles[ordinal])) {
+                IntPostingList list = postings.get(gram);
+                list.remove(ordinal);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+            titles[ordinal] = null;
+            int dead = nextOrdinal - ordinals.size();
+            if (dead >= MIN_DEAD_TO_COMPACT && dead > ordinals.size()) {
+                compact();
+            }
+        }
+
+        /**
+         * @return The number of ordinals handed out since the last compaction, live or removed.
+         */
+        int ordinalCount() {
+            return nextOrdinal;
+        }
+
+        /**
+         * Renumbers the live ordinals from 0 in their current order, which keeps the posting lists sorted.
+         */
+        private void compact() {
+            int[] renumbered = new int[nextOrdinal];
+            int capacity = Math.max(64, Integer.highestOneBit(Math.max(1, ordinals.size())) * 2);
+            long[] compactIds = new long[capacity];
+            String[] compactTitles = new String[capacity];
+            int live = 0;
+            for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+                if (titles[ordinal] != null) {
+                    renumbered[ordinal] = live;
+                    compactIds[live] = ids[ordinal];
+                    compactTitles[live] = titles[ordinal];
+                    live++;
+                }
+            }
+            ordinals.replaceAll((id, ordinal) -> renumbered[ordinal]);
+            postings.values().forEach(list -> list.renumber(renumbered));
+            ids = compactIds;
+            titles = compactTitles;
+            nextOrdinal = live;
+        }
+
+        List<Long> containing(String needle) {
+            List<Long> matches = new ArrayList<>();
+            long[] grams = trigrams(needle);
+            if (grams.length == 0) {
+                // Too short to have a trigram: every title is a candidate
+                for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+                    if (titles[ordinal] != null && titles[ordinal].contains(needle)) {
+                        matches.add(ids[ordinal]);
+                    }
+                }
+                return matches;
+            }
+
+            IntPostingList[] lists = new IntPostingList[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return matches;
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(IntPostingList::size));
+            IntPostingList smallest = lists[0];
+            candidates:
+            for (int i = 0; i < smallest.size(); i++) {
+                int ordinal = smallest.get(i);
+                for (int l = 1; l < lists.length; l++) {
+                    if (!lists[l].contains(ordinal)) {
+                        continue candidates;
+                    }
+                }
+                if (titles[ordinal].contains(needle)) {
+                    matches.add(ids[ordinal]);
+                }
+            }
+            return matches;
+        }
+
+        List<Match> similar(String needle, int maxEdits) {
+            List<Match> matches = new ArrayList<>();
+            long[] grams = trigrams(needle);
+            int required = grams.length - GRAM * maxEdits;
+            int[] shared = null;
+            if (required > 0) {
+                shared = new int[nextOrdinal];
+                for (long gram : grams) {
+                    IntPostingList list = postings.get(gram);
+                    if (list != null) {
+                        for (int i = 0; i < list.size(); i++) {
+                            shared[list.get(i)]++;
+                        }
+                    }
+                }
+            }
+            for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+                if (titles[ordinal] == null || (shared != null && shared[ordinal] < required)) {
+                    continue;
+                }
+                int distance = substringDistance(needle, titles[ordinal]);
+                if (distance <= maxEdits) {
+                    matches.add(new Match(ids[ordinal], distance));
+                }
+            }
+            return matches;
+        }
+    }
+
+    /**
+     * Growable, sorted array of int ordinals.
+     */
+    static final class IntPostingList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        /**
+         * Appends an ordinal that must be greater than every ordinal already in the list.
+         */
+        void add(int ordinal) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = ordinal;
+        }
+
+        boolean contains(int ordinal) {
+            return Arrays.binarySearch(values, 0, size, ordinal) >= 0;
+        }
+
+        void remove(int ordinal) {
+            int index = Arrays.binarySearch(values, 0, size, ordinal);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+        }
+
+        /**
+         * Replaces every ordinal by its new number; the mapping must preserve their order.
+         */
+        void renumber(int[] renumbered) {
+            for (int i = 0; i < size; i++) {
+                values[i] = renumbered[values[i]];
+            }
+        }
+    }
+}
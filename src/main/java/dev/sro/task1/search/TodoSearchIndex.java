@@ -0,0 +1,233 @@
+package dev.sro.task1.search;
+
+import dev.sro.task1.entity.TodoItem;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * In-process inverted index over todo item titles and descriptions, ranked with BM25.
+ * <p>
+ * Each field keeps its own postings and length statistics; a document's score is the sum of the
+ * per-field BM25 scores, with title matches weighted higher than description matches.
+ * The index is filled by a rebuild at startup and kept current by applying every committed change
+ * (see {@link RebuildableIndex}).
+ */
+@Component
+public class TodoSearchIndex extends RebuildableIndex<TodoSearchIndex.State> {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final double TITLE_BOOST = 2.0;
+    static final double DESCRIPTION_BOOST = 1.0;
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparingLong(Hit::id);
+
+    /**
+     * Adds the todo items to the index, replacing any previous version of them.
+     * @param todoItems The created or updated items.
+     */
+    public void index(Collection<TodoItem> todoItems) {
+        List<Document> documents = todoItems.stream().map(Document::of).toList();
+        apply(state -> documents.forEach(state::put));
+    }
+
+    /**
+     * Removes the todo items with the given IDs; unknown IDs are ignored.
+     * @param ids The IDs of the deleted items.
+     */
+    public void remove(Collection<Long> ids) {
+        List<Long> copy = List.copyOf(ids);
+        apply(state -> copy.forEach(state::remove));
+    }
+
+    /**
+     * Replaces the description of the indexed todo items with the given IDs; unknown IDs are ignored.
+     * @param ids The IDs of the updated items.
+     * @param description The new description.
+     */
+    public void updateDescription(Collection<Long> ids, String description) {
+        List<Long> copy = List.copyOf(ids);
+        List<String> descriptionTerms = Tokenizer.tokenize(description);
+        apply(state -> copy.forEach(id -> state.replaceDescription(id, descriptionTerms)));
+    }
+
+    /**
+     * Ranks the indexed todo items against the query with BM25.
+     * @param query Free text; every term is optional, more matching terms rank higher.
+     * @param offset Number of top hits to skip.
+     * @param limit Maximum number of hits to return.
+     * @return The requested slice of the ranking and the total number of matching items.
+     */
+    public SearchHits search(String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return new SearchHits(0, List.of());
+        }
+
+        return read(state -> {
+            Map<Long, Double> scores = new HashMap<>();
+            int documentCount = state.size();
+            for (String term : terms) {
+                state.titles.score(term, documentCount, TITLE_BOOST, scores);
+                state.descriptions.score(term, documentCount, DESCRIPTION_BOOST, scores);
+            }
+            if (offset >= scores.size()) {
+                return new SearchHits(scores.size(), List.of());
+            }
+            return new SearchHits(scores.size(), topHits(scores, offset, limit));
+        });
+    }
+
+    private static List<Hit> topHits(Map<Long, Double> scores, int offset, int limit) {
+        int wanted = (int) Math.min((long) offset + limit, scores.size());
+        // Min-heap of the best "wanted" hits: avoids sorting every match for the first pages
+        PriorityQueue<Hit> best = new PriorityQueue<>(RANKING.reversed());
+        scores.forEach((id, score) -> {
+            Hit hit = new Hit(id, score);
+            if (best.size() < wanted) {
+                best.add(hit);
+            } else if (RANKING.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        });
+        List<Hit> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return offset >= ranked.size() ? List.of() : ranked.subList(offset, ranked.size());
+    }
+
+    @Override
+    protected State newState() {
+        return new State();
+    }
+
+    @Override
+    protected void add(State state, TodoItem todoItem) {
+        state.put(Document.of(todoItem));
+    }
+
+    @Override
+    protected int size(State state) {
+        return state.size();
+    }
+
+    /**
+     * A single ranked search result.
+     * @param id The ID of the matching todo item.
+     * @param score The BM25 score; higher is better.
+     */
+    public record Hit(long id, double score) {
+    }
+
+    /**
+     * @param total The number of todo items matching at least one query term.
+     * @param hits The requested slice of the ranking, best first.
+     */
+    public record SearchHits(long total, List<Hit> hits) {
+    }
+
+    private record Document(long id, String normalizedTitle, List<String> titleTerms, List<String> descriptionTerms) {
+
+        static Document of(TodoItem todoItem) {
+            return new Document(todoItem.getId(), Tokenizer.normalize(todoItem.getTitle()),
+                    Tokenizer.tokenize(todoItem.getTitle()), Tokenizer.tokenize(todoItem.getDescription()));
+        }
+    }
+
+    /**
+     * The mutable index data; only accessed under the enclosing index's lock (or before publication).
+     */
+    static final class State {
+
+        private final FieldPostings titles = new FieldPostings();
+        private final FieldPostings descriptions = new FieldPostings();
+        private final Map<Long, String> normalizedTitles = new HashMap<>();
+
+        int size() {
+            return normalizedTitles.size();
+        }
+
+        void put(Document document) {
+            titles.put(document.id(), document.titleTerms());
+            descriptions.put(document.id(), document.descriptionTerms());
+            normalizedTitles.put(document.id(), document.normalizedTitle());
+        }
+
+        void remove(long id) {
+            titles.remove(id);
+            descriptions.remove(id);
+            normalizedTitles.remove(id);
+        }
+
+        void replaceDescription(long id, List<String> descriptionTerms) {
+            if (normalizedTitles.containsKey(id)) {
+                descriptions.put(id, descriptionTerms);
+            }
+        }
+    }
+
+    /**
+     * Postings and length statistics of one field.
+     */
+    private static final class FieldPostings {
+
+        private final Map<String, Map<Long, Integer>> termFrequencies = new HashMap<>();
+        private final Map<Long, Map<String, Integer>> documentTerms = new HashMap<>();
+        private final Map<Long, Integer> documentLengths = new HashMap<>();
+        private long totalLength;
+
+        void put(long id, List<String> terms) {
+            remove(id);
+            Map<String, Integer> frequencies = new HashMap<>();
+            terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            frequencies.forEach((term, frequency) ->
+                    termFrequencies.computeIfAbsent(term, key -> new HashMap<>()).put(id, frequency));
+            documentTerms.put(id, frequencies);
+            documentLengths.put(id, terms.size());
+            totalLength += terms.size();
+        }
+
+        void remove(long id) {
+            Map<String, Integer> frequencies = documentTerms.remove(id);
+            if (frequencies == null) {
+                return;
+            }
+            frequencies.keySet().forEach(term -> {
+                Map<Long, Integer> postings = termFrequencies.get(term);
+                postings.remove(id);
+                if (postings.isEmpty()) {
+                    termFrequencies.remove(term);
+                }
+            });
+            totalLength -= documentLengths.remove(id);
+        }
+
+        /**
+         * Adds the weighted BM25 contribution of one term to the score of every document containing it.
+         */
+        void score(String term, int documentCount, double boost, Map<Long, Double> scores) {
+            Map<Long, Integer> postings = termFrequencies.get(term);
+            if (postings == null || documentCount == 0) {
+                return;
+            }
+            int documentFrequency = postings.size();
+            double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+            postings.forEach((id, frequency) -> {
+                double lengthNorm = 1 - B + B * documentLengths.get(id) / averageLength;
+                double termScore = idf * frequency * (K1 + 1) / (frequency + K1 * lengthNorm);
+                scores.merge(id, boost * termScore, Double::sum);
+            });
+        }
+    }
+}
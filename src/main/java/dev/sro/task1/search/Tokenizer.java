@@ -0,0 +1,57 @@
+package dev.sro.task1.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Text normalization shared by the in-process search indexes.
+ * Lower-cases and strips accents, mirroring the case and accent insensitive MySQL collation
+ * so that the indexes match roughly what the LIKE queries match.
+ */
+final class Tokenizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private Tokenizer() {
+    }
+
+    /**
+     * @param text The text to normalize; may be null.
+     * @return The lower-cased text without accents, or an empty string for null.
+     */
+    static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits text into normalized terms on every character that is not a letter or a digit.
+     * @param text The text to tokenize; may be null.
+     * @return The terms in order of appearance, duplicates included.
+     */
+    static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < normalized.length(); i++) {
+            if (Character.isLetterOrDigit(normalized.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                terms.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            terms.add(normalized.substring(start));
+        }
+        return terms;
+    }
+}
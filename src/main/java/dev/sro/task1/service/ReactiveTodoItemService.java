@@ -0,0 +1,153 @@
+package dev.sro.task1.service;
+
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.dto.RankedTodoItem;
+import dev.sro.task1.dto.SearchResultPage;
+import dev.sro.task1.entity.TodoItem;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link TodoItemService} for the {@code reactive} profile.
+ * Errors are signalled through the returned publishers with the same exceptions as the blocking service.
+ */
+public interface ReactiveTodoItemService {
+
+    /**
+     * Retrieves one page of todo items ordered by ID, using keyset pagination.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default. Values above the configured maximum are clamped.
+     * @return A page of TodoItem objects and the cursor of the following page, if any.
+     * @throws IllegalArgumentException (signalled) if the cursor is malformed or the size is not positive.
+     */
+    Mono<CursorPage<TodoItem>> getTodoItemPage(String cursor, Integer size);
+
+    /**
+     * Streams every todo item in ID order, read from the database as the subscriber requests them.
+     * @return The todo items.
+     */
+    Flux<TodoItem> exportTodoItems();
+
+    /**
+     * Retrieves a single todo item by its ID.
+     * @param id The ID of the todo item to retrieve.
+     * @return The TodoItem, or empty if not found.
+     */
+    Mono<TodoItem> getTodoItemById(Long id);
+
+    /**
+     * Retrieves only the version of a todo item, without loading it.
+     * @param id The ID of the todo item.
+     * @return The current version, or empty if the item does not exist.
+     */
+    Mono<Long> getTodoItemVersion(Long id);
+
+    /**
+     * Creates a new todo item.
+     * @param todoItem The TodoItem object to create.
+     * @return The created TodoItem object with its generated ID.
+     * @throws IllegalArgumentException (signalled) if the title is null or empty.
+     */
+    Mono<TodoItem> createTodoItem(TodoItem todoItem);
+
+    /**
+     * Creates many todo items in one transaction using multi-row inserts.
+     * Invalid items are reported individually and do not prevent the valid ones from being stored.
+     * @param todoItems The TodoItem objects to create.
+     * @return The generated IDs of the stored items and the reasons the others were rejected.
+     * @throws IllegalArgumentException (signalled) if the list is empty or larger than the configured maximum.
+     */
+    Mono<BatchCreateResult> createTodoItems(List<TodoItem> todoItems);
+
+    /**
+     * Updates an existing todo item.
+     * @param id The ID of the todo item to update.
+     * @param todoItemDetails The TodoItem object containing the updated details.
+     * @return The updated TodoItem object.
+     * @throws dev.sro.task1.exception.ResourceNotFoundException (signalled) if the todo item is not found.
+     * @throws IllegalArgumentException (signalled) if the title in todoItemDetails is null or empty.
+     */
+    Mono<TodoItem> updateTodoItem(Long id, TodoItem todoItemDetails);
+
+    /**
+     * Updates an existing todo item only if it is still at one of the expected versions.
+     * @param id The ID of the todo item to update.
+     * @param todoItemDetails The TodoItem object containing the updated details.
+     * @param expectedVersions The versions the caller last saw, e.g. from an If-Match header.
+     * @return The updated TodoItem object, with its new version.
+     * @throws dev.sro.task1.exception.ResourceNotFoundException (signalled) if the todo item is not found.
+     * @throws dev.sro.task1.exception.PreconditionFailedException (signalled) if the todo item is at another version.
+     * @throws IllegalArgumentException (signalled) if the title in todoItemDetails is null or empty.
+     */
+    Mono<TodoItem> updateTodoItem(Long id, TodoItem todoItemDetails, Collection<Long> expectedVersions);
+
+    /**
+     * Deletes a todo item by its ID.
+     * @param id The ID of the todo item to delete.
+     * @return Completes once deleted.
+     * @throws dev.sro.task1.exception.ResourceNotFoundException (signalled) if the todo item is not found.
+     */
+    Mono<Void> deleteTodoItem(Long id);
+
+    /**
+     * Deletes the todo items with the given IDs using set-based statements. Unknown IDs are ignored.
+     * @param ids The IDs of the todo items to delete.
+     * @return The number of deleted todo items.
+     * @throws IllegalArgumentException (signalled) if no ID is given or more than the configured maximum.
+     */
+    Mono<Integer> deleteTodoItems(Collection<Long> ids);
+
+    /**
+     * Deletes every todo item whose title contains the given text (case-insensitive), in a single statement.
+     * @param title The partial title to match; wildcard characters are matched literally.
+     * @return The number of deleted todo items.
+     * @throws IllegalArgumentException (signalled) if the title is null or empty.
+     */
+    Mono<Integer> deleteTodoItemsByTitle(String title);
+
+    /**
+     * Sets the same description on the todo items with the given IDs using set-based statements.
+     * @param ids The IDs of the todo items to update.
+     * @param description The new description; null clears it.
+     * @return The number of updated todo items.
+     * @throws IllegalArgumentException (signalled) if no ID is given or more than the configured maximum.
+     */
+    Mono<Integer> updateTodoItemDescriptions(Collection<Long> ids, String description);
+
+    /**
+     * Full-text search over titles and descriptions, ranked by relevance (BM25).
+     * @param query Free text; items matching more of its words rank higher.
+     * @param page The zero-based page number, or null for the first page.
+     * @param size The page size, or null for the default. Values above the configured maximum are clamped.
+     * @return The requested page of ranked results; empty for a blank query.
+     * @throws IllegalArgumentException (signalled) if the page is negative or the size is not positive.
+     */
+    Mono<SearchResultPage<RankedTodoItem>> searchTodoItems(String query, Integer page, Integer size);
+
+    /**
+     * Searches for todo items by a partial match in their title (case-insensitive).
+     * @param title The partial title to search for.
+     * @return The matching todo items.
+     */
+    Flux<TodoItem> searchTodoItemsByTitle(String title);
+
+    /**
+     * Searches for todo items whose title contains the given text with up to {@code maxEdits} typos.
+     * @param title The partial title to search for.
+     * @param maxEdits The maximum number of inserted, deleted or substituted characters; 0 for exact matches.
+     * @return The matching todo items, closest matches first.
+     * @throws IllegalArgumentException (signalled) if maxEdits is negative or above the configured maximum.
+     */
+    Flux<TodoItem> searchTodoItemsByTitle(String title, int maxEdits);
+
+    /**
+     * Searches for todo items by a partial match in their description (case-insensitive).
+     * @param description The partial description to search for.
+     * @return The matching todo items.
+     */
+    Flux<TodoItem> searchTodoItemsByDescription(String description);
+}
@@ -1,8 +1,19 @@
 package dev.sro.task1.service;
 
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.dto.DeltaSyncPage;
+import dev.sro.task1.dto.MultiGetResult;
+import dev.sro.task1.dto.RankedTodoItem;
+import dev.sro.task1.dto.RankedTodoItemSummary;
+import dev.sro.task1.dto.SearchResultPage;
+import dev.sro.task1.dto.TodoItemSummary;
 import dev.sro.task1.entity.TodoItem;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TodoItemService {
 
@@ -12,6 +23,51 @@ public interface TodoItemService {
      */
     List<TodoItem> getAllTodoItems();
 
+    /**
+     * Retrieves one page of todo items ordered by ID, using keyset pagination.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default. Values above the configured maximum are clamped.
+     * @return A page of TodoItem objects and the cursor of the following page, if any.
+     * @throws IllegalArgumentException if the cursor is malformed or the size is not positive.
+     */
+    CursorPage<TodoItem> getTodoItemPage(String cursor, Integer size);
+
+    /**
+     * Retrieves one page of todo item summaries ordered by ID, without reading any description.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default. Values above the configured maximum are clamped.
+     * @return A page of summaries and the cursor of the following page, if any.
+     * @throws IllegalArgumentException if the cursor is malformed or the size is not positive.
+     */
+    CursorPage<TodoItemSummary> getTodoItemSummaryPage(String cursor, Integer size);
+
+    /**
+     * Retrieves one page of the todo items created, updated or deleted after a delta sync position, in order of
+     * their last change, using keyset pagination over {@code (updatedAt, id)}.
+     * @param since The {@code next} position of the previous page or sync, or null for a first sync.
+     * @param size The requested page size, or null for the default. Values above the configured maximum are clamped.
+     * @return The changed items, the deleted ones and the position to sync from next.
+     * @throws IllegalArgumentException if the position is malformed or the size is not positive.
+     * @throws dev.sro.task1.exception.SyncExpiredException if the position is older than the tombstone retention.
+     */
+    DeltaSyncPage getChangesSince(String since, Integer size);
+
+    /**
+     * Purges the oldest tombstones of deleted todo items, written before the given instant.
+     * @param deletedBefore The end of the window, exclusive.
+     * @param limit The maximum number of tombstones to purge.
+     * @return The number of purged tombstones.
+     */
+    int purgeTombstones(Instant deletedBefore, int limit);
+
+    /**
+     * Passes every todo item, in ID order, to the given consumer while reading them from the database.
+     * Items are detached once consumed, so memory usage does not grow with the size of the table.
+     * @param consumer Receives each TodoItem; it must not keep references if memory is a concern.
+     * @return The number of exported todo items.
+     */
+    long exportTodoItems(Consumer<TodoItem> consumer);
+
     /**
      * Retrieves a single todo item by its ID.
      * @param id The ID of the todo item to retrieve.
@@ -19,6 +75,21 @@ public interface TodoItemService {
      */
     Optional<TodoItem> getTodoItemById(Long id);
 
+    /**
+     * Retrieves only the version of a todo item, without loading it.
+     * @param id The ID of the todo item.
+     * @return An Optional containing the current version if the item exists, or empty if not.
+     */
+    Optional<Long> getTodoItemVersion(Long id);
+
+    /**
+     * Retrieves many todo items by ID at once, from the cache where possible and with IN queries otherwise.
+     * @param ids The IDs of the todo items; duplicates are returned once.
+     * @return The todo items in request order, and the IDs without a todo item.
+     * @throws IllegalArgumentException if no ID is given, an ID is null or there are more than the configured maximum.
+     */
+    MultiGetResult<TodoItem> getTodoItemsByIds(Collection<Long> ids);
+
     /**
      * Creates a new todo item.
      * @param todoItem The TodoItem object to create.
@@ -27,6 +98,15 @@ public interface TodoItemService {
      */
     TodoItem createTodoItem(TodoItem todoItem);
 
+    /**
+     * Creates many todo items in one transaction using batched inserts.
+     * Invalid items are reported individually and do not prevent the valid ones from being stored.
+     * @param todoItems The TodoItem objects to create.
+     * @return The generated IDs of the stored items and the reasons the others were rejected.
+     * @throws IllegalArgumentException if the list is empty or larger than the configured maximum.
+     */
+    BatchCreateResult createTodoItems(List<TodoItem> todoItems);
+
     /**
      * Updates an existing todo item.
      * @param id The ID of the todo item to update.
@@ -37,6 +117,18 @@ public interface TodoItemService {
      */
     TodoItem updateTodoItem(Long id, TodoItem todoItemDetails);
 
+    /**
+     * Updates an existing todo item only if it is still at one of the expected versions.
+     * @param id The ID of the todo item to update.
+     * @param todoItemDetails The TodoItem object containing the updated details.
+     * @param expectedVersions The versions the caller last saw, e.g. from an If-Match header.
+     * @return The updated TodoItem object, with its new version.
+     * @throws dev.sro.task1.exception.ResourceNotFoundException if the todo item with the given ID is not found.
+     * @throws dev.sro.task1.exception.PreconditionFailedException if the todo item is at another version.
+     * @throws IllegalArgumentException if the title in todoItemDetails is null or empty.
+     */
+    TodoItem updateTodoItem(Long id, TodoItem todoItemDetails, Collection<Long> expectedVersions);
+
     /**
      * Deletes a todo item by its ID.
      * @param id The ID of the todo item to delete.
@@ -44,6 +136,52 @@ public interface TodoItemService {
      */
     void deleteTodoItem(Long id);
 
+    /**
+     * Deletes the todo items with the given IDs using set-based statements. Unknown IDs are ignored.
+     * @param ids The IDs of the todo items to delete.
+     * @return The number of deleted todo items.
+     * @throws IllegalArgumentException if no ID is given or more than the configured maximum.
+     */
+    int deleteTodoItems(Collection<Long> ids);
+
+    /**
+     * Deletes every todo item whose title contains the given text (case-insensitive), in a single statement.
+     * @param title The partial title to match; wildcard characters are matched literally.
+     * @return The number of deleted todo items.
+     * @throws IllegalArgumentException if the title is null or empty.
+     */
+    int deleteTodoItemsByTitle(String title);
+
+    /**
+     * Sets the same description on the todo items with the given IDs using set-based statements.
+     * Unknown IDs are ignored.
+     * @param ids The IDs of the todo items to update.
+     * @param description The new description; null clears it.
+     * @return The number of updated todo items.
+     * @throws IllegalArgumentException if no ID is given or more than the configured maximum.
+     */
+    int updateTodoItemDescriptions(Collection<Long> ids, String description);
+
+    /**
+     * Full-text search over titles and descriptions, ranked by relevance (BM25).
+     * @param query Free text; items matching more of its words rank higher.
+     * @param page The zero-based page number, or null for the first page.
+     * @param size The page size, or null for the default. Values above the configured maximum are clamped.
+     * @return The requested page of ranked results; empty for a blank query.
+     * @throws IllegalArgumentException if the page is negative or the size is not positive.
+     */
+    SearchResultPage<RankedTodoItem> searchTodoItems(String query, Integer page, Integer size);
+
+    /**
+     * Full-text search like {@link #searchTodoItems(String, Integer, Integer)}, returning summaries.
+     * @param query Free text; items matching more of its words rank higher.
+     * @param page The zero-based page number, or null for the first page.
+     * @param size The page size, or null for the default. Values above the configured maximum are clamped.
+     * @return The requested page of ranked summaries; empty for a blank query.
+     * @throws IllegalArgumentException if the page is negative or the size is not positive.
+     */
+    SearchResultPage<RankedTodoItemSummary> searchTodoItemSummaries(String query, Integer page, Integer size);
+
     /**
      * Searches for todo items by a partial match in their title (case-insensitive).
      * @param title The partial title to search for.
@@ -51,10 +189,36 @@ public interface TodoItemService {
      */
     List<TodoItem> searchTodoItemsByTitle(String title);
 
+    /**
+     * Searches for todo items whose title contains the given text with up to {@code maxEdits} typos
+     * (case and accent insensitive).
+     * @param title The partial title to search for.
+     * @param maxEdits The maximum number of inserted, deleted or substituted characters; 0 for exact matches.
+     * @return A list of TodoItem objects matching the search criteria, closest matches first.
+     * @throws IllegalArgumentException if maxEdits is negative or above the configured maximum.
+     */
+    List<TodoItem> searchTodoItemsByTitle(String title, int maxEdits);
+
+    /**
+     * Title search like {@link #searchTodoItemsByTitle(String, int)}, returning summaries.
+     * @param title The partial title to search for.
+     * @param maxEdits The maximum number of inserted, deleted or substituted characters; 0 for exact matches.
+     * @return Summaries of the matching todo items, closest matches first.
+     * @throws IllegalArgumentException if maxEdits is negative or above the configured maximum.
+     */
+    List<TodoItemSummary> searchTodoItemSummariesByTitle(String title, int maxEdits);
+
     /**
      * Searches for todo items by a partial match in their description (case-insensitive).
      * @param description The partial description to search for.
      * @return A list of TodoItem objects matching the search criteria.
      */
     List<TodoItem> searchTodoItemsByDescription(String description);
+
+    /**
+     * Description search like {@link #searchTodoItemsByDescription(String)}, returning summaries.
+     * @param description The partial description to search for.
+     * @return Summaries of the matching todo items.
+     */
+    List<TodoItemSummary> searchTodoItemSummariesByDescription(String description);
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package dev.sro.task1.service.impl;
+
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.dto.DeletedTodoItem;
+import dev.sro.task1.dto.DeltaSyncPage;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.exception.SyncExpiredException;
+import dev.sro.task1.util.CursorCodec;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Positions and pages of the delta sync, shared by {@link TodoItemServiceImpl} and {@link ShardedTodoItemService}.
+ * <p>
+ * Changes are ordered by {@code (time, id)}: the {@code updatedAt} of items and the {@code deletedAt} of
+ * tombstones. A sync only returns changes older than {@code todo.sync.settle-time} (the end of its window), as a
+ * transaction still running may commit a change with an earlier time. Once a window has been read to its end,
+ * the position moves to that end, so that an unchanged table keeps the position current and within the
+ * tombstone retention.
+ */
+final class DeltaSync {
+
+    static final Comparator<TodoItem> BY_CHANGE = Comparator.comparing(TodoItem::getUpdatedAt)
+            .thenComparing(TodoItem::getId);
+    static final Comparator<DeletedTodoItem> BY_DELETION = Comparator.comparing(DeletedTodoItem::deletedAt)
+            .thenComparing(DeletedTodoItem::id);
+
+    private DeltaSync() {
+    }
+
+    /**
+     * Reads a position handed out by an earlier sync.
+     * @param since The opaque position, or null (or blank) for a first sync.
+     * @param now The current time.
+     * @param settings The sync settings.
+     * @return The position; {@link Position#START} for a first sync.
+     * @throws IllegalArgumentException if the position is malformed.
+     * @throws SyncExpiredException if the position is older than the tombstone retention.
+     */
+    static Position from(String since, Instant now, TodoProperties.Sync settings) {
+        if (since == null || since.isBlank()) {
+            return Position.START;
+        }
+        long[] values = CursorCodec.decode(since, 2);
+        if (values[0] < 0 || values[1] < 0) {
+            throw new IllegalArgumentException("Invalid sync position.");
+        }
+        Position position = new Position(Instant.EPOCH.plus(values[0], ChronoUnit.MICROS), values[1]);
+        if (!position.equals(Position.START) && position.at().isBefore(now.minus(settings.getTombstoneRetention()))) {
+            throw new SyncExpiredException("Sync position is older than " + settings.getTombstoneRetention()
+                    + "; sync again without a position.");
+        }
+        return position;
+    }
+
+    /**
+     * @return The end of the window of a sync starting now, exclusive.
+     */
+    static Instant until(Instant now, TodoProperties.Sync settings) {
+        return now.minus(settings.getSettleTime());
+    }
+
+    /**
+     * Takes the first {@code pageSize} changes out of the changed and the deleted items, each sorted in change
+     * order; an item and a tombstone at the same position are taken in that order.
+     * @param from The position the changes follow.
+     * @param until The end of the window the changes were read from.
+     * @param changed Items changed in the window after {@code from}, in change order.
+     * @param deleted Items deleted in the window after {@code from}, in change order.
+     * @param pageSize The maximum number of changes on the page.
+     * @param truncated Whether the lists may lack changes of the window, beyond their last one.
+     * @return The page, positioned after its last change, or at the end of the window if it holds all of them.
+     */
+    static DeltaSyncPage page(Position from, Instant until, List<TodoItem> changed, List<DeletedTodoItem> deleted,
+                              int pageSize, boolean truncated) {
+        List<TodoItem> items = new ArrayList<>(Math.min(pageSize, changed.size()));
+        List<DeletedTodoItem> deletions = new ArrayList<>(Math.min(pageSize, deleted.size()));
+        Position last = from;
+        int i = 0;
+        int j = 0;
+        while (items.size() + deletions.size() < pageSize && (i < changed.size() || j < deleted.size())) {
+            TodoItem item = i < changed.size() ? changed.get(i) : null;
+            DeletedTodoItem deletion = j < deleted.size() ? deleted.get(j) : null;
+            if (deletion == null || (item != null && Position.of(item).compareTo(Position.of(deletion)) <= 0)) {
+                items.add(item);
+                last = Position.of(item);
+                i++;
+            } else {
+                deletions.add(deletion);
+                last = Position.of(deletion);
+                j++;
+            }
+        }
+        boolean hasMore = truncated || i < changed.size() || j < deleted.size();
+        Position next = hasMore ? last : max(from, new Position(until, 0));
+        return new DeltaSyncPage(items, deletions, next.encode(), hasMore);
+    }
+
+    private static Position max(Position a, Position b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    /**
+     * A position in change order: after every change before {@code at}, and after the changes at {@code at}
+     * up to {@code id}.
+     */
+    record Position(Instant at, long id) implements Comparable<Position> {
+
+        static final Position START = new Position(Instant.EPOCH, 0);
+
+        private static final Comparator<Position> ORDER = Comparator.comparing(Position::at)
+                .thenComparingLong(Position::id);
+
+        static Position of(TodoItem item) {
+            return new Position(item.getUpdatedAt(), item.getId());
+        }
+
+        static Position of(DeletedTodoItem deletion) {
+            return new Position(deletion.deletedAt(), deletion.id());
+        }
+
+        String encode() {
+            return CursorCodec.encode(ChronoUnit.MICROS.between(Instant.EPOCH, at), id);
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
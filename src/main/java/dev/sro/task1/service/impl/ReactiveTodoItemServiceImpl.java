@@ -0,0 +1,380 @@
+package dev.sro.task1.service.impl;
+
+import dev.sro.task1.changefeed.ReactiveChangeLog;
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.dto.RankedTodoItem;
+import dev.sro.task1.dto.SearchResultPage;
+import dev.sro.task1.entity.ChangeLogEntry;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.event.TodoItemChange;
+import dev.sro.task1.exception.PreconditionFailedException;
+import dev.sro.task1.exception.ResourceNotFoundException;
+import dev.sro.task1.repository.ReactiveTodoItemRepository;
+import dev.sro.task1.search.TitleTrigramIndex;
+import dev.sro.task1.search.TodoSearchIndex;
+import dev.sro.task1.service.ReactiveTodoItemService;
+import dev.sro.task1.util.CursorCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Reactive implementation of the todo API on R2DBC, active with the {@code reactive} profile.
+ * <p>
+ * Follows {@link TodoItemServiceImpl} statement for statement. Writes run in a transaction of the
+ * {@link TransactionalOperator}; the {@link TodoItemChange} is only published once it has committed,
+ * which keeps the in-process search indexes in line exactly as in the servlet stack. Unless the change feed is
+ * disabled, the last statements of each write transaction append it to the change log.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveTodoItemServiceImpl implements ReactiveTodoItemService {
+
+    private final ReactiveTodoItemRepository todoItemRepository;
+    private final TodoProperties todoProperties;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TodoSearchIndex todoSearchIndex;
+    private final TitleTrigramIndex titleTrigramIndex;
+    private final ReactiveChangeLog changeLog; // null if the change feed is disabled
+
+    public ReactiveTodoItemServiceImpl(ReactiveTodoItemRepository todoItemRepository, TodoProperties todoProperties,
+                                       TransactionalOperator transactionalOperator, ApplicationEventPublisher eventPublisher,
+                                       TodoSearchIndex todoSearchIndex, TitleTrigramIndex titleTrigramIndex,
+                                       ObjectProvider<ReactiveChangeLog> changeLog) {
+        this.todoItemRepository = todoItemRepository;
+        this.todoProperties = todoProperties;
+        this.transactionalOperator = transactionalOperator;
+        this.eventPublisher = eventPublisher;
+        this.todoSearchIndex = todoSearchIndex;
+        this.titleTrigramIndex = titleTrigramIndex;
+        this.changeLog = changeLog.getIfAvailable();
+    }
+
+    /**
+     * Retrieves one page of todo items ordered by ID, seeking on {@code id > lastId}.
+     * One extra row is fetched to find out whether a following page exists.
+     */
+    @Override
+    public Mono<CursorPage<TodoItem>> getTodoItemPage(String cursor, Integer size) {
+        return Mono.defer(() -> {
+            int pageSize = RequestLimits.resolvePageSize(size, todoProperties);
+            long lastId = (cursor == null || cursor.isBlank()) ? 0L : CursorCodec.decode(cursor, 1)[0];
+            return todoItemRepository.findByIdGreaterThanOrderByIdAsc(lastId, pageSize + 1)
+                    .collectList()
+                    .map(rows -> {
+                        if (rows.size() <= pageSize) {
+                            return new CursorPage<>(rows, null); // Last page
+                        }
+                        List<TodoItem> items = rows.subList(0, pageSize);
+                        return new CursorPage<>(items, CursorCodec.encode(items.get(pageSize - 1).getId()));
+                    });
+        });
+    }
+
+    @Override
+    public Flux<TodoItem> exportTodoItems() {
+        return todoItemRepository.findAllOrderByIdAsc();
+    }
+
+    @Override
+    public Mono<TodoItem> getTodoItemById(Long id) {
+        return todoItemRepository.findById(id);
+    }
+
+    @Override
+    public Mono<Long> getTodoItemVersion(Long id) {
+        return todoItemRepository.findVersionById(id);
+    }
+
+    @Override
+    public Mono<TodoItem> createTodoItem(TodoItem todoItem) {
+        return Mono.defer(() -> {
+            String error = TodoItemServiceImpl.validateForCreate(todoItem);
+            if (error != null) {
+                return Mono.error(new IllegalArgumentException(error));
+            }
+            return todoItemRepository.insertAll(List.of(todoItem))
+                    .single()
+                    .flatMap(saved -> logSaved(List.of(saved)).thenReturn(saved))
+                    .as(transactionalOperator::transactional)
+                    .doOnNext(saved -> eventPublisher.publishEvent(new TodoItemChange.Saved(List.of(saved))));
+        });
+    }
+
+    /**
+     * Creates many todo items in one transaction, one multi-row INSERT per chunk of {@code todo.batch.flush-size}.
+     */
+    @Override
+    public Mono<BatchCreateResult> createTodoItems(List<TodoItem> todoItems) {
+        return Mono.defer(() -> {
+            if (todoItems == null || todoItems.isEmpty()) {
+                return Mono.error(new IllegalArgumentException("Batch must contain at least one todo item."));
+            }
+            TodoProperties.Batch batch = todoProperties.getBatch();
+            if (todoItems.size() > batch.getMaxItems()) {
+                return Mono.error(new IllegalArgumentException("Batch cannot contain more than " + batch.getMaxItems() + " todo items."));
+            }
+
+            List<BatchCreateResult.Created> created = new ArrayList<>();
+            List<BatchCreateResult.Failed> failed = new ArrayList<>();
+            List<TodoItem> valid = new ArrayList<>();
+            List<Integer> validIndexes = new ArrayList<>();
+            for (int i = 0; i < todoItems.size(); i++) {
+                String error = TodoItemServiceImpl.validateForCreate(todoItems.get(i));
+                if (error != null) {
+                    failed.add(new BatchCreateResult.Failed(i, error));
+                } else {
+                    valid.add(todoItems.get(i));
+                    validIndexes.add(i);
+                }
+            }
+            List<List<TodoItem>> chunks = new ArrayList<>();
+            for (int from = 0; from < valid.size(); from += batch.getFlushSize()) {
+                chunks.add(valid.subList(from, Math.min(from + batch.getFlushSize(), valid.size())));
+            }
+            return Flux.fromIterable(chunks)
+                    .concatMap(todoItemRepository::insertAll)
+                    .collectList()
+                    .flatMap(saved -> logSaved(saved).thenReturn(saved))
+                    .as(transactionalOperator::transactional)
+                    .map(saved -> {
+                        for (int i = 0; i < saved.size(); i++) {
+                            created.add(new BatchCreateResult.Created(validIndexes.get(i), saved.get(i).getId()));
+                        }
+                        if (!saved.isEmpty()) {
+                            eventPublisher.publishEvent(new TodoItemChange.Saved(saved));
+                        }
+                        return new BatchCreateResult(created, failed);
+                    });
+        });
+    }
+
+    @Override
+    public Mono<TodoItem> updateTodoItem(Long id, TodoItem todoItemDetails) {
+        return Mono.defer(() -> {
+            if (todoItemDetails.getTitle() == null || todoItemDetails.getTitle().trim().isEmpty()) {
+                return Mono.error(new IllegalArgumentException("Updated todo item title cannot be null or empty."));
+            }
+            return todoItemRepository.update(id, todoItemDetails.getTitle(), todoItemDetails.getDescription())
+                    .flatMap(updated -> updated == 0
+                            ? Mono.<TodoItem>error(new ResourceNotFoundException("TodoItem not found with id: " + id))
+                            : todoItemRepository.findById(id))
+                    .flatMap(updated -> logSaved(List.of(updated)).thenReturn(updated))
+                    .as(transactionalOperator::transactional)
+                    .doOnNext(updated -> eventPublisher.publishEvent(new TodoItemChange.Saved(List.of(updated))));
+        });
+    }
+
+    /**
+     * Updates a todo item with a single conditional UPDATE; only when no row was updated is the item
+     * looked up again, to tell a missing item from a concurrent modification.
+     */
+    @Override
+    public Mono<TodoItem> updateTodoItem(Long id, TodoItem todoItemDetails, Collection<Long> expectedVersions) {
+        return Mono.defer(() -> {
+            if (todoItemDetails.getTitle() == null || todoItemDetails.getTitle().trim().isEmpty()) {
+                return Mono.error(new IllegalArgumentException("Updated todo item title cannot be null or empty."));
+            }
+            Mono<Long> updated = expectedVersions.isEmpty() ? Mono.just(0L)
+                    : todoItemRepository.updateIfVersionIn(id, todoItemDetails.getTitle(),
+                            todoItemDetails.getDescription(), expectedVersions);
+            return updated
+                    .flatMap(count -> count > 0 ? todoItemRepository.findById(id) : versionMismatch(id))
+                    .flatMap(todoItem -> logSaved(List.of(todoItem)).thenReturn(todoItem))
+                    .as(transactionalOperator::transactional)
+                    .doOnNext(todoItem -> eventPublisher.publishEvent(new TodoItemChange.Saved(List.of(todoItem))));
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteTodoItem(Long id) {
+        return todoItemRepository.deleteAllByIdIn(List.of(id))
+                .flatMap(deleted -> log(deleted, ChangeLogEntry.Operation.DELETE).thenReturn(deleted))
+                .as(transactionalOperator::transactional)
+                .flatMap(deleted -> {
+                    if (deleted.isEmpty()) {
+                        return Mono.<Void>error(new ResourceNotFoundException("TodoItem not found with id: " + id));
+                    }
+                    eventPublisher.publishEvent(new TodoItemChange.Deleted(List.of(id)));
+                    return Mono.<Void>empty();
+                });
+    }
+
+    @Override
+    public Mono<Integer> deleteTodoItems(Collection<Long> ids) {
+        return Mono.defer(() -> {
+            List<List<Long>> chunks = RequestLimits.chunkIds(ids, todoProperties);
+            return Flux.fromIterable(chunks)
+                    .concatMap(todoItemRepository::deleteAllByIdIn)
+                    .collectList()
+                    .map(RequestLimits::flatten)
+                    .flatMap(deleted -> log(deleted, ChangeLogEntry.Operation.DELETE).thenReturn(deleted))
+                    .as(transactionalOperator::transactional)
+                    .map(deleted -> {
+                        if (!deleted.isEmpty()) {
+                            eventPublisher.publishEvent(new TodoItemChange.Deleted(deleted));
+                        }
+                        return deleted.size();
+                    });
+        });
+    }
+
+    @Override
+    public Mono<Integer> deleteTodoItemsByTitle(String title) {
+        return Mono.defer(() -> {
+            if (title == null || title.trim().isEmpty()) {
+                return Mono.error(new IllegalArgumentException("Title to delete by cannot be null or empty."));
+            }
+            return todoItemRepository.deleteByTitleLike(TodoItemServiceImpl.containsPattern(title))
+                    .flatMap(deleted -> log(deleted, ChangeLogEntry.Operation.DELETE).thenReturn(deleted))
+                    .as(transactionalOperator::transactional)
+                    .map(deleted -> {
+                        if (!deleted.isEmpty()) {
+                            eventPublisher.publishEvent(new TodoItemChange.Deleted(deleted));
+                        }
+                        return deleted.size();
+                    });
+        });
+    }
+
+    @Override
+    public Mono<Integer> updateTodoItemDescriptions(Collection<Long> ids, String description) {
+        return Mono.defer(() -> {
+            List<List<Long>> chunks = RequestLimits.chunkIds(ids, todoProperties);
+            return Flux.fromIterable(chunks)
+                    .concatMap(chunk -> todoItemRepository.updateDescriptionByIdIn(chunk, description))
+                    .reduce(0L, Long::sum)
+                    .flatMap(updated -> updated == 0 ? Mono.just(updated)
+                            : log(RequestLimits.flatten(chunks), ChangeLogEntry.Operation.UPSERT).thenReturn(updated))
+                    .as(transactionalOperator::transactional)
+                    .map(updated -> {
+                        if (updated > 0) {
+                            eventPublisher.publishEvent(
+                                    new TodoItemChange.DescriptionUpdated(RequestLimits.flatten(chunks), description));
+                        }
+                        return updated.intValue();
+                    });
+        });
+    }
+
+    /**
+     * Ranks with the in-process BM25 index, then looks up only the IDs of the requested page with a single query.
+     */
+    @Override
+    public Mono<SearchResultPage<RankedTodoItem>> searchTodoItems(String query, Integer page, Integer size) {
+        return Mono.defer(() -> {
+            int pageSize = RequestLimits.resolvePageSize(size, todoProperties);
+            int pageNumber = page == null ? 0 : page;
+            if (pageNumber < 0 || (long) pageNumber * pageSize > Integer.MAX_VALUE) {
+                return Mono.error(new IllegalArgumentException("Page number is out of range."));
+            }
+            if (query == null || query.trim().isEmpty()) {
+                return Mono.just(new SearchResultPage<>(List.of(), pageNumber, pageSize, 0));
+            }
+            TodoSearchIndex.SearchHits hits = todoSearchIndex.search(query, pageNumber * pageSize, pageSize);
+            List<Long> ids = hits.hits().stream().map(TodoSearchIndex.Hit::id).toList();
+            Mono<Map<Long, TodoItem>> byId = ids.isEmpty() ? Mono.just(Map.of())
+                    : todoItemRepository.findAllById(ids).collectMap(TodoItem::getId, Function.identity());
+            return byId.map(items -> {
+                List<RankedTodoItem> ranked = new ArrayList<>(ids.size());
+                for (TodoSearchIndex.Hit hit : hits.hits()) {
+                    TodoItem todoItem = items.get(hit.id());
+                    if (todoItem != null) {
+                        ranked.add(new RankedTodoItem(todoItem, hit.score()));
+                    }
+                }
+                return new SearchResultPage<>(ranked, pageNumber, pageSize, hits.total());
+            });
+        });
+    }
+
+    @Override
+    public Flux<TodoItem> searchTodoItemsByTitle(String title) {
+        return Flux.defer(() -> {
+            if (title == null || title.trim().isEmpty()) {
+                return Flux.empty();
+            }
+            if (!useTrigramIndex()) {
+                return todoItemRepository.findByTitleLike(TodoItemServiceImpl.containsPattern(title));
+            }
+            return findAllByIdInOrder(titleTrigramIndex.findContaining(title));
+        });
+    }
+
+    @Override
+    public Flux<TodoItem> searchTodoItemsByTitle(String title, int maxEdits) {
+        return Flux.defer(() -> {
+            int maxFuzziness = todoProperties.getSearch().getMaxFuzziness();
+            if (maxEdits < 0 || maxEdits > maxFuzziness) {
+                return Flux.error(new IllegalArgumentException("Fuzziness must be between 0 and " + maxFuzziness + "."));
+            }
+            if (maxEdits == 0 || !useTrigramIndex()) {
+                return searchTodoItemsByTitle(title);
+            }
+            if (title == null || title.trim().isEmpty()) {
+                return Flux.empty();
+            }
+            return findAllByIdInOrder(titleTrigramIndex.findSimilar(title, maxEdits).stream()
+                    .map(TitleTrigramIndex.Match::id)
+                    .toList());
+        });
+    }
+
+    @Override
+    public Flux<TodoItem> searchTodoItemsByDescription(String description) {
+        return Flux.defer(() -> {
+            if (description == null || description.trim().isEmpty()) {
+                return Flux.empty();
+            }
+            return todoItemRepository.findByDescriptionLike(TodoItemServiceImpl.containsPattern(description));
+        });
+    }
+
+    private Mono<TodoItem> versionMismatch(Long id) {
+        return todoItemRepository.findVersionById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("TodoItem not found with id: " + id)))
+                .flatMap(currentVersion -> Mono.error(new PreconditionFailedException("TodoItem " + id
+                        + " is at version " + currentVersion + ", not at the expected one.")));
+    }
+
+    private Mono<Void> logSaved(List<TodoItem> items) {
+        return changeLog == null ? Mono.empty() : changeLog.appendSaved(items);
+    }
+
+    private Mono<Void> log(Collection<Long> ids, ChangeLogEntry.Operation operation) {
+        return changeLog == null ? Mono.empty() : changeLog.append(ids, operation);
+    }
+
+    private boolean useTrigramIndex() {
+        return todoProperties.getSearch().isTrigramEnabled() && titleTrigramIndex.isReady();
+    }
+
+    /**
+     * Loads the todo items with the given IDs one chunk at a time and emits each chunk in the order of the IDs,
+     * so only one chunk is held in memory. IDs without a row are skipped.
+     */
+    private Flux<TodoItem> findAllByIdInOrder(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += RequestLimits.IN_CLAUSE_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + RequestLimits.IN_CLAUSE_CHUNK_SIZE, ids.size())));
+        }
+        return Flux.fromIterable(chunks)
+                .concatMap(chunk -> todoItemRepository.findAllById(chunk)
+                        .collectMap(TodoItem::getId, Function.identity())
+                        .flatMapIterable(byId -> chunk.stream().map(byId::get).filter(Objects::nonNull).toList()));
+    }
+}
@@ -0,0 +1,67 @@
+package dev.sro.task1.service.impl;
+
+import dev.sro.task1.config.TodoProperties;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Limits on the IDs and page sizes of a request, shared by {@link TodoItemServiceImpl},
+ * {@link ShardedTodoItemService} and {@link ReactiveTodoItemServiceImpl} so that every stack accepts the same
+ * requests and rejects the others with the same message.
+ */
+final class RequestLimits {
+
+    // Keeps IN lists well below driver and optimizer limits; each chunk is still one statement
+    static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    private RequestLimits() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if no ID is given, or more than {@code todo.batch.max-items}.
+     */
+    static void requireIds(Collection<Long> ids, TodoProperties todoProperties) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one todo item id is required.");
+        }
+        int maxItems = todoProperties.getBatch().getMaxItems();
+        if (ids.size() > maxItems) {
+            throw new IllegalArgumentException("Cannot process more than " + maxItems + " todo items at once.");
+        }
+    }
+
+    /**
+     * Validates the IDs with {@link #requireIds} and splits the distinct ones into chunks of
+     * {@value #IN_CLAUSE_CHUNK_SIZE}, in their order.
+     */
+    static List<List<Long>> chunkIds(Collection<Long> ids, TodoProperties todoProperties) {
+        requireIds(ids, todoProperties);
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            chunks.add(distinctIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctIds.size())));
+        }
+        return chunks;
+    }
+
+    static List<Long> flatten(List<List<Long>> chunks) {
+        return chunks.stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * @return The requested page size capped at {@code todo.pagination.max-page-size}, or the default page size.
+     * @throws IllegalArgumentException if the size is not positive.
+     */
+    static int resolvePageSize(Integer size, TodoProperties todoProperties) {
+        TodoProperties.Pagination pagination = todoProperties.getPagination();
+        if (size == null) {
+            return pagination.getDefaultPageSize();
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be greater than zero.");
+        }
+        return Math.min(size, pagination.getMaxPageSize());
+    }
+}
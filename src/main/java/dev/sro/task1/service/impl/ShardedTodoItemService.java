@@ -0,0 +1,517 @@
+package dev.sro.task1.service.impl;
+
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.dto.DeletedTodoItem;
+import dev.sro.task1.dto.DeltaSyncPage;
+import dev.sro.task1.dto.MultiGetResult;
+import dev.sro.task1.dto.RankedTodoItem;
+import dev.sro.task1.dto.RankedTodoItemSummary;
+import dev.sro.task1.dto.SearchResultPage;
+import dev.sro.task1.dto.TodoItemSummary;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.exception.ResourceNotFoundException;
+import dev.sro.task1.search.TitleTrigramIndex;
+import dev.sro.task1.service.TodoItemService;
+import dev.sro.task1.sharding.ShardContext;
+import dev.sro.task1.sharding.ShardIds;
+import dev.sro.task1.sharding.ShardRoutingDataSource;
+import dev.sro.task1.util.CursorCodec;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Spreads todo items over the shards of the {@link ShardRoutingDataSource}, running each operation through
+ * {@link TodoItemServiceImpl} on the right shard, so that every shard call keeps its own transaction,
+ * cache handling, database access permit and change events.
+ * <ul>
+ *     <li>Operations on one ID go to the shard encoded in it ({@link ShardIds}).</li>
+ *     <li>New items go to the shards round-robin; a batch goes to a single shard, in one transaction.</li>
+ *     <li>Listings, searches and delta syncs query all shards in parallel and merge their sorted results.</li>
+ *     <li>Bulk operations by ID run on each concerned shard in parallel. They are atomic per shard only.</li>
+ * </ul>
+ */
+@Service
+@Primary
+@Profile("!reactive")
+@ConditionalOnProperty("todo.sharding.shards[0].url")
+public class ShardedTodoItemService implements TodoItemService, AutoCloseable {
+
+    private static final Comparator<TodoItem> BY_ID = Comparator.comparing(TodoItem::getId);
+    private static final Comparator<TodoItemSummary> SUMMARY_BY_ID = Comparator.comparing(TodoItemSummary::id);
+    // Same order as the full-text index: best score first, then lowest ID
+    private static final Comparator<RankedTodoItem> BY_RANK = Comparator.comparingDouble(RankedTodoItem::score).reversed()
+            .thenComparing(rankedTodoItem -> rankedTodoItem.item().getId());
+    private static final Comparator<RankedTodoItemSummary> BY_SUMMARY_RANK = Comparator.comparingDouble(RankedTodoItemSummary::score)
+            .reversed().thenComparing(rankedTodoItem -> rankedTodoItem.item().id());
+
+    private final TodoItemServiceImpl shardService;
+    private final TodoProperties todoProperties;
+    private final TitleTrigramIndex titleTrigramIndex;
+    private final int shardCount;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    // Shard queries mostly wait on their database; one virtual thread each is enough
+    private final ExecutorService scatterExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardedTodoItemService(TodoItemServiceImpl shardService, TodoProperties todoProperties,
+                                  TitleTrigramIndex titleTrigramIndex, ShardRoutingDataSource shardRoutingDataSource) {
+        this.shardService = shardService;
+        this.todoProperties = todoProperties;
+        this.titleTrigramIndex = titleTrigramIndex;
+        this.shardCount = shardRoutingDataSource.getShardCount();
+    }
+
+    /**
+     * Reads every shard in parallel and merges the results in ID order.
+     * @return A list of all TodoItem objects, ordered by ID.
+     */
+    @Override
+    public List<TodoItem> getAllTodoItems() {
+        return mergeSorted(scatter(shard -> sorted(shardService.getAllTodoItems(), BY_ID)), BY_ID);
+    }
+
+    /**
+     * Retrieves one page of todo items ordered by ID.
+     * As the shard is the high part of every ID, ordering by ID is ordering by shard: a page is read from the
+     * shard of its cursor and only continues on the following shards once that one has no rows left, so most
+     * pages take a single query on a single shard.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @return A page of TodoItem objects and the cursor of the following page, if any.
+     * @throws IllegalArgumentException if the cursor is malformed or the size is not positive.
+     */
+    @Override
+    public CursorPage<TodoItem> getTodoItemPage(String cursor, Integer size) {
+        return page(cursor, size, shardService::getTodoItemPage, TodoItem::getId);
+    }
+
+    @Override
+    public CursorPage<TodoItemSummary> getTodoItemSummaryPage(String cursor, Integer size) {
+        return page(cursor, size, shardService::getTodoItemSummaryPage, TodoItemSummary::id);
+    }
+
+    private <T> CursorPage<T> page(String cursor, Integer size, BiFunction<String, Integer, CursorPage<T>> shardPage,
+                                   Function<T, Long> idOf) {
+        int pageSize = RequestLimits.resolvePageSize(size, todoProperties);
+        long lastId = (cursor == null || cursor.isBlank()) ? 0L : CursorCodec.decode(cursor, 1)[0];
+        int cursorShard = ShardIds.shardOf(lastId);
+        if (lastId > 0 && cursorShard < 0) {
+            return new CursorPage<>(List.of(), null); // Beyond the last possible shard
+        }
+        int firstShard = Math.max(0, cursorShard);
+
+        List<T> items = new ArrayList<>(pageSize);
+        for (int shard = firstShard; shard < shardCount; shard++) {
+            String shardCursor = shard == firstShard ? cursor : null;
+            if (items.size() == pageSize) {
+                // The page is full; it has a successor if any later shard still has a row
+                CursorPage<T> probe = onShard(shard, () -> shardPage.apply(shardCursor, 1));
+                if (!probe.items().isEmpty()) {
+                    return new CursorPage<>(items, CursorCodec.encode(idOf.apply(items.get(pageSize - 1))));
+                }
+                continue;
+            }
+            int remaining = pageSize - items.size();
+            CursorPage<T> page = onShard(shard, () -> shardPage.apply(shardCursor, remaining));
+            items.addAll(page.items());
+            if (page.next() != null) {
+                return new CursorPage<>(items, page.next());
+            }
+        }
+        return new CursorPage<>(items, null);
+    }
+
+    /**
+     * Reads a page of changes from every shard in parallel, all for the same window, and merges them in change
+     * order. When a shard has more changes than the page holds, the merged page ends at or before its last one,
+     * so the next page misses none of them.
+     * @param since The {@code next} position of the previous page or sync, or null for a first sync.
+     * @param size The requested page size, or null for the default.
+     * @return The changed items, the deleted ones and the position to sync from next.
+     * @throws IllegalArgumentException if the position is malformed or the size is not positive.
+     * @throws dev.sro.task1.exception.SyncExpiredException if the position is older than the tombstone retention.
+     */
+    @Override
+    public DeltaSyncPage getChangesSince(String since, Integer size) {
+        int pageSize = RequestLimits.resolvePageSize(size, todoProperties);
+        Instant now = TodoItem.now();
+        TodoProperties.Sync settings = todoProperties.getSync();
+        DeltaSync.Position from = DeltaSync.from(since, now, settings);
+        List<DeltaSyncPage> pages = scatter(shard -> shardService.getChangesSince(since, pageSize, now));
+        List<TodoItem> changed = mergeSorted(pages.stream().map(DeltaSyncPage::items).toList(), DeltaSync.BY_CHANGE);
+        List<DeletedTodoItem> deleted = mergeSorted(pages.stream().map(DeltaSyncPage::deleted).toList(),
+                DeltaSync.BY_DELETION);
+        boolean truncated = pages.stream().anyMatch(DeltaSyncPage::hasMore);
+        return DeltaSync.page(from, DeltaSync.until(now, settings), changed, deleted, pageSize, truncated);
+    }
+
+    @Override
+    public int purgeTombstones(Instant deletedBefore, int limit) {
+        return sum(scatter(shard -> shardService.purgeTombstones(deletedBefore, limit)));
+    }
+
+    /**
+     * Exports the shards one after the other, which is ID order.
+     * @param consumer Receives each TodoItem.
+     * @return The number of exported todo items.
+     */
+    @Override
+    public long exportTodoItems(Consumer<TodoItem> consumer) {
+        long count = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            count += onShard(shard, () -> shardService.exportTodoItems(consumer));
+        }
+        return count;
+    }
+
+    @Override
+    public Optional<TodoItem> getTodoItemById(Long id) {
+        int shard = shardOf(id);
+        return shard < 0 ? Optional.empty() : onShard(shard, () -> shardService.getTodoItemById(id));
+    }
+
+    @Override
+    public Optional<Long> getTodoItemVersion(Long id) {
+        int shard = shardOf(id);
+        return shard < 0 ? Optional.empty() : onShard(shard, () -> shardService.getTodoItemVersion(id));
+    }
+
+    /**
+     * Looks the IDs up on each of their shards in parallel and puts the items back in request order.
+     * IDs that belong to no shard are reported missing.
+     * @param ids The IDs of the todo items; duplicates are returned once.
+     * @return The todo items in request order, and the IDs without a todo item.
+     * @throws IllegalArgumentException if no ID is given, an ID is null or there are more than the configured maximum.
+     */
+    @Override
+    public MultiGetResult<TodoItem> getTodoItemsByIds(Collection<Long> ids) {
+        if (ids != null && ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Todo item ids cannot be null.");
+        }
+        Map<Integer, List<Long>> byShard = groupByShard(ids);
+        Map<Long, TodoItem> found = new HashMap<>(ids.size() * 2);
+        scatter(byShard.keySet(), shard -> shardService.getTodoItemsByIds(byShard.get(shard)))
+                .forEach(result -> result.items().forEach(todoItem -> found.put(todoItem.getId(), todoItem)));
+
+        List<TodoItem> todoItems = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids.stream().distinct().toList()) {
+            TodoItem todoItem = found.get(id);
+            if (todoItem != null) {
+                todoItems.add(todoItem);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new MultiGetResult<>(todoItems, missing);
+    }
+
+    @Override
+    public TodoItem createTodoItem(TodoItem todoItem) {
+        return onShard(nextShard(), () -> shardService.createTodoItem(todoItem));
+    }
+
+    /**
+     * Creates the whole batch on the next shard in turn, so that it stays a single transaction.
+     * @param todoItems The TodoItem objects to create.
+     * @return The generated IDs of the stored items and the reasons the others were rejected.
+     * @throws IllegalArgumentException if the list is empty or larger than the configured maximum.
+     */
+    @Override
+    public BatchCreateResult createTodoItems(List<TodoItem> todoItems) {
+        return onShard(nextShard(), () -> shardService.createTodoItems(todoItems));
+    }
+
+    @Override
+    public TodoItem updateTodoItem(Long id, TodoItem todoItemDetails) {
+        return onShard(existingShardOf(id), () -> shardService.updateTodoItem(id, todoItemDetails));
+    }
+
+    @Override
+    public TodoItem updateTodoItem(Long id, TodoItem todoItemDetails, Collection<Long> expectedVersions) {
+        return onShard(existingShardOf(id), () -> shardService.updateTodoItem(id, todoItemDetails, expectedVersions));
+    }
+
+    @Override
+    public void deleteTodoItem(Long id) {
+        onShard(existingShardOf(id), () -> {
+            shardService.deleteTodoItem(id);
+            return null;
+        });
+    }
+
+    /**
+     * Deletes the todo items on each of their shards in parallel; one shard failing does not undo the others.
+     * @param ids The IDs of the todo items to delete.
+     * @return The number of deleted todo items.
+     * @throws IllegalArgumentException if no ID is given or more than the configured maximum.
+     */
+    @Override
+    public int deleteTodoItems(Collection<Long> ids) {
+        Map<Integer, List<Long>> byShard = groupByShard(ids);
+        return sum(scatter(byShard.keySet(), shard -> shardService.deleteTodoItems(byShard.get(shard))));
+    }
+
+    @Override
+    public int deleteTodoItemsByTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("Title to delete by cannot be null or empty.");
+        }
+        return sum(scatter(shard -> shardService.deleteTodoItemsByTitle(title)));
+    }
+
+    /**
+     * Updates the descriptions on each of their shards in parallel; one shard failing does not undo the others.
+     * @param ids The IDs of the todo items to update.
+     * @param description The new description; null clears it.
+     * @return The number of updated todo items.
+     * @throws IllegalArgumentException if no ID is given or more than the configured maximum.
+     */
+    @Override
+    public int updateTodoItemDescriptions(Collection<Long> ids, String description) {
+        Map<Integer, List<Long>> byShard = groupByShard(ids);
+        return sum(scatter(byShard.keySet(), shard -> shardService.updateTodoItemDescriptions(byShard.get(shard), description)));
+    }
+
+    /**
+     * Full-text search. The index covers all shards, so every shard is handed the same page of hits and loads
+     * the ones it stores; merging them by rank gives the page back.
+     * @param query Free text to search for.
+     * @param page The zero-based page number, or null for the first page.
+     * @param size The page size, or null for the default.
+     * @return The requested page of ranked results.
+     * @throws IllegalArgumentException if the page is negative or the size is not positive.
+     */
+    @Override
+    public SearchResultPage<RankedTodoItem> searchTodoItems(String query, Integer page, Integer size) {
+        return mergePages(scatter(shard -> shardService.searchTodoItems(query, page, size)), BY_RANK);
+    }
+
+    @Override
+    public SearchResultPage<RankedTodoItemSummary> searchTodoItemSummaries(String query, Integer page, Integer size) {
+        return mergePages(scatter(shard -> shardService.searchTodoItemSummaries(query, page, size)), BY_SUMMARY_RANK);
+    }
+
+    @Override
+    public List<TodoItem> searchTodoItemsByTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            return List.of();
+        }
+        return mergeSorted(scatter(shard -> sorted(shardService.searchTodoItemsByTitle(title), BY_ID)), BY_ID);
+    }
+
+    /**
+     * Fuzzy title search on all shards in parallel. Each shard returns its matches in the order of the trigram
+     * index, which the merge follows; matches the index no longer knows come last, by ID.
+     * @param title The partial title to search for.
+     * @param maxEdits The maximum edit distance.
+     * @return The matching todo items, closest matches first.
+     * @throws IllegalArgumentException if maxEdits is negative or above {@code todo.search.max-fuzziness}.
+     */
+    @Override
+    public List<TodoItem> searchTodoItemsByTitle(String title, int maxEdits) {
+        if (maxEdits == 0) {
+            return searchTodoItemsByTitle(title);
+        }
+        return mergeByTitleRank(scatter(shard -> shardService.searchTodoItemsByTitle(title, maxEdits)),
+                title, maxEdits, TodoItem::getId);
+    }
+
+    @Override
+    public List<TodoItemSummary> searchTodoItemSummariesByTitle(String title, int maxEdits) {
+        List<List<TodoItemSummary>> results = scatter(shard -> shardService.searchTodoItemSummariesByTitle(title, maxEdits));
+        if (maxEdits == 0) {
+            return mergeSorted(results.stream().map(result -> sorted(result, SUMMARY_BY_ID)).toList(), SUMMARY_BY_ID);
+        }
+        return mergeByTitleRank(results, title, maxEdits, TodoItemSummary::id);
+    }
+
+    @Override
+    public List<TodoItem> searchTodoItemsByDescription(String description) {
+        if (description == null || description.trim().isEmpty()) {
+            return List.of();
+        }
+        return mergeSorted(scatter(shard -> sorted(shardService.searchTodoItemsByDescription(description), BY_ID)), BY_ID);
+    }
+
+    @Override
+    public List<TodoItemSummary> searchTodoItemSummariesByDescription(String description) {
+        if (description == null || description.trim().isEmpty()) {
+            return List.of();
+        }
+        return mergeSorted(scatter(shard -> sorted(shardService.searchTodoItemSummariesByDescription(description),
+                SUMMARY_BY_ID)), SUMMARY_BY_ID);
+    }
+
+    @Override
+    public void close() {
+        scatterExecutor.close();
+    }
+
+    /**
+     * K-way merge of lists each sorted by the given order: a heap holds the head of every list, so the
+     * merge costs O(n log k) for n items on k shards.
+     */
+    static <T> List<T> mergeSorted(List<List<T>> sortedLists, Comparator<? super T> order) {
+        record Head<T>(T item, int list, int index) {
+        }
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(1, sortedLists.size()),
+                (a, b) -> order.compare(a.item(), b.item()));
+        int total = 0;
+        for (int list = 0; list < sortedLists.size(); list++) {
+            List<T> sortedList = sortedLists.get(list);
+            if (!sortedList.isEmpty()) {
+                heads.add(new Head<>(sortedList.get(0), list, 0));
+            }
+            total += sortedList.size();
+        }
+        List<T> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            Head<T> head = heads.poll();
+            merged.add(head.item());
+            List<T> sortedList = sortedLists.get(head.list());
+            int next = head.index() + 1;
+            if (next < sortedList.size()) {
+                heads.add(new Head<>(sortedList.get(next), head.list(), next));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Merges the pages of one full-text search, one per shard, by rank.
+     */
+    private static <T> SearchResultPage<T> mergePages(List<SearchResultPage<T>> pages, Comparator<T> byRank) {
+        SearchResultPage<T> first = pages.get(0);
+        List<T> items = mergeSorted(pages.stream().map(SearchResultPage::items).toList(), byRank);
+        return new SearchResultPage<>(items, first.page(), first.size(), first.total());
+    }
+
+    private <T> List<T> mergeByTitleRank(List<List<T>> results, String title, int maxEdits, Function<T, Long> idOf) {
+        Map<Long, Integer> ranks = new HashMap<>();
+        if (title != null && !title.trim().isEmpty() && titleTrigramIndex.isReady()) {
+            List<TitleTrigramIndex.Match> matches = titleTrigramIndex.findSimilar(title, maxEdits);
+            for (int i = 0; i < matches.size(); i++) {
+                ranks.putIfAbsent(matches.get(i).id(), i);
+            }
+        }
+        Comparator<T> byRank = Comparator.<T>comparingInt(row -> ranks.getOrDefault(idOf.apply(row), Integer.MAX_VALUE))
+                .thenComparing(idOf);
+        return mergeSorted(results.stream().map(result -> sorted(result, byRank)).toList(), byRank);
+    }
+
+    private <T> List<T> scatter(IntFunction<T> query) {
+        List<Integer> shards = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.add(shard);
+        }
+        return scatter(shards, query);
+    }
+
+    /**
+     * Runs the query on each of the given shards in parallel, each in its own service call and transaction.
+     * @return The results in the order of the shards.
+     */
+    private <T> List<T> scatter(Collection<Integer> shards, IntFunction<T> query) {
+        List<Future<T>> futures = new ArrayList<>(shards.size());
+        for (int shard : shards) {
+            futures.add(scatterExecutor.submit(() -> ShardContext.on(shard, () -> query.apply(shard))));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the shards.", ex);
+        } catch (ExecutionException ex) {
+            futures.forEach(future -> future.cancel(true));
+            // Surface the shard's own exception, e.g. a validation error or ResourceNotFoundException
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+        return results;
+    }
+
+    private static <T> T onShard(int shard, Supplier<T> work) {
+        return ShardContext.on(shard, work);
+    }
+
+    private int nextShard() {
+        return Math.floorMod(nextShard.getAndIncrement(), shardCount);
+    }
+
+    /**
+     * @return The shard of the ID, or -1 if no configured shard can store it.
+     */
+    private int shardOf(Long id) {
+        int shard = id == null ? -1 : ShardIds.shardOf(id);
+        return shard < shardCount ? shard : -1;
+    }
+
+    private int existingShardOf(Long id) {
+        int shard = shardOf(id);
+        if (shard < 0) {
+            throw new ResourceNotFoundException("TodoItem not found with id: " + id);
+        }
+        return shard;
+    }
+
+    /**
+     * Validates the IDs as a whole, like a single database would, and groups them by shard.
+     * IDs no shard can store are left out, as unknown IDs are ignored anyway.
+     */
+    private Map<Integer, List<Long>> groupByShard(Collection<Long> ids) {
+        RequestLimits.requireIds(ids, todoProperties);
+        Map<Integer, List<Long>> byShard = new LinkedHashMap<>();
+        for (Long id : ids) {
+            int shard = shardOf(id);
+            if (shard >= 0) {
+                byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(id);
+            }
+        }
+        return byShard;
+    }
+
+    private static <T> List<T> sorted(List<T> rows, Comparator<? super T> order) {
+        List<T> copy = new ArrayList<>(rows);
+        copy.sort(order);
+        return copy;
+    }
+
+    private static int sum(List<Integer> counts) {
+        return counts.stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -1,41 +1,278 @@
 package dev.sro.task1.service.impl;
 
+import dev.sro.task1.cache.TodoItemCache;
+import dev.sro.task1.concurrency.Coalesced;
+import dev.sro.task1.concurrency.DatabaseAccessLimiter;
+import dev.sro.task1.concurrency.RequestCoalescer;
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.dto.DeletedTodoItem;
+import dev.sro.task1.dto.DeltaSyncPage;
+import dev.sro.task1.dto.MultiGetResult;
+import dev.sro.task1.dto.RankedTodoItem;
+import dev.sro.task1.dto.RankedTodoItemSummary;
+import dev.sro.task1.dto.SearchResultPage;
+import dev.sro.task1.dto.TodoItemSummary;
 import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.entity.TodoItemTombstone;
+import dev.sro.task1.event.TodoItemChange;
+import dev.sro.task1.exception.PreconditionFailedException;
 import dev.sro.task1.exception.ResourceNotFoundException;
 import dev.sro.task1.repository.TodoItemRepository;
+import dev.sro.task1.repository.TodoItemTombstoneRepository;
+import dev.sro.task1.routing.ReadYourWrites;
+import dev.sro.task1.search.TitleTrigramIndex;
+import dev.sro.task1.search.TodoSearchIndex;
 import dev.sro.task1.service.TodoItemService;
+import dev.sro.task1.util.CursorCodec;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Every public method is timed as {@code todo.service}, tagged with its class, method and exception
+ * class; none of them depends on the arguments, so the number of series stays fixed.
+ * Concurrent identical searches ({@link Coalesced}) share one execution, and with it one connection.
+ */
 @Service 
 @Transactional 
+@Profile("!reactive") // Replaced by ReactiveTodoItemServiceImpl
+@Timed(value = "todo.service", description = "Time spent in TodoItemService methods")
 public class TodoItemServiceImpl implements TodoItemService {
 
+    private static final int MAX_TITLE_LENGTH = 255;
     private final TodoItemRepository todoItemRepository;
+    private final TodoItemTombstoneRepository todoItemTombstoneRepository;
+    private final TodoProperties todoProperties;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TodoSearchIndex todoSearchIndex;
+    private final TitleTrigramIndex titleTrigramIndex;
+    private final TodoItemCache todoItemCache;
+    private final DatabaseAccessLimiter databaseAccessLimiter;
+    private final RequestCoalescer requestCoalescer;
+    private final Projection<TodoItem> items;
+    private final Projection<TodoItemSummary> summaries;
 
-    public TodoItemServiceImpl(TodoItemRepository todoItemRepository) {
+    public TodoItemServiceImpl(TodoItemRepository todoItemRepository,
+                               TodoItemTombstoneRepository todoItemTombstoneRepository, TodoProperties todoProperties,
+                               EntityManager entityManager, ApplicationEventPublisher eventPublisher,
+                               TodoSearchIndex todoSearchIndex, TitleTrigramIndex titleTrigramIndex,
+                               TodoItemCache todoItemCache, DatabaseAccessLimiter databaseAccessLimiter,
+                               RequestCoalescer requestCoalescer) {
         this.todoItemRepository = todoItemRepository;
+        this.todoItemTombstoneRepository = todoItemTombstoneRepository;
+        this.todoProperties = todoProperties;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.todoSearchIndex = todoSearchIndex;
+        this.titleTrigramIndex = titleTrigramIndex;
+        this.todoItemCache = todoItemCache;
+        this.databaseAccessLimiter = databaseAccessLimiter;
+        this.requestCoalescer = requestCoalescer;
+        this.items = new Projection<>(todoItemRepository::findByIdGreaterThanOrderByIdAsc, todoItemRepository::findAllByIdIn,
+                todoItemRepository::findByTitleLike, todoItemRepository::findByDescriptionLike, TodoItem::getId);
+        this.summaries = new Projection<>(todoItemRepository::findSummariesByIdGreaterThanOrderByIdAsc,
+                todoItemRepository::findSummariesByIdIn, todoItemRepository::findSummariesByTitleLike,
+                todoItemRepository::findSummariesByDescriptionLike, TodoItemSummary::id);
     }
 
     /**
-     * Retrieves all todo items from the database.
+     * Retrieves all todo items from the database, in ID order.
      * @return A list of all TodoItem objects.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<TodoItem> getAllTodoItems() {
-        return todoItemRepository.findAll();
+        return todoItemRepository.findAllByOrderByIdAsc();
     }
 
     /**
-     * Retrieves a single todo item by its ID.
+     * Retrieves one page of todo items ordered by ID.
+     * Seeks on {@code id > lastId} instead of using an OFFSET, so deep pages cost the same as the first one.
+     * One extra row is fetched to find out whether a following page exists.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @return A page of TodoItem objects and the cursor of the following page, if any.
+     * @throws IllegalArgumentException if the cursor is malformed or the size is not positive.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TodoItem> getTodoItemPage(String cursor, Integer size) {
+        return page(cursor, size, items);
+    }
+
+    /**
+     * Retrieves one page of todo item summaries ordered by ID, like {@link #getTodoItemPage(String, Integer)}
+     * but without reading the description column.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @return A page of summaries and the cursor of the following page, if any.
+     * @throws IllegalArgumentException if the cursor is malformed or the size is not positive.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TodoItemSummary> getTodoItemSummaryPage(String cursor, Integer size) {
+        return page(cursor, size, summaries);
+    }
+
+    /**
+     * Retrieves one page of the changes after a delta sync position: the items changed and the items deleted
+     * (their tombstones) in the window, each read by a range scan of its {@code (time, id)} index and merged.
+     * One extra row of each is fetched to find out whether more changes follow. A first sync skips the
+     * tombstones, since the client has nothing to delete.
+     * @param since The {@code next} position of the previous page or sync, or null for a first sync.
+     * @param size The requested page size, or null for the default.
+     * @return The changed items, the deleted ones and the position to sync from next.
+     * @throws IllegalArgumentException if the position is malformed or the size is not positive.
+     * @throws dev.sro.task1.exception.SyncExpiredException if the position is older than the tombstone retention.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public DeltaSyncPage getChangesSince(String since, Integer size) {
+        return getChangesSince(since, size, TodoItem.now());
+    }
+
+    /**
+     * Like {@link #getChangesSince(String, Integer)} at the given time, so that every shard of a sharded sync
+     * reads the same window.
+     */
+    @Transactional(readOnly = true)
+    public DeltaSyncPage getChangesSince(String since, Integer size, Instant now) {
+        int pageSize = RequestLimits.resolvePageSize(size, todoProperties);
+        TodoProperties.Sync settings = todoProperties.getSync();
+        DeltaSync.Position from = DeltaSync.from(since, now, settings);
+        Instant until = DeltaSync.until(now, settings);
+        List<TodoItem> changed = todoItemRepository.findChangedAfter(from.at(), from.id(), until, Limit.of(pageSize + 1));
+        List<DeletedTodoItem> deleted = from.equals(DeltaSync.Position.START)
+                ? List.of()
+                : todoItemTombstoneRepository.findDeletedAfter(from.at(), from.id(), until, Limit.of(pageSize + 1));
+        return DeltaSync.page(from, until, changed, deleted, pageSize, false);
+    }
+
+    /**
+     * Purges the oldest tombstones with one query for their IDs and one DELETE.
+     * @param deletedBefore The end of the window, exclusive.
+     * @param limit The maximum number of tombstones to purge.
+     * @return The number of purged tombstones.
+     */
+    @Override
+    public int purgeTombstones(Instant deletedBefore, int limit) {
+        List<Long> ids = todoItemTombstoneRepository.findIdsDeletedBefore(deletedBefore, Limit.of(limit));
+        return ids.isEmpty() ? 0 : todoItemTombstoneRepository.deleteAllByIdIn(ids);
+    }
+
+    /**
+     * Streams every todo item to the consumer inside a single read-only transaction.
+     * The items are not managed entities, so the persistence context stays empty however many are read.
+     * @param consumer Receives each TodoItem.
+     * @return The number of exported todo items.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTodoItems(Consumer<TodoItem> consumer) {
+        long count = 0;
+        try (Stream<TodoItem> todoItems = todoItemRepository.streamAllByOrderByIdAsc()) {
+            for (TodoItem todoItem : (Iterable<TodoItem>) todoItems::iterator) {
+                consumer.accept(todoItem);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves a single todo item by its ID, through the read-through cache.
+     * Does not start a transaction of its own, so a cache hit never takes a database connection or a
+     * database access permit. On a miss the permit is taken before entering the cache's load, so that
+     * no caller waits for it while holding the cache entry. Misses are loaded from the primary database
+     * even with read replicas, so that a lagging replica never puts an old version into the cache, and
+     * with their description, as the cached item is used outside any persistence context. Concurrent misses
+     * of the same ID share one load, through the {@link RequestCoalescer}, before any of them takes a permit.
      * @param id The ID of the todo item to retrieve.
      * @return An Optional containing the TodoItem if found, or empty if not.
      */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<TodoItem> getTodoItemById(Long id) {
-        return todoItemRepository.findById(id);
+        Optional<TodoItem> cached = todoItemCache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        return requestCoalescer.load("getTodoItemById", List.of(id),
+                () -> databaseAccessLimiter.call(() -> todoItemCache.get(id,
+                        key -> ReadYourWrites.onPrimary(() -> todoItemRepository.findWithDescriptionById(key)))));
+    }
+
+    /**
+     * Retrieves the version of a todo item from the cache if it holds the item, otherwise with a
+     * query that reads the version column alone.
+     * @param id The ID of the todo item.
+     * @return An Optional containing the current version if the item exists, or empty if not.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Long> getTodoItemVersion(Long id) {
+        return todoItemCache.getVersion(id, key -> databaseAccessLimiter.call(() -> todoItemRepository.findVersionById(key)));
+    }
+
+    /**
+     * Retrieves many todo items by ID, like {@link #getTodoItemById(Long)} but in one go. IDs in the cache are
+     * answered from it; the others are read from the primary database with IN queries of up to 1000 IDs, under
+     * a single database access permit, and cached unless a change committed meanwhile. Like a cache hit, a
+     * request that the cache answers entirely takes neither a permit nor a connection.
+     * @param ids The IDs of the todo items; duplicates are returned once.
+     * @return The todo items in request order, and the IDs without a todo item.
+     * @throws IllegalArgumentException if no ID is given, an ID is null or there are more than the configured maximum.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public MultiGetResult<TodoItem> getTodoItemsByIds(Collection<Long> ids) {
+        if (ids != null && ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Todo item ids cannot be null.");
+        }
+        List<Long> distinctIds = RequestLimits.flatten(RequestLimits.chunkIds(ids, todoProperties));
+        Map<Long, Optional<TodoItem>> found = new HashMap<>(distinctIds.size() * 2);
+        List<Long> misses = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Optional<TodoItem> cached = todoItemCache.getIfPresent(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            found.putAll(databaseAccessLimiter.call(() -> todoItemCache.loadAll(misses,
+                    chunk -> ReadYourWrites.onPrimary(() -> findWithDescriptionByIds(chunk)))));
+        }
+
+        List<TodoItem> todoItems = new ArrayList<>(distinctIds.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinctIds) {
+            found.get(id).ifPresentOrElse(todoItems::add, () -> missing.add(id));
+        }
+        return new MultiGetResult<>(todoItems, missing);
     }
 
     /**
@@ -48,16 +285,69 @@ public class TodoItemServiceImpl implements TodoItemService {
     @Override
     public TodoItem createTodoItem(TodoItem todoItem) {
         // Basic validation: Title must not be null or empty
-        if (todoItem.getTitle() == null || todoItem.getTitle().trim().isEmpty()) {
-            throw new IllegalArgumentException("Todo item title cannot be null or empty.");
+        String error = validateForCreate(todoItem);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
         }
+        // Always insert a new row, whatever ID or version the caller sent
+        todoItem.setId(null);
+        todoItem.setVersion(null);
         // Save the new todo item
-        return todoItemRepository.save(todoItem);
+        TodoItem savedTodoItem = todoItemRepository.save(todoItem);
+        eventPublisher.publishEvent(new TodoItemChange.Saved(List.of(savedTodoItem)));
+        return savedTodoItem;
+    }
+
+    /**
+     * Creates many todo items in one transaction.
+     * Valid items are saved in chunks of {@code todo.batch.flush-size}; after each chunk the persistence
+     * context is flushed, which Hibernate sends as one JDBC batch, and then cleared so memory stays bounded.
+     * @param todoItems The TodoItem objects to create.
+     * @return The generated IDs of the stored items and the reasons the others were rejected.
+     * @throws IllegalArgumentException if the list is empty or larger than the configured maximum.
+     */
+    @Override
+    public BatchCreateResult createTodoItems(List<TodoItem> todoItems) {
+        if (todoItems == null || todoItems.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one todo item.");
+        }
+        TodoProperties.Batch batch = todoProperties.getBatch();
+        if (todoItems.size() > batch.getMaxItems()) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + batch.getMaxItems() + " todo items.");
+        }
+
+        List<BatchCreateResult.Created> created = new ArrayList<>();
+        List<BatchCreateResult.Failed> failed = new ArrayList<>();
+        List<TodoItem> saved = new ArrayList<>();
+        List<TodoItem> chunk = new ArrayList<>(batch.getFlushSize());
+        List<Integer> chunkIndexes = new ArrayList<>(batch.getFlushSize());
+
+        for (int i = 0; i < todoItems.size(); i++) {
+            TodoItem todoItem = todoItems.get(i);
+            String error = validateForCreate(todoItem);
+            if (error != null) {
+                failed.add(new BatchCreateResult.Failed(i, error));
+                continue;
+            }
+            todoItem.setId(null); // Always insert; never merge into an existing row
+            todoItem.setVersion(null);
+            chunk.add(todoItem);
+            chunkIndexes.add(i);
+            if (chunk.size() == batch.getFlushSize()) {
+                saveChunk(chunk, chunkIndexes, created, saved);
+            }
+        }
+        saveChunk(chunk, chunkIndexes, created, saved);
+        if (!saved.isEmpty()) {
+            eventPublisher.publishEvent(new TodoItemChange.Saved(saved));
+        }
+        return new BatchCreateResult(created, failed);
     }
 
     /**
      * Updates an existing todo item.
      * Fetches the existing item, updates its fields, and then saves it.
+     * The old description is never read: it is lazy, and overwritten before being accessed.
      * Handles cases where the item to be updated does not exist.
      * @param id The ID of the todo item to update.
      * @param todoItemDetails The TodoItem object containing the updated details.
@@ -82,49 +372,423 @@ public class TodoItemServiceImpl implements TodoItemService {
         existingTodoItem.setDescription(todoItemDetails.getDescription());
 
         // Save the updated todo item
-        return todoItemRepository.save(existingTodoItem);
+        TodoItem updatedTodoItem = todoItemRepository.save(existingTodoItem);
+        eventPublisher.publishEvent(new TodoItemChange.Saved(List.of(updatedTodoItem)));
+        return updatedTodoItem;
+    }
+
+    /**
+     * Updates an existing todo item if it is still at one of the expected versions.
+     * Issues a single conditional UPDATE instead of loading and merging the entity; only when no row
+     * was updated is the item looked up again, to tell a missing item from a concurrent modification.
+     * @param id The ID of the todo item to update.
+     * @param todoItemDetails The TodoItem object containing the updated details.
+     * @param expectedVersions The versions the caller last saw.
+     * @return The updated TodoItem object, with its new version.
+     * @throws ResourceNotFoundException if the todo item with the given ID is not found.
+     * @throws PreconditionFailedException if the todo item is at another version.
+     * @throws IllegalArgumentException if the title in todoItemDetails is null or empty.
+     */
+    @Override
+    public TodoItem updateTodoItem(Long id, TodoItem todoItemDetails, Collection<Long> expectedVersions) {
+        if (todoItemDetails.getTitle() == null || todoItemDetails.getTitle().trim().isEmpty()) {
+            throw new IllegalArgumentException("Updated todo item title cannot be null or empty.");
+        }
+        Instant now = TodoItem.now();
+        if (expectedVersions.isEmpty()
+                || todoItemRepository.updateIfVersionIn(id, todoItemDetails.getTitle(),
+                        todoItemDetails.getDescription(), expectedVersions, now) == 0) {
+            Optional<Long> currentVersion = todoItemRepository.findVersionById(id);
+            if (currentVersion.isEmpty()) {
+                throw new ResourceNotFoundException("TodoItem not found with id: " + id);
+            }
+            throw new PreconditionFailedException("TodoItem " + id + " is at version " + currentVersion.get()
+                    + ", not at the expected one.");
+        }
+
+        TodoItem updatedTodoItem = new TodoItem(todoItemDetails.getTitle(), todoItemDetails.getDescription());
+        updatedTodoItem.setId(id);
+        updatedTodoItem.setVersion(expectedVersions.size() == 1
+                ? expectedVersions.iterator().next() + 1
+                : todoItemRepository.findVersionById(id).orElseThrow());
+        updatedTodoItem.setUpdatedAt(now);
+        eventPublisher.publishEvent(new TodoItemChange.Saved(List.of(updatedTodoItem)));
+        return updatedTodoItem;
     }
 
     /**
      * Deletes a todo item by its ID.
-     * Checks if the item exists before attempting to delete it.
+     * Issues a single DELETE and uses the affected-row count to detect a missing item,
+     * instead of checking for existence and loading the entity first. Leaves a tombstone for the delta sync.
      * @param id The ID of the todo item to delete.
      * @throws ResourceNotFoundException if the todo item with the given ID is not found.
      */
     @Override
     public void deleteTodoItem(Long id) {
-        // Check if the todo item exists before deleting
-        if (!todoItemRepository.existsById(id)) {
+        if (todoItemRepository.deleteAllByIdIn(List.of(id)) == 0) {
             throw new ResourceNotFoundException("TodoItem not found with id: " + id);
         }
-        todoItemRepository.deleteById(id);
+        writeTombstones(List.of(id));
+        eventPublisher.publishEvent(new TodoItemChange.Deleted(List.of(id)));
+    }
+
+    /**
+     * Deletes the todo items with the given IDs, one locking SELECT and one DELETE statement per chunk of IDs
+     * (see {@link #deleteExisting(List)}).
+     * @param ids The IDs of the todo items to delete.
+     * @return The number of deleted todo items.
+     * @throws IllegalArgumentException if no ID is given or more than the configured maximum.
+     */
+    @Override
+    public int deleteTodoItems(Collection<Long> ids) {
+        List<Long> deleted = new ArrayList<>();
+        for (List<Long> chunk : RequestLimits.chunkIds(ids, todoProperties)) {
+            deleted.addAll(deleteExisting(chunk));
+        }
+        if (!deleted.isEmpty()) {
+            eventPublisher.publishEvent(new TodoItemChange.Deleted(deleted));
+        }
+        return deleted.size();
+    }
+
+    /**
+     * Deletes every todo item whose title contains the given text (case-insensitive).
+     * LIKE wildcards in the input are escaped so that, for example, "%" cannot wipe the table.
+     * The matching IDs are read first and deleted by ID, chunk by chunk as in {@link #deleteTodoItems(Collection)},
+     * so that the change event (and the change log) names exactly the items that were deleted.
+     * @param title The partial title to match.
+     * @return The number of deleted todo items.
+     * @throws IllegalArgumentException if the title is null or empty.
+     */
+    @Override
+    public int deleteTodoItemsByTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("Title to delete by cannot be null or empty.");
+        }
+        List<Long> ids = todoItemRepository.findIdsByTitleLike(containsPattern(title));
+        List<Long> deleted = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += RequestLimits.IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + RequestLimits.IN_CLAUSE_CHUNK_SIZE, ids.size());
+            deleted.addAll(deleteExisting(ids.subList(from, to)));
+        }
+        if (!deleted.isEmpty()) {
+            eventPublisher.publishEvent(new TodoItemChange.Deleted(deleted));
+        }
+        return deleted.size();
+    }
+
+    /**
+     * Sets the same description on the todo items with the given IDs, one UPDATE statement per chunk of IDs.
+     * @param ids The IDs of the todo items to update.
+     * @param description The new description; null clears it.
+     * @return The number of updated todo items.
+     * @throws IllegalArgumentException if no ID is given or more than the configured maximum.
+     */
+    @Override
+    public int updateTodoItemDescriptions(Collection<Long> ids, String description) {
+        List<List<Long>> chunks = RequestLimits.chunkIds(ids, todoProperties);
+        Instant now = TodoItem.now();
+        int updated = 0;
+        for (List<Long> chunk : chunks) {
+            updated += todoItemRepository.updateDescriptionByIdIn(chunk, description, now);
+        }
+        if (updated > 0) {
+            eventPublisher.publishEvent(new TodoItemChange.DescriptionUpdated(RequestLimits.flatten(chunks), description));
+        }
+        return updated;
+    }
+
+    /**
+     * Full-text search over titles and descriptions, ranked with BM25 by the in-process index.
+     * Only the IDs of the requested page are looked up in the database, with a single query;
+     * items deleted since they were ranked are skipped.
+     * @param query Free text to search for.
+     * @param page The zero-based page number, or null for the first page.
+     * @param size The page size, or null for the default.
+     * @return The requested page of ranked results.
+     * @throws IllegalArgumentException if the page is negative or the size is not positive.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Coalesced
+    public SearchResultPage<RankedTodoItem> searchTodoItems(String query, Integer page, Integer size) {
+        return search(query, page, size, items, RankedTodoItem::new);
+    }
+
+    /**
+     * Full-text search like {@link #searchTodoItems(String, Integer, Integer)}, loading summaries of the
+     * requested page only.
+     * @param query Free text to search for.
+     * @param page The zero-based page number, or null for the first page.
+     * @param size The page size, or null for the default.
+     * @return The requested page of ranked summaries.
+     * @throws IllegalArgumentException if the page is negative or the size is not positive.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Coalesced
+    public SearchResultPage<RankedTodoItemSummary> searchTodoItemSummaries(String query, Integer page, Integer size) {
+        return search(query, page, size, summaries, RankedTodoItemSummary::new);
     }
 
     /**
      * Searches for todo items by a partial match in their title (case-insensitive).
-     * Delegates to the custom query method in the repository.
+     * Answered by the in-process trigram index when it is enabled and built, loading only the matching
+     * rows by ID; otherwise by a LIKE query in the repository.
      * @param title The partial title to search for.
      * @return A list of TodoItem objects matching the search criteria.
      */
     @Override
+    @Transactional(readOnly = true)
+    @Coalesced
     public List<TodoItem> searchTodoItemsByTitle(String title) {
-        if (title == null || title.trim().isEmpty()) {
-            return List.of(); // Return empty list if search query is empty
-        }
-        return todoItemRepository.findByTitleContainingIgnoreCase(title);
+        return searchByTitle(title, 0, items);
+    }
+
+    /**
+     * Searches for todo items whose title contains the given text with up to {@code maxEdits} typos
+     * (insertions, deletions or substitutions), ignoring case and accents.
+     * Needs the trigram index; while it is disabled or not built yet, only exact matches are returned.
+     * @param title The partial title to search for.
+     * @param maxEdits The maximum edit distance; 0 is the same as {@link #searchTodoItemsByTitle(String)}.
+     * @return The matching todo items, closest matches first.
+     * @throws IllegalArgumentException if maxEdits is negative or above {@code todo.search.max-fuzziness}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Coalesced
+    public List<TodoItem> searchTodoItemsByTitle(String title, int maxEdits) {
+        return searchByTitle(title, maxEdits, items);
+    }
+
+    /**
+     * Title search like {@link #searchTodoItemsByTitle(String, int)}, returning summaries.
+     * @param title The partial title to search for.
+     * @param maxEdits The maximum edit distance; 0 for exact matches.
+     * @return Summaries of the matching todo items, closest matches first.
+     * @throws IllegalArgumentException if maxEdits is negative or above {@code todo.search.max-fuzziness}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Coalesced
+    public List<TodoItemSummary> searchTodoItemSummariesByTitle(String title, int maxEdits) {
+        return searchByTitle(title, maxEdits, summaries);
     }
 
     /**
-     * Searches for todo items by a partial match in their description (case-insensitive).
-     * Delegates to the custom query method in the repository.
+     * Searches for todo items by a partial match in their description (case-insensitive), with a LIKE query.
      * @param description The partial description to search for.
      * @return A list of TodoItem objects matching the search criteria.
      */
     @Override
+    @Transactional(readOnly = true)
+    @Coalesced
     public List<TodoItem> searchTodoItemsByDescription(String description) {
+        return searchByDescription(description, items);
+    }
+
+    /**
+     * Description search like {@link #searchTodoItemsByDescription(String)}; the descriptions are only
+     * compared in the database, never sent back.
+     * @param description The partial description to search for.
+     * @return Summaries of the matching todo items.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Coalesced
+    public List<TodoItemSummary> searchTodoItemSummariesByDescription(String description) {
+        return searchByDescription(description, summaries);
+    }
+
+    /**
+     * Seeks on {@code id > lastId} instead of using an OFFSET, so deep pages cost the same as the first one.
+     * One extra row is fetched to find out whether a following page exists.
+     */
+    private <T> CursorPage<T> page(String cursor, Integer size, Projection<T> projection) {
+        int pageSize = RequestLimits.resolvePageSize(size, todoProperties);
+        long lastId = (cursor == null || cursor.isBlank()) ? 0L : CursorCodec.decode(cursor, 1)[0];
+
+        List<T> rows = projection.pageAfter().apply(lastId, Limit.of(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null); // Last page
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, CursorCodec.encode(projection.id().apply(page.get(pageSize - 1))));
+    }
+
+    /**
+     * Ranks with BM25 in the in-process index. Only the IDs of the requested page are looked up in the
+     * database, with a single query; items deleted since they were ranked are skipped.
+     */
+    private <T, R> SearchResultPage<R> search(String query, Integer page, Integer size, Projection<T> projection,
+                                              BiFunction<T, Double, R> ranked) {
+        int pageSize = RequestLimits.resolvePageSize(size, todoProperties);
+        int pageNumber = page == null ? 0 : page;
+        if (pageNumber < 0 || (long) pageNumber * pageSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page number is out of range.");
+        }
+        if (query == null || query.trim().isEmpty()) {
+            return new SearchResultPage<>(List.of(), pageNumber, pageSize, 0);
+        }
+
+        TodoSearchIndex.SearchHits hits = todoSearchIndex.search(query, pageNumber * pageSize, pageSize);
+        List<Long> ids = hits.hits().stream().map(TodoSearchIndex.Hit::id).toList();
+        Map<Long, T> byId = projection.byIds().apply(ids).stream()
+                .collect(Collectors.toMap(projection.id(), Function.identity()));
+
+        List<R> results = new ArrayList<>(ids.size());
+        for (TodoSearchIndex.Hit hit : hits.hits()) {
+            T row = byId.get(hit.id());
+            if (row != null) {
+                results.add(ranked.apply(row, hit.score()));
+            }
+        }
+        return new SearchResultPage<>(results, pageNumber, pageSize, hits.total());
+    }
+
+    private <T> List<T> searchByTitle(String title, int maxEdits, Projection<T> projection) {
+        int maxFuzziness = todoProperties.getSearch().getMaxFuzziness();
+        if (maxEdits < 0 || maxEdits > maxFuzziness) {
+            throw new IllegalArgumentException("Fuzziness must be between 0 and " + maxFuzziness + ".");
+        }
+        if (title == null || title.trim().isEmpty()) {
+            return List.of(); // Return empty list if search query is empty
+        }
+        if (!useTrigramIndex()) {
+            return projection.byTitleLike().apply(containsPattern(title));
+        }
+        List<Long> ids = maxEdits == 0
+                ? titleTrigramIndex.findContaining(title)
+                : titleTrigramIndex.findSimilar(title, maxEdits).stream().map(TitleTrigramIndex.Match::id).toList();
+        return findAllByIdInOrder(ids, projection);
+    }
+
+    private <T> List<T> searchByDescription(String description, Projection<T> projection) {
         if (description == null || description.trim().isEmpty()) {
             return List.of(); // Return empty list if search query is empty
         }
-        return todoItemRepository.findByDescriptionContainingIgnoreCase(description);
+        return projection.byDescriptionLike().apply(containsPattern(description));
+    }
+
+    private void saveChunk(List<TodoItem> chunk, List<Integer> chunkIndexes, List<BatchCreateResult.Created> created,
+                           List<TodoItem> saved) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<TodoItem> savedChunk = todoItemRepository.saveAll(chunk);
+        todoItemRepository.flush();
+        entityManager.clear();
+        for (int i = 0; i < savedChunk.size(); i++) {
+            created.add(new BatchCreateResult.Created(chunkIndexes.get(i), savedChunk.get(i).getId()));
+        }
+        saved.addAll(savedChunk);
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    /**
+     * Deletes those of the todo items that exist and leaves their tombstones. Their rows are locked first, which
+     * tells which ones the DELETE removes: a concurrent delete of the same items waits, then finds none of them,
+     * so every deleted item gets exactly one tombstone.
+     * @return The IDs of the deleted todo items.
+     */
+    private List<Long> deleteExisting(List<Long> ids) {
+        List<Long> existing = todoItemRepository.lockIdsByIdIn(ids);
+        if (existing.isEmpty()) {
+            return existing;
+        }
+        todoItemRepository.deleteAllByIdIn(existing);
+        writeTombstones(existing);
+        return existing;
+    }
+
+    /**
+     * Persists a tombstone per ID, flushed as JDBC batches of {@code todo.batch.flush-size} and then cleared
+     * from the persistence context, as in {@link #saveChunk}.
+     */
+    private void writeTombstones(List<Long> ids) {
+        Instant deletedAt = TodoItem.now();
+        int flushSize = todoProperties.getBatch().getFlushSize();
+        for (int i = 0; i < ids.size(); i++) {
+            entityManager.persist(new TodoItemTombstone(ids.get(i), deletedAt));
+            if ((i + 1) % flushSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+    }
+
+    /**
+     * Checks a todo item about to be created.
+     * @return The validation error message, or null if the item is valid.
+     */
+    static String validateForCreate(TodoItem todoItem) {
+        if (todoItem == null || todoItem.getTitle() == null || todoItem.getTitle().trim().isEmpty()) {
+            return "Todo item title cannot be null or empty.";
+        }
+        if (todoItem.getTitle().length() > MAX_TITLE_LENGTH) {
+            return "Todo item title cannot be longer than " + MAX_TITLE_LENGTH + " characters.";
+        }
+        return null;
+    }
+
+    private boolean useTrigramIndex() {
+        return todoProperties.getSearch().isTrigramEnabled() && titleTrigramIndex.isReady();
+    }
+
+    /**
+     * Loads the rows with the given IDs, one query per chunk of IDs, in the order of the IDs.
+     * IDs without a row (deleted since they were looked up) are skipped.
+     */
+    private <T> List<T> findAllByIdInOrder(List<Long> ids, Projection<T> projection) {
+        Map<Long, T> byId = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += RequestLimits.IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + RequestLimits.IN_CLAUSE_CHUNK_SIZE, ids.size()));
+            projection.byIds().apply(chunk).forEach(row -> byId.put(projection.id().apply(row), row));
+        }
+        List<T> rows = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Reads todo items with their description, {@value RequestLimits#IN_CLAUSE_CHUNK_SIZE} IDs per query.
+     * @return A result for every given ID, empty for those without a row.
+     */
+    private Map<Long, Optional<TodoItem>> findWithDescriptionByIds(List<Long> ids) {
+        Map<Long, Optional<TodoItem>> found = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += RequestLimits.IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + RequestLimits.IN_CLAUSE_CHUNK_SIZE, ids.size()));
+            todoItemRepository.findAllByIdIn(chunk).forEach(todoItem -> found.put(todoItem.getId(), Optional.of(todoItem)));
+        }
+        ids.forEach(id -> found.putIfAbsent(id, Optional.empty()));
+        return found;
+    }
+
+    /**
+     * Builds a lower-cased LIKE pattern matching any title containing the given text,
+     * escaping LIKE wildcards with {@code !} (see {@link TodoItemRepository#findByTitleLike(String)}).
+     */
+    static String containsPattern(String text) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * The repository queries reading one shape of todo item: whole items, or summaries without the description.
+     */
+    private record Projection<T>(BiFunction<Long, Limit, List<T>> pageAfter,
+                                 Function<Collection<Long>, List<T>> byIds,
+                                 Function<String, List<T>> byTitleLike,
+                                 Function<String, List<T>> byDescriptionLike,
+                                 Function<T, Long> id) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package dev.sro.task1.service.impl;
+
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.service.TodoItemService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purges the tombstones of deleted todo items once they are older than {@code todo.sync.tombstone-retention},
+ * every {@code todo.sync.purge-interval}, through {@link TodoItemService#purgeTombstones(Instant, int)} so that
+ * every shard is purged. Each chunk is its own short transaction. Purged tombstones are counted as
+ * {@code todo.sync.tombstones.purged}.
+ */
+@Component
+@Profile("!reactive") // Purges through the servlet stack's TodoItemService
+public class TombstoneReaper implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TombstoneReaper.class);
+
+    // Tombstones purged per statement
+    private static final int PURGE_CHUNK_SIZE = 1000;
+
+    private final TodoItemService todoItemService;
+    private final TodoProperties.Sync settings;
+    private final Counter purged;
+    private volatile ScheduledExecutorService executor;
+
+    public TombstoneReaper(TodoItemService todoItemService, TodoProperties todoProperties, MeterRegistry meterRegistry) {
+        this.todoItemService = todoItemService;
+        this.settings = todoProperties.getSync();
+        this.purged = Counter.builder("todo.sync.tombstones.purged")
+                .description("Tombstones of deleted todo items purged after the retention")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Purges every tombstone older than the retention, chunk by chunk.
+     * @param now The current time.
+     * @return The number of purged tombstones.
+     */
+    public long purge(Instant now) {
+        Instant deletedBefore = now.minus(settings.getTombstoneRetention());
+        long total = 0;
+        int count;
+        do {
+            count = todoItemService.purgeTombstones(deletedBefore, PURGE_CHUNK_SIZE);
+            total += count;
+        } while (count > 0);
+        purged.increment(total);
+        return total;
+    }
+
+    @Override
+    public void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("todo-tombstone-purge").daemon(true).factory());
+        long interval = settings.getPurgeInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::runPurge, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService scheduled = executor;
+        if (scheduled != null) {
+            scheduled.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    private void runPurge() {
+        try {
+            long count = purge(Instant.now());
+            if (count > 0) {
+                log.info("Purged {} tombstones of deleted todo items.", count);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not purge the tombstones of deleted todo items.", ex);
+        }
+    }
+}
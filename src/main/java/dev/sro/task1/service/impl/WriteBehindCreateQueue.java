@@ -0,0 +1,244 @@
+package dev.sro.task1.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.CreateRequestStatus;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.exception.CreateQueueFullException;
+import dev.sro.task1.service.TodoItemService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind queue for asynchronous creates ({@code POST /api/todos} with {@code Prefer: respond-async},
+ * enabled with {@code todo.write-behind.enabled}).
+ * <p>
+ * Items are validated and put in a bounded queue; the caller gets a tracking id right away and HTTP 429 once
+ * the queue is full. A single flusher thread coalesces the queued items into batches of up to
+ * {@code todo.write-behind.max-batch-size}, or whatever arrived within {@code todo.write-behind.max-delay} of
+ * the first one, and stores each batch with {@link TodoItemService#createTodoItems(List)}: one transaction,
+ * one permit of the database access limit and batched inserts, instead of one of each per item.
+ * <p>
+ * Queued items only live in memory. On shutdown the queue stops accepting items once the web server has
+ * stopped taking requests, and the flusher stores what is left before the connection pool closes.
+ * The queue length is published as the {@code todo.write-behind.queue.size} gauge, the number of items per
+ * stored batch as the {@code todo.write-behind.batch.size} summary.
+ */
+@Component
+@Profile("!reactive") // Stores through the servlet stack's TodoItemService
+public class WriteBehindCreateQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindCreateQueue.class);
+
+    // How often an idle flusher checks whether it should stop
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final TodoItemService todoItemService;
+    private final TodoProperties.WriteBehind settings;
+    private final BlockingQueue<Pending> queue;
+    private final Cache<String, CreateRequestStatus> statuses;
+    private final DistributionSummary batchSizes;
+    // Enqueuing holds the read lock, so once stop() has taken the write lock nothing more can be added
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private volatile boolean accepting;
+    private volatile Thread flusher;
+
+    public WriteBehindCreateQueue(TodoItemService todoItemService, TodoProperties todoProperties,
+                                  MeterRegistry meterRegistry) {
+        this.todoItemService = todoItemService;
+        this.settings = todoProperties.getWriteBehind();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, settings.getCapacity()));
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumStatuses())
+                .expireAfterWrite(settings.getStatusRetention())
+                .build();
+        Gauge.builder("todo.write-behind.queue.size", queue, BlockingQueue::size)
+                .description("Todo items waiting to be stored")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("todo.write-behind.batch.size")
+                .description("Todo items stored per write-behind batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return Whether asynchronous creates are enabled; when not, {@link #enqueue(TodoItem)} refuses every item.
+     */
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Validates a todo item and queues it for creation.
+     * @param todoItem The TodoItem object to create; its ID and version are ignored.
+     * @return The {@link CreateRequestStatus.State#QUEUED} status with the tracking id of the item.
+     * @throws IllegalArgumentException if the title is null, empty or too long.
+     * @throws CreateQueueFullException if the queue is full or not accepting items.
+     */
+    public CreateRequestStatus enqueue(TodoItem todoItem) {
+        String error = TodoItemServiceImpl.validateForCreate(todoItem);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        todoItem.setId(null);
+        todoItem.setVersion(null);
+        CreateRequestStatus status = CreateRequestStatus.queued(UUID.randomUUID().toString());
+
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new CreateQueueFullException("Asynchronous creates are not being accepted.");
+            }
+            // Recorded first so that the flusher's outcome can never be overwritten by QUEUED
+            statuses.put(status.trackingId(), status);
+            if (!queue.offer(new Pending(status.trackingId(), todoItem))) {
+                statuses.invalidate(status.trackingId());
+                throw new CreateQueueFullException("The create queue is full; retry later.");
+            }
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+        return status;
+    }
+
+    /**
+     * @param trackingId The tracking id returned by {@link #enqueue(TodoItem)}.
+     * @return The current status, or empty if the id is unknown or its outcome has expired.
+     */
+    public Optional<CreateRequestStatus> getStatus(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    @Override
+    public void start() {
+        if (!settings.isEnabled() || flusher != null) {
+            return;
+        }
+        accepting = true;
+        flusher = Thread.ofPlatform().name("todo-write-behind").daemon(true).start(this::runFlusher);
+    }
+
+    /**
+     * Stops accepting items and waits, up to {@code todo.write-behind.shutdown-timeout}, for the flusher
+     * to store the queued ones.
+     */
+    @Override
+    public void stop() {
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        Thread thread = flusher;
+        if (thread == null) {
+            return;
+        }
+        try {
+            if (!thread.join(settings.getShutdownTimeout())) {
+                log.warn("Stopped waiting for the write-behind flusher with {} todo items still queued.", queue.size());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flusher = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return flusher != null;
+    }
+
+    /**
+     * Stops after the web server (so no request can still be enqueuing) and before the data source closes.
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    private void runFlusher() {
+        int maxBatchSize = Math.max(1, settings.getMaxBatchSize());
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (accepting || !queue.isEmpty()) {
+                Pending first = queue.poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch, maxBatchSize);
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+            log.warn("Write-behind flusher interrupted with {} todo items queued.", queue.size() + batch.size());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds queued items to the batch until it is full or {@code todo.write-behind.max-delay} has passed;
+     * once stopping, only takes what is already queued.
+     */
+    private void fillBatch(List<Pending> batch, int maxBatchSize) throws InterruptedException {
+        long deadline = System.nanoTime() + settings.getMaxDelay().toNanos();
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() == maxBatchSize || remaining <= 0 || !accepting) {
+                return;
+            }
+            Pending next = queue.poll(Math.min(remaining, IDLE_POLL_NANOS), TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    /**
+     * Stores one batch and records the outcome of each item under its tracking id. If the batch fails
+     * as a whole (e.g. the database is unavailable), every item in it is reported as failed.
+     */
+    private void flush(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        try {
+            BatchCreateResult result = todoItemService.createTodoItems(batch.stream().map(Pending::todoItem).toList());
+            for (BatchCreateResult.Created created : result.created()) {
+                String trackingId = batch.get(created.index()).trackingId();
+                statuses.put(trackingId, CreateRequestStatus.created(trackingId, created.id()));
+            }
+            for (BatchCreateResult.Failed failed : result.failed()) {
+                String trackingId = batch.get(failed.index()).trackingId();
+                statuses.put(trackingId, CreateRequestStatus.failed(trackingId, failed.message()));
+            }
+        } catch (RuntimeException ex) {
+            log.error("Could not store a batch of {} queued todo items.", batch.size(), ex);
+            for (Pending pending : batch) {
+                statuses.put(pending.trackingId(), CreateRequestStatus.failed(pending.trackingId(),
+                        "The todo item could not be stored: " + ex.getMessage()));
+            }
+        }
+    }
+
+    private record Pending(String trackingId, TodoItem todoItem) {
+    }
+}
@@ -0,0 +1,46 @@
+package dev.sro.task1.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread works on: {@link ShardRoutingDataSource} hands out connections to it and
+ * {@link ShardedSequenceGenerator} draws new IDs from its sequence. Shard 0 unless set otherwise, so code
+ * that knows nothing about sharding works on the original database.
+ * <p>
+ * The shard has to be chosen before a transaction begins, since the transaction keeps its connection.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Runs the given work, typically a transactional service call, on one shard.
+     * @param shard The shard to work on.
+     * @param work The work to run.
+     * @return The result of the work.
+     */
+    public static <T> T on(int shard, Supplier<T> work) {
+        Integer outer = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+    }
+
+    /**
+     * @return The shard of the current thread.
+     */
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+}
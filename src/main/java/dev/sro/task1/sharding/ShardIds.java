@@ -0,0 +1,44 @@
+package dev.sro.task1.sharding;
+
+/**
+ * Layout of sharded todo item IDs: the shard number sits above the 48 bits of the shard's own sequence value.
+ * <p>
+ * Shard 0 is the original database, so every ID issued before sharding keeps pointing at it. The IDs of shard
+ * {@code n} all lie in {@code [n * 2^48, (n + 1) * 2^48)}, so ordering by ID is ordering by shard first, and with
+ * at most {@link #MAX_SHARDS} shards every ID stays below 2^53, exact in a JSON number.
+ */
+public final class ShardIds {
+
+    public static final int MAX_SHARDS = 32;
+
+    static final int SHARD_SHIFT = 48;
+    static final long MAX_LOCAL_ID = (1L << SHARD_SHIFT) - 1;
+
+    private ShardIds() {
+    }
+
+    /**
+     * @param shard The shard the row is stored in.
+     * @param localId The value drawn from that shard's sequence.
+     * @return The ID of the row.
+     * @throws IllegalStateException if the local ID no longer fits below the shard bits.
+     */
+    public static long encode(int shard, long localId) {
+        if (localId < 1 || localId > MAX_LOCAL_ID) {
+            throw new IllegalStateException("Sequence value " + localId + " of shard " + shard + " is out of range.");
+        }
+        return ((long) shard << SHARD_SHIFT) | localId;
+    }
+
+    /**
+     * @param id The ID of a todo item.
+     * @return The shard that stores it, or -1 if no shard can (e.g. a negative ID).
+     */
+    public static int shardOf(long id) {
+        if (id < 1) {
+            return -1;
+        }
+        long shard = id >>> SHARD_SHIFT;
+        return shard < MAX_SHARDS ? (int) shard : -1;
+    }
+}
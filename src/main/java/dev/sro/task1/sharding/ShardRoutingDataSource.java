@@ -0,0 +1,67 @@
+package dev.sro.task1.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections to the database of the current thread's shard ({@link ShardContext}).
+ * Shard 0 is also the default, e.g. for Hibernate's bootstrap and schema tooling.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRoutingDataSource.class);
+
+    private final List<? extends DataSource> shards;
+
+    /**
+     * @param shards The databases by shard number; shard 0 first.
+     */
+    public ShardRoutingDataSource(List<? extends DataSource> shards) {
+        if (shards.isEmpty() || shards.size() > ShardIds.MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + ShardIds.MAX_SHARDS + " shards are supported.");
+        }
+        this.shards = shards;
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * @return The number of shards.
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Closes the pools of shards 1 and up. Shard 0 is left open; it is shared with whoever created it.
+     */
+    @Override
+    public void close() {
+        for (int shard = 1; shard < shards.size(); shard++) {
+            if (shards.get(shard) instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    log.warn("Could not close shard {}.", shard, ex);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
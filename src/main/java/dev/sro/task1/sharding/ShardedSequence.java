@@ -0,0 +1,30 @@
+package dev.sro.task1.sharding;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the annotated ID with a {@link ShardedSequenceGenerator} over the given sequence, reserving
+ * {@link #allocationSize()} values per round trip like a pooled {@code @SequenceGenerator}.
+ */
+@Documented
+@IdGeneratorType(ShardedSequenceGenerator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardedSequence {
+
+    /**
+     * The name of the sequence, the same on every shard.
+     */
+    String name();
+
+    /**
+     * How many values one round trip reserves.
+     */
+    int allocationSize() default 50;
+}
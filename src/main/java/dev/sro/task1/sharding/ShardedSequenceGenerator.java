@@ -0,0 +1,62 @@
+package dev.sro.task1.sharding;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate's pooled sequence generator, once per shard: the value is drawn from the {@code todo_items_seq}
+ * of the current thread's shard ({@link ShardContext}), whose connection the session's data source hands out,
+ * and encoded with the shard number ({@link ShardIds}).
+ * <p>
+ * Shard 0 uses the generator's own optimizer and yields the plain sequence value, so without sharding the
+ * IDs are exactly those of a {@code @SequenceGenerator}. Every other shard gets an optimizer of its own, as
+ * each reserves blocks from a different sequence.
+ * <p>
+ * Applied to an ID through {@link ShardedSequence}, which names the sequence and its allocation size. The
+ * annotation is handed over by {@link #initialize} rather than the constructor: Hibernate has Spring create
+ * generators as beans, and Spring would try to inject the constructor's arguments.
+ */
+public class ShardedSequenceGenerator extends SequenceStyleGenerator implements AnnotationBasedGenerator<ShardedSequence> {
+
+    private final Map<Integer, Optimizer> shardOptimizers = new ConcurrentHashMap<>();
+    private ShardedSequence config;
+
+    @Override
+    public void initialize(ShardedSequence annotation, Member member, GeneratorCreationContext context) {
+        this.config = annotation;
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.put(SEQUENCE_PARAM, config.name());
+        parameters.put(INCREMENT_PARAM, String.valueOf(config.allocationSize()));
+        super.configure(type, parameters, serviceRegistry);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        int shard = ShardContext.current();
+        if (shard == 0) {
+            return super.generate(session, object);
+        }
+        Optimizer optimizer = shardOptimizers.computeIfAbsent(shard, key -> {
+            PooledOptimizer pooled = new PooledOptimizer(Long.class, getOptimizer().getIncrementSize());
+            pooled.injectInitialValue(1);
+            return pooled;
+        });
+        long localId = ((Number) optimizer.generate(getDatabaseStructure().buildCallback(session))).longValue();
+        return ShardIds.encode(shard, localId);
+    }
+}
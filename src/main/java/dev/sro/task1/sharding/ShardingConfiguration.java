@@ -0,0 +1,64 @@
+package dev.sro.task1.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import dev.sro.task1.config.TodoProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharding, active once {@code todo.sharding.shards[0].url} is set. Replaces the auto-configured data source
+ * with a {@link ShardRoutingDataSource} over the primary pool ({@code spring.datasource.*}) as shard 0 and one
+ * pool per configured shard. Unlike read/write splitting no lazy proxy is needed: the shard is chosen before
+ * the transaction begins.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("!reactive")
+@ConditionalOnProperty("todo.sharding.shards[0].url")
+public class ShardingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource shardZeroDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(HikariDataSource shardZeroDataSource,
+                                             DataSourceProperties dataSourceProperties,
+                                             TodoProperties todoProperties, MeterRegistry meterRegistry) {
+        if (!todoProperties.getDatasource().getReplicas().isEmpty()) {
+            throw new IllegalStateException("Read replicas (todo.datasource.replicas) cannot be combined with sharding.");
+        }
+        if (todoProperties.getChangeFeed().isEnabled()) {
+            // Every shard would number its own changes; there is no single order to stream them in
+            throw new IllegalStateException("The change feed (todo.change-feed.enabled) cannot be combined with sharding.");
+        }
+        List<TodoProperties.Shard> settings = todoProperties.getSharding().getShards();
+        if (settings.size() >= ShardIds.MAX_SHARDS) {
+            throw new IllegalStateException("At most " + (ShardIds.MAX_SHARDS - 1) + " shards can be added to the primary database.");
+        }
+        List<HikariDataSource> shards = new ArrayList<>();
+        shards.add(shardZeroDataSource);
+        for (TodoProperties.Shard shard : settings) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + shards.size());
+            pool.setJdbcUrl(shard.getUrl());
+            pool.setUsername(shard.getUsername() != null ? shard.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(shard.getPassword() != null ? shard.getPassword() : dataSourceProperties.determinePassword());
+            pool.setMaximumPoolSize(shard.getMaximumPoolSize());
+            pool.setMetricRegistry(meterRegistry);
+            shards.add(pool);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+}
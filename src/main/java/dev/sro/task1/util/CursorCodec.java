@@ -0,0 +1,58 @@
+package dev.sro.task1.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset positions into opaque, URL safe cursor strings and back.
+ * Clients must treat cursors as opaque tokens; the format may change without notice.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = ":";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Encodes the given keyset values into a cursor.
+     * @param values The values of the last row seen, in key order.
+     * @return The opaque cursor string.
+     */
+    public static String encode(long... values) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(values[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode(long...)}.
+     * @param cursor The opaque cursor string.
+     * @param expectedValues The number of keyset values the cursor must contain.
+     * @return The decoded keyset values.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static long[] decode(String cursor, int expectedValues) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(SEPARATOR);
+            if (parts.length != expectedValues) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            long[] values = new long[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Long.parseLong(parts[i]);
+            }
+            return values;
+        } catch (IllegalArgumentException ex) {
+            // Covers both malformed Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor.", ex);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package dev.sro.task1.cache;
+
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.event.TodoItemChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TodoItemCache Unit Tests")
+class TodoItemCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TodoItemCache cache;
+    private Map<Long, Integer> loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TodoItemCache(new TodoProperties(), meterRegistry);
+        loads = new HashMap<>();
+    }
+
+    private Optional<TodoItem> load(Long id) {
+        loads.merge(id, 1, Integer::sum);
+        if (id > 10) {
+            return Optional.empty();
+        }
+        TodoItem todoItem = new TodoItem("Item " + id, null);
+        todoItem.setId(id);
+        return Optional.of(todoItem);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", TodoItemCache.NAME).tag("result", result)
+                .functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("get should load once and then serve hits, including for missing IDs")
+    void get_shouldLoadOnceAndCacheMisses() {
+        Optional<TodoItem> first = cache.get(1L, this::load);
+        Optional<TodoItem> second = cache.get(1L, this::load);
+        cache.get(42L, this::load);
+        Optional<TodoItem> missing = cache.get(42L, this::load);
+
+        assertSame(first.orElseThrow(), second.orElseThrow());
+        assertTrue(missing.isEmpty());
+        assertEquals(Map.of(1L, 1, 42L, 1), loads);
+        assertEquals(2, gets("hit"));
+        assertEquals(2, gets("miss"));
+        assertEquals(2, meterRegistry.get("todo.cache.load").timer().count());
+    }
+
+    @Test
+    @DisplayName("onTodoItemChange should invalidate exactly the changed IDs")
+    void onTodoItemChange_shouldInvalidateChangedIds() {
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(42L, this::load);
+        TodoItem created = new TodoItem("Now exists", null);
+        created.setId(42L);
+
+        cache.onTodoItemChange(new TodoItemChange.Saved(List.of(created)));
+        cache.onTodoItemChange(new TodoItemChange.Deleted(List.of(1L)));
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(42L, this::load);
+
+        assertEquals(Map.of(1L, 2, 2L, 1, 42L, 2), loads);
+    }
+}
@@ -0,0 +1,79 @@
+package dev.sro.task1.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.entity.TodoItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TodoItemJsonModule Unit Tests")
+class TodoItemJsonModuleTest {
+
+    private final ObjectMapper plainMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private ObjectMapper cachingMapper;
+    private TodoItem todo1;
+    private TodoItem todo2;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        TodoItemJsonCache cache = new TodoItemJsonCache(new TodoProperties(), meterRegistry);
+        cachingMapper = new ObjectMapper().registerModule(new TodoItemJsonModule(cache));
+
+        todo1 = new TodoItem("Buy groceries", "Milk, \"eggs\" & bread – ünïcödé");
+        todo1.setId(1L);
+        todo1.setVersion(0L);
+        todo2 = new TodoItem("Plan vacation", null);
+        todo2.setId(2L);
+        todo2.setVersion(3L);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", TodoItemJsonCache.NAME).tag("result", result)
+                .functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("should write the same JSON as the regular serializer for items, lists and pages")
+    void shouldWriteSameJsonAsRegularSerializer() throws Exception {
+        CursorPage<TodoItem> page = new CursorPage<>(List.of(todo1, todo2), "abc");
+
+        assertArrayEquals(plainMapper.writeValueAsBytes(todo1), cachingMapper.writeValueAsBytes(todo1));
+        assertArrayEquals(plainMapper.writeValueAsBytes(List.of(todo1, todo2)), cachingMapper.writeValueAsBytes(List.of(todo1, todo2)));
+        assertArrayEquals(plainMapper.writeValueAsBytes(page), cachingMapper.writeValueAsBytes(page));
+        assertEquals(plainMapper.writeValueAsString(page), cachingMapper.writeValueAsString(page));
+    }
+
+    @Test
+    @DisplayName("should reuse the cached JSON until the item is at another version")
+    void shouldReuseCachedJsonUntilVersionChanges() throws Exception {
+        cachingMapper.writeValueAsBytes(List.of(todo1, todo2));
+        cachingMapper.writeValueAsBytes(List.of(todo1, todo2));
+        assertEquals(2, cacheGets("hit"));
+
+        todo1.setTitle("Buy more groceries");
+        todo1.setVersion(1L);
+        assertArrayEquals(plainMapper.writeValueAsBytes(todo1), cachingMapper.writeValueAsBytes(todo1));
+    }
+
+    @Test
+    @DisplayName("should bypass the cache for pretty-printed output and items without an ID")
+    void shouldBypassCache_whenOutputCannotBeShared() throws Exception {
+        TodoItem unsaved = new TodoItem("New", "Not stored yet");
+
+        String pretty = cachingMapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValueAsString(todo1);
+        cachingMapper.writeValueAsBytes(unsaved);
+
+        assertEquals(plainMapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValueAsString(todo1), pretty);
+        assertEquals(0, cacheGets("hit") + cacheGets("miss"));
+    }
+}
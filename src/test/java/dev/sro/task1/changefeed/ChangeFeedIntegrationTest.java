@@ -0,0 +1,153 @@
+package dev.sro.task1.changefeed;
+
+import dev.sro.task1.dto.ChangeEvent;
+import dev.sro.task1.entity.ChangeLogEntry;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.exception.ResourceNotFoundException;
+import dev.sro.task1.service.TodoItemService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The change log and feed on an embedded H2 database, written through the service.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:change-feed;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "todo.grpc.enabled=false",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=false",
+        "todo.change-feed.heartbeat-interval=200ms"
+})
+@DisplayName("Change feed Integration Tests")
+class ChangeFeedIntegrationTest {
+
+    @Autowired
+    private TodoItemService todoItemService;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Test
+    @DisplayName("Creates, updates and deletes should be appended with consecutive sequence numbers")
+    void writes_shouldBeAppendedInOrder() {
+        long before = changeLog.position().head();
+
+        TodoItem created = todoItemService.createTodoItem(new TodoItem("Logged", null));
+        TodoItem updated = todoItemService.updateTodoItem(created.getId(), new TodoItem("Logged again", null));
+        todoItemService.deleteTodoItem(created.getId());
+
+        List<ChangeEvent> events = changeLog.readAfter(before, 10);
+        assertEquals(List.of(before + 1, before + 2, before + 3), events.stream().map(ChangeEvent::seq).toList());
+        assertEquals(List.of(ChangeLogEntry.Operation.UPSERT, ChangeLogEntry.Operation.UPSERT, ChangeLogEntry.Operation.DELETE),
+                events.stream().map(ChangeEvent::operation).toList());
+        assertTrue(events.stream().allMatch(event -> created.getId().equals(event.id())));
+        assertEquals(updated.getVersion(), events.get(1).version());
+        assertEquals(before + 3, changeLog.position().head());
+    }
+
+    @Test
+    @DisplayName("A write that rolls back should not be appended")
+    void failedWrite_shouldNotBeAppended() {
+        long before = changeLog.position().head();
+
+        assertThrows(ResourceNotFoundException.class, () -> todoItemService.deleteTodoItem(Long.MAX_VALUE));
+
+        assertEquals(before, changeLog.position().head());
+        assertEquals(List.of(), changeLog.readAfter(before, 10));
+    }
+
+    @Test
+    @DisplayName("A delete by title should append a tombstone per deleted item")
+    void deleteByTitle_shouldAppendTombstonePerItem() {
+        TodoItem first = todoItemService.createTodoItem(new TodoItem("Tombstone one", null));
+        TodoItem second = todoItemService.createTodoItem(new TodoItem("Tombstone two", null));
+        long before = changeLog.position().head();
+
+        assertEquals(2, todoItemService.deleteTodoItemsByTitle("tombstone"));
+
+        List<ChangeEvent> events = changeLog.readAfter(before, 10);
+        assertEquals(List.of(first.getId(), second.getId()), events.stream().map(ChangeEvent::id).toList());
+        assertTrue(events.stream().allMatch(event -> event.operation() == ChangeLogEntry.Operation.DELETE));
+    }
+
+    @Test
+    @DisplayName("A subscriber should receive the changes committed after its position")
+    void subscriber_shouldReceiveLiveChanges() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        try (ChangeFeed.Subscription ignored = changeFeed.subscribe(changeLog.position().head(), sink)) {
+            TodoItem created = todoItemService.createTodoItem(new TodoItem("Streamed", null));
+
+            ChangeEvent event = sink.events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event);
+            assertEquals(created.getId(), event.id());
+            assertEquals(ChangeLogEntry.Operation.UPSERT, event.operation());
+        }
+    }
+
+    @Test
+    @DisplayName("Compaction should keep the latest entry of each item, and purging should reset subscribers behind it")
+    void compaction_shouldRemoveSupersededAndExpiredEntries() throws Exception {
+        long before = changeLog.position().head();
+        TodoItem item = todoItemService.createTodoItem(new TodoItem("Compacted", null));
+        todoItemService.updateTodoItem(item.getId(), new TodoItem("Compacted once", null));
+        todoItemService.updateTodoItem(item.getId(), new TodoItem("Compacted twice", null));
+
+        changeLog.compact(Instant.now().plus(Duration.ofHours(2)));
+
+        List<ChangeEvent> remaining = changeLog.readAfter(before, 10).stream()
+                .filter(event -> item.getId().equals(event.id()))
+                .toList();
+        assertEquals(List.of(before + 3), remaining.stream().map(ChangeEvent::seq).toList());
+
+        changeLog.compact(Instant.now().plus(Duration.ofDays(8)));
+
+        assertEquals(List.of(), changeLog.readAfter(before, 10));
+        RecordingSink sink = new RecordingSink();
+        try (ChangeFeed.Subscription ignored = changeFeed.subscribe(before, sink)) {
+            Long reset = sink.resets.poll(5, TimeUnit.SECONDS);
+            assertEquals(changeLog.position().head(), reset);
+        }
+    }
+
+    private static final class RecordingSink implements ChangeSink {
+
+        private final BlockingQueue<ChangeEvent> events = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Long> resets = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(List<ChangeEvent> batch) {
+            events.addAll(batch);
+        }
+
+        @Override
+        public void reset(long seq) {
+            resets.add(seq);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package dev.sro.task1.changefeed;
+
+import dev.sro.task1.dto.ChangeEvent;
+import dev.sro.task1.entity.ChangeLogEntry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ChangeRingBuffer Unit Tests")
+class ChangeRingBufferTest {
+
+    private static final Duration NO_WAIT = Duration.ZERO;
+
+    @Test
+    @DisplayName("awaitAfter should return the events following the position, up to the maximum")
+    void awaitAfter_shouldReturnFollowingEvents() throws InterruptedException {
+        ChangeRingBuffer ring = new ChangeRingBuffer(8);
+        ring.position(10);
+        ring.append(events(11, 15));
+
+        assertEquals(List.of(12L, 13L), seqs(ring.awaitAfter(11, 2, NO_WAIT)));
+        assertEquals(List.of(14L, 15L), seqs(ring.awaitAfter(13, 10, NO_WAIT)));
+        assertEquals(List.of(), ring.awaitAfter(15, 10, NO_WAIT));
+    }
+
+    @Test
+    @DisplayName("awaitAfter should return null for a position the ring no longer holds, or before it is positioned")
+    void awaitAfter_shouldReturnNull_whenBehindTheRing() throws InterruptedException {
+        ChangeRingBuffer ring = new ChangeRingBuffer(4);
+        assertNull(ring.awaitAfter(0, 10, NO_WAIT));
+
+        ring.position(0);
+        ring.append(events(1, 10)); // Holds 7 to 10
+
+        assertNull(ring.awaitAfter(5, 10, NO_WAIT));
+        assertEquals(List.of(7L, 8L, 9L, 10L), seqs(ring.awaitAfter(6, 10, NO_WAIT)));
+    }
+
+    @Test
+    @DisplayName("append should start over after a gap in the sequence numbers")
+    void append_shouldStartOver_afterGap() throws InterruptedException {
+        ChangeRingBuffer ring = new ChangeRingBuffer(8);
+        ring.position(0);
+        ring.append(events(1, 3));
+        ring.append(events(6, 7));
+
+        assertNull(ring.awaitAfter(3, 10, NO_WAIT));
+        assertEquals(List.of(6L, 7L), seqs(ring.awaitAfter(5, 10, NO_WAIT)));
+        assertEquals(7L, ring.head());
+    }
+
+    @Test
+    @DisplayName("awaitAfter should wake up when an event is appended")
+    void awaitAfter_shouldWaitForAppend() throws Exception {
+        ChangeRingBuffer ring = new ChangeRingBuffer(8);
+        ring.position(3);
+
+        CompletableFuture<List<ChangeEvent>> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return ring.awaitAfter(3, 10, Duration.ofSeconds(5));
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        Thread.sleep(50);
+        ring.append(events(4, 4));
+
+        assertEquals(List.of(4L), seqs(waiting.get(5, TimeUnit.SECONDS)));
+    }
+
+    private static List<ChangeEvent> events(long from, long through) {
+        return LongStream.rangeClosed(from, through)
+                .mapToObj(seq -> new ChangeEvent(seq, seq * 100, ChangeLogEntry.Operation.UPSERT, 0L, Instant.EPOCH))
+                .toList();
+    }
+
+    private static List<Long> seqs(List<ChangeEvent> events) {
+        return events.stream().map(ChangeEvent::seq).toList();
+    }
+}
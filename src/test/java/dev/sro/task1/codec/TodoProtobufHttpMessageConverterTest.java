@@ -0,0 +1,92 @@
+package dev.sro.task1.codec;
+
+import dev.sro.task1.dto.RankedTodoItem;
+import dev.sro.task1.dto.SearchResultPage;
+import dev.sro.task1.dto.SparseFieldset;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.proto.TodoProtos;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TodoProtobufHttpMessageConverter Unit Tests")
+class TodoProtobufHttpMessageConverterTest {
+
+    private static final MediaType PROTOBUF = MediaType.parseMediaType("application/x-protobuf");
+    private static final Type TODO_ITEM_LIST = new ParameterizedTypeReference<List<TodoItem>>() {
+    }.getType();
+
+    private final TodoProtobufHttpMessageConverter converter = new TodoProtobufHttpMessageConverter();
+
+    @Test
+    @DisplayName("Search results should be written as a SearchResultPage message with the schema headers")
+    void write_shouldWriteSearchResultPage() throws IOException {
+        TodoItem todoItem = new TodoItem(7L, "Plan vacation", "Book flights", 2L);
+        SearchResultPage<RankedTodoItem> results = new SearchResultPage<>(List.of(new RankedTodoItem(todoItem, 1.5)), 0, 20, 1);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(results, SearchResultPage.class, PROTOBUF, output);
+
+        TodoProtos.SearchResultPage message = TodoProtos.SearchResultPage.parseFrom(output.getBodyAsBytes());
+        assertEquals(1, message.getTotal());
+        assertEquals(1.5, message.getItems(0).getScore());
+        assertEquals("Book flights", message.getItems(0).getItem().getDescription());
+        assertEquals(TodoProtobufHttpMessageConverter.SCHEMA, output.getHeaders().getFirst("X-Protobuf-Schema"));
+        assertEquals("todo.v1.SearchResultPage", output.getHeaders().getFirst("X-Protobuf-Message"));
+    }
+
+    @Test
+    @DisplayName("Sparse fieldsets should be written with only the requested fields set")
+    void write_shouldLeaveOutFieldsMissingFromSparseFieldset() throws IOException {
+        TodoItem todoItem = new TodoItem(7L, "Plan vacation", "Book flights", 2L);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(List.of(SparseFieldset.parse("id,title").apply(todoItem)), List.class, PROTOBUF, output);
+
+        TodoProtos.TodoItem item = TodoProtos.TodoItemList.parseFrom(output.getBodyAsBytes()).getItems(0);
+        assertEquals(7L, item.getId());
+        assertEquals("Plan vacation", item.getTitle());
+        assertFalse(item.hasDescription());
+        assertFalse(item.hasVersion());
+    }
+
+    @Test
+    @DisplayName("A TodoItemList body should be read as a list of todo items, absent fields as null")
+    void read_shouldReadTodoItemList() throws IOException {
+        byte[] body = TodoProtos.TodoItemList.newBuilder()
+                .addItems(TodoProtos.TodoItem.newBuilder().setTitle("First").setDescription("One"))
+                .addItems(TodoProtos.TodoItem.newBuilder().setTitle("Second"))
+                .build().toByteArray();
+
+        assertTrue(converter.canRead(TODO_ITEM_LIST, null, PROTOBUF));
+        @SuppressWarnings("unchecked")
+        List<TodoItem> todoItems = (List<TodoItem>) converter.read(TODO_ITEM_LIST, null, new MockHttpInputMessage(body));
+
+        assertEquals(2, todoItems.size());
+        assertEquals("One", todoItems.get(0).getDescription());
+        assertNull(todoItems.get(1).getDescription());
+        assertNull(todoItems.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Only the API's request bodies should be readable, and malformed ones rejected")
+    void read_shouldRejectUnsupportedTypesAndMalformedBodies() {
+        assertFalse(converter.canRead(String.class, PROTOBUF));
+        assertFalse(converter.canRead(new ParameterizedTypeReference<List<Long>>() {
+        }.getType(), null, PROTOBUF));
+        assertFalse(converter.canRead(TodoItem.class, MediaType.APPLICATION_JSON));
+
+        MockHttpInputMessage malformed = new MockHttpInputMessage(new byte[]{(byte) 0xFF, (byte) 0xFF});
+        assertThrows(HttpMessageNotReadableException.class, () -> converter.read(TodoItem.class, null, malformed));
+    }
+}
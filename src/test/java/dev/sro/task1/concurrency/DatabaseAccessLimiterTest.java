@@ -0,0 +1,80 @@
+package dev.sro.task1.concurrency;
+
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.exception.DatabaseBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DatabaseAccessLimiter Unit Tests")
+class DatabaseAccessLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TodoProperties todoProperties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        todoProperties = new TodoProperties();
+        todoProperties.getDatabase().setMaxConcurrentAccess(1);
+        todoProperties.getDatabase().setAcquireTimeout(Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("call should run the access and release its permit")
+    void call_shouldRunAccessAndReleasePermit() {
+        DatabaseAccessLimiter limiter = new DatabaseAccessLimiter(todoProperties, meterRegistry);
+
+        assertEquals("first", limiter.call(() -> "first"));
+        assertEquals("second", limiter.call(() -> "second"));
+        assertEquals(0, meterRegistry.get("todo.database.permits.active").gauge().value());
+        assertEquals(2, meterRegistry.get("todo.database.permits.wait").timer().count());
+    }
+
+    @Test
+    @DisplayName("call should fail with DatabaseBusyException when no permit becomes free in time")
+    void call_shouldFailWhenNoPermitBecomesFree() throws Exception {
+        DatabaseAccessLimiter limiter = new DatabaseAccessLimiter(todoProperties, meterRegistry);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Boolean> holder = executor.submit(() -> limiter.call(() -> {
+                holding.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }));
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+            assertEquals(1, meterRegistry.get("todo.database.permits.active").gauge().value());
+            assertThrows(DatabaseBusyException.class, () -> limiter.call(() -> "too late"));
+
+            release.countDown();
+            assertTrue(holder.get());
+        }
+        assertEquals("now", limiter.call(() -> "now"));
+    }
+
+    @Test
+    @DisplayName("call should not limit anything when the limit is disabled")
+    void call_shouldNotLimitWhenDisabled() {
+        todoProperties.getDatabase().setMaxConcurrentAccess(0);
+        DatabaseAccessLimiter limiter = new DatabaseAccessLimiter(todoProperties, meterRegistry);
+
+        assertEquals("nested", limiter.call(() -> limiter.call(() -> "nested")));
+        assertNull(meterRegistry.find("todo.database.permits.active").gauge());
+    }
+}
@@ -0,0 +1,188 @@
+package dev.sro.task1.concurrency;
+
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.event.TodoItemChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RequestCoalescer Unit Tests")
+class RequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TodoProperties todoProperties;
+    private RequestCoalescer coalescer;
+    private ExecutorService executor;
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        todoProperties = new TodoProperties();
+        coalescer = new RequestCoalescer(todoProperties, meterRegistry);
+        executor = Executors.newCachedThreadPool(); // Platform threads, whose stack traces can be inspected
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.close();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("load should let concurrent callers with the same key, ignoring case, share one load")
+    void load_shouldShareLoadInFlight() throws Exception {
+        Future<String> leader = executor.submit(() -> coalescer.load("search", List.of("Milk", 20), blockingLoad("result")));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        Future<String> follower = executor.submit(() -> coalescer.load("search", List.of("milk", 20), blockingLoad("other")));
+        awaitFollowers(1);
+        release.countDown();
+
+        assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("todo.coalescing.loads").tag("operation", "search").counter().count());
+        assertEquals(1, meterRegistry.get("todo.coalescing.saved").tag("operation", "search").counter().count());
+        assertEquals(0, meterRegistry.get("todo.coalescing.in-flight").gauge().value());
+    }
+
+    @Test
+    @DisplayName("load should not share loads of different arguments or operations")
+    void load_shouldNotShareDifferentKeys() throws Exception {
+        Future<String> leader = executor.submit(() -> coalescer.load("search", List.of("milk", 20), blockingLoad("first")));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        assertEquals("page", coalescer.load("search", List.of("milk", 10), () -> "page"));
+        assertEquals("title", coalescer.load("searchByTitle", List.of("milk", 20), () -> "title"));
+        release.countDown();
+
+        assertEquals("first", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(0, meterRegistry.get("todo.coalescing.saved").tag("operation", "search").counter().count());
+    }
+
+    @Test
+    @DisplayName("load should pass the exception of the shared load to every caller")
+    void load_shouldShareException() throws Exception {
+        Future<String> leader = executor.submit(() -> coalescer.<String>load("getTodoItemById", List.of(1L), () -> {
+            blockingLoad("unused").get();
+            throw new IllegalStateException("Database down");
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<String> follower = executor.submit(() -> coalescer.load("getTodoItemById", List.of(1L), () -> "unused"));
+        awaitFollowers(1);
+        release.countDown();
+
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+        assertSame(leaderFailure.getCause(), followerFailure.getCause());
+    }
+
+    @Test
+    @DisplayName("load should stop waiting after max-wait and run its own load")
+    void load_shouldLoadOnItsOwnAfterMaxWait() throws Exception {
+        todoProperties.getCoalescing().setMaxWait(Duration.ofMillis(20));
+        coalescer = new RequestCoalescer(todoProperties, meterRegistry);
+        Future<String> leader = executor.submit(() -> coalescer.load("getTodoItemById", List.of(1L), blockingLoad("slow")));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        assertEquals("own", coalescer.load("getTodoItemById", List.of(1L), () -> "own"));
+        assertEquals(1, meterRegistry.get("todo.coalescing.timeouts").tag("operation", "getTodoItemById").counter().count());
+        release.countDown();
+        assertEquals("slow", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("load should not join a load that started before a write committed")
+    void load_shouldNotJoinLoadFromBeforeWrite() throws Exception {
+        Future<String> leader = executor.submit(() -> coalescer.load("getTodoItemById", List.of(1L), blockingLoad("old")));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        TransactionSynchronizationManager.initSynchronization();
+        coalescer.onTodoItemChange(new TodoItemChange.Deleted(List.of(1L)));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        assertEquals("committing", executor.submit(() -> coalescer.load("getTodoItemById", List.of(1L), () -> "committing"))
+                .get(5, TimeUnit.SECONDS));
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals("new", executor.submit(() -> coalescer.load("getTodoItemById", List.of(1L), () -> "new"))
+                .get(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertEquals("old", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(0, meterRegistry.get("todo.coalescing.saved").tag("operation", "getTodoItemById").counter().count());
+    }
+
+    @Test
+    @DisplayName("load should run every load when coalescing is disabled")
+    void load_shouldNotShareWhenDisabled() throws Exception {
+        todoProperties.getCoalescing().setEnabled(false);
+        coalescer = new RequestCoalescer(todoProperties, meterRegistry);
+        Future<String> first = executor.submit(() -> coalescer.load("search", List.of("milk"), blockingLoad("first")));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        assertEquals("second", coalescer.load("search", List.of("milk"), () -> "second"));
+        release.countDown();
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * A load that signals it has started and then waits for the test to release it.
+     */
+    private Supplier<String> blockingLoad(String result) {
+        return () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Waits until the given number of followers wait for the load in flight, i.e. are parked in the coalescer.
+     */
+    private void awaitFollowers(int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waitingThreads() < followers && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private long waitingThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getState() == Thread.State.TIMED_WAITING)
+                .filter(thread -> Arrays.stream(thread.getStackTrace())
+                        .anyMatch(frame -> frame.getMethodName().equals("await")
+                                && frame.getClassName().equals(RequestCoalescer.class.getName())))
+                .count();
+    }
+}
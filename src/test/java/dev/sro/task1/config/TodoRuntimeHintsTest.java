@@ -0,0 +1,46 @@
+package dev.sro.task1.config;
+
+import dev.sro.task1.dto.TodoItemSummary;
+import dev.sro.task1.proto.TodoProtos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TodoRuntimeHints Unit Tests")
+class TodoRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new TodoRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("The constructors of query results should be invocable")
+    void registerHints_shouldRegisterQueryResultConstructors() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(TodoItemSummary.class.getDeclaredConstructor(Long.class, String.class, Long.class))
+                .test(hints));
+    }
+
+    @Test
+    @DisplayName("The accessors of Protocol Buffers messages and builders should be invocable")
+    void registerHints_shouldRegisterProtobufAccessors() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(TodoProtos.TodoItem.class.getMethod("getTitle")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(TodoProtos.TodoItem.Builder.class.getMethod("setTitle", String.class)).test(hints));
+    }
+
+    @Test
+    @DisplayName("The Protocol Buffers schemas should be included as resources")
+    void registerHints_shouldIncludeSchemas() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("todo/v1/todo.proto").test(hints));
+    }
+}
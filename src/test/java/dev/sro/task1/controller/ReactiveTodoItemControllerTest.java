@@ -0,0 +1,185 @@
+package dev.sro.task1.controller;
+
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.entity.TodoItem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the reactive profile end to end, from WebFlux down to R2DBC, on an in-memory H2 database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivetest?options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:schema-h2.sql"
+})
+@ActiveProfiles("reactive")
+@DisplayName("ReactiveTodoItemController Integration Tests")
+class ReactiveTodoItemControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    @DisplayName("POST then GET /api/todos/{id} should return the item with its ETag, and 304 for that ETag")
+    void createAndGetTodoItem_shouldUseETags() {
+        TodoItem created = create("Buy groceries", "Milk, Eggs");
+        assertNotNull(created.getId());
+        assertEquals(0L, created.getVersion());
+
+        webTestClient.get().uri("/api/todos/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Buy groceries");
+
+        webTestClient.get().uri("/api/todos/{id}", created.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("GET /api/todos/{id} should return 404 for an unknown ID")
+    void getTodoItemById_shouldReturnNotFound() {
+        webTestClient.get().uri("/api/todos/{id}", 999_999)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("PUT /api/todos/{id} should honour If-Match and answer 412 for a stale version")
+    void updateTodoItem_shouldCheckIfMatch() {
+        TodoItem created = create("Plan vacation", null);
+
+        webTestClient.put().uri("/api/todos/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(new TodoItem("Plan summer vacation", "Beach"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        webTestClient.put().uri("/api/todos/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(new TodoItem("Plan winter vacation", null))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    @DisplayName("POST /api/todos/batch should create the valid items and report the invalid ones")
+    void createTodoItems_shouldReportEachItem() {
+        BatchCreateResult result = webTestClient.post().uri("/api/todos/batch")
+                .bodyValue(List.of(new TodoItem("Batch one", null), new TodoItem(" ", null), new TodoItem("Batch two", null)))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BatchCreateResult.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(result);
+        assertEquals(List.of(0, 2), result.created().stream().map(BatchCreateResult.Created::index).toList());
+        assertEquals(1, result.failed().get(0).index());
+    }
+
+    @Test
+    @DisplayName("GET /api/todos should page with a cursor and /export should stream NDJSON")
+    void listAndExport_shouldReturnEveryItem() {
+        create("Page one", null);
+        create("Page two", null);
+
+        CursorPage<TodoItem> first = webTestClient.get().uri("/api/todos?size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<CursorPage<TodoItem>>() {
+                })
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(first);
+        assertEquals(1, first.items().size());
+        assertNotNull(first.next());
+
+        List<TodoItem> exported = webTestClient.get().uri("/api/todos/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TodoItem.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertNotNull(exported);
+        assertTrue(exported.size() >= 2);
+    }
+
+    @Test
+    @DisplayName("Title search and DELETE /api/todos/{id} should see the latest writes")
+    void searchAndDelete_shouldReflectWrites() {
+        TodoItem created = create("Call the plumber", null);
+
+        webTestClient.get().uri("/api/todos/search/title?query=plumber")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.id == " + created.getId() + ")]").exists();
+
+        webTestClient.delete().uri("/api/todos/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/api/todos/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Writes should append to the change log in commit order, deletes by title with the deleted IDs")
+    void writes_shouldAppendToChangeLog() {
+        TodoItem created = create("Water the plants", null);
+        webTestClient.put().uri("/api/todos/{id}", created.getId())
+                .bodyValue(new TodoItem("Water the garden plants", null))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/api/todos/by-title?query={query}", "garden plants")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.affected").isEqualTo(1);
+
+        List<String> entries = databaseClient
+                .sql("SELECT operation, version FROM todo_change_log WHERE item_id = :id ORDER BY seq")
+                .bind("id", created.getId())
+                .map(row -> row.get("operation", String.class) + ":" + row.get("version", Long.class))
+                .all()
+                .collectList()
+                .block();
+        assertEquals(List.of("UPSERT:0", "UPSERT:1", "DELETE:null"), entries);
+    }
+
+    private TodoItem create(String title, String description) {
+        return webTestClient.post().uri("/api/todos")
+                .bodyValue(new TodoItem(title, description))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(TodoItem.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -1,9 +1,23 @@
 package dev.sro.task1.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper; 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.BulkDescriptionUpdate;
+import dev.sro.task1.dto.CreateRequestStatus;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.dto.MultiGetResult;
+import dev.sro.task1.dto.RankedTodoItem;
+import dev.sro.task1.dto.RankedTodoItemSummary;
+import dev.sro.task1.dto.SearchResultPage;
+import dev.sro.task1.dto.TodoItemSummary;
 import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.exception.CreateQueueFullException;
+import dev.sro.task1.exception.PreconditionFailedException;
 import dev.sro.task1.exception.ResourceNotFoundException;
+import dev.sro.task1.proto.TodoProtos;
 import dev.sro.task1.service.TodoItemService;
+import dev.sro.task1.service.impl.WriteBehindCreateQueue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,7 +25,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.util.function.Consumer;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -19,7 +36,9 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,6 +53,9 @@ class TodoItemControllerTest {
     @MockBean 
     private TodoItemService todoItemService;
 
+    @MockitoBean
+    private WriteBehindCreateQueue writeBehindCreateQueue;
+
     @Autowired
     private ObjectMapper objectMapper; 
 
@@ -50,21 +72,123 @@ class TodoItemControllerTest {
     }
 
     @Test
-    @DisplayName("GET /api/todos should return all todo items")
-    void getAllTodoItems_shouldReturnAllItems() throws Exception {
-        List<TodoItem> allTodos = Arrays.asList(todo1, todo2);
-        when(todoItemService.getAllTodoItems()).thenReturn(allTodos);
+    @DisplayName("GET /api/todos should return the first page of todo items")
+    void getAllTodoItems_shouldReturnFirstPage() throws Exception {
+        CursorPage<TodoItem> page = new CursorPage<>(Arrays.asList(todo1, todo2), "bmV4dA");
+        when(todoItemService.getTodoItemPage(null, null)).thenReturn(page);
 
         mockMvc.perform(get("/api/todos")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk()) 
-                .andExpect(jsonPath("$", hasSize(2))) 
-                .andExpect(jsonPath("$[0].id", is(1)))
-                .andExpect(jsonPath("$[0].title", is("Buy groceries")))
-                .andExpect(jsonPath("$[1].id", is(2)))
-                .andExpect(jsonPath("$[1].title", is("Workout")));
+                .andExpect(jsonPath("$.items", hasSize(2))) 
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.items[0].title", is("Buy groceries")))
+                .andExpect(jsonPath("$.items[1].id", is(2)))
+                .andExpect(jsonPath("$.items[1].title", is("Workout")))
+                .andExpect(jsonPath("$.next", is("bmV4dA")));
+
+        verify(todoItemService, times(1)).getTodoItemPage(null, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/todos?cursor=...&size=... should pass the cursor and size to the service")
+    void getAllTodoItems_shouldPassCursorAndSize() throws Exception {
+        CursorPage<TodoItem> lastPage = new CursorPage<>(Collections.singletonList(todo2), null);
+        when(todoItemService.getTodoItemPage("MQ", 1)).thenReturn(lastPage);
+
+        mockMvc.perform(get("/api/todos")
+                        .param("cursor", "MQ")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(2)))
+                .andExpect(jsonPath("$.next", nullValue()));
+
+        verify(todoItemService, times(1)).getTodoItemPage("MQ", 1);
+    }
+
+    @Test
+    @DisplayName("GET /api/todos should return 400 Bad Request for a malformed cursor")
+    void getAllTodoItems_shouldReturn400_whenCursorIsInvalid() throws Exception {
+        when(todoItemService.getTodoItemPage("garbage", null))
+                .thenThrow(new IllegalArgumentException("Invalid cursor."));
+
+        mockMvc.perform(get("/api/todos")
+                        .param("cursor", "garbage")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Invalid cursor.")));
+    }
+
+    @Test
+    @DisplayName("GET /api/todos?fields=id,title should list summaries with only the requested fields")
+    void getAllTodoItems_withFields_shouldReturnSummaries() throws Exception {
+        CursorPage<TodoItemSummary> page = new CursorPage<>(List.of(new TodoItemSummary(1L, "Buy groceries", 3L)), null);
+        when(todoItemService.getTodoItemSummaryPage(null, null)).thenReturn(page);
+
+        mockMvc.perform(get("/api/todos")
+                        .param("fields", "title,id")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.items[0].title", is("Buy groceries")))
+                .andExpect(jsonPath("$.items[0].version").doesNotExist())
+                .andExpect(jsonPath("$.items[0].description").doesNotExist());
 
-        verify(todoItemService, times(1)).getAllTodoItems();
+        verify(todoItemService, never()).getTodoItemPage(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/todos?fields=id,description should load full items and return only the requested fields")
+    void getAllTodoItems_withDescriptionField_shouldReturnFullItemFields() throws Exception {
+        when(todoItemService.getTodoItemPage(null, null)).thenReturn(new CursorPage<>(List.of(todo1), null));
+
+        mockMvc.perform(get("/api/todos")
+                        .param("fields", "id,description")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.items[0].description", is("Milk, Eggs")))
+                .andExpect(jsonPath("$.items[0].title").doesNotExist());
+
+        verify(todoItemService, never()).getTodoItemSummaryPage(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/todos should return 400 Bad Request for an unknown field")
+    void getAllTodoItems_shouldReturn400_whenFieldIsUnknown() throws Exception {
+        mockMvc.perform(get("/api/todos")
+                        .param("fields", "id,owner")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Unknown field 'owner'")));
+
+        verifyNoInteractions(todoItemService);
+    }
+
+    @Test
+    @DisplayName("GET /api/todos/export should stream every item as newline-delimited JSON")
+    @SuppressWarnings("unchecked")
+    void exportTodoItems_shouldStreamNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<TodoItem> consumer = invocation.getArgument(0);
+            consumer.accept(todo1);
+            consumer.accept(todo2);
+            return 2L;
+        }).when(todoItemService).exportTodoItems(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/todos/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(todo1) + "\n" + objectMapper.writeValueAsString(todo2) + "\n"));
+
+        verify(todoItemService, times(1)).exportTodoItems(any(Consumer.class));
     }
 
     @Test
@@ -83,6 +207,93 @@ class TodoItemControllerTest {
         verify(todoItemService, times(1)).getTodoItemById(itemId);
     }
 
+    @Test
+    @DisplayName("GET /api/todos/{id} should return the version as a strong ETag")
+    void getTodoItemById_shouldReturnETag() throws Exception {
+        todo1.setVersion(3L);
+        when(todoItemService.getTodoItemById(1L)).thenReturn(Optional.of(todo1));
+
+        mockMvc.perform(get("/api/todos/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.version", is(3)));
+    }
+
+    @Test
+    @DisplayName("GET /api/todos/{id} with a matching If-None-Match should return 304 without loading the item")
+    void getTodoItemById_shouldReturn304_whenETagMatches() throws Exception {
+        when(todoItemService.getTodoItemVersion(1L)).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/api/todos/{id}", 1L).header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(todoItemService, never()).getTodoItemById(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /api/todos/{id} with a stale If-None-Match should return the item")
+    void getTodoItemById_shouldReturnItem_whenETagIsStale() throws Exception {
+        todo1.setVersion(4L);
+        when(todoItemService.getTodoItemVersion(1L)).thenReturn(Optional.of(4L));
+        when(todoItemService.getTodoItemById(1L)).thenReturn(Optional.of(todo1));
+
+        mockMvc.perform(get("/api/todos/{id}", 1L).header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.title", is(todo1.getTitle())));
+    }
+
+    @Test
+    @DisplayName("GET /api/todos/{id} with Accept: application/cbor should return the item as CBOR")
+    void getTodoItemById_shouldReturnCbor_whenAccepted() throws Exception {
+        when(todoItemService.getTodoItemById(1L)).thenReturn(Optional.of(todo1));
+
+        byte[] body = mockMvc.perform(get("/api/todos/{id}", 1L).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        TodoItem decoded = new ObjectMapper(new CBORFactory()).readValue(body, TodoItem.class);
+        assertEquals(todo1.getTitle(), decoded.getTitle());
+        assertEquals(todo1.getDescription(), decoded.getDescription());
+    }
+
+    @Test
+    @DisplayName("GET /api/todos with Accept: application/x-protobuf should return a TodoItemPage message")
+    void getAllTodoItems_shouldReturnProtobuf_whenAccepted() throws Exception {
+        when(todoItemService.getTodoItemPage(null, null)).thenReturn(new CursorPage<>(List.of(todo1, todo2), "Mg"));
+
+        byte[] body = mockMvc.perform(get("/api/todos").accept("application/x-protobuf"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-protobuf"))
+                .andExpect(header().string("X-Protobuf-Message", "todo.v1.TodoItemPage"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        TodoProtos.TodoItemPage page = TodoProtos.TodoItemPage.parseFrom(body);
+        assertEquals(2, page.getItemsCount());
+        assertEquals("Workout", page.getItems(1).getTitle());
+        assertEquals("Mg", page.getNext());
+    }
+
+    @Test
+    @DisplayName("POST /api/todos should accept a Protocol Buffers body")
+    void createTodoItem_shouldAcceptProtobuf() throws Exception {
+        TodoItem created = new TodoItem("Learn Spring Boot", null);
+        created.setId(3L);
+        when(todoItemService.createTodoItem(any(TodoItem.class))).thenReturn(created);
+
+        mockMvc.perform(post("/api/todos")
+                        .contentType("application/x-protobuf")
+                        .content(TodoProtos.TodoItem.newBuilder().setTitle("Learn Spring Boot").build().toByteArray()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(3)));
+
+        verify(todoItemService).createTodoItem(argThat(todoItem ->
+                "Learn Spring Boot".equals(todoItem.getTitle()) && todoItem.getDescription() == null));
+    }
+
     @Test
     @DisplayName("GET /api/todos/{id} should return 404 Not Found if item does not exist")
     void getTodoItemById_shouldReturn404_whenNotFound() throws Exception {
@@ -134,6 +345,108 @@ class TodoItemControllerTest {
     }
 
 
+    @Test
+    @DisplayName("POST /api/todos with Prefer: respond-async should queue the item and return 202 Accepted")
+    void createTodoItem_withRespondAsync_shouldReturn202() throws Exception {
+        when(writeBehindCreateQueue.isEnabled()).thenReturn(true);
+        when(writeBehindCreateQueue.enqueue(any(TodoItem.class))).thenReturn(CreateRequestStatus.queued("abc"));
+
+        mockMvc.perform(post("/api/todos")
+                        .header("Prefer", "wait=5, respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TodoItem("Learn Spring Boot", null))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/todos/create-requests/abc"))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.trackingId", is("abc")))
+                .andExpect(jsonPath("$.state", is("QUEUED")));
+
+        verify(todoItemService, never()).createTodoItem(any(TodoItem.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/todos with Prefer: respond-async should create synchronously when the queue is disabled")
+    void createTodoItem_withRespondAsync_shouldReturn201_whenQueueIsDisabled() throws Exception {
+        TodoItem savedItem = new TodoItem("Learn Spring Boot", null);
+        savedItem.setId(3L);
+        when(writeBehindCreateQueue.isEnabled()).thenReturn(false);
+        when(todoItemService.createTodoItem(any(TodoItem.class))).thenReturn(savedItem);
+
+        mockMvc.perform(post("/api/todos")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TodoItem("Learn Spring Boot", null))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(3)));
+
+        verify(writeBehindCreateQueue, never()).enqueue(any(TodoItem.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/todos with Prefer: respond-async should return 429 with Retry-After when the queue is full")
+    void createTodoItem_withRespondAsync_shouldReturn429_whenQueueIsFull() throws Exception {
+        when(writeBehindCreateQueue.isEnabled()).thenReturn(true);
+        when(writeBehindCreateQueue.enqueue(any(TodoItem.class)))
+                .thenThrow(new CreateQueueFullException("The create queue is full; retry later."));
+
+        mockMvc.perform(post("/api/todos")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TodoItem("Learn Spring Boot", null))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    @DisplayName("GET /api/todos/create-requests/{trackingId} should return the outcome, or 404 when unknown")
+    void getCreateRequestStatus_shouldReturnOutcome() throws Exception {
+        when(writeBehindCreateQueue.getStatus("abc")).thenReturn(Optional.of(CreateRequestStatus.created("abc", 7L)));
+        when(writeBehindCreateQueue.getStatus("xyz")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/todos/create-requests/abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("CREATED")))
+                .andExpect(jsonPath("$.id", is(7)));
+        mockMvc.perform(get("/api/todos/create-requests/xyz"))
+                .andExpect(status().isNotFound());
+    }
+
+
+    @Test
+    @DisplayName("POST /api/todos/batch should create the valid items and report the invalid ones")
+    void createTodoItems_shouldReturn201_withPerItemOutcome() throws Exception {
+        List<TodoItem> batch = Arrays.asList(new TodoItem("First", null), new TodoItem("", null));
+        BatchCreateResult result = new BatchCreateResult(
+                List.of(new BatchCreateResult.Created(0, 5L)),
+                List.of(new BatchCreateResult.Failed(1, "Todo item title cannot be null or empty.")));
+        when(todoItemService.createTodoItems(anyList())).thenReturn(result);
+
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created[0].index", is(0)))
+                .andExpect(jsonPath("$.created[0].id", is(5)))
+                .andExpect(jsonPath("$.failed[0].index", is(1)))
+                .andExpect(jsonPath("$.failed[0].message", is("Todo item title cannot be null or empty.")));
+
+        verify(todoItemService, times(1)).createTodoItems(anyList());
+    }
+
+    @Test
+    @DisplayName("POST /api/todos/batch should return 400 Bad Request if no item could be created")
+    void createTodoItems_shouldReturn400_whenEveryItemIsInvalid() throws Exception {
+        BatchCreateResult result = new BatchCreateResult(
+                List.of(), List.of(new BatchCreateResult.Failed(0, "Todo item title cannot be null or empty.")));
+        when(todoItemService.createTodoItems(anyList())).thenReturn(result);
+
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.failed", hasSize(1)));
+    }
+
     @Test
     @DisplayName("PUT /api/todos/{id} should update an item and return 200 OK")
     void updateTodoItem_shouldUpdateItem_andReturn200() throws Exception {  
@@ -155,6 +468,38 @@ class TodoItemControllerTest {
         verify(todoItemService, times(1)).updateTodoItem(eq(itemId), any(TodoItem.class));
     }
 
+    @Test
+    @DisplayName("PUT /api/todos/{id} with If-Match should update conditionally and return the new ETag")
+    void updateTodoItem_withIfMatch_shouldUpdateConditionally() throws Exception {
+        TodoItem updatedTodo = new TodoItem("Updated Groceries", null);
+        updatedTodo.setId(1L);
+        updatedTodo.setVersion(4L);
+        when(todoItemService.updateTodoItem(eq(1L), any(TodoItem.class), eq(List.of(3L)))).thenReturn(updatedTodo);
+
+        mockMvc.perform(put("/api/todos/{id}", 1L)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TodoItem("Updated Groceries", null))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version", is(4)));
+
+        verify(todoItemService, never()).updateTodoItem(anyLong(), any(TodoItem.class));
+    }
+
+    @Test
+    @DisplayName("PUT /api/todos/{id} should return 412 Precondition Failed if If-Match does not match")
+    void updateTodoItem_shouldReturn412_whenIfMatchDoesNotMatch() throws Exception {
+        when(todoItemService.updateTodoItem(eq(1L), any(TodoItem.class), eq(List.of())))
+                .thenThrow(new PreconditionFailedException("TodoItem 1 is at version 4, not at the expected one."));
+
+        mockMvc.perform(put("/api/todos/{id}", 1L)
+                        .header("If-Match", "W/\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TodoItem("Updated Groceries", null))))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @DisplayName("PUT /api/todos/{id} should return 404 Not Found if item to update does not exist")
     void updateTodoItem_shouldReturn404_whenItemDoesNotExist() throws Exception {
@@ -221,6 +566,116 @@ class TodoItemControllerTest {
         verify(todoItemService, times(1)).deleteTodoItem(nonExistentId);
     }
 
+    @Test
+    @DisplayName("GET /api/todos?ids=... should return the items in request order and the missing IDs")
+    void getTodoItemsByIds_shouldReturnItemsAndMissingIds() throws Exception {
+        when(todoItemService.getTodoItemsByIds(List.of(2L, 9L, 1L)))
+                .thenReturn(new MultiGetResult<>(List.of(todo2, todo1), List.of(9L)));
+
+        mockMvc.perform(get("/api/todos").param("ids", "2,9,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id", is(2)))
+                .andExpect(jsonPath("$.items[1].id", is(1)))
+                .andExpect(jsonPath("$.missing", contains(9)));
+
+        verify(todoItemService, never()).getTodoItemPage(any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /api/todos/lookup should accept the IDs as a JSON array and apply the sparse fieldset")
+    void lookupTodoItems_shouldReturnSparseItems() throws Exception {
+        when(todoItemService.getTodoItemsByIds(List.of(1L, 2L)))
+                .thenReturn(new MultiGetResult<>(List.of(todo1, todo2), List.of()));
+
+        mockMvc.perform(post("/api/todos/lookup")
+                        .param("fields", "id,title")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title", is("Buy groceries")))
+                .andExpect(jsonPath("$.items[0].description").doesNotExist())
+                .andExpect(jsonPath("$.missing", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/todos?ids=... should delete the items and return the affected count")
+    void deleteTodoItems_shouldReturnAffectedCount() throws Exception {
+        when(todoItemService.deleteTodoItems(List.of(1L, 2L, 3L))).thenReturn(2);
+
+        mockMvc.perform(delete("/api/todos").param("ids", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(2)));
+
+        verify(todoItemService, times(1)).deleteTodoItems(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/todos/by-title?query=... should delete matching items and return the affected count")
+    void deleteTodoItemsByTitle_shouldReturnAffectedCount() throws Exception {
+        when(todoItemService.deleteTodoItemsByTitle("groceries")).thenReturn(4);
+
+        mockMvc.perform(delete("/api/todos/by-title").param("query", "groceries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(4)));
+
+        verify(todoItemService, times(1)).deleteTodoItemsByTitle("groceries");
+    }
+
+    @Test
+    @DisplayName("PATCH /api/todos/description should update the items and return the affected count")
+    void updateTodoItemDescriptions_shouldReturnAffectedCount() throws Exception {
+        when(todoItemService.updateTodoItemDescriptions(List.of(1L, 2L), "Done")).thenReturn(2);
+
+        mockMvc.perform(patch("/api/todos/description")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkDescriptionUpdate(List.of(1L, 2L), "Done"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(2)));
+
+        verify(todoItemService, times(1)).updateTodoItemDescriptions(List.of(1L, 2L), "Done");
+    }
+
+    @Test
+    @DisplayName("GET /api/todos/search?query=... should return ranked results with scores")
+    void searchTodoItems_shouldReturnRankedResults() throws Exception {
+        SearchResultPage<RankedTodoItem> results = new SearchResultPage<>(
+                List.of(new RankedTodoItem(todo2, 2.5), new RankedTodoItem(todo1, 0.75)), 0, 20, 2);
+        when(todoItemService.searchTodoItems("gym eggs", null, null)).thenReturn(results);
+
+        mockMvc.perform(get("/api/todos/search")
+                        .param("query", "gym eggs")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].item.id", is(2)))
+                .andExpect(jsonPath("$.items[0].score", is(2.5)))
+                .andExpect(jsonPath("$.items[1].item.id", is(1)))
+                .andExpect(jsonPath("$.total", is(2)));
+
+        verify(todoItemService, times(1)).searchTodoItems("gym eggs", null, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/todos/search?query=...&fields=id should rank summaries")
+    void searchTodoItems_withFields_shouldReturnRankedSummaries() throws Exception {
+        SearchResultPage<RankedTodoItemSummary> results = new SearchResultPage<>(
+                List.of(new RankedTodoItemSummary(new TodoItemSummary(2L, "Workout", 0L), 2.5)), 0, 20, 1);
+        when(todoItemService.searchTodoItemSummaries("gym", null, null)).thenReturn(results);
+
+        mockMvc.perform(get("/api/todos/search")
+                        .param("query", "gym")
+                        .param("fields", "id")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].item.id", is(2)))
+                .andExpect(jsonPath("$.items[0].item.title").doesNotExist())
+                .andExpect(jsonPath("$.items[0].score", is(2.5)))
+                .andExpect(jsonPath("$.total", is(1)));
+
+        verify(todoItemService, never()).searchTodoItems(any(), any(), any());
+    }
+
     @Test
     @DisplayName("GET /api/todos/search/title?query=... should return matching items by title")
     void searchTodoItemsByTitle_shouldReturnMatchingItems() throws Exception {
@@ -259,6 +714,23 @@ class TodoItemControllerTest {
         verify(todoItemService, times(1)).searchTodoItemsByTitle(query);
     }
 
+    @Test
+    @DisplayName("GET /api/todos/search/title?query=...&fuzziness=1 should search with typo tolerance")
+    void searchTodoItemsByTitle_withFuzziness_shouldReturnMatchingItems() throws Exception {
+        // Arrange
+        when(todoItemService.searchTodoItemsByTitle("groseries", 1)).thenReturn(List.of(todo1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/search/title")
+                        .param("query", "groseries")
+                        .param("fuzziness", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is(todo1.getTitle())));
+
+        verify(todoItemService, never()).searchTodoItemsByTitle(anyString());
+    }
+
     @Test
     @DisplayName("GET /api/todos/search/description?query=... should return matching items by description")
     void searchTodoItemsByDescription_shouldReturnMatchingItems() throws Exception {
@@ -0,0 +1,258 @@
+package dev.sro.task1.grpc;
+
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.exception.PreconditionFailedException;
+import dev.sro.task1.proto.TodoProtos;
+import dev.sro.task1.proto.TodoServiceGrpc;
+import dev.sro.task1.proto.TodoServiceProtos;
+import dev.sro.task1.service.TodoItemService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the gRPC service on an in-process server and calls it through a loopback channel, with the
+ * service layer mocked.
+ */
+@DisplayName("TodoGrpcService Unit Tests")
+class TodoGrpcServiceTest {
+
+    private TodoItemService todoItemService;
+    private TodoProperties todoProperties;
+    private Server server;
+    private ManagedChannel channel;
+    private TodoServiceGrpc.TodoServiceBlockingStub blockingStub;
+    private TodoServiceGrpc.TodoServiceStub asyncStub;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        todoItemService = mock(TodoItemService.class);
+        todoProperties = new TodoProperties();
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(new TodoGrpcService(todoItemService, todoProperties))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        blockingStub = TodoServiceGrpc.newBlockingStub(channel).withDeadlineAfter(5, TimeUnit.SECONDS);
+        asyncStub = TodoServiceGrpc.newStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("GetTodoItem should return the item, and NOT_FOUND for an unknown ID")
+    void getTodoItem_shouldReturnItemOrNotFound() {
+        when(todoItemService.getTodoItemById(1L)).thenReturn(Optional.of(new TodoItem(1L, "Buy groceries", null, 3L)));
+        when(todoItemService.getTodoItemById(99L)).thenReturn(Optional.empty());
+
+        TodoProtos.TodoItem item = blockingStub.getTodoItem(TodoServiceProtos.GetTodoItemRequest.newBuilder().setId(1).build());
+        StatusRuntimeException missing = assertThrows(StatusRuntimeException.class,
+                () -> blockingStub.getTodoItem(TodoServiceProtos.GetTodoItemRequest.newBuilder().setId(99).build()));
+
+        assertEquals("Buy groceries", item.getTitle());
+        assertFalse(item.hasDescription());
+        assertEquals(3L, item.getVersion());
+        assertEquals(Status.Code.NOT_FOUND, missing.getStatus().getCode());
+    }
+
+    @Test
+    @DisplayName("CreateTodoItem should map service validation errors to INVALID_ARGUMENT")
+    void createTodoItem_shouldReturnInvalidArgument_whenTitleIsBlank() {
+        when(todoItemService.createTodoItem(any(TodoItem.class)))
+                .thenThrow(new IllegalArgumentException("Title cannot be empty."));
+
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class,
+                () -> blockingStub.createTodoItem(TodoProtos.TodoItem.newBuilder().setTitle(" ").build()));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, ex.getStatus().getCode());
+        assertEquals("Title cannot be empty.", ex.getStatus().getDescription());
+    }
+
+    @Test
+    @DisplayName("UpdateTodoItem should pass the expected versions and map a failed precondition")
+    void updateTodoItem_shouldPassExpectedVersions() {
+        when(todoItemService.updateTodoItem(eq(1L), any(TodoItem.class), eq(List.of(2L))))
+                .thenThrow(new PreconditionFailedException("TodoItem 1 is at version 3."));
+
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class,
+                () -> blockingStub.updateTodoItem(TodoServiceProtos.UpdateTodoItemRequest.newBuilder()
+                        .setId(1)
+                        .setItem(TodoProtos.TodoItem.newBuilder().setTitle("Renamed"))
+                        .addExpectedVersions(2)
+                        .build()));
+
+        assertEquals(Status.Code.FAILED_PRECONDITION, ex.getStatus().getCode());
+        verify(todoItemService, never()).updateTodoItem(anyLong(), any(TodoItem.class));
+    }
+
+    @Test
+    @DisplayName("ListTodoItems should stream every exported item in order")
+    void listTodoItems_shouldStreamEveryItem() {
+        doAnswer(invocation -> {
+            Consumer<TodoItem> consumer = invocation.getArgument(0);
+            LongStream.rangeClosed(1, 500).forEach(id -> consumer.accept(new TodoItem(id, "Item " + id, null, 0L)));
+            return 500L;
+        }).when(todoItemService).exportTodoItems(any());
+
+        List<Long> ids = new ArrayList<>();
+        blockingStub.listTodoItems(TodoServiceProtos.ListTodoItemsRequest.getDefaultInstance())
+                .forEachRemaining(item -> ids.add(item.getId()));
+
+        assertEquals(LongStream.rangeClosed(1, 500).boxed().toList(), ids);
+    }
+
+    @Test
+    @DisplayName("ListTodoItems should fail with DEADLINE_EXCEEDED when the client stops reading")
+    void listTodoItems_shouldFailStalledClient() throws Exception {
+        todoProperties.getGrpc().setStallTimeout(Duration.ofMillis(200));
+        doAnswer(invocation -> {
+            Consumer<TodoItem> consumer = invocation.getArgument(0);
+            LongStream.rangeClosed(1, 500).forEach(id -> consumer.accept(new TodoItem(id, "Item " + id, null, 0L)));
+            return 500L;
+        }).when(todoItemService).exportTodoItems(any());
+
+        CompletableFuture<Status> status = new CompletableFuture<>();
+        asyncStub.listTodoItems(TodoServiceProtos.ListTodoItemsRequest.getDefaultInstance(),
+                new ClientResponseObserver<TodoServiceProtos.ListTodoItemsRequest, TodoProtos.TodoItem>() {
+
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<TodoServiceProtos.ListTodoItemsRequest> requests) {
+                        requests.disableAutoRequestWithInitial(0); // Never takes an item
+                    }
+
+                    @Override
+                    public void onNext(TodoProtos.TodoItem value) {
+                    }
+
+                    @Override
+                    public void onError(Throwable cause) {
+                        status.complete(Status.fromThrowable(cause));
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        status.complete(Status.OK);
+                    }
+                });
+
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, status.get(5, TimeUnit.SECONDS).getCode());
+    }
+
+    @Test
+    @DisplayName("SearchTodoItemsByTitle should stream the matches of the fuzzy search")
+    void searchTodoItemsByTitle_shouldStreamMatches() {
+        when(todoItemService.searchTodoItemsByTitle("vacaton", 1)).thenReturn(List.of(
+                new TodoItem(2L, "Plan vacation", "Book flights", 0L), new TodoItem(1L, "Vacation photos", null, 0L)));
+
+        List<String> titles = new ArrayList<>();
+        blockingStub.searchTodoItemsByTitle(TodoServiceProtos.SearchTodoItemsByTitleRequest.newBuilder()
+                        .setQuery("vacaton")
+                        .setFuzziness(1)
+                        .build())
+                .forEachRemaining(item -> titles.add(item.getTitle()));
+
+        assertEquals(List.of("Plan vacation", "Vacation photos"), titles);
+    }
+
+    @Test
+    @DisplayName("CreateTodoItems should create the streamed items in one batch once the client half-closes")
+    void createTodoItems_shouldCreateStreamedItems() throws Exception {
+        when(todoItemService.createTodoItems(anyList())).thenReturn(new BatchCreateResult(
+                List.of(new BatchCreateResult.Created(0, 10L)),
+                List.of(new BatchCreateResult.Failed(1, "Title cannot be empty."))));
+
+        ResultObserver<TodoProtos.BatchCreateResult> result = new ResultObserver<>();
+        StreamObserver<TodoProtos.TodoItem> requests = asyncStub.createTodoItems(result);
+        requests.onNext(TodoProtos.TodoItem.newBuilder().setTitle("First").build());
+        requests.onNext(TodoProtos.TodoItem.newBuilder().build());
+        requests.onCompleted();
+
+        TodoProtos.BatchCreateResult response = result.get();
+        assertEquals(10L, response.getCreated(0).getId());
+        assertEquals(1, response.getFailed(0).getIndex());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TodoItem>> captor = ArgumentCaptor.forClass(List.class);
+        verify(todoItemService).createTodoItems(captor.capture());
+        assertEquals("First", captor.getValue().get(0).getTitle());
+        assertNull(captor.getValue().get(1).getTitle());
+    }
+
+    @Test
+    @DisplayName("CreateTodoItems should fail with INVALID_ARGUMENT once more than the maximum items are streamed")
+    void createTodoItems_shouldRejectTooManyItems() {
+        todoProperties.getBatch().setMaxItems(2);
+
+        ResultObserver<TodoProtos.BatchCreateResult> result = new ResultObserver<>();
+        StreamObserver<TodoProtos.TodoItem> requests = asyncStub.createTodoItems(result);
+        for (int i = 0; i < 3; i++) {
+            requests.onNext(TodoProtos.TodoItem.newBuilder().setTitle("Item " + i).build());
+        }
+        requests.onCompleted();
+
+        ExecutionException ex = assertThrows(ExecutionException.class, result::get);
+        assertEquals(Status.Code.INVALID_ARGUMENT, Status.fromThrowable(ex.getCause()).getCode());
+        verify(todoItemService, never()).createTodoItems(anyList());
+    }
+
+    /**
+     * Completes with the single response of a call, or with its error.
+     */
+    private static final class ResultObserver<T> implements StreamObserver<T> {
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+
+        @Override
+        public void onNext(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            result.completeExceptionally(cause);
+        }
+
+        @Override
+        public void onCompleted() {
+            result.complete(value);
+        }
+
+        T get() throws Exception {
+            return result.get(5, TimeUnit.SECONDS);
+        }
+    }
+}
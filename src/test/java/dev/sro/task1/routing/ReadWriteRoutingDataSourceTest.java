@@ -0,0 +1,148 @@
+package dev.sro.task1.routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ReadWriteRoutingDataSource Unit Tests")
+class ReadWriteRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica1;
+    private DataSource replica2;
+    private Connection primaryConnection;
+    private Connection replica1Connection;
+    private Connection replica2Connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primaryConnection = mock(Connection.class);
+        replica1Connection = mock(Connection.class);
+        replica2Connection = mock(Connection.class);
+        primary = mockDataSource(primaryConnection);
+        replica1 = mockDataSource(replica1Connection);
+        replica2 = mockDataSource(replica2Connection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        ReadYourWrites.unbind();
+    }
+
+    @Test
+    @DisplayName("Read-only transactions should use the replicas round-robin")
+    void readOnlyTransaction_shouldUseReplicasRoundRobin() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(Duration.ofSeconds(30));
+        beginTransaction(true);
+
+        assertSame(replica1Connection, routing.getConnection());
+        assertSame(replica2Connection, routing.getConnection());
+        assertSame(replica1Connection, routing.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    @DisplayName("Read-write transactions should use the primary and keep the thread's reads on it for the window")
+    void readWriteTransaction_shouldUsePrimaryAndPinReads() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(Duration.ofSeconds(30));
+        beginTransaction(false);
+
+        assertSame(primaryConnection, routing.getConnection());
+
+        beginTransaction(true);
+        assertSame(primaryConnection, routing.getConnection());
+        verifyNoInteractions(replica1, replica2);
+    }
+
+    @Test
+    @DisplayName("Connections outside a transaction should come from the primary")
+    void noTransaction_shouldUsePrimary() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(Duration.ofSeconds(30));
+
+        assertSame(primaryConnection, routing.getConnection());
+        verifyNoInteractions(replica1, replica2);
+    }
+
+    @Test
+    @DisplayName("A failing replica should be skipped until the retry interval has passed")
+    void failingReplica_shouldBeSkipped() throws Exception {
+        when(replica1.getConnection()).thenThrow(new SQLTransientConnectionException("Connection is not available"));
+        ReadWriteRoutingDataSource routing = routing(Duration.ofMillis(200));
+        beginTransaction(true);
+
+        assertSame(replica2Connection, routing.getConnection());
+        assertSame(replica2Connection, routing.getConnection());
+        assertSame(replica2Connection, routing.getConnection());
+        verify(replica1, times(1)).getConnection();
+
+        Thread.sleep(250);
+        reset(replica1);
+        when(replica1.getConnection()).thenReturn(replica1Connection);
+        assertTrue(List.of(routing.getConnection(), routing.getConnection()).contains(replica1Connection));
+    }
+
+    @Test
+    @DisplayName("Reads should fall back to the primary when no replica is available")
+    void noAvailableReplica_shouldFallBackToPrimary() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLTransientConnectionException("Connection is not available"));
+        when(replica2.getConnection()).thenThrow(new SQLTransientConnectionException("Connection is not available"));
+        ReadWriteRoutingDataSource routing = routing(Duration.ofSeconds(30));
+        beginTransaction(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertSame(primaryConnection, routing.getConnection());
+        verify(replica1, times(1)).getConnection();
+        verify(replica2, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Reads inside onPrimary or with a client deadline should use the primary")
+    void pinnedReads_shouldUsePrimary() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(Duration.ofSeconds(30));
+        beginTransaction(true);
+
+        assertSame(primaryConnection, ReadYourWrites.onPrimary(() -> connect(routing)));
+        assertSame(replica1Connection, routing.getConnection());
+
+        ReadYourWrites.bind(System.currentTimeMillis() + 10_000, until -> {
+        });
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    private ReadWriteRoutingDataSource routing(Duration retryInterval) {
+        return new ReadWriteRoutingDataSource(primary, List.of(replica1, replica2), retryInterval, Duration.ofSeconds(5));
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static Connection connect(DataSource dataSource) {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static DataSource mockDataSource(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,116 @@
+package dev.sro.task1.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import dev.sro.task1.entity.TodoItem;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read/write splitting on two embedded H2 databases that do not replicate: a row only the replica has
+ * shows which database answered a read.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rw-primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "todo.grpc.enabled=false",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=false",
+        "todo.datasource.replicas[0].url=" + ReadWriteSplittingIntegrationTest.REPLICA_URL,
+        "todo.datasource.replicas[0].username=sa"
+})
+@AutoConfigureMockMvc
+@DisplayName("Read/write splitting Integration Tests")
+class ReadWriteSplittingIntegrationTest {
+
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:rw-replica;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema-h2.sql'";
+    private static final long REPLICA_ONLY_ID = 1_000_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.update("DELETE FROM todo_items WHERE id = ?", REPLICA_ONLY_ID);
+        replica.update("INSERT INTO todo_items (id, title, description, version, created_at, updated_at) "
+                + "VALUES (?, 'Only on the replica', NULL, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                REPLICA_ONLY_ID);
+    }
+
+    @Test
+    @DisplayName("Read-only requests should be answered by the replica")
+    void readOnlyRequest_shouldUseReplica() throws Exception {
+        mockMvc.perform(get("/api/todos?size=100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].title", hasItem("Only on the replica")));
+
+        assertEquals(0, count(primary, REPLICA_ONLY_ID));
+    }
+
+    @Test
+    @DisplayName("Writes should go to the primary, and the writing client should read from it for a while")
+    void write_shouldUsePrimaryAndPinClientReads() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(post("/api/todos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TodoItem("Written to the primary", null))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse();
+        long id = objectMapper.readValue(response.getContentAsString(), TodoItem.class).getId();
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+
+        assertEquals(1, count(primary, id));
+        assertEquals(0, count(replica, id));
+        assertNotNull(cookie);
+
+        mockMvc.perform(get("/api/todos?size=100").cookie(cookie))
+                .andExpect(jsonPath("$.items[*].title", hasItem("Written to the primary")))
+                .andExpect(jsonPath("$.items[*].title", not(hasItem("Only on the replica"))));
+        mockMvc.perform(get("/api/todos?size=100"))
+                .andExpect(jsonPath("$.items[*].title", hasItem("Only on the replica")))
+                .andExpect(jsonPath("$.items[*].title", not(hasItem("Written to the primary"))));
+    }
+
+    @Test
+    @DisplayName("GET /api/todos/{id} should load cache misses from the primary")
+    void getTodoItemById_shouldLoadFromPrimary() throws Exception {
+        mockMvc.perform(get("/api/todos/{id}", REPLICA_ONLY_ID))
+                .andExpect(status().isNotFound());
+    }
+
+    private static long count(JdbcTemplate jdbcTemplate, long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todo_items WHERE id = ?", Long.class, id);
+    }
+}
@@ -0,0 +1,123 @@
+package dev.sro.task1.search;
+
+import dev.sro.task1.entity.TodoItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TitleTrigramIndex Unit Tests")
+class TitleTrigramIndexTest {
+
+    private TitleTrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TitleTrigramIndex();
+        index.rebuild(consumer -> {
+            consumer.accept(item(1L, "Buy groceries"));
+            consumer.accept(item(2L, "Clean the kitchen"));
+            consumer.accept(item(3L, "Plan vacation"));
+            consumer.accept(item(4L, "Café with Ana"));
+        });
+    }
+
+    private static TodoItem item(Long id, String title) {
+        TodoItem todoItem = new TodoItem(title, null);
+        todoItem.setId(id);
+        return todoItem;
+    }
+
+    @Test
+    @DisplayName("findContaining should match arbitrary substrings, not only whole words")
+    void findContaining_shouldMatchSubstrings() {
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L), index.findContaining("rocer"));
+        assertEquals(List.of(2L), index.findContaining("n the k"));
+        assertEquals(List.of(), index.findContaining("groceries!"));
+    }
+
+    @Test
+    @DisplayName("findContaining should verify candidates that share every trigram but do not contain the text")
+    void findContaining_shouldVerifyCandidates() {
+        index.index(List.of(item(5L, "abcd bcde")));
+
+        // Trigrams "abc", "bcd", "cde" all occur in item 5, but not as one run
+        assertEquals(List.of(), index.findContaining("abcde"));
+    }
+
+    @Test
+    @DisplayName("findContaining should handle texts shorter than a trigram")
+    void findContaining_shouldHandleShortTexts() {
+        assertEquals(List.of(2L, 3L, 4L), index.findContaining("an"));
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.findContaining(""));
+    }
+
+    @Test
+    @DisplayName("findContaining should ignore case and accents")
+    void findContaining_shouldIgnoreCaseAndAccents() {
+        assertEquals(List.of(4L), index.findContaining("CAFE"));
+    }
+
+    @Test
+    @DisplayName("findSimilar should tolerate typos up to the given edit distance, closest first")
+    void findSimilar_shouldTolerateTypos() {
+        index.index(List.of(item(6L, "Vacation photos")));
+
+        assertEquals(List.of(), index.findSimilar("vacatoin", 1));
+        assertEquals(List.of(new TitleTrigramIndex.Match(3L, 2), new TitleTrigramIndex.Match(6L, 2)),
+                index.findSimilar("vacatoin", 2));
+        assertEquals(List.of(new TitleTrigramIndex.Match(1L, 1)), index.findSimilar("grocries", 1));
+    }
+
+    @Test
+    @DisplayName("index and remove should keep the postings current")
+    void indexAndRemove_shouldKeepPostingsCurrent() {
+        index.index(List.of(item(1L, "Sell groceries")));
+        assertEquals(List.of(1L), index.findContaining("sell"));
+        assertEquals(List.of(), index.findContaining("buy"));
+
+        index.remove(List.of(1L, 99L));
+        assertEquals(List.of(), index.findContaining("groceries"));
+    }
+
+    @Test
+    @DisplayName("rebuild should replay changes applied while it was running")
+    void rebuild_shouldReplayConcurrentChanges() {
+        int indexed = index.rebuild(consumer -> {
+            consumer.accept(item(7L, "Water plants"));
+            index.remove(List.of(7L));
+            index.index(List.of(item(8L, "Walk the dog")));
+        });
+
+        assertEquals(1, indexed);
+        assertEquals(List.of(8L), index.findContaining("wa"));
+    }
+
+    @Test
+    @DisplayName("Repeated updates should not make the ordinals grow beyond twice the live titles")
+    void repeatedUpdates_shouldCompactOrdinals() {
+        TitleTrigramIndex.State state = new TitleTrigramIndex.State();
+        for (long id = 1; id <= 10; id++) {
+            state.put(new TitleTrigramIndex.Title(id, "item " + id));
+        }
+        for (int round = 0; round < 1000; round++) {
+            state.put(new TitleTrigramIndex.Title(round % 10 + 1, "item " + (round % 10 + 1) + " rev " + round));
+        }
+
+        assertTrue(state.ordinalCount() <= 10 + 64, "ordinals: " + state.ordinalCount());
+        assertEquals(List.of(3L), state.containing("item 3 rev 992"));
+        assertEquals(List.of(new TitleTrigramIndex.Match(7L, 1)), state.similar("item 7 rev 996x", 1));
+    }
+
+    @Test
+    @DisplayName("substringDistance should count the edits to the closest substring")
+    void substringDistance_shouldCountEditsToClosestSubstring() {
+        assertEquals(0, TitleTrigramIndex.substringDistance("cat", "concatenate"));
+        assertEquals(1, TitleTrigramIndex.substringDistance("cut", "concatenate"));
+        assertEquals(3, TitleTrigramIndex.substringDistance("dog", "cat"));
+    }
+}
@@ -0,0 +1,122 @@
+package dev.sro.task1.search;
+
+import dev.sro.task1.entity.TodoItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TodoSearchIndex Unit Tests")
+class TodoSearchIndexTest {
+
+    private TodoSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TodoSearchIndex();
+        index.rebuild(consumer -> {
+            consumer.accept(item(1L, "Buy groceries", "Milk, eggs and bread from the store"));
+            consumer.accept(item(2L, "Clean the kitchen", "Buy a new sponge before cleaning"));
+            consumer.accept(item(3L, "Plan vacation", "Research destinations and book flights"));
+        });
+    }
+
+    private static TodoItem item(Long id, String title, String description) {
+        TodoItem todoItem = new TodoItem(title, description);
+        todoItem.setId(id);
+        return todoItem;
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 0, 10).hits().stream().map(TodoSearchIndex.Hit::id).toList();
+    }
+
+    @Test
+    @DisplayName("rebuild should index every item and mark the index ready")
+    void rebuild_shouldIndexEveryItem() {
+        assertTrue(index.isReady());
+        assertEquals(List.of(3L), ids("flights"));
+    }
+
+    @Test
+    @DisplayName("search should rank title matches above description matches")
+    void search_shouldRankTitleMatchesFirst() {
+        assertEquals(List.of(1L, 2L), ids("buy"));
+    }
+
+    @Test
+    @DisplayName("search should rank items matching more query terms higher")
+    void search_shouldRankItemsMatchingMoreTermsHigher() {
+        index.index(List.of(item(4L, "Make croutons", "Toast the bread")));
+
+        assertEquals(List.of(1L, 4L), ids("milk bread"));
+    }
+
+    @Test
+    @DisplayName("search should ignore case and accents")
+    void search_shouldIgnoreCaseAndAccents() {
+        index.index(List.of(item(4L, "Café meeting", null)));
+
+        assertEquals(List.of(4L), ids("CAFE"));
+    }
+
+    @Test
+    @DisplayName("search should page through the ranking and report the total")
+    void search_shouldPageThroughRanking() {
+        TodoSearchIndex.SearchHits secondPage = index.search("buy", 1, 1);
+
+        assertEquals(2, secondPage.total());
+        assertEquals(List.of(2L), secondPage.hits().stream().map(TodoSearchIndex.Hit::id).toList());
+        assertTrue(index.search("buy", 5, 1).hits().isEmpty());
+        assertTrue(index.search("   ", 0, 10).hits().isEmpty());
+    }
+
+    @Test
+    @DisplayName("index should replace the previous version of an item")
+    void index_shouldReplacePreviousVersion() {
+        index.index(List.of(item(1L, "Sell groceries", "Nothing to buy")));
+
+        assertEquals(List.of(1L), ids("sell"));
+        assertEquals(List.of(1L, 2L), ids("buy").stream().sorted().toList());
+        assertTrue(ids("milk").isEmpty());
+    }
+
+    @Test
+    @DisplayName("remove should drop items from the index")
+    void remove_shouldDropItems() {
+        index.remove(List.of(3L, 1L, 99L));
+
+        assertTrue(ids("flights").isEmpty());
+        assertEquals(List.of(2L), ids("buy"));
+    }
+
+    @Test
+    @DisplayName("updateDescription should reindex only the description of known items")
+    void updateDescription_shouldReindexDescription() {
+        index.updateDescription(List.of(3L, 99L), "Pack sunscreen");
+
+        assertEquals(List.of(3L), ids("sunscreen"));
+        assertEquals(List.of(3L), ids("vacation"));
+        assertTrue(ids("flights").isEmpty());
+        assertTrue(ids("pack").stream().noneMatch(id -> id == 99L));
+    }
+
+    @Test
+    @DisplayName("rebuild should replay changes applied while it was running")
+    void rebuild_shouldReplayConcurrentChanges() {
+        index.rebuild(consumer -> {
+            consumer.accept(item(1L, "Buy groceries", "Old snapshot"));
+            // Committed while the rebuild is reading: must survive the swap
+            index.index(List.of(item(1L, "Buy groceries", "Fresh description")));
+            index.remove(List.of(2L));
+            consumer.accept(item(2L, "Clean the kitchen", null));
+        });
+
+        assertEquals(List.of(1L), ids("fresh"));
+        assertTrue(ids("snapshot").isEmpty());
+        assertTrue(ids("kitchen").isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package dev.sro.task1.service;
+
+import dev.sro.task1.dto.DeletedTodoItem;
+import dev.sro.task1.dto.DeltaSyncPage;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.service.impl.TombstoneReaper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Delta sync on an embedded H2 database, written through the service; changes are returned as soon as they
+ * are committed.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:delta-sync;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "todo.grpc.enabled=false",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=false",
+        "todo.sync.settle-time=0s"
+})
+@DisplayName("Delta sync Integration Tests")
+class DeltaSyncIntegrationTest {
+
+    @Autowired
+    private TodoItemService todoItemService;
+
+    @Autowired
+    private TombstoneReaper tombstoneReaper;
+
+    @Test
+    @DisplayName("A sync should return only what changed since the previous one, deletions included, in change order")
+    void sync_shouldReturnChangesSincePosition() throws InterruptedException {
+        TodoItem kept = todoItemService.createTodoItem(new TodoItem("Sync kept", null));
+        TodoItem deleted = todoItemService.createTodoItem(new TodoItem("Sync deleted", null));
+        TodoItem untouched = todoItemService.createTodoItem(new TodoItem("Sync untouched", null));
+        settle();
+        Sync first = syncAll(null, null);
+        assertTrue(first.items().stream().map(TodoItem::getId).toList()
+                .containsAll(List.of(kept.getId(), deleted.getId(), untouched.getId())));
+
+        todoItemService.updateTodoItem(kept.getId(), new TodoItem("Sync kept, renamed", null));
+        todoItemService.deleteTodoItem(deleted.getId());
+        TodoItem created = todoItemService.createTodoItem(new TodoItem("Sync created", null));
+        todoItemService.updateTodoItemDescriptions(List.of(created.getId()), "Bulk");
+        settle();
+        Sync second = syncAll(first.next(), 1);
+
+        assertEquals(List.of(kept.getId(), created.getId()), second.items().stream().map(TodoItem::getId).toList());
+        assertEquals("Sync kept, renamed", second.items().get(0).getTitle());
+        assertEquals("Bulk", second.items().get(1).getDescription());
+        assertEquals(List.of(deleted.getId()), second.deleted().stream().map(DeletedTodoItem::id).toList());
+        assertEquals(3, second.pages()); // One change per page, the last one ending the window
+
+        Sync third = syncAll(second.next(), null);
+        assertTrue(third.items().isEmpty());
+        assertTrue(third.deleted().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Tombstones should be purged after the retention")
+    void purge_shouldRemoveTombstonesAfterRetention() throws InterruptedException {
+        TodoItem created = todoItemService.createTodoItem(new TodoItem("Sync purged", null));
+        settle();
+        String position = syncAll(null, null).next();
+        todoItemService.deleteTodoItems(List.of(created.getId(), Long.MAX_VALUE));
+        settle();
+        assertEquals(List.of(created.getId()), syncAll(position, null).deleted().stream().map(DeletedTodoItem::id).toList());
+
+        assertTrue(tombstoneReaper.purge(Instant.now().plus(Duration.ofDays(365))) >= 1);
+
+        assertTrue(syncAll(position, null).deleted().isEmpty());
+    }
+
+    /**
+     * Pages through the changes after a position.
+     */
+    private Sync syncAll(String since, Integer size) {
+        List<TodoItem> items = new ArrayList<>();
+        List<DeletedTodoItem> deleted = new ArrayList<>();
+        String position = since;
+        int pages = 0;
+        DeltaSyncPage page;
+        do {
+            page = todoItemService.getChangesSince(position, size);
+            items.addAll(page.items());
+            deleted.addAll(page.deleted());
+            position = page.next();
+            pages++;
+        } while (page.hasMore());
+        return new Sync(items, deleted, position, pages);
+    }
+
+    /**
+     * Waits for the clock to move past the last change, which the end of the window excludes.
+     */
+    private static void settle() throws InterruptedException {
+        Thread.sleep(5);
+    }
+
+    private record Sync(List<TodoItem> items, List<DeletedTodoItem> deleted, String next, int pages) {
+    }
+}
@@ -1,21 +1,54 @@
 package dev.sro.task1.service; 
 
+import dev.sro.task1.cache.TodoItemCache;
+import dev.sro.task1.concurrency.DatabaseAccessLimiter;
+import dev.sro.task1.concurrency.RequestCoalescer;
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.CursorPage;
+import dev.sro.task1.dto.DeletedTodoItem;
+import dev.sro.task1.dto.DeltaSyncPage;
+import dev.sro.task1.dto.MultiGetResult;
+import dev.sro.task1.dto.RankedTodoItem;
+import dev.sro.task1.dto.RankedTodoItemSummary;
+import dev.sro.task1.dto.SearchResultPage;
+import dev.sro.task1.dto.TodoItemSummary;
 import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.entity.TodoItemTombstone;
+import dev.sro.task1.event.TodoItemChange;
+import dev.sro.task1.exception.PreconditionFailedException;
 import dev.sro.task1.exception.ResourceNotFoundException;
+import dev.sro.task1.exception.SyncExpiredException;
 import dev.sro.task1.repository.TodoItemRepository;
+import dev.sro.task1.repository.TodoItemTombstoneRepository;
+import dev.sro.task1.search.TitleTrigramIndex;
+import dev.sro.task1.search.TodoSearchIndex;
 import dev.sro.task1.service.impl.TodoItemServiceImpl;
+import dev.sro.task1.util.CursorCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +60,33 @@ class TodoItemServiceImplTest {
     @Mock 
     private TodoItemRepository todoItemRepository;
 
+    @Mock
+    private TodoItemTombstoneRepository todoItemTombstoneRepository;
+
+    @Spy
+    private TodoProperties todoProperties = new TodoProperties();
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TodoSearchIndex todoSearchIndex;
+
+    @Mock
+    private TitleTrigramIndex titleTrigramIndex;
+
+    @Spy
+    private TodoItemCache todoItemCache = new TodoItemCache(new TodoProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private DatabaseAccessLimiter databaseAccessLimiter = new DatabaseAccessLimiter(new TodoProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(new TodoProperties(), new SimpleMeterRegistry());
+
     @InjectMocks 
     private TodoItemServiceImpl todoItemService;
 
@@ -47,7 +107,7 @@ class TodoItemServiceImplTest {
     void getAllTodoItems_shouldReturnAllItems() {
         // Arrange
         List<TodoItem> expectedTodos = Arrays.asList(todo1, todo2);
-        when(todoItemRepository.findAll()).thenReturn(expectedTodos);
+        when(todoItemRepository.findAllByOrderByIdAsc()).thenReturn(expectedTodos);
 
         // Act
         List<TodoItem> actualTodos = todoItemService.getAllTodoItems();
@@ -57,7 +117,152 @@ class TodoItemServiceImplTest {
         assertEquals(2, actualTodos.size());
         assertEquals(expectedTodos, actualTodos);
         // Verify that findAll was called exactly once on the mock repository
-        verify(todoItemRepository, times(1)).findAll();
+        verify(todoItemRepository, times(1)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    @DisplayName("getTodoItemPage should return the first page and a cursor when more rows exist")
+    void getTodoItemPage_shouldReturnFirstPageWithNextCursor() {
+        // Arrange: page size 1, the repository returns one extra row to signal a next page
+        when(todoItemRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(Arrays.asList(todo1, todo2));
+
+        // Act
+        CursorPage<TodoItem> page = todoItemService.getTodoItemPage(null, 1);
+
+        // Assert
+        assertEquals(List.of(todo1), page.items());
+        assertEquals(CursorCodec.encode(1L), page.next());
+    }
+
+    @Test
+    @DisplayName("getTodoItemPage should seek past the cursor and return no cursor on the last page")
+    void getTodoItemPage_shouldSeekPastCursor_andEndOnLastPage() {
+        // Arrange
+        when(todoItemRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(21)))
+                .thenReturn(Collections.singletonList(todo2));
+
+        // Act
+        CursorPage<TodoItem> page = todoItemService.getTodoItemPage(CursorCodec.encode(1L), null);
+
+        // Assert
+        assertEquals(List.of(todo2), page.items());
+        assertNull(page.next());
+    }
+
+    @Test
+    @DisplayName("getTodoItemPage should clamp the page size to the configured maximum")
+    void getTodoItemPage_shouldClampPageSize() {
+        // Arrange
+        when(todoItemRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(101)))
+                .thenReturn(Collections.emptyList());
+
+        // Act
+        CursorPage<TodoItem> page = todoItemService.getTodoItemPage(null, 10_000);
+
+        // Assert
+        assertTrue(page.items().isEmpty());
+        verify(todoItemRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(101));
+    }
+
+    @Test
+    @DisplayName("getTodoItemPage should reject malformed cursors and non-positive sizes")
+    void getTodoItemPage_shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> todoItemService.getTodoItemPage("not-a-cursor!", null));
+        assertThrows(IllegalArgumentException.class, () -> todoItemService.getTodoItemPage(null, 0));
+        verify(todoItemRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    @DisplayName("getTodoItemSummaryPage should page summaries without loading full items")
+    void getTodoItemSummaryPage_shouldUseSummaryQuery() {
+        // Arrange
+        TodoItemSummary first = new TodoItemSummary(1L, "Buy groceries", 0L);
+        TodoItemSummary second = new TodoItemSummary(2L, "Plan vacation", 0L);
+        when(todoItemRepository.findSummariesByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(first, second));
+
+        // Act
+        CursorPage<TodoItemSummary> page = todoItemService.getTodoItemSummaryPage(null, 1);
+
+        // Assert
+        assertEquals(List.of(first), page.items());
+        assertEquals(CursorCodec.encode(1L), page.next());
+        verify(todoItemRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    @DisplayName("getChangesSince without a position should read every change of the window, no tombstones, and move to its end")
+    void getChangesSince_firstSync_shouldReadChangesOnly() {
+        // Arrange
+        Instant changedAt = TodoItem.now().minus(Duration.ofHours(1));
+        TodoItem changed = new TodoItem(1L, "Buy groceries", null, 0L, changedAt);
+        when(todoItemRepository.findChangedAfter(eq(Instant.EPOCH), eq(0L), any(Instant.class), eq(Limit.of(21))))
+                .thenReturn(List.of(changed));
+
+        // Act
+        DeltaSyncPage page = todoItemService.getChangesSince(null, null);
+
+        // Assert: the next position is the end of the window, after the change
+        assertEquals(List.of(changed), page.items());
+        assertTrue(page.deleted().isEmpty());
+        assertFalse(page.hasMore());
+        long[] next = CursorCodec.decode(page.next(), 2);
+        assertTrue(next[0] > ChronoUnit.MICROS.between(Instant.EPOCH, changedAt));
+        assertEquals(0L, next[1]);
+        verify(todoItemTombstoneRepository, never()).findDeletedAfter(any(), anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getChangesSince should merge changed and deleted items in change order and continue after the last one on a full page")
+    void getChangesSince_shouldMergeChangesAndTombstones() {
+        // Arrange: changes at t1 (item 1), t2 (deletion of 2) and t3 (item 3); pages of 2
+        Instant since = TodoItem.now().minus(Duration.ofHours(1));
+        Instant t1 = since.plusSeconds(1);
+        Instant t2 = since.plusSeconds(2);
+        Instant t3 = since.plusSeconds(3);
+        TodoItem first = new TodoItem(1L, "Buy groceries", null, 1L, t1);
+        TodoItem third = new TodoItem(3L, "Plan vacation", null, 0L, t3);
+        when(todoItemRepository.findChangedAfter(eq(since), eq(5L), any(Instant.class), eq(Limit.of(3))))
+                .thenReturn(List.of(first, third));
+        when(todoItemTombstoneRepository.findDeletedAfter(eq(since), eq(5L), any(Instant.class), eq(Limit.of(3))))
+                .thenReturn(List.of(new DeletedTodoItem(2L, t2)));
+
+        // Act
+        DeltaSyncPage page = todoItemService.getChangesSince(
+                CursorCodec.encode(ChronoUnit.MICROS.between(Instant.EPOCH, since), 5L), 2);
+
+        // Assert
+        assertEquals(List.of(first), page.items());
+        assertEquals(List.of(new DeletedTodoItem(2L, t2)), page.deleted());
+        assertTrue(page.hasMore());
+        assertEquals(CursorCodec.encode(ChronoUnit.MICROS.between(Instant.EPOCH, t2), 2L), page.next());
+    }
+
+    @Test
+    @DisplayName("getChangesSince should reject malformed positions and answer positions older than the tombstone retention with SyncExpiredException")
+    void getChangesSince_shouldRejectMalformedAndExpiredPositions() {
+        Instant expired = TodoItem.now().minus(todoProperties.getSync().getTombstoneRetention()).minusSeconds(60);
+        assertThrows(IllegalArgumentException.class, () -> todoItemService.getChangesSince("not a position", null));
+        assertThrows(IllegalArgumentException.class, () -> todoItemService.getChangesSince(CursorCodec.encode(1L), null));
+        assertThrows(SyncExpiredException.class, () -> todoItemService.getChangesSince(
+                CursorCodec.encode(ChronoUnit.MICROS.between(Instant.EPOCH, expired), 1L), null));
+        verify(todoItemRepository, never()).findChangedAfter(any(), anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("exportTodoItems should pass every streamed item to the consumer")
+    void exportTodoItems_shouldConsumeEveryItem() {
+        // Arrange
+        when(todoItemRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(todo1, todo2));
+        List<TodoItem> exported = new ArrayList<>();
+
+        // Act
+        long count = todoItemService.exportTodoItems(exported::add);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(List.of(todo1, todo2), exported);
     }
 
     @Test
@@ -65,7 +270,7 @@ class TodoItemServiceImplTest {
     void getTodoItemById_shouldReturnItemIfExists() {
         // Arrange
         Long itemId = 1L;
-        when(todoItemRepository.findById(itemId)).thenReturn(Optional.of(todo1));
+        when(todoItemRepository.findWithDescriptionById(itemId)).thenReturn(Optional.of(todo1));
 
         // Act
         Optional<TodoItem> actualTodoOptional = todoItemService.getTodoItemById(itemId);
@@ -73,7 +278,7 @@ class TodoItemServiceImplTest {
         // Assert
         assertTrue(actualTodoOptional.isPresent());
         assertEquals(todo1, actualTodoOptional.get());
-        verify(todoItemRepository, times(1)).findById(itemId);
+        verify(todoItemRepository, times(1)).findWithDescriptionById(itemId);
     }
 
     @Test
@@ -81,14 +286,93 @@ class TodoItemServiceImplTest {
     void getTodoItemById_shouldReturnEmptyOptionalIfItemDoesNotExist() {
         // Arrange
         Long nonExistentId = 99L;
-        when(todoItemRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(todoItemRepository.findWithDescriptionById(nonExistentId)).thenReturn(Optional.empty());
 
         // Act
         Optional<TodoItem> actualTodoOptional = todoItemService.getTodoItemById(nonExistentId);
 
         // Assert
         assertFalse(actualTodoOptional.isPresent());
-        verify(todoItemRepository, times(1)).findById(nonExistentId);
+        verify(todoItemRepository, times(1)).findWithDescriptionById(nonExistentId);
+    }
+
+    @Test
+    @DisplayName("getTodoItemById should serve repeated lookups, hits and misses alike, from the cache")
+    void getTodoItemById_shouldServeRepeatedLookupsFromCache() {
+        // Arrange
+        when(todoItemRepository.findWithDescriptionById(1L)).thenReturn(Optional.of(todo1));
+        when(todoItemRepository.findWithDescriptionById(99L)).thenReturn(Optional.empty());
+
+        // Act
+        todoItemService.getTodoItemById(1L);
+        todoItemService.getTodoItemById(99L);
+        Optional<TodoItem> cached = todoItemService.getTodoItemById(1L);
+        Optional<TodoItem> missing = todoItemService.getTodoItemById(99L);
+
+        // Assert
+        assertSame(todo1, cached.orElseThrow());
+        assertTrue(missing.isEmpty());
+        verify(todoItemRepository, times(1)).findWithDescriptionById(1L);
+        verify(todoItemRepository, times(1)).findWithDescriptionById(99L);
+    }
+
+    @Test
+    @DisplayName("getTodoItemsByIds should answer from the cache first and read only the misses, in request order")
+    void getTodoItemsByIds_shouldReadMissesOnlyInRequestOrder() {
+        // Arrange
+        when(todoItemRepository.findWithDescriptionById(1L)).thenReturn(Optional.of(todo1));
+        todoItemService.getTodoItemById(1L);
+        when(todoItemRepository.findAllByIdIn(List.of(99L, 2L))).thenReturn(List.of(todo2));
+
+        // Act
+        MultiGetResult<TodoItem> result = todoItemService.getTodoItemsByIds(List.of(99L, 2L, 1L, 2L));
+        MultiGetResult<TodoItem> cached = todoItemService.getTodoItemsByIds(List.of(2L, 99L));
+
+        // Assert
+        assertEquals(List.of(todo2, todo1), result.items());
+        assertEquals(List.of(99L), result.missing());
+        assertEquals(List.of(todo2), cached.items());
+        assertEquals(List.of(99L), cached.missing());
+        verify(todoItemRepository, times(1)).findAllByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("getTodoItemsByIds should read misses in chunks of 1000 IDs")
+    void getTodoItemsByIds_shouldReadMissesInChunks() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(todoItemRepository.findAllByIdIn(anyCollection())).thenReturn(List.of());
+
+        // Act
+        MultiGetResult<TodoItem> result = todoItemService.getTodoItemsByIds(ids);
+
+        // Assert
+        assertTrue(result.items().isEmpty());
+        assertEquals(ids, result.missing());
+        verify(todoItemRepository, times(3)).findAllByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("getTodoItemsByIds should not cache what was read while a change committed")
+    void getTodoItemsByIds_shouldNotCacheReadsRacingWithChanges() {
+        // Arrange
+        when(todoItemRepository.findAllByIdIn(List.of(1L))).thenAnswer(invocation -> {
+            todoItemCache.onTodoItemChange(new TodoItemChange.Saved(List.of(todo1)));
+            return List.of(todo1);
+        });
+
+        // Act
+        todoItemService.getTodoItemsByIds(List.of(1L));
+
+        // Assert
+        assertNull(todoItemCache.getIfPresent(1L));
+    }
+
+    @Test
+    @DisplayName("getTodoItemsByIds should reject a null ID")
+    void getTodoItemsByIds_shouldRejectNullId() {
+        assertThrows(IllegalArgumentException.class, () -> todoItemService.getTodoItemsByIds(Arrays.asList(1L, null)));
+        verifyNoInteractions(todoItemRepository);
     }
 
     @Test
@@ -108,6 +392,8 @@ class TodoItemServiceImplTest {
         assertEquals("Description for new task", createdItem.getDescription());
         // Verify that save method was called exactly once with the new item
         verify(todoItemRepository, times(1)).save(newItem);
+        // Verify that the change was published for the search index
+        verify(eventPublisher, times(1)).publishEvent(new TodoItemChange.Saved(List.of(newItem)));
     }
 
     @Test
@@ -140,6 +426,47 @@ class TodoItemServiceImplTest {
         verify(todoItemRepository, never()).save(any(TodoItem.class));
     }
 
+    @Test
+    @DisplayName("createTodoItems should save valid items in flush-sized chunks and report invalid ones")
+    @SuppressWarnings("unchecked")
+    void createTodoItems_shouldSaveValidItemsInChunks_andReportInvalidOnes() {
+        // Arrange: flush every 2 items; item at index 1 is invalid
+        todoProperties.getBatch().setFlushSize(2);
+        TodoItem a = new TodoItem("A", null);
+        TodoItem invalid = new TodoItem(" ", null);
+        TodoItem b = new TodoItem("B", null);
+        TodoItem c = new TodoItem("C", null);
+        long[] nextId = {10};
+        when(todoItemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TodoItem> chunk = new ArrayList<>(invocation.getArgument(0, List.class));
+            chunk.forEach(item -> item.setId(nextId[0]++));
+            return chunk;
+        });
+
+        // Act
+        BatchCreateResult result = todoItemService.createTodoItems(Arrays.asList(a, invalid, b, c));
+
+        // Assert
+        assertEquals(List.of(new BatchCreateResult.Created(0, 10L), new BatchCreateResult.Created(2, 11L),
+                new BatchCreateResult.Created(3, 12L)), result.created());
+        assertEquals(List.of(new BatchCreateResult.Failed(1, "Todo item title cannot be null or empty.")), result.failed());
+        // Two chunks: [A, B] and [C], each flushed and cleared
+        verify(todoItemRepository, times(2)).saveAll(anyList());
+        verify(todoItemRepository, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("createTodoItems should reject empty and oversized batches")
+    void createTodoItems_shouldRejectEmptyAndOversizedBatches() {
+        todoProperties.getBatch().setMaxItems(1);
+
+        assertThrows(IllegalArgumentException.class, () -> todoItemService.createTodoItems(List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> todoItemService.createTodoItems(List.of(new TodoItem("A", null), new TodoItem("B", null))));
+        verify(todoItemRepository, never()).saveAll(anyList());
+    }
+
     @Test
     @DisplayName("updateTodoItem should update and return the modified item if it exists and title is valid")
     void updateTodoItem_shouldUpdateAndReturnModifiedItem_whenItemExistsAndTitleIsValid() {
@@ -217,21 +544,86 @@ class TodoItemServiceImplTest {
     }
 
     @Test
-    @DisplayName("deleteTodoItem should delete the item if it exists")
+    @DisplayName("updateTodoItem with expected versions should issue one conditional UPDATE and return the next version")
+    void updateTodoItem_withExpectedVersion_shouldUpdateConditionally() {
+        // Arrange
+        TodoItem updatedDetails = new TodoItem("Updated Groceries", "Cheese");
+        when(todoItemRepository.updateIfVersionIn(eq(1L), eq("Updated Groceries"), eq("Cheese"), eq(List.of(4L)),
+                any(Instant.class))).thenReturn(1);
+
+        // Act
+        TodoItem result = todoItemService.updateTodoItem(1L, updatedDetails, List.of(4L));
+
+        // Assert
+        assertEquals(1L, result.getId());
+        assertEquals(5L, result.getVersion());
+        assertEquals("Updated Groceries", result.getTitle());
+        assertNotNull(result.getUpdatedAt());
+        verify(todoItemRepository, never()).findById(anyLong());
+        verify(todoItemRepository, never()).save(any(TodoItem.class));
+        verify(eventPublisher, times(1)).publishEvent(any(TodoItemChange.Saved.class));
+    }
+
+    @Test
+    @DisplayName("updateTodoItem with expected versions should throw PreconditionFailedException if the item is at another version")
+    void updateTodoItem_withExpectedVersion_shouldThrowPreconditionFailed_whenVersionDiffers() {
+        // Arrange
+        TodoItem updatedDetails = new TodoItem("Updated Groceries", null);
+        when(todoItemRepository.updateIfVersionIn(eq(1L), eq("Updated Groceries"), isNull(), eq(List.of(4L)),
+                any(Instant.class))).thenReturn(0);
+        when(todoItemRepository.findVersionById(1L)).thenReturn(Optional.of(6L));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class,
+                () -> todoItemService.updateTodoItem(1L, updatedDetails, List.of(4L)));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("updateTodoItem with expected versions should throw ResourceNotFoundException if the item does not exist")
+    void updateTodoItem_withExpectedVersion_shouldThrowNotFound_whenItemDoesNotExist() {
+        // Arrange
+        TodoItem updatedDetails = new TodoItem("Updated Groceries", null);
+        when(todoItemRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> todoItemService.updateTodoItem(99L, updatedDetails, List.of(4L)));
+    }
+
+    @Test
+    @DisplayName("getTodoItemVersion should use the cached item or else the version-only query")
+    void getTodoItemVersion_shouldUseCacheOrVersionQuery() {
+        // Arrange
+        todo1.setVersion(3L);
+        when(todoItemRepository.findWithDescriptionById(1L)).thenReturn(Optional.of(todo1));
+        when(todoItemRepository.findVersionById(2L)).thenReturn(Optional.of(7L));
+        todoItemService.getTodoItemById(1L);
+
+        // Act & Assert
+        assertEquals(Optional.of(3L), todoItemService.getTodoItemVersion(1L));
+        assertEquals(Optional.of(7L), todoItemService.getTodoItemVersion(2L));
+        verify(todoItemRepository, never()).findVersionById(1L);
+        verify(todoItemRepository, never()).findWithDescriptionById(2L);
+    }
+
+    @Test
+    @DisplayName("deleteTodoItem should delete the item with a single statement if it exists and leave a tombstone")
     void deleteTodoItem_shouldDeleteItemIfExists() {
         // Arrange
         Long itemId = 1L;
-        // Mock that the item exists
-        when(todoItemRepository.existsById(itemId)).thenReturn(true);
-        // Do nothing when deleteById is called (default for void methods)
-        doNothing().when(todoItemRepository).deleteById(itemId);
+        // Mock that one row was deleted
+        when(todoItemRepository.deleteAllByIdIn(List.of(itemId))).thenReturn(1);
 
         // Act
         assertDoesNotThrow(() -> todoItemService.deleteTodoItem(itemId));
 
-        // Assert
-        verify(todoItemRepository, times(1)).existsById(itemId);
-        verify(todoItemRepository, times(1)).deleteById(itemId);
+        // Assert: no existence check, no entity load
+        verify(todoItemRepository, times(1)).deleteAllByIdIn(List.of(itemId));
+        verify(eventPublisher, times(1)).publishEvent(new TodoItemChange.Deleted(List.of(itemId)));
+        verify(entityManager, times(1)).persist(any(TodoItemTombstone.class));
+        verify(todoItemRepository, never()).existsById(anyLong());
+        verify(todoItemRepository, never()).deleteById(anyLong());
     }
 
     @Test
@@ -239,17 +631,156 @@ class TodoItemServiceImplTest {
     void deleteTodoItem_shouldThrowResourceNotFoundException_whenItemDoesNotExist() {
         // Arrange
         Long nonExistentId = 99L;
-        // Mock that the item does not exist
-        when(todoItemRepository.existsById(nonExistentId)).thenReturn(false);
+        // Mock that no row was deleted
+        when(todoItemRepository.deleteAllByIdIn(List.of(nonExistentId))).thenReturn(0);
 
         // Act & Assert
         ResourceNotFoundException thrown = assertThrows(ResourceNotFoundException.class, () -> {
             todoItemService.deleteTodoItem(nonExistentId);
         });
         assertEquals("TodoItem not found with id: " + nonExistentId, thrown.getMessage());
-        // Verify existsById was called, but deleteById was not
-        verify(todoItemRepository, times(1)).existsById(nonExistentId);
-        verify(todoItemRepository, never()).deleteById(anyLong());
+        verify(todoItemRepository, times(1)).deleteAllByIdIn(List.of(nonExistentId));
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    @DisplayName("deleteTodoItems should lock and delete the existing ones of distinct ids in chunks, with a tombstone each")
+    void deleteTodoItems_shouldDeleteInChunks() {
+        // Arrange: 1500 distinct ids plus a duplicate -> chunks of 1000 and 500, of which 400 exist
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1500; id++) {
+            ids.add(id);
+        }
+        ids.add(1L);
+        when(todoItemRepository.lockIdsByIdIn(anyList())).thenAnswer(invocation -> {
+            List<Long> chunk = invocation.getArgument(0);
+            return chunk.size() == 1000 ? chunk : chunk.subList(0, 400);
+        });
+        when(todoItemRepository.deleteAllByIdIn(anyList())).thenReturn(1000, 400);
+
+        // Act
+        int deleted = todoItemService.deleteTodoItems(ids);
+
+        // Assert
+        assertEquals(1400, deleted);
+        verify(todoItemRepository, times(2)).lockIdsByIdIn(anyList());
+        verify(todoItemRepository, times(2)).deleteAllByIdIn(anyList());
+        verify(entityManager, times(1400)).persist(any(TodoItemTombstone.class));
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1400, ((TodoItemChange.Deleted) event.getValue()).ids().size());
+    }
+
+    @Test
+    @DisplayName("deleteTodoItems should reject an empty id list")
+    void deleteTodoItems_shouldRejectEmptyIds() {
+        assertThrows(IllegalArgumentException.class, () -> todoItemService.deleteTodoItems(List.of()));
+        verify(todoItemRepository, never()).lockIdsByIdIn(anyList());
+        verify(todoItemRepository, never()).deleteAllByIdIn(anyList());
+    }
+
+    @Test
+    @DisplayName("deleteTodoItemsByTitle should use an escaped, lower-cased contains pattern and delete the matches by ID")
+    void deleteTodoItemsByTitle_shouldEscapeWildcards() {
+        // Arrange
+        when(todoItemRepository.findIdsByTitleLike("%100!% done!_now%")).thenReturn(List.of(3L, 8L));
+        when(todoItemRepository.lockIdsByIdIn(List.of(3L, 8L))).thenReturn(List.of(3L, 8L));
+        when(todoItemRepository.deleteAllByIdIn(List.of(3L, 8L))).thenReturn(2);
+
+        // Act
+        int deleted = todoItemService.deleteTodoItemsByTitle("100% Done_now");
+
+        // Assert
+        assertEquals(2, deleted);
+        verify(todoItemRepository, times(1)).findIdsByTitleLike("%100!% done!_now%");
+        verify(eventPublisher).publishEvent(new TodoItemChange.Deleted(List.of(3L, 8L)));
+    }
+
+    @Test
+    @DisplayName("deleteTodoItemsByTitle should reject a blank title")
+    void deleteTodoItemsByTitle_shouldRejectBlankTitle() {
+        assertThrows(IllegalArgumentException.class, () -> todoItemService.deleteTodoItemsByTitle("  "));
+        verify(todoItemRepository, never()).findIdsByTitleLike(anyString());
+    }
+
+    @Test
+    @DisplayName("updateTodoItemDescriptions should update with a single statement and return the count")
+    void updateTodoItemDescriptions_shouldUpdateWithSingleStatement() {
+        // Arrange
+        when(todoItemRepository.updateDescriptionByIdIn(eq(List.of(1L, 2L)), eq("Done"), any(Instant.class))).thenReturn(2);
+
+        // Act
+        int updated = todoItemService.updateTodoItemDescriptions(List.of(1L, 2L), "Done");
+
+        // Assert
+        assertEquals(2, updated);
+        verify(todoItemRepository, times(1)).updateDescriptionByIdIn(eq(List.of(1L, 2L)), eq("Done"), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("searchTodoItems should load the ranked page in index order and skip deleted items")
+    void searchTodoItems_shouldReturnRankedPage() {
+        // Arrange: the index ranks 2 before 1; 7 has been deleted in the meantime
+        when(todoSearchIndex.search("trip groceries", 0, 20)).thenReturn(new TodoSearchIndex.SearchHits(3, List.of(
+                new TodoSearchIndex.Hit(2L, 3.5), new TodoSearchIndex.Hit(7L, 2.0), new TodoSearchIndex.Hit(1L, 1.25))));
+        when(todoItemRepository.findAllByIdIn(List.of(2L, 7L, 1L))).thenReturn(Arrays.asList(todo1, todo2));
+
+        // Act
+        SearchResultPage<RankedTodoItem> result = todoItemService.searchTodoItems("trip groceries", null, null);
+
+        // Assert
+        assertEquals(3, result.total());
+        assertEquals(2, result.items().size());
+        assertEquals(todo2, result.items().get(0).item());
+        assertEquals(3.5, result.items().get(0).score());
+        assertEquals(todo1, result.items().get(1).item());
+    }
+
+    @Test
+    @DisplayName("searchTodoItems should return an empty page for a blank query without touching the index")
+    void searchTodoItems_shouldReturnEmptyPage_whenQueryIsBlank() {
+        SearchResultPage<RankedTodoItem> result = todoItemService.searchTodoItems("  ", 2, 5);
+
+        assertTrue(result.items().isEmpty());
+        assertEquals(2, result.page());
+        verify(todoSearchIndex, never()).search(anyString(), anyInt(), anyInt());
+        assertThrows(IllegalArgumentException.class, () -> todoItemService.searchTodoItems("x", -1, null));
+    }
+
+    @Test
+    @DisplayName("searchTodoItemSummaries should rank summaries in index order")
+    void searchTodoItemSummaries_shouldReturnRankedSummaries() {
+        // Arrange
+        TodoItemSummary first = new TodoItemSummary(1L, "Buy groceries", 0L);
+        TodoItemSummary second = new TodoItemSummary(2L, "Plan vacation", 0L);
+        when(todoSearchIndex.search("trip", 0, 20)).thenReturn(new TodoSearchIndex.SearchHits(2, List.of(
+                new TodoSearchIndex.Hit(2L, 3.5), new TodoSearchIndex.Hit(1L, 1.25))));
+        when(todoItemRepository.findSummariesByIdIn(List.of(2L, 1L))).thenReturn(List.of(first, second));
+
+        // Act
+        SearchResultPage<RankedTodoItemSummary> result = todoItemService.searchTodoItemSummaries("trip", null, null);
+
+        // Assert
+        assertEquals(List.of(new RankedTodoItemSummary(second, 3.5), new RankedTodoItemSummary(first, 1.25)),
+                result.items());
+        verify(todoItemRepository, never()).findAllByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("searchTodoItemSummariesByTitle should query summaries with an escaped, lower-case pattern")
+    void searchTodoItemSummariesByTitle_shouldUseEscapedPattern() {
+        // Arrange
+        todoProperties.getSearch().setTrigramEnabled(false);
+        TodoItemSummary summary = new TodoItemSummary(3L, "100% Done_ok", 0L);
+        when(todoItemRepository.findSummariesByTitleLike("%100!% done!_ok%")).thenReturn(List.of(summary));
+
+        // Act
+        List<TodoItemSummary> result = todoItemService.searchTodoItemSummariesByTitle("100% Done_ok", 0);
+
+        // Assert
+        assertEquals(List.of(summary), result);
+        verify(todoItemRepository, never()).findByTitleLike(anyString());
     }
 
     @Test
@@ -257,7 +788,7 @@ class TodoItemServiceImplTest {
     void searchTodoItemsByTitle_shouldReturnMatchingItems() {
         // Arrange
         String query = "buy";
-        when(todoItemRepository.findByTitleContainingIgnoreCase(query))
+        when(todoItemRepository.findByTitleLike("%buy%"))
                 .thenReturn(Collections.singletonList(todo1));
 
         // Act
@@ -267,7 +798,7 @@ class TodoItemServiceImplTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(todo1, result.get(0));
-        verify(todoItemRepository, times(1)).findByTitleContainingIgnoreCase(query);
+        verify(todoItemRepository, times(1)).findByTitleLike("%buy%");
     }
 
     @Test
@@ -280,7 +811,7 @@ class TodoItemServiceImplTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
         // Verify that the repository method was NOT called
-        verify(todoItemRepository, never()).findByTitleContainingIgnoreCase(anyString());
+        verify(todoItemRepository, never()).findByTitleLike(anyString());
     }
 
     @Test
@@ -292,7 +823,77 @@ class TodoItemServiceImplTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(todoItemRepository, never()).findByTitleContainingIgnoreCase(anyString());
+        verify(todoItemRepository, never()).findByTitleLike(anyString());
+    }
+
+    @Test
+    @DisplayName("searchTodoItemsByTitle should load the trigram index matches by ID once the index is ready")
+    void searchTodoItemsByTitle_shouldUseTrigramIndex_whenReady() {
+        // Arrange
+        when(titleTrigramIndex.isReady()).thenReturn(true);
+        when(titleTrigramIndex.findContaining("an")).thenReturn(List.of(1L, 2L, 5L));
+        when(todoItemRepository.findAllByIdIn(List.of(1L, 2L, 5L))).thenReturn(List.of(todo2, todo1));
+
+        // Act
+        List<TodoItem> result = todoItemService.searchTodoItemsByTitle("an");
+
+        // Assert
+        assertEquals(List.of(todo1, todo2), result);
+        verify(todoItemRepository, never()).findByTitleLike(anyString());
+    }
+
+    @Test
+    @DisplayName("searchTodoItemsByTitle should use the repository query when the trigram index is switched off")
+    void searchTodoItemsByTitle_shouldUseRepository_whenTrigramIndexDisabled() {
+        // Arrange
+        todoProperties.getSearch().setTrigramEnabled(false);
+        when(todoItemRepository.findByTitleLike("%buy%")).thenReturn(List.of(todo1));
+
+        // Act
+        List<TodoItem> result = todoItemService.searchTodoItemsByTitle("buy");
+
+        // Assert
+        assertEquals(List.of(todo1), result);
+        verifyNoInteractions(titleTrigramIndex);
+    }
+
+    @Test
+    @DisplayName("searchTodoItemsByTitle with fuzziness should return the closest matches first")
+    void searchTodoItemsByTitle_withFuzziness_shouldReturnClosestFirst() {
+        // Arrange
+        when(titleTrigramIndex.isReady()).thenReturn(true);
+        when(titleTrigramIndex.findSimilar("vacaton", 1)).thenReturn(List.of(
+                new TitleTrigramIndex.Match(2L, 0), new TitleTrigramIndex.Match(1L, 1)));
+        when(todoItemRepository.findAllByIdIn(List.of(2L, 1L))).thenReturn(List.of(todo1, todo2));
+
+        // Act
+        List<TodoItem> result = todoItemService.searchTodoItemsByTitle("vacaton", 1);
+
+        // Assert
+        assertEquals(List.of(todo2, todo1), result);
+    }
+
+    @Test
+    @DisplayName("searchTodoItemsByTitle with fuzziness should fall back to exact matches while the index is not ready")
+    void searchTodoItemsByTitle_withFuzziness_shouldFallBackToExact_whenIndexNotReady() {
+        // Arrange
+        when(todoItemRepository.findByTitleLike("%buy%")).thenReturn(List.of(todo1));
+
+        // Act
+        List<TodoItem> result = todoItemService.searchTodoItemsByTitle("buy", 2);
+
+        // Assert
+        assertEquals(List.of(todo1), result);
+        verify(titleTrigramIndex, never()).findSimilar(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("searchTodoItemsByTitle should reject a fuzziness outside the configured range")
+    void searchTodoItemsByTitle_shouldThrow_whenFuzzinessOutOfRange() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> todoItemService.searchTodoItemsByTitle("buy", 3));
+        assertThrows(IllegalArgumentException.class, () -> todoItemService.searchTodoItemsByTitle("buy", -1));
+        verifyNoInteractions(todoItemRepository);
     }
 
     @Test
@@ -300,7 +901,7 @@ class TodoItemServiceImplTest {
     void searchTodoItemsByDescription_shouldReturnMatchingItems() {
         // Arrange
         String query = "flights";
-        when(todoItemRepository.findByDescriptionContainingIgnoreCase(query))
+        when(todoItemRepository.findByDescriptionLike("%flights%"))
                 .thenReturn(Collections.singletonList(todo2));
 
         // Act
@@ -310,7 +911,7 @@ class TodoItemServiceImplTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(todo2, result.get(0));
-        verify(todoItemRepository, times(1)).findByDescriptionContainingIgnoreCase(query);
+        verify(todoItemRepository, times(1)).findByDescriptionLike("%flights%");
     }
 
     @Test
@@ -322,7 +923,7 @@ class TodoItemServiceImplTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(todoItemRepository, never()).findByDescriptionContainingIgnoreCase(anyString());
+        verify(todoItemRepository, never()).findByDescriptionLike(anyString());
     }
 
     @Test
@@ -334,6 +935,6 @@ class TodoItemServiceImplTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(todoItemRepository, never()).findByDescriptionContainingIgnoreCase(anyString());
+        verify(todoItemRepository, never()).findByDescriptionLike(anyString());
     }
 }
\ No newline at end of file
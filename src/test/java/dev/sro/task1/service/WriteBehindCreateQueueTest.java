@@ -0,0 +1,169 @@
+package dev.sro.task1.service;
+
+import dev.sro.task1.config.TodoProperties;
+import dev.sro.task1.dto.BatchCreateResult;
+import dev.sro.task1.dto.CreateRequestStatus;
+import dev.sro.task1.entity.TodoItem;
+import dev.sro.task1.exception.CreateQueueFullException;
+import dev.sro.task1.service.impl.WriteBehindCreateQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("WriteBehindCreateQueue Unit Tests")
+class WriteBehindCreateQueueTest {
+
+    private TodoItemService todoItemService;
+    private TodoProperties todoProperties;
+    private WriteBehindCreateQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        todoItemService = mock(TodoItemService.class);
+        // Every item of a batch is created, with IDs 100, 101, ...
+        when(todoItemService.createTodoItems(anyList())).thenAnswer(invocation -> createdAll(invocation.getArgument(0)));
+        todoProperties = new TodoProperties();
+        todoProperties.getWriteBehind().setEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("enqueue should return a tracking id whose status turns CREATED once the batch is stored")
+    void enqueue_shouldReportCreatedItem() {
+        queue = startQueue();
+
+        CreateRequestStatus queued = queue.enqueue(new TodoItem("Buy groceries", null));
+
+        assertEquals(CreateRequestStatus.State.QUEUED, queued.state());
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                assertEquals(CreateRequestStatus.created(queued.trackingId(), 100L), queue.getStatus(queued.trackingId()).orElseThrow()));
+        assertTrue(queue.getStatus("unknown").isEmpty());
+    }
+
+    @Test
+    @DisplayName("The flusher should store items arriving within max-delay in one batch")
+    void flusher_shouldCoalesceItemsIntoOneBatch() {
+        todoProperties.getWriteBehind().setMaxBatchSize(3);
+        todoProperties.getWriteBehind().setMaxDelay(Duration.ofSeconds(5));
+        queue = startQueue();
+
+        List<String> trackingIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            trackingIds.add(queue.enqueue(new TodoItem("Item " + i, null)).trackingId());
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> verify(todoItemService).createTodoItems(anyList()));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TodoItem>> batch = ArgumentCaptor.forClass(List.class);
+        verify(todoItemService).createTodoItems(batch.capture());
+        assertEquals(List.of("Item 0", "Item 1", "Item 2"), batch.getValue().stream().map(TodoItem::getTitle).toList());
+        assertEquals(102L, queue.getStatus(trackingIds.get(2)).orElseThrow().id());
+    }
+
+    @Test
+    @DisplayName("enqueue should fail with CreateQueueFullException once the queue is full")
+    void enqueue_shouldRefuseItemsWhenQueueIsFull() throws Exception {
+        todoProperties.getWriteBehind().setCapacity(1);
+        todoProperties.getWriteBehind().setMaxBatchSize(1);
+        CountDownLatch storing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(todoItemService.createTodoItems(anyList())).thenAnswer(invocation -> {
+            storing.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return createdAll(invocation.getArgument(0));
+        });
+        queue = startQueue();
+
+        String first = queue.enqueue(new TodoItem("First", null)).trackingId();
+        assertTrue(storing.await(5, TimeUnit.SECONDS)); // The flusher holds the first item
+        String second = queue.enqueue(new TodoItem("Second", null)).trackingId();
+        assertThrows(CreateQueueFullException.class, () -> queue.enqueue(new TodoItem("Third", null)));
+
+        release.countDown();
+        queue.stop();
+        assertEquals(CreateRequestStatus.State.CREATED, queue.getStatus(first).orElseThrow().state());
+        assertEquals(CreateRequestStatus.State.CREATED, queue.getStatus(second).orElseThrow().state());
+    }
+
+    @Test
+    @DisplayName("stop should store the queued items and then refuse new ones")
+    void stop_shouldDrainQueue() {
+        todoProperties.getWriteBehind().setMaxDelay(Duration.ofSeconds(30));
+        queue = startQueue();
+        String first = queue.enqueue(new TodoItem("First", null)).trackingId();
+        String second = queue.enqueue(new TodoItem("Second", null)).trackingId();
+
+        queue.stop();
+
+        assertFalse(queue.isRunning());
+        assertEquals(CreateRequestStatus.State.CREATED, queue.getStatus(first).orElseThrow().state());
+        assertEquals(CreateRequestStatus.State.CREATED, queue.getStatus(second).orElseThrow().state());
+        assertThrows(CreateQueueFullException.class, () -> queue.enqueue(new TodoItem("Late", null)));
+    }
+
+    @Test
+    @DisplayName("Items should be reported FAILED when their batch cannot be stored")
+    void flusher_shouldReportFailedBatch() {
+        when(todoItemService.createTodoItems(anyList())).thenThrow(new IllegalStateException("Database unavailable"));
+        queue = startQueue();
+
+        String trackingId = queue.enqueue(new TodoItem("Doomed", null)).trackingId();
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                assertEquals(CreateRequestStatus.State.FAILED, queue.getStatus(trackingId).orElseThrow().state()));
+        assertTrue(queue.getStatus(trackingId).orElseThrow().message().contains("Database unavailable"));
+    }
+
+    @Test
+    @DisplayName("enqueue should reject an invalid item without queuing it")
+    void enqueue_shouldRejectInvalidItem() {
+        queue = startQueue();
+
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(new TodoItem(" ", null)));
+        verify(todoItemService, after(200).never()).createTodoItems(anyList());
+    }
+
+    @Test
+    @DisplayName("A disabled queue should not start and should refuse every item")
+    void disabledQueue_shouldRefuseItems() {
+        todoProperties.getWriteBehind().setEnabled(false);
+        queue = startQueue();
+
+        assertFalse(queue.isRunning());
+        assertThrows(CreateQueueFullException.class, () -> queue.enqueue(new TodoItem("Ignored", null)));
+    }
+
+    private WriteBehindCreateQueue startQueue() {
+        WriteBehindCreateQueue started = new WriteBehindCreateQueue(todoItemService, todoProperties, new SimpleMeterRegistry());
+        started.start();
+        return started;
+    }
+
+    private static BatchCreateResult createdAll(List<TodoItem> todoItems) {
+        List<BatchCreateResult.Created> created = new ArrayList<>();
+        for (int i = 0; i < todoItems.size(); i++) {
+            created.add(new BatchCreateResult.Created(i, 100L + i));
+        }
+        return new BatchCreateResult(created, List.of());
+    }
+}
@@ -0,0 +1,42 @@
+package dev.sro.task1.sharding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShardIds Unit Tests")
+class ShardIdsTest {
+
+    @Test
+    @DisplayName("IDs of shard 0 should be the plain sequence values")
+    void encode_shardZero_shouldKeepSequenceValue() {
+        assertEquals(42L, ShardIds.encode(0, 42));
+        assertEquals(0, ShardIds.shardOf(42));
+    }
+
+    @Test
+    @DisplayName("The shard should be recoverable from the ID, and IDs should stay exact in JSON")
+    void encode_shouldRoundTripShard() {
+        long id = ShardIds.encode(ShardIds.MAX_SHARDS - 1, ShardIds.MAX_LOCAL_ID);
+
+        assertEquals(ShardIds.MAX_SHARDS - 1, ShardIds.shardOf(id));
+        assertTrue(id < 1L << 53);
+        assertTrue(ShardIds.encode(1, 1) > ShardIds.encode(0, ShardIds.MAX_LOCAL_ID));
+    }
+
+    @Test
+    @DisplayName("Sequence values outside the local range should be rejected")
+    void encode_outOfRange_shouldThrow() {
+        assertThrows(IllegalStateException.class, () -> ShardIds.encode(1, 0));
+        assertThrows(IllegalStateException.class, () -> ShardIds.encode(1, ShardIds.MAX_LOCAL_ID + 1));
+    }
+
+    @Test
+    @DisplayName("IDs no shard can hold should have no shard")
+    void shardOf_invalidId_shouldReturnMinusOne() {
+        assertEquals(-1, ShardIds.shardOf(0));
+        assertEquals(-1, ShardIds.shardOf(-5));
+        assertEquals(-1, ShardIds.shardOf((long) ShardIds.MAX_SHARDS << 48));
+    }
+}
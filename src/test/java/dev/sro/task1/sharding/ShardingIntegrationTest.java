@@ -0,0 +1,166 @@
+package dev.sro.task1.sharding;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import dev.sro.task1.entity.TodoItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sharding over three embedded H2 databases: shard 0 is the primary data source, shards 1 and 2 are
+ * created from the shard schema.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard-0;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "todo.grpc.enabled=false",
+        "todo.change-feed.enabled=false",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=false",
+        "todo.sharding.shards[0].url=" + ShardingIntegrationTest.SHARD_1_URL,
+        "todo.sharding.shards[0].username=sa",
+        "todo.sharding.shards[1].url=" + ShardingIntegrationTest.SHARD_2_URL,
+        "todo.sharding.shards[1].username=sa"
+})
+@AutoConfigureMockMvc
+@DisplayName("Sharding Integration Tests")
+class ShardingIntegrationTest {
+
+    static final String SHARD_1_URL =
+            "jdbc:h2:mem:shard-1;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema-shard-h2.sql'";
+    static final String SHARD_2_URL =
+            "jdbc:h2:mem:shard-2;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema-shard-h2.sql'";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private HikariDataSource shardZeroDataSource;
+
+    private List<JdbcTemplate> shards;
+
+    @BeforeEach
+    void setUp() {
+        shards = List.of(new JdbcTemplate(shardZeroDataSource),
+                new JdbcTemplate(new DriverManagerDataSource(SHARD_1_URL, "sa", "")),
+                new JdbcTemplate(new DriverManagerDataSource(SHARD_2_URL, "sa", "")));
+        shards.forEach(shard -> shard.update("DELETE FROM todo_items"));
+    }
+
+    @Test
+    @DisplayName("Created items should be spread over the shards and stored only on the shard in their ID")
+    void create_shouldSpreadItemsOverShards() throws Exception {
+        List<Long> ids = create(6, "Spread");
+
+        Set<Integer> usedShards = new HashSet<>();
+        for (long id : ids) {
+            int shard = ShardIds.shardOf(id);
+            usedShards.add(shard);
+            for (int other = 0; other < shards.size(); other++) {
+                assertEquals(other == shard ? 1 : 0, count(shards.get(other), id));
+            }
+        }
+        assertEquals(Set.of(0, 1, 2), usedShards);
+    }
+
+    @Test
+    @DisplayName("Lookups, updates and deletes by ID should reach the item's shard")
+    void pointOperations_shouldRouteToShard() throws Exception {
+        long id = create(3, "Routed").stream().filter(created -> ShardIds.shardOf(created) == 2).findFirst().orElseThrow();
+
+        mockMvc.perform(get("/api/todos/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id));
+        mockMvc.perform(delete("/api/todos/{id}", id))
+                .andExpect(status().isNoContent());
+
+        assertEquals(0, count(shards.get(2), id));
+        mockMvc.perform(get("/api/todos/{id}", id))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/todos/{id}", ShardIds.encode(7, 1)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Pages should walk all shards in ID order")
+    void getTodoItemPage_shouldWalkShardsInIdOrder() throws Exception {
+        List<Long> ids = create(7, "Paged");
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = getJson(cursor == null ? "/api/todos?size=2" : "/api/todos?size=2&cursor=" + cursor);
+            page.get("items").forEach(item -> seen.add(item.get("id").asLong()));
+            cursor = page.get("next").isNull() ? null : page.get("next").asText();
+        } while (cursor != null);
+
+        assertEquals(ids.stream().sorted().toList(), seen);
+    }
+
+    @Test
+    @DisplayName("Searches should gather the matches of every shard")
+    void searches_shouldGatherAllShards() throws Exception {
+        create(6, "Gathered");
+
+        mockMvc.perform(get("/api/todos/search/title?query=gathered"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(6)));
+        mockMvc.perform(get("/api/todos/search/description?query=about gathered"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(6)));
+        mockMvc.perform(get("/api/todos/search?query=gathered&size=10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(6)));
+    }
+
+    private List<Long> create(int count, String title) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String response = mockMvc.perform(post("/api/todos")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new TodoItem(title + " " + i, "About " + title))))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            ids.add(objectMapper.readValue(response, TodoItem.class).getId());
+        }
+        return ids;
+    }
+
+    private JsonNode getJson(String uri) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private static long count(JdbcTemplate jdbcTemplate, long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todo_items WHERE id = ?", Long.class, id);
+    }
+}
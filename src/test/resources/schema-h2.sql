@@ -0,0 +1,43 @@
+-- Schema of the H2 stand-ins in tests (reactive profile, read replicas), as created by Hibernate on MySQL
+CREATE TABLE IF NOT EXISTS todo_items (
+    id BIGINT NOT NULL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    version BIGINT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_todo_items_updated_at_id ON todo_items (updated_at, id);
+
+CREATE TABLE IF NOT EXISTS todo_item_tombstones (
+    id BIGINT NOT NULL PRIMARY KEY,
+    deleted_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_todo_item_tombstones_deleted_at_id ON todo_item_tombstones (deleted_at, id);
+
+CREATE TABLE IF NOT EXISTS todo_items_seq (
+    next_val BIGINT
+);
+
+INSERT INTO todo_items_seq (next_val) SELECT 1 WHERE NOT EXISTS (SELECT 1 FROM todo_items_seq);
+
+CREATE TABLE IF NOT EXISTS todo_change_log (
+    seq BIGINT NOT NULL PRIMARY KEY,
+    item_id BIGINT NOT NULL,
+    operation VARCHAR(6) NOT NULL,
+    version BIGINT,
+    changed_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_todo_change_log_item_seq ON todo_change_log (item_id, seq);
+CREATE INDEX IF NOT EXISTS idx_todo_change_log_changed_at ON todo_change_log (changed_at);
+
+CREATE TABLE IF NOT EXISTS todo_change_log_seq (
+    id INT NOT NULL PRIMARY KEY,
+    next_seq BIGINT NOT NULL,
+    purged_through BIGINT NOT NULL
+);
+
+INSERT INTO todo_change_log_seq (id, next_seq, purged_through) SELECT 1, 1, 0 WHERE NOT EXISTS (SELECT 1 FROM todo_change_log_seq);
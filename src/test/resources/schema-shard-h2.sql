@@ -0,0 +1,20 @@
+-- Schema of the additional shards in tests, as Hibernate creates it for TodoItem with the H2 dialect
+CREATE TABLE IF NOT EXISTS todo_items (
+    id BIGINT NOT NULL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    version BIGINT NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_todo_items_updated_at_id ON todo_items (updated_at, id);
+
+CREATE TABLE IF NOT EXISTS todo_item_tombstones (
+    id BIGINT NOT NULL PRIMARY KEY,
+    deleted_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_todo_item_tombstones_deleted_at_id ON todo_item_tombstones (deleted_at, id);
+
+CREATE SEQUENCE IF NOT EXISTS todo_items_seq START WITH 1 INCREMENT BY 50;